@@ -0,0 +1,37 @@
+package com.orderfulfillment.command.actuator;
+
+import com.orderfulfillment.command.dispatch.ConflictRetryPolicy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint listing the aggregates that most often lose optimistic concurrency races.
+ *
+ * <p>Exposed at {@code /actuator/conflicts}, with an optional {@code limit} query parameter.
+ */
+@Component
+@Endpoint(id = "conflicts")
+public class ConflictsEndpoint {
+  private static final int DEFAULT_LIMIT = 20;
+
+  private final List<ConflictRetryPolicy> policies;
+
+  public ConflictsEndpoint(List<ConflictRetryPolicy> policies) {
+    this.policies = policies;
+  }
+
+  @ReadOperation
+  public Map<String, Map<String, Long>> conflicts(@Nullable Integer limit) {
+    int max = limit == null ? DEFAULT_LIMIT : limit;
+    Map<String, Map<String, Long>> conflicts = new LinkedHashMap<>();
+    for (ConflictRetryPolicy policy : policies) {
+      conflicts.put(policy.getAggregateType(), policy.topConflicts(max));
+    }
+    return conflicts;
+  }
+}
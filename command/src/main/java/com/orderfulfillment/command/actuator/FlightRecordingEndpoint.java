@@ -0,0 +1,157 @@
+package com.orderfulfillment.command.actuator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint taking on-demand Java Flight Recorder recordings of the running service.
+ *
+ * <p>Exposed at {@code /actuator/flightrecording}: {@code POST} starts a recording with the {@code
+ * default} or {@code profile} JFR settings, {@code GET} reports its state and {@code DELETE} stops
+ * it and streams the recording file back. A recording stops by itself after {@code
+ * maxDurationSeconds}, ten minutes unless given, so a forgotten one does not fill the disk. Only
+ * one recording runs at a time; its file is kept until the next one starts.
+ *
+ * <p>Recordings expose the IDs of the orders and products being handled, so the endpoint is not in
+ * the default web exposure and should only be exposed on a management port that is not reachable
+ * from outside.
+ *
+ * <p>Recordings include the {@code com.orderfulfillment.*} events emitted for command execution,
+ * aggregate hydration, repository saves and outbox publication.
+ */
+@Slf4j
+@Component
+@WebEndpoint(id = "flightrecording")
+public class FlightRecordingEndpoint implements AutoCloseable {
+  private static final int STATUS_CONFLICT = 409;
+  private static final String DEFAULT_SETTINGS = "profile";
+  private static final Duration DEFAULT_MAX_DURATION = Duration.ofMinutes(10);
+
+  private Recording recording;
+  private Path file;
+  private String settings;
+
+  /**
+   * The state of the on-demand recording.
+   *
+   * @param state {@code NONE} if no recording was taken, otherwise {@code RUNNING} or {@code
+   *     STOPPED}
+   * @param settings the name of the JFR settings used
+   * @param startedAt when the recording started
+   * @param maxDuration after how long the recording stops by itself
+   * @param size the size of the recording file in bytes, once it is stopped
+   */
+  public record RecordingStatus(
+      String state, String settings, Instant startedAt, Duration maxDuration, Long size) {}
+
+  @ReadOperation
+  public synchronized RecordingStatus status() {
+    if (recording == null) {
+      return new RecordingStatus("NONE", null, null, null, null);
+    }
+    boolean running = recording.getState() == RecordingState.RUNNING;
+    return new RecordingStatus(
+        running ? "RUNNING" : "STOPPED",
+        settings,
+        recording.getStartTime(),
+        recording.getDuration(),
+        running ? null : fileSize());
+  }
+
+  @WriteOperation
+  public synchronized WebEndpointResponse<RecordingStatus> start(
+      @Nullable String settings, @Nullable Integer maxDurationSeconds) {
+    if (recording != null && recording.getState() == RecordingState.RUNNING) {
+      return new WebEndpointResponse<>(status(), STATUS_CONFLICT);
+    }
+
+    if (maxDurationSeconds != null && maxDurationSeconds <= 0) {
+      return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+    }
+
+    String name = settings == null ? DEFAULT_SETTINGS : settings;
+    Configuration configuration;
+    try {
+      configuration = Configuration.getConfiguration(name);
+    } catch (IOException | ParseException e) {
+      return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+    }
+
+    discard();
+    try {
+      file = Files.createTempFile("order-command-service-", ".jfr");
+      recording = new Recording(configuration);
+      recording.setName("on-demand");
+      recording.setToDisk(true);
+      recording.setDestination(file);
+      recording.setDuration(
+          maxDurationSeconds == null
+              ? DEFAULT_MAX_DURATION
+              : Duration.ofSeconds(maxDurationSeconds));
+      recording.start();
+    } catch (IOException e) {
+      discard();
+      throw new IllegalStateException("Failed to start flight recording", e);
+    }
+    this.settings = name;
+    log.info("Flight recording started with {} settings into {}", name, file);
+    return new WebEndpointResponse<>(status());
+  }
+
+  @DeleteOperation(produces = "application/octet-stream")
+  public synchronized WebEndpointResponse<Resource> stop() {
+    if (recording == null) {
+      return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+    if (recording.getState() == RecordingState.RUNNING) {
+      recording.stop();
+      log.info("Flight recording stopped into {}", file);
+    }
+    return new WebEndpointResponse<>(new FileSystemResource(file));
+  }
+
+  @Override
+  public synchronized void close() {
+    discard();
+  }
+
+  private Long fileSize() {
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private void discard() {
+    if (recording != null) {
+      recording.close();
+      recording = null;
+    }
+    if (file != null) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        log.warn("Failed to delete flight recording {}", file, e);
+      }
+      file = null;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.orderfulfillment.command.api;
+
+import com.orderfulfillment.command.api.dtos.InventoryAllocationDto;
+import com.orderfulfillment.command.api.dtos.InventoryUpdateDto;
+import com.orderfulfillment.command.api.dtos.ResponseDto;
+import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.ReturnInventoryCommand;
+import com.orderfulfillment.command.commands.UpdateInventoryCommand;
+import com.orderfulfillment.command.handlers.AsyncInventoryCommandHandler;
+import com.orderfulfillment.command.utils.Constants;
+import jakarta.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Inventory endpoints of the {@code async-api} profile, which replace {@link InventoryApi} on the
+ * same paths and release the request thread while the command runs on its lane.
+ */
+@Slf4j
+@RestController
+@Profile(Constants.ASYNC_API_PROFILE)
+@RequestMapping(value = "/api/v1/inventory")
+public class AsyncInventoryApi {
+  private final AsyncInventoryCommandHandler inventoryCommandHandler;
+
+  public AsyncInventoryApi(AsyncInventoryCommandHandler inventoryCommandHandler) {
+    this.inventoryCommandHandler = inventoryCommandHandler;
+  }
+
+  /**
+   * Updates the inventory quantity for a product.
+   *
+   * @param productId the unique identifier of the product
+   * @param updateDto the DTO containing the new quantity
+   * @return a future of the response, completed once the update is stored
+   */
+  @PutMapping("/{productId}")
+  public CompletableFuture<ResponseEntity<ResponseDto>> updateInventory(
+      @PathVariable String productId, @Valid @RequestBody InventoryUpdateDto updateDto) {
+    UpdateInventoryCommand command =
+        UpdateInventoryCommand.builder()
+            .productId(productId)
+            .quantity(updateDto.quantity())
+            .build();
+
+    log.info("Updating inventory for product {}", productId);
+    return inventoryCommandHandler.submit(command).thenApply(done -> success());
+  }
+
+  /**
+   * Allocates inventory from a product to an order.
+   *
+   * @param productId the unique identifier of the product
+   * @param allocationDto the DTO containing order ID and quantity
+   * @return a future of the response, completed once the allocation is stored
+   */
+  @PostMapping("/{productId}/allocate")
+  public CompletableFuture<ResponseEntity<ResponseDto>> allocateInventory(
+      @PathVariable String productId, @Valid @RequestBody InventoryAllocationDto allocationDto) {
+    AllocateInventoryCommand command =
+        AllocateInventoryCommand.builder()
+            .productId(productId)
+            .orderId(allocationDto.orderId())
+            .quantity(allocationDto.quantity())
+            .build();
+
+    log.info("Allocating inventory for product {} to order {}", productId, allocationDto.orderId());
+    return inventoryCommandHandler.submit(command).thenApply(done -> success());
+  }
+
+  /**
+   * Returns previously allocated inventory back to available stock.
+   *
+   * @param productId the unique identifier of the product
+   * @param allocationDto the DTO containing order ID and quantity
+   * @return a future of the response, completed once the return is stored
+   */
+  @PostMapping("/{productId}/return")
+  public CompletableFuture<ResponseEntity<ResponseDto>> returnInventory(
+      @PathVariable String productId, @Valid @RequestBody InventoryAllocationDto allocationDto) {
+    ReturnInventoryCommand command =
+        ReturnInventoryCommand.builder()
+            .productId(productId)
+            .orderId(allocationDto.orderId())
+            .quantity(allocationDto.quantity())
+            .build();
+
+    log.info(
+        "Returning inventory for product {} from order {}", productId, allocationDto.orderId());
+    return inventoryCommandHandler.submit(command).thenApply(done -> success());
+  }
+
+  private static ResponseEntity<ResponseDto> success() {
+    return ResponseEntity.ok().body(ResponseDto.builder().success(true).build());
+  }
+}
@@ -0,0 +1,97 @@
+package com.orderfulfillment.command.api;
+
+import com.orderfulfillment.command.api.dtos.OrderCreateDto;
+import com.orderfulfillment.command.api.dtos.OrderStatusUpdateDto;
+import com.orderfulfillment.command.api.dtos.ResponseDto;
+import com.orderfulfillment.command.commands.CancelOrderCommand;
+import com.orderfulfillment.command.commands.UpdateOrderStatusCommand;
+import com.orderfulfillment.command.handlers.AsyncOrderCommandHandler;
+import com.orderfulfillment.command.utils.Constants;
+import jakarta.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Order endpoints of the {@code async-api} profile, which replace {@link OrdersApi} on the same
+ * paths.
+ *
+ * <p>Each request is handed to the command lanes and the request thread is released right away;
+ * Spring MVC writes the response from the lane thread once the returned future completes. Failures
+ * reach the {@link com.orderfulfillment.command.exceptions.GlobalExceptionHandler} as they do for
+ * the blocking endpoints.
+ *
+ * <p>No thread waits for another along the way: creating or cancelling an order hands its inventory
+ * allocations and returns to the inventory lanes and continues once they complete. Lane threads do
+ * still block while the event store appends and syncs their events, which is what lets a lane own
+ * its aggregates without locks and batch its syncs with the other lanes. Kafka is not on this path
+ * at all, since stored events are published afterwards by the outbox relay. The endpoints therefore
+ * stay on servlet async requests rather than WebFlux: a reactive stack would only move the same
+ * blocking append onto another scheduler.
+ */
+@Slf4j
+@RestController
+@Profile(Constants.ASYNC_API_PROFILE)
+@RequestMapping(value = "/api/v1/orders")
+public class AsyncOrdersApi {
+  private final AsyncOrderCommandHandler orderCommandHandler;
+
+  public AsyncOrdersApi(AsyncOrderCommandHandler orderCommandHandler) {
+    this.orderCommandHandler = orderCommandHandler;
+  }
+
+  /**
+   * Registers a new order.
+   *
+   * @param orderDto the DTO containing order data; must be valid
+   * @return a future of the response, with success set to true once the order is stored
+   */
+  @PostMapping
+  public CompletableFuture<ResponseEntity<ResponseDto>> registerOrder(
+      @Valid @RequestBody OrderCreateDto orderDto) {
+    log.info("Registering new order");
+    return orderCommandHandler
+        .submit(CommandMapper.toCreateOrderCommand(orderDto))
+        .thenApply(done -> success());
+  }
+
+  /**
+   * Cancels the order identified by the given orderId.
+   *
+   * @param orderId the unique identifier of the order to cancel
+   * @return a future of the response, with success set to true once the cancellation is stored
+   */
+  @DeleteMapping(value = "/{orderId}")
+  public CompletableFuture<ResponseEntity<ResponseDto>> cancelOrder(@PathVariable String orderId) {
+    log.info("Cancelling order: {}", orderId);
+    return orderCommandHandler.submit(new CancelOrderCommand(orderId)).thenApply(done -> success());
+  }
+
+  /**
+   * Updates the status of an existing order.
+   *
+   * @param orderId the unique identifier of the order to update
+   * @param orderStatus the DTO containing the new status value for the order
+   * @return a future of the response, with success set to true once the update is stored
+   */
+  @PutMapping(value = "/{orderId}/status")
+  public CompletableFuture<ResponseEntity<ResponseDto>> updateOrderStatus(
+      @PathVariable String orderId, @Valid @RequestBody OrderStatusUpdateDto orderStatus) {
+    log.info("Updating order status for order: {}", orderId);
+    return orderCommandHandler
+        .submit(new UpdateOrderStatusCommand(orderId, orderStatus.status()))
+        .thenApply(done -> success());
+  }
+
+  private static ResponseEntity<ResponseDto> success() {
+    return ResponseEntity.ok().body(ResponseDto.builder().success(true).build());
+  }
+}
@@ -0,0 +1,59 @@
+package com.orderfulfillment.command.api;
+
+import com.orderfulfillment.command.api.dtos.OrderCreateDto;
+import com.orderfulfillment.command.api.dtos.OrderCreateDto.AddressDto;
+import com.orderfulfillment.command.commands.CreateOrderCommand;
+import com.orderfulfillment.command.domain.Address;
+import com.orderfulfillment.command.domain.Money;
+import com.orderfulfillment.command.domain.OrderItem;
+import com.orderfulfillment.command.events.impl.EventIds;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** Converts request DTOs to commands, shared by the blocking and the asynchronous controllers. */
+final class CommandMapper {
+
+  private CommandMapper() {}
+
+  /**
+   * Converts an order creation request to a {@link CreateOrderCommand}.
+   *
+   * @param orderDto the validated order creation request
+   * @return the command with a new order ID and domain items, addresses and money
+   */
+  static CreateOrderCommand toCreateOrderCommand(OrderCreateDto orderDto) {
+    List<OrderItem> items =
+        orderDto.items().stream()
+            .map(
+                item ->
+                    new OrderItem(item.productId(), item.quantity(), toDomainMoney(item.price())))
+            .collect(Collectors.toList());
+
+    return CreateOrderCommand.builder()
+        .orderId(EventIds.next())
+        .customerId(orderDto.customerId())
+        .items(items)
+        .shippingAddress(toDomainAddress(orderDto.shippingAddress()))
+        .billingAddress(toDomainAddress(orderDto.billingAddress()))
+        .totalCost(toDomainMoney(orderDto.totalCost()))
+        .issuedAt(orderDto.issuedAt())
+        .allowBackorder(Boolean.TRUE.equals(orderDto.allowBackorder()))
+        .priority(orderDto.priority() != null ? orderDto.priority() : 0)
+        .build();
+  }
+
+  private static Address toDomainAddress(AddressDto addressDto) {
+    return Address.builder()
+        .street(addressDto.street())
+        .city(addressDto.city())
+        .state(addressDto.state())
+        .zipcode(addressDto.zipcode())
+        .country(addressDto.country())
+        .build();
+  }
+
+  private static Money toDomainMoney(BigDecimal price) {
+    return new Money(price);
+  }
+}
@@ -0,0 +1,42 @@
+package com.orderfulfillment.command.api;
+
+import com.orderfulfillment.command.api.dtos.CommandStatusDto;
+import com.orderfulfillment.command.api.dtos.ResponseDto;
+import com.orderfulfillment.command.dispatch.CommandBus;
+import com.orderfulfillment.command.exceptions.CommandNotFoundException;
+import com.orderfulfillment.command.utils.Constants;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Endpoint reporting the progress of commands accepted by the {@code queued-api} controllers. */
+@RestController
+@Profile(Constants.QUEUED_API_PROFILE)
+@RequestMapping(value = "/api/v1/commands")
+public class CommandsApi {
+  private final CommandBus commandBus;
+
+  public CommandsApi(CommandBus commandBus) {
+    this.commandBus = commandBus;
+  }
+
+  /**
+   * Gets the status of a command.
+   *
+   * @param commandId the unique identifier of the command
+   * @return a {@code ResponseEntity<ResponseDto>} whose data is the {@link CommandStatusDto}
+   * @throws CommandNotFoundException if the command is unknown or its status has expired
+   */
+  @GetMapping("/{commandId}")
+  public ResponseEntity<ResponseDto> getCommandStatus(@PathVariable String commandId) {
+    CommandStatusDto status =
+        commandBus
+            .status(commandId)
+            .map(CommandStatusDto::from)
+            .orElseThrow(() -> new CommandNotFoundException(commandId));
+    return ResponseEntity.ok().body(ResponseDto.builder().success(true).data(status).build());
+  }
+}
@@ -7,13 +7,16 @@ import com.orderfulfillment.command.commands.AllocateInventoryCommand;
 import com.orderfulfillment.command.commands.ReturnInventoryCommand;
 import com.orderfulfillment.command.commands.UpdateInventoryCommand;
 import com.orderfulfillment.command.handlers.InventoryCommandHandler;
+import com.orderfulfillment.command.utils.Constants;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @Slf4j
 @RestController
+@Profile("!" + Constants.ASYNC_API_PROFILE)
 @RequestMapping(value = "/api/v1/inventory")
 public class InventoryApi {
   private final InventoryCommandHandler inventoryCommandHandler;
@@ -0,0 +1,60 @@
+package com.orderfulfillment.command.api;
+
+import com.orderfulfillment.command.api.dtos.InventoryAvailabilityDto;
+import com.orderfulfillment.command.api.dtos.InventoryAvailabilityResultDto;
+import com.orderfulfillment.command.api.dtos.ResponseDto;
+import com.orderfulfillment.command.projections.InventoryAvailability;
+import com.orderfulfillment.command.projections.InventoryAvailability.Availability;
+import jakarta.validation.Valid;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Endpoint for checking whether many products can be promised at once, for example for the items of
+ * a cart.
+ *
+ * <p>Answers come from the {@link InventoryAvailability} projection, which is updated as inventory
+ * changes are committed, so they reflect every change acknowledged by this service without waiting
+ * for the query service to catch up.
+ */
+@RestController
+@RequestMapping(value = "/api/v1/inventory")
+public class InventoryAvailabilityApi {
+  private final InventoryAvailability availability;
+
+  public InventoryAvailabilityApi(InventoryAvailability availability) {
+    this.availability = availability;
+  }
+
+  /**
+   * Checks the availability of a batch of products.
+   *
+   * @param availabilityDto the DTO containing the products and the quantity wanted of each
+   * @return a {@code ResponseEntity<ResponseDto>} whose data is the list of {@link
+   *     InventoryAvailabilityResultDto} in request order
+   */
+  @PostMapping("/availability")
+  public ResponseEntity<ResponseDto> checkAvailability(
+      @Valid @RequestBody InventoryAvailabilityDto availabilityDto) {
+    List<InventoryAvailabilityResultDto> results = new ArrayList<>(availabilityDto.items().size());
+    for (InventoryAvailabilityDto.Item item : availabilityDto.items()) {
+      int wanted = item.quantity() != null ? item.quantity() : 1;
+      Availability current = availability.get(item.productId());
+      results.add(
+          current == null
+              ? new InventoryAvailabilityResultDto(item.productId(), 0, 0, false)
+              : new InventoryAvailabilityResultDto(
+                  item.productId(),
+                  current.availableQuantity(),
+                  current.allocatedQuantity(),
+                  current.availableQuantity() >= wanted));
+    }
+
+    return ResponseEntity.ok().body(ResponseDto.builder().success(true).data(results).build());
+  }
+}
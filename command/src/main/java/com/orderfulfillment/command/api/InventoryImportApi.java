@@ -0,0 +1,248 @@
+package com.orderfulfillment.command.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.orderfulfillment.command.api.dtos.InventoryImportLineDto;
+import com.orderfulfillment.command.api.dtos.InventoryImportResultDto;
+import com.orderfulfillment.command.api.dtos.InventoryImportResultDto.Rejection;
+import com.orderfulfillment.command.api.dtos.ResponseDto;
+import com.orderfulfillment.command.commands.UpdateInventoryCommand;
+import com.orderfulfillment.command.config.InventoryImportProperties;
+import com.orderfulfillment.command.handlers.AsyncInventoryCommandHandler;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Endpoint for bulk inventory synchronization.
+ *
+ * <p>The request body sets the available quantity of many products, either as newline-delimited
+ * JSON objects with {@code productId} and {@code quantity}, or as CSV lines of {@code
+ * productId,quantity} with an optional header line. The body is read one line at a time and each
+ * valid line is submitted to the inventory lane of its product right away, so updates of different
+ * products are applied in parallel while lines for the same product are applied in file order. At
+ * most {@code inventory-import.max-in-flight} updates are outstanding at once; reading pauses until
+ * one completes, which keeps memory constant for imports of any size.
+ *
+ * <p>Invalid lines and updates that fail are rejected individually without stopping the import. The
+ * response summarizes the import once every update has completed.
+ */
+@Slf4j
+@RestController
+@RequestMapping(value = "/api/v1/inventory")
+public class InventoryImportApi {
+  private static final String TEXT_CSV_VALUE = "text/csv";
+  private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
+  private final AsyncInventoryCommandHandler inventoryCommandHandler;
+  private final ObjectReader lineReader;
+  private final Validator validator;
+  private final InventoryImportProperties properties;
+
+  public InventoryImportApi(
+      AsyncInventoryCommandHandler inventoryCommandHandler,
+      ObjectMapper objectMapper,
+      Validator validator,
+      InventoryImportProperties properties) {
+    this.inventoryCommandHandler = inventoryCommandHandler;
+    this.lineReader = objectMapper.readerFor(InventoryImportLineDto.class);
+    this.validator = validator;
+    this.properties = properties;
+  }
+
+  /**
+   * Imports inventory quantities.
+   *
+   * @param contentType the content type of the body, NDJSON or CSV
+   * @param body the request body
+   * @return a {@code ResponseEntity<ResponseDto>} whose data is the {@link
+   *     InventoryImportResultDto}, with success set to true if no line was rejected
+   */
+  @PostMapping(
+      value = "/import",
+      consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+  public ResponseEntity<ResponseDto> importInventory(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body)
+      throws IOException {
+    boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV);
+    Progress progress = new Progress(properties.getMaxReportedRejections());
+    Semaphore inFlight = new Semaphore(properties.getMaxInFlight());
+    log.info("Importing inventory from {}", csv ? "CSV" : "NDJSON");
+
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+      long lineNumber = 0;
+      boolean firstLine = true;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+        if (csv && firstLine && isCsvHeader(line)) {
+          firstLine = false;
+          continue;
+        }
+        firstLine = false;
+        progress.lines.incrementAndGet();
+
+        InventoryImportLineDto lineDto;
+        try {
+          lineDto = csv ? parseCsv(line) : parseJson(line);
+        } catch (IllegalArgumentException e) {
+          progress.reject(lineNumber, null, e.getMessage());
+          continue;
+        }
+        Set<ConstraintViolation<InventoryImportLineDto>> violations = validator.validate(lineDto);
+        if (!violations.isEmpty()) {
+          progress.reject(lineNumber, lineDto.productId(), describe(violations));
+          continue;
+        }
+
+        UpdateInventoryCommand command =
+            UpdateInventoryCommand.builder()
+                .productId(lineDto.productId())
+                .quantity(lineDto.quantity())
+                .build();
+        long submittedLine = lineNumber;
+        inFlight.acquireUninterruptibly();
+        CompletableFuture<Void> result;
+        try {
+          result = inventoryCommandHandler.submit(command);
+        } catch (RuntimeException e) {
+          result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete(
+            (done, failure) -> {
+              if (failure == null) {
+                progress.applied.incrementAndGet();
+              } else {
+                Throwable cause =
+                    failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause()
+                        : failure;
+                progress.reject(submittedLine, command.productId(), cause.getMessage());
+              }
+              inFlight.release();
+            });
+
+        if (lineNumber % properties.getProgressInterval() == 0) {
+          log.info(
+              "Inventory import at line {}: {} applied, {} rejected",
+              lineNumber,
+              progress.applied.get(),
+              progress.rejected.get());
+        }
+      }
+    } finally {
+      // Wait for every submitted update, also when reading the body failed.
+      inFlight.acquireUninterruptibly(properties.getMaxInFlight());
+    }
+
+    InventoryImportResultDto result = progress.toResult();
+    log.info(
+        "Inventory import finished: {} lines, {} applied, {} rejected",
+        result.lines(),
+        result.applied(),
+        result.rejected());
+    var response = ResponseDto.builder().success(result.rejected() == 0).data(result).build();
+    return ResponseEntity.ok().body(response);
+  }
+
+  private InventoryImportLineDto parseJson(String line) {
+    try {
+      return lineReader.readValue(line);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+    }
+  }
+
+  private static InventoryImportLineDto parseCsv(String line) {
+    String[] fields = line.split(",", -1);
+    if (fields.length != 2) {
+      throw new IllegalArgumentException("Expected 2 fields but found " + fields.length);
+    }
+    String quantity = unquote(fields[1]);
+    try {
+      return new InventoryImportLineDto(
+          unquote(fields[0]), quantity.isEmpty() ? null : Integer.valueOf(quantity));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Quantity is not a number: " + quantity);
+    }
+  }
+
+  /** A CSV header is a first line whose quantity field is not a number. */
+  private static boolean isCsvHeader(String line) {
+    int comma = line.indexOf(',');
+    return comma >= 0 && !unquote(line.substring(comma + 1)).matches("-?\\d+");
+  }
+
+  private static String unquote(String field) {
+    String trimmed = field.trim();
+    if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+      return trimmed.substring(1, trimmed.length() - 1).trim();
+    }
+    return trimmed;
+  }
+
+  private static String describe(Set<ConstraintViolation<InventoryImportLineDto>> violations) {
+    return violations.stream()
+        .map(ConstraintViolation::getMessage)
+        .sorted()
+        .collect(Collectors.joining(", "));
+  }
+
+  /** Counters and reported rejections of one import, updated from the lane threads. */
+  private static final class Progress {
+    private final AtomicLong lines = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<Rejection> rejections = new ArrayList<>();
+    private final int maxReported;
+
+    private Progress(int maxReported) {
+      this.maxReported = maxReported;
+    }
+
+    private void reject(long line, String productId, String message) {
+      rejected.incrementAndGet();
+      synchronized (rejections) {
+        if (rejections.size() < maxReported) {
+          rejections.add(new Rejection(line, productId, message));
+        }
+      }
+    }
+
+    private InventoryImportResultDto toResult() {
+      synchronized (rejections) {
+        return InventoryImportResultDto.builder()
+            .lines(lines.get())
+            .applied(applied.get())
+            .rejected(rejected.get())
+            .rejections(List.copyOf(rejections))
+            .build();
+      }
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com.orderfulfillment.command.api;
+
+import com.orderfulfillment.command.api.dtos.InventoryReservationConfirmDto;
+import com.orderfulfillment.command.api.dtos.InventoryReservationDto;
+import com.orderfulfillment.command.api.dtos.InventoryReservationResultDto;
+import com.orderfulfillment.command.api.dtos.ResponseDto;
+import com.orderfulfillment.command.commands.ConfirmReservationCommand;
+import com.orderfulfillment.command.commands.ReserveInventoryCommand;
+import com.orderfulfillment.command.config.InventoryReservationProperties;
+import com.orderfulfillment.command.events.impl.EventIds;
+import com.orderfulfillment.command.handlers.AsyncInventoryCommandHandler;
+import jakarta.validation.Valid;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Endpoints for time-bounded inventory reservations.
+ *
+ * <p>A reservation holds inventory, for example while a checkout is open, without allocating it to
+ * an order yet. It is either confirmed into an allocation or released automatically once its
+ * time-to-live has passed.
+ */
+@Slf4j
+@RestController
+@RequestMapping(value = "/api/v1/inventory")
+public class InventoryReservationsApi {
+  private final AsyncInventoryCommandHandler inventoryCommandHandler;
+  private final InventoryReservationProperties properties;
+
+  public InventoryReservationsApi(
+      AsyncInventoryCommandHandler inventoryCommandHandler,
+      InventoryReservationProperties properties) {
+    this.inventoryCommandHandler = inventoryCommandHandler;
+    this.properties = properties;
+  }
+
+  /**
+   * Reserves inventory of a product until the reservation expires.
+   *
+   * @param productId the unique identifier of the product
+   * @param reservationDto the DTO containing the quantity and optional time-to-live
+   * @return a future of the response, whose data is the {@link InventoryReservationResultDto}
+   */
+  @PostMapping("/{productId}/reservations")
+  public CompletableFuture<ResponseEntity<ResponseDto>> reserveInventory(
+      @PathVariable String productId, @Valid @RequestBody InventoryReservationDto reservationDto) {
+    Duration ttl =
+        reservationDto.ttlSeconds() != null
+            ? Duration.ofSeconds(reservationDto.ttlSeconds())
+            : properties.getDefaultTtl();
+    if (ttl.compareTo(properties.getMaxTtl()) > 0) {
+      throw new IllegalArgumentException(
+          "TTL must not exceed " + properties.getMaxTtl().toSeconds() + " seconds");
+    }
+
+    ReserveInventoryCommand command =
+        ReserveInventoryCommand.builder()
+            .productId(productId)
+            .reservationId(EventIds.next())
+            .quantity(reservationDto.quantity())
+            .expiresAt(Instant.now().plus(ttl))
+            .build();
+
+    log.info("Reserving inventory for product {} until {}", productId, command.expiresAt());
+    return inventoryCommandHandler
+        .submit(command)
+        .thenApply(
+            done ->
+                ResponseEntity.ok()
+                    .body(
+                        ResponseDto.builder()
+                            .success(true)
+                            .data(
+                                new InventoryReservationResultDto(
+                                    command.reservationId(), command.expiresAt()))
+                            .build()));
+  }
+
+  /**
+   * Confirms a reservation, allocating its inventory to an order.
+   *
+   * @param productId the unique identifier of the product
+   * @param reservationId the unique identifier of the reservation
+   * @param confirmDto the DTO containing the order ID
+   * @return a future of the response, completed once the confirmation is stored
+   */
+  @PostMapping("/{productId}/reservations/{reservationId}/confirm")
+  public CompletableFuture<ResponseEntity<ResponseDto>> confirmReservation(
+      @PathVariable String productId,
+      @PathVariable String reservationId,
+      @Valid @RequestBody InventoryReservationConfirmDto confirmDto) {
+    ConfirmReservationCommand command =
+        ConfirmReservationCommand.builder()
+            .productId(productId)
+            .reservationId(reservationId)
+            .orderId(confirmDto.orderId())
+            .build();
+
+    log.info(
+        "Confirming reservation {} of product {} for order {}",
+        reservationId,
+        productId,
+        confirmDto.orderId());
+    return inventoryCommandHandler
+        .submit(command)
+        .thenApply(done -> ResponseEntity.ok().body(ResponseDto.builder().success(true).build()));
+  }
+}
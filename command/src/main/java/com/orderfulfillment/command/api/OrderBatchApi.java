@@ -0,0 +1,160 @@
+package com.orderfulfillment.command.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.orderfulfillment.command.api.dtos.OrderBatchResultDto;
+import com.orderfulfillment.command.api.dtos.OrderCreateDto;
+import com.orderfulfillment.command.api.dtos.ResponseDto;
+import com.orderfulfillment.command.commands.CreateOrderBatchCommand;
+import com.orderfulfillment.command.commands.CreateOrderCommand;
+import com.orderfulfillment.command.config.OrderBatchProperties;
+import com.orderfulfillment.command.exceptions.ConcurrencyException;
+import com.orderfulfillment.command.exceptions.domain.DomainRuleViolationException;
+import com.orderfulfillment.command.exceptions.domain.OrderFulfillmentException;
+import com.orderfulfillment.command.handlers.BatchItemResult;
+import com.orderfulfillment.command.handlers.BatchOrderCommandHandler;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Endpoint for creating many orders in one request.
+ *
+ * <p>The request body is either a JSON array of orders or newline-delimited JSON with one order per
+ * line, each in the format of {@code POST /api/v1/orders}. Orders are read, validated and converted
+ * to commands one at a time as the body streams in. Valid orders are then handled together by the
+ * {@link BatchOrderCommandHandler}, and the response lists the outcome of every order in request
+ * order. An invalid or rejected order does not affect the others.
+ */
+@Slf4j
+@RestController
+@RequestMapping(value = "/api/v1/orders")
+public class OrderBatchApi {
+  private final BatchOrderCommandHandler batchOrderCommandHandler;
+  private final ObjectReader orderReader;
+  private final Validator validator;
+  private final int maxOrders;
+
+  public OrderBatchApi(
+      BatchOrderCommandHandler batchOrderCommandHandler,
+      ObjectMapper objectMapper,
+      Validator validator,
+      OrderBatchProperties properties) {
+    this.batchOrderCommandHandler = batchOrderCommandHandler;
+    this.orderReader = objectMapper.readerFor(OrderCreateDto.class);
+    this.validator = validator;
+    this.maxOrders = properties.getMaxOrders();
+  }
+
+  /**
+   * Registers a batch of orders.
+   *
+   * @param body the request body, a JSON array or newline-delimited JSON of {@code OrderCreateDto}
+   * @return a {@code ResponseEntity<ResponseDto>} whose data is the list of {@link
+   *     OrderBatchResultDto} in request order, with success set to true if every order was created
+   * @throws IllegalArgumentException if the body is not well-formed or has too many orders
+   */
+  @PostMapping(
+      value = "/batch",
+      consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<ResponseDto> registerOrders(InputStream body) throws IOException {
+    List<OrderBatchResultDto> results = new ArrayList<>();
+    List<CreateOrderCommand> commands = new ArrayList<>();
+    List<Integer> commandIndexes = new ArrayList<>();
+
+    try (MappingIterator<OrderCreateDto> orders = orderReader.readValues(body)) {
+      while (orders.hasNextValue()) {
+        OrderCreateDto orderDto = orders.nextValue();
+        int index = results.size();
+        if (index >= maxOrders) {
+          throw new IllegalArgumentException(
+              "Order batch exceeds the maximum of " + maxOrders + " orders");
+        }
+
+        Set<ConstraintViolation<OrderCreateDto>> violations = validator.validate(orderDto);
+        if (violations.isEmpty()) {
+          commands.add(CommandMapper.toCreateOrderCommand(orderDto));
+          commandIndexes.add(index);
+          results.add(null);
+        } else {
+          results.add(invalid(index, violations));
+        }
+      }
+    } catch (JsonProcessingException | RuntimeJsonMappingException e) {
+      throw new IllegalArgumentException("Malformed order batch: " + e.getMessage(), e);
+    }
+
+    log.info("Registering batch of {} orders, {} valid", results.size(), commands.size());
+
+    List<BatchItemResult> created =
+        commands.isEmpty()
+            ? List.of()
+            : batchOrderCommandHandler.handle(new CreateOrderBatchCommand(commands));
+    for (int i = 0; i < created.size(); i++) {
+      int index = commandIndexes.get(i);
+      results.set(index, toResultDto(index, created.get(i)));
+    }
+
+    boolean allCreated = results.stream().allMatch(OrderBatchResultDto::success);
+    var response = ResponseDto.builder().success(allCreated).data(results).build();
+    return ResponseEntity.ok().body(response);
+  }
+
+  private static OrderBatchResultDto invalid(
+      int index, Set<ConstraintViolation<OrderCreateDto>> violations) {
+    String message =
+        violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    return OrderBatchResultDto.builder()
+        .index(index)
+        .success(false)
+        .error("VALIDATION_ERROR")
+        .message(message)
+        .build();
+  }
+
+  private static OrderBatchResultDto toResultDto(int index, BatchItemResult result) {
+    if (result.isSuccess()) {
+      return OrderBatchResultDto.builder().index(index).success(true).orderId(result.id()).build();
+    }
+    return OrderBatchResultDto.builder()
+        .index(index)
+        .success(false)
+        .error(errorCode(result.failure()))
+        .message(result.failure().getMessage())
+        .build();
+  }
+
+  /** Maps a failure to the error code {@code GlobalExceptionHandler} uses for a single order. */
+  private static String errorCode(RuntimeException failure) {
+    if (failure instanceof DomainRuleViolationException) {
+      return "DOMAIN_RULE_VIOLATION";
+    }
+    if (failure instanceof OrderFulfillmentException) {
+      return "ORDER_FULFILLMENT_ERROR";
+    }
+    if (failure instanceof ConcurrencyException) {
+      return "CONCURRENCY_CONFLICT";
+    }
+    if (failure instanceof IllegalArgumentException) {
+      return "BAD_REQUEST";
+    }
+    return "INTERNAL_SERVER_ERROR";
+  }
+}
@@ -1,21 +1,17 @@
 package com.orderfulfillment.command.api;
 
 import com.orderfulfillment.command.api.dtos.OrderCreateDto;
-import com.orderfulfillment.command.api.dtos.OrderCreateDto.AddressDto;
 import com.orderfulfillment.command.api.dtos.OrderStatusUpdateDto;
 import com.orderfulfillment.command.api.dtos.ResponseDto;
 import com.orderfulfillment.command.commands.CancelOrderCommand;
 import com.orderfulfillment.command.commands.CreateOrderCommand;
 import com.orderfulfillment.command.commands.UpdateOrderStatusCommand;
-import com.orderfulfillment.command.domain.Address;
-import com.orderfulfillment.command.domain.Money;
 import com.orderfulfillment.command.domain.OrderItem;
 import com.orderfulfillment.command.handlers.OrderCommandHandler;
+import com.orderfulfillment.command.utils.Constants;
 import jakarta.validation.Valid;
-import java.math.BigDecimal;
-import java.util.List;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -27,6 +23,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 @Slf4j
 @RestController
+@Profile("!" + Constants.ASYNC_API_PROFILE + " & !" + Constants.QUEUED_API_PROFILE)
 @RequestMapping(value = "/api/v1/orders")
 public class OrdersApi {
   private final OrderCommandHandler orderCommandHandler;
@@ -49,22 +46,7 @@ public class OrdersApi {
    */
   @PostMapping
   public ResponseEntity<ResponseDto> registerOrder(@Valid @RequestBody OrderCreateDto orderDto) {
-    List<OrderItem> items =
-        orderDto.items().stream()
-            .map(
-                item ->
-                    new OrderItem(item.productId(), item.quantity(), toDomainMoney(item.price())))
-            .collect(Collectors.toList());
-
-    CreateOrderCommand command =
-        CreateOrderCommand.builder()
-            .customerId(orderDto.customerId())
-            .items(items)
-            .shippingAddress(toDomainAddress(orderDto.shippingAddress()))
-            .billingAddress(toDomainAddress(orderDto.billingAddress()))
-            .totalCost(toDomainMoney(orderDto.totalCost()))
-            .issuedAt(orderDto.issuedAt())
-            .build();
+    CreateOrderCommand command = CommandMapper.toCreateOrderCommand(orderDto);
 
     log.info("Registering new order");
 
@@ -110,18 +92,4 @@ public class OrdersApi {
     var response = ResponseDto.builder().success(true).build();
     return ResponseEntity.ok().body(response);
   }
-
-  private Address toDomainAddress(AddressDto addressDto) {
-    return Address.builder()
-        .street(addressDto.street())
-        .city(addressDto.city())
-        .state(addressDto.state())
-        .zipcode(addressDto.zipcode())
-        .country(addressDto.country())
-        .build();
-  }
-
-  private Money toDomainMoney(BigDecimal price) {
-    return new Money(price);
-  }
 }
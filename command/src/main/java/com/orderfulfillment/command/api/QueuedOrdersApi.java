@@ -0,0 +1,98 @@
+package com.orderfulfillment.command.api;
+
+import com.orderfulfillment.command.api.dtos.CommandStatusDto;
+import com.orderfulfillment.command.api.dtos.OrderCreateDto;
+import com.orderfulfillment.command.api.dtos.OrderStatusUpdateDto;
+import com.orderfulfillment.command.api.dtos.ResponseDto;
+import com.orderfulfillment.command.commands.CancelOrderCommand;
+import com.orderfulfillment.command.commands.CreateOrderCommand;
+import com.orderfulfillment.command.commands.UpdateOrderStatusCommand;
+import com.orderfulfillment.command.dispatch.CommandBus;
+import com.orderfulfillment.command.dispatch.CommandStatus;
+import com.orderfulfillment.command.handlers.AsyncOrderCommandHandler;
+import com.orderfulfillment.command.utils.Constants;
+import jakarta.validation.Valid;
+import java.net.URI;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Order endpoints of the {@code queued-api} profile, which replace {@link OrdersApi} on the same
+ * paths.
+ *
+ * <p>Each request is validated and its command accepted on the {@link CommandBus}, and the response
+ * is sent right away with status 202 and the command's status, which includes the command ID and
+ * the ID of the order. The outcome is then available from {@link CommandsApi} at the URI in the
+ * {@code Location} header. A request is rejected with status 503 while the bus is full.
+ */
+@Slf4j
+@RestController
+@Profile(Constants.QUEUED_API_PROFILE)
+@RequestMapping(value = "/api/v1/orders")
+public class QueuedOrdersApi {
+  private final AsyncOrderCommandHandler orderCommandHandler;
+  private final CommandBus commandBus;
+
+  public QueuedOrdersApi(AsyncOrderCommandHandler orderCommandHandler, CommandBus commandBus) {
+    this.orderCommandHandler = orderCommandHandler;
+    this.commandBus = commandBus;
+  }
+
+  /**
+   * Accepts a new order.
+   *
+   * @param orderDto the DTO containing order data; must be valid
+   * @return a response with status 202 whose data is the {@link CommandStatusDto}, with the ID of
+   *     the new order as its aggregate ID
+   */
+  @PostMapping
+  public ResponseEntity<ResponseDto> registerOrder(@Valid @RequestBody OrderCreateDto orderDto) {
+    CreateOrderCommand command = CommandMapper.toCreateOrderCommand(orderDto);
+    log.info("Accepting new order {}", command.orderId());
+    return accepted(
+        commandBus.accept(command.orderId(), () -> orderCommandHandler.submit(command)));
+  }
+
+  /**
+   * Accepts the cancellation of the order identified by the given orderId.
+   *
+   * @param orderId the unique identifier of the order to cancel
+   * @return a response with status 202 whose data is the {@link CommandStatusDto}
+   */
+  @DeleteMapping(value = "/{orderId}")
+  public ResponseEntity<ResponseDto> cancelOrder(@PathVariable String orderId) {
+    log.info("Accepting cancellation of order: {}", orderId);
+    return accepted(
+        commandBus.accept(
+            orderId, () -> orderCommandHandler.submit(new CancelOrderCommand(orderId))));
+  }
+
+  /**
+   * Accepts a status update of an existing order.
+   *
+   * @param orderId the unique identifier of the order to update
+   * @param orderStatus the DTO containing the new status value for the order
+   * @return a response with status 202 whose data is the {@link CommandStatusDto}
+   */
+  @PutMapping(value = "/{orderId}/status")
+  public ResponseEntity<ResponseDto> updateOrderStatus(
+      @PathVariable String orderId, @Valid @RequestBody OrderStatusUpdateDto orderStatus) {
+    UpdateOrderStatusCommand command = new UpdateOrderStatusCommand(orderId, orderStatus.status());
+    log.info("Accepting status update of order: {}", orderId);
+    return accepted(commandBus.accept(orderId, () -> orderCommandHandler.submit(command)));
+  }
+
+  private static ResponseEntity<ResponseDto> accepted(CommandStatus status) {
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/v1/commands/" + status.commandId()))
+        .body(ResponseDto.builder().success(true).data(CommandStatusDto.from(status)).build());
+  }
+}
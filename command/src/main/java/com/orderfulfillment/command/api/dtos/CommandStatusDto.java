@@ -0,0 +1,43 @@
+package com.orderfulfillment.command.api.dtos;
+
+import com.orderfulfillment.command.dispatch.CommandStatus;
+import java.time.Instant;
+
+/**
+ * Data Transfer Object describing the progress of an accepted command.
+ *
+ * @param commandId the unique identifier of the command
+ * @param aggregateId the unique identifier of the aggregate the command applies to, such as the ID
+ *     of a new order
+ * @param status ACCEPTED while the command runs, then SUCCEEDED or FAILED
+ * @param acceptedAt when the command was accepted
+ * @param completedAt when the command completed, or null while it runs
+ * @param error the kind of error the command failed with, or null
+ * @param message a description of the error the command failed with, or null
+ */
+public record CommandStatusDto(
+    String commandId,
+    String aggregateId,
+    CommandStatus.State status,
+    Instant acceptedAt,
+    Instant completedAt,
+    String error,
+    String message) {
+
+  /**
+   * Describes the status of a command.
+   *
+   * @param status the status tracked by the command bus
+   * @return the DTO
+   */
+  public static CommandStatusDto from(CommandStatus status) {
+    return new CommandStatusDto(
+        status.commandId(),
+        status.aggregateId(),
+        status.state(),
+        status.acceptedAt(),
+        status.completedAt(),
+        status.error(),
+        status.message());
+  }
+}
@@ -0,0 +1,31 @@
+package com.orderfulfillment.command.api.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Data Transfer Object for checking the availability of many products at once.
+ *
+ * @param items the products to check and the quantity wanted of each (must not be empty; at most
+ *     1000)
+ */
+public record InventoryAvailabilityDto(
+    @NotEmpty(message = "Items are required")
+        @Size(max = 1000, message = "At most 1000 items can be checked at once")
+        @Valid
+        List<Item> items) {
+
+  /**
+   * A product to check.
+   *
+   * @param productId the unique identifier of the product (must not be blank)
+   * @param quantity the quantity wanted; 1 if null
+   */
+  public record Item(
+      @NotBlank(message = "Product ID is required") String productId,
+      @Min(value = 1, message = "Quantity must be positive") Integer quantity) {}
+}
@@ -0,0 +1,12 @@
+package com.orderfulfillment.command.api.dtos;
+
+/**
+ * Data Transfer Object describing the availability of a product.
+ *
+ * @param productId the unique identifier of the product
+ * @param availableQuantity the quantity that can still be allocated; 0 for an unknown product
+ * @param allocatedQuantity the quantity allocated to orders; 0 for an unknown product
+ * @param available whether the quantity asked for can be promised
+ */
+public record InventoryAvailabilityResultDto(
+    String productId, int availableQuantity, int allocatedQuantity, boolean available) {}
@@ -0,0 +1,17 @@
+package com.orderfulfillment.command.api.dtos;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One line of an inventory import, setting the available quantity of a product.
+ *
+ * @param productId the unique identifier of the product
+ * @param quantity the new available quantity
+ */
+public record InventoryImportLineDto(
+    @NotBlank(message = "Product ID is required") String productId,
+    @NotNull(message = "Quantity is required")
+        @Min(value = 0, message = "Quantity must be non-negative")
+        Integer quantity) {}
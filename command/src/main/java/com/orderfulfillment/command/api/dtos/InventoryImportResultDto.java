@@ -0,0 +1,27 @@
+package com.orderfulfillment.command.api.dtos;
+
+import java.util.List;
+import lombok.Builder;
+
+/**
+ * Summary of an inventory import.
+ *
+ * @param lines the number of non-blank lines read, excluding a CSV header
+ * @param applied the number of lines whose update was stored
+ * @param rejected the number of lines that were invalid or whose update failed
+ * @param rejections the first rejected lines, in no particular order; at most the configured number
+ *     is listed
+ */
+@Builder
+public record InventoryImportResultDto(
+    long lines, long applied, long rejected, List<Rejection> rejections) {
+
+  /**
+   * A line of an inventory import that was not applied.
+   *
+   * @param line the line number in the import, starting at 1
+   * @param productId the product of the line, or null if it could not be read
+   * @param message why the line was rejected
+   */
+  public record Rejection(long line, String productId, String message) {}
+}
@@ -0,0 +1,13 @@
+package com.orderfulfillment.command.api.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Data Transfer Object for confirming an inventory reservation.
+ *
+ * <p>This DTO contains the order the reserved inventory is allocated to.
+ *
+ * @param orderId the unique identifier of the order
+ */
+public record InventoryReservationConfirmDto(
+    @NotBlank(message = "Order ID is required") String orderId) {}
@@ -0,0 +1,18 @@
+package com.orderfulfillment.command.api.dtos;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Data Transfer Object for reserving inventory for a limited time.
+ *
+ * <p>This DTO contains the quantity to hold and, optionally, how long to hold it.
+ *
+ * @param quantity the quantity to reserve
+ * @param ttlSeconds how long the reservation holds, in seconds; the configured default if null
+ */
+public record InventoryReservationDto(
+    @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be positive")
+        Integer quantity,
+    @Min(value = 1, message = "TTL must be positive") Long ttlSeconds) {}
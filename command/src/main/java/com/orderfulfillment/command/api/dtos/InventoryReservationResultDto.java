@@ -0,0 +1,11 @@
+package com.orderfulfillment.command.api.dtos;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object describing a new inventory reservation.
+ *
+ * @param reservationId the unique identifier of the reservation, used to confirm it
+ * @param expiresAt the instant after which the reservation is released unless confirmed
+ */
+public record InventoryReservationResultDto(String reservationId, Instant expiresAt) {}
@@ -0,0 +1,16 @@
+package com.orderfulfillment.command.api.dtos;
+
+import lombok.Builder;
+
+/**
+ * The outcome of one order of a batch order request.
+ *
+ * @param index the position of the order in the request, starting at 0
+ * @param success true if the order was created, false otherwise
+ * @param orderId the ID of the created order, or null if the order was invalid or not created
+ * @param error an error code identifying the type of error, or null on success
+ * @param message a human-readable error message, or null on success
+ */
+@Builder
+public record OrderBatchResultDto(
+    int index, boolean success, String orderId, String error, String message) {}
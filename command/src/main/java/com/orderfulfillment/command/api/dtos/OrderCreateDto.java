@@ -21,6 +21,9 @@ import java.util.List;
  * @param billingAddress the address used for billing purposes (must not be null and must be valid)
  * @param totalCost the total monetary cost of the order (must not be null)
  * @param issuedAt the timestamp when the order was issued (must not be null)
+ * @param allowBackorder whether lines that cannot be allocated are backordered instead of rejecting
+ *     the order (optional, defaults to false)
+ * @param priority the priority of backordered lines, higher first (optional, defaults to 0)
  */
 public record OrderCreateDto(
     @NotBlank(message = "Customer ID is required") String customerId,
@@ -28,7 +31,9 @@ public record OrderCreateDto(
     @NotNull(message = "Shipping Address is required") @Valid AddressDto shippingAddress,
     @NotNull(message = "Billing Address is required") @Valid AddressDto billingAddress,
     @NotNull(message = "Total cost is required") BigDecimal totalCost,
-    @NotNull(message = "Issued timestamp is required") LocalDateTime issuedAt) {
+    @NotNull(message = "Issued timestamp is required") LocalDateTime issuedAt,
+    Boolean allowBackorder,
+    Integer priority) {
 
   /**
    * Data transfer object representing a postal address.
@@ -0,0 +1,89 @@
+package com.orderfulfillment.command.bootstrap;
+
+import com.orderfulfillment.command.bootstrap.KafkaEventReplayer.ReplayResult;
+import com.orderfulfillment.command.outbox.OutboxRelay;
+import com.orderfulfillment.command.repositories.InventoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Replays the event topics into the event stores before the service accepts traffic.
+ *
+ * <p>Spring Boot only switches the readiness state to {@code ACCEPTING_TRAFFIC} once all
+ * application runners have completed, so the readiness probe stays red until the replay and the
+ * rebuild of the product index have finished. A failed replay fails the startup.
+ *
+ * <p>Events appended by the replay came from Kafka, so an outbox relay that had nothing pending
+ * before the replay is moved past them instead of publishing them a second time.
+ *
+ * <p>The replay duration is recorded in the {@code bootstrap.replay} timer, and the time from JVM
+ * start until the service became ready in the {@code bootstrap.time.to.ready} gauge.
+ */
+@Slf4j
+public class BootstrapReplayRunner implements ApplicationRunner {
+  private final KafkaEventReplayer replayer;
+  private final InventoryRepository inventoryRepository;
+  private final List<OutboxRelay> outboxRelays;
+  private final Duration timeout;
+  private final Timer replayTimer;
+  private final AtomicLong timeToReadyMillis = new AtomicLong();
+
+  public BootstrapReplayRunner(
+      KafkaEventReplayer replayer,
+      InventoryRepository inventoryRepository,
+      List<OutboxRelay> outboxRelays,
+      Duration timeout,
+      MeterRegistry meterRegistry) {
+    this.replayer = replayer;
+    this.inventoryRepository = inventoryRepository;
+    this.outboxRelays = outboxRelays;
+    this.timeout = timeout;
+    this.replayTimer =
+        Timer.builder("bootstrap.replay")
+            .description("Time taken to replay the event topics at startup")
+            .register(meterRegistry);
+    TimeGauge.builder(
+            "bootstrap.time.to.ready", timeToReadyMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+        .description("Time from JVM start until the service accepted traffic")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    log.info("Replaying event topics into the event stores");
+    List<OutboxRelay> caughtUp =
+        outboxRelays.stream().filter(relay -> relay.getLag() == 0).toList();
+    ReplayResult result = replayer.replay(timeout);
+    replayTimer.record(result.elapsed());
+    caughtUp.forEach(OutboxRelay::acknowledgeAll);
+    inventoryRepository.rebuildProductIndex();
+
+    log.info(
+        "Replayed {} events from {} partitions in {} ms ({} events/s), {} were missing locally",
+        result.eventsRead(),
+        result.partitions(),
+        result.elapsed().toMillis(),
+        Math.round(result.eventsPerSecond()),
+        result.eventsAppended());
+  }
+
+  @EventListener
+  public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+    if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+      timeToReadyMillis.set(ManagementFactory.getRuntimeMXBean().getUptime());
+      log.info("Ready to accept traffic {} ms after JVM start", timeToReadyMillis.get());
+    }
+  }
+}
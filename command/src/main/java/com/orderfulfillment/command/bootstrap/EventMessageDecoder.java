@@ -0,0 +1,95 @@
+package com.orderfulfillment.command.bootstrap;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.EventType;
+import com.orderfulfillment.command.events.impl.BaseEvent;
+import com.orderfulfillment.command.events.impl.EventTimestamps;
+import com.orderfulfillment.command.eventstore.impl.BinaryEventSerializer;
+import com.orderfulfillment.command.exceptions.EventSerializationException;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Turns records read from Kafka back into typed {@link Event} instances.
+ *
+ * <p>Records in the binary format are recognised by their leading magic byte and decoded by the
+ * {@link BinaryEventSerializer}; all others are JSON {@link
+ * com.orderfulfillment.command.domain.EventMessage} records. The JSON format carries the event type
+ * but not the Java payload class or the aggregate version, so the payload class is looked up by
+ * {@link EventType} and the version is supplied by the caller from the position of the event in its
+ * aggregate stream; the same version is used for binary records.
+ */
+public class EventMessageDecoder {
+  private final ObjectReader reader;
+  private final BinaryEventSerializer binarySerializer = new BinaryEventSerializer();
+
+  public EventMessageDecoder(ObjectMapper objectMapper) {
+    // Keep decimals exactly as written so that amounts such as 4.50 keep their scale.
+    this.reader =
+        objectMapper
+            .reader(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .with(JsonNodeFactory.withExactBigDecimals(true));
+  }
+
+  /**
+   * Decodes an event message in either wire format.
+   *
+   * @param data the serialized event message
+   * @param version the version of the aggregate before the event
+   * @return the typed event
+   * @throws EventSerializationException if the message is malformed or of an unknown type
+   */
+  public Event<?> decode(byte[] data, long version) {
+    if (BinaryEventSerializer.isBinary(data)) {
+      return decodeBinary(data, version);
+    }
+
+    JsonNode message;
+    try {
+      message = reader.readTree(data);
+    } catch (IOException e) {
+      throw new EventSerializationException("unknown", e);
+    }
+
+    String eventId = message.path("eventId").asText();
+    String eventType = message.path("eventType").asText();
+    EventType type = EventType.fromName(eventType);
+    if (type == null) {
+      throw new EventSerializationException(
+          eventId, new IllegalArgumentException("Unknown event type: " + eventType));
+    }
+
+    try {
+      return new BaseEvent<>(
+          eventId,
+          type,
+          message.path("aggregateId").asText(),
+          message.path("aggregateType").asText(),
+          EventTimestamps.of(LocalDateTime.parse(message.path("timestamp").asText())),
+          version,
+          reader.treeToValue(message.path("payload"), type.getPayloadType()));
+    } catch (IOException | RuntimeException e) {
+      throw new EventSerializationException(eventId, e);
+    }
+  }
+
+  private Event<?> decodeBinary(byte[] data, long version) {
+    Event<?> event = binarySerializer.deserialize(data);
+    if (event.getVersion() == version) {
+      return event;
+    }
+    return new BaseEvent<>(
+        event.getEventId(),
+        event.getType(),
+        event.getAggregateId(),
+        event.getAggregateType(),
+        event.getTimestampNanos(),
+        version,
+        event.getPayload());
+  }
+}
@@ -0,0 +1,252 @@
+package com.orderfulfillment.command.bootstrap;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.exceptions.EventStoreException;
+import com.orderfulfillment.command.utils.Constants;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+/**
+ * Rebuilds event stores from the event topics, reading every partition from the beginning on its
+ * own thread.
+ *
+ * <p>Events are keyed by aggregate ID, so all events of an aggregate live in one partition in the
+ * order they were written. The outbox publishes at least once, so an event may also follow itself
+ * again after a resent batch. The version of each event is read from its {@value
+ * Constants#EVENT_VERSION_HEADER} header, and events at or below a version already read for the
+ * aggregate are skipped as duplicates. Records published before the header was introduced are
+ * counted per aggregate instead and recognised as duplicates by their event ID. The replayer skips
+ * the events the store already holds and appends the rest with the expected version, batched per
+ * aggregate and poll. Replaying into a store that is already complete therefore appends nothing.
+ * Each partition is read up to the end offset it had when the replay started.
+ *
+ * <p>The topics must retain every event since the first one; a topic that has been truncated by
+ * retention would yield streams without their beginning.
+ */
+@Slf4j
+public class KafkaEventReplayer {
+  private final Map<String, Object> consumerProperties;
+  private final Map<String, EventStore> storesByTopic;
+  private final EventMessageDecoder decoder;
+  private final Duration pollTimeout;
+
+  /**
+   * Creates a replayer.
+   *
+   * @param consumerProperties Kafka client properties, at least the bootstrap servers
+   * @param storesByTopic the event store each topic is replayed into
+   * @param decoder decodes the event messages
+   * @param pollTimeout the maximum time a single poll waits for records
+   */
+  public KafkaEventReplayer(
+      Map<String, Object> consumerProperties,
+      Map<String, EventStore> storesByTopic,
+      EventMessageDecoder decoder,
+      Duration pollTimeout) {
+    this.consumerProperties = new HashMap<>(consumerProperties);
+    this.consumerProperties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    this.consumerProperties.remove(ConsumerConfig.GROUP_ID_CONFIG);
+    this.storesByTopic = Map.copyOf(storesByTopic);
+    this.decoder = decoder;
+    this.pollTimeout = pollTimeout;
+  }
+
+  /**
+   * Replays all partitions of all topics and waits for them to finish.
+   *
+   * @param timeout the maximum time the whole replay may take
+   * @return the replay statistics
+   * @throws EventStoreException if a partition fails or the replay times out
+   */
+  public ReplayResult replay(Duration timeout) {
+    long start = System.nanoTime();
+    List<TopicPartition> partitions = partitions();
+    if (partitions.isEmpty()) {
+      return new ReplayResult(0, 0, 0, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    AtomicInteger threadIndex = new AtomicInteger();
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            partitions.size(),
+            runnable -> new Thread(runnable, "bootstrap-replay-" + threadIndex.getAndIncrement()));
+    try {
+      List<Future<long[]>> futures = new ArrayList<>();
+      for (TopicPartition partition : partitions) {
+        futures.add(executor.submit(() -> replayPartition(partition)));
+      }
+
+      long deadline = start + timeout.toNanos();
+      long read = 0;
+      long appended = 0;
+      for (Future<long[]> future : futures) {
+        long[] counts = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        read += counts[0];
+        appended += counts[1];
+      }
+      return new ReplayResult(
+          partitions.size(), read, appended, Duration.ofNanos(System.nanoTime() - start));
+    } catch (TimeoutException e) {
+      throw new EventStoreException("Bootstrap replay did not finish within " + timeout, e);
+    } catch (ExecutionException e) {
+      throw new EventStoreException("Bootstrap replay failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new EventStoreException("Interrupted during bootstrap replay", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private List<TopicPartition> partitions() {
+    List<TopicPartition> partitions = new ArrayList<>();
+    try (KafkaConsumer<String, byte[]> consumer = createConsumer()) {
+      for (String topic : storesByTopic.keySet()) {
+        List<PartitionInfo> infos = consumer.partitionsFor(topic);
+        if (infos == null) {
+          continue;
+        }
+        for (PartitionInfo info : infos) {
+          partitions.add(new TopicPartition(info.topic(), info.partition()));
+        }
+      }
+    }
+    return partitions;
+  }
+
+  private long[] replayPartition(TopicPartition partition) {
+    EventStore store = storesByTopic.get(partition.topic());
+    Map<String, StreamState> streams = new HashMap<>();
+    long read = 0;
+    long appended = 0;
+
+    try (KafkaConsumer<String, byte[]> consumer = createConsumer()) {
+      consumer.assign(List.of(partition));
+      consumer.seekToBeginning(List.of(partition));
+      long endOffset = consumer.endOffsets(List.of(partition)).get(partition);
+
+      while (consumer.position(partition) < endOffset) {
+        ConsumerRecords<String, byte[]> records = consumer.poll(pollTimeout);
+        Map<String, List<Event<?>>> batches = new LinkedHashMap<>();
+        Map<String, Long> batchVersions = new HashMap<>();
+
+        for (ConsumerRecord<String, byte[]> record : records) {
+          read++;
+          String aggregateId = record.key();
+          StreamState stream =
+              streams.computeIfAbsent(aggregateId, id -> new StreamState(store.getVersion(id)));
+          Header versionHeader = record.headers().lastHeader(Constants.EVENT_VERSION_HEADER);
+          long version;
+          Event<?> event = null;
+          if (versionHeader != null) {
+            version = Long.parseLong(new String(versionHeader.value(), StandardCharsets.US_ASCII));
+            if (version < stream.next) {
+              continue;
+            }
+            if (version > stream.next) {
+              throw new EventStoreException(
+                  String.format(
+                      "Events %d to %d of aggregate %s are missing from %s",
+                      stream.next, version - 1, aggregateId, partition));
+            }
+          } else {
+            version = stream.next;
+            event = decoder.decode(record.value(), version);
+            if (!stream.firstSeen(event.getEventId())) {
+              continue;
+            }
+          }
+          stream.next = version + 1;
+          if (version < stream.stored) {
+            continue;
+          }
+
+          batchVersions.putIfAbsent(aggregateId, version);
+          batches
+              .computeIfAbsent(aggregateId, id -> new ArrayList<>())
+              .add(event != null ? event : decoder.decode(record.value(), version));
+        }
+
+        for (Map.Entry<String, List<Event<?>>> batch : batches.entrySet()) {
+          store.append(batch.getKey(), batchVersions.get(batch.getKey()), batch.getValue());
+          appended += batch.getValue().size();
+        }
+      }
+    }
+
+    log.debug(
+        "Replayed {} events of {}, appended {} to the event store", read, partition, appended);
+    return new long[] {read, appended};
+  }
+
+  /** What the replay of one partition knows about the stream of an aggregate. */
+  private static final class StreamState {
+    private final long stored;
+    private long next;
+    private Set<String> eventIds;
+
+    private StreamState(long stored) {
+      this.stored = stored;
+    }
+
+    /** Records the ID of an event without a version header, returning false for a duplicate. */
+    private boolean firstSeen(String eventId) {
+      if (eventIds == null) {
+        eventIds = new HashSet<>();
+      }
+      return eventIds.add(eventId);
+    }
+  }
+
+  private KafkaConsumer<String, byte[]> createConsumer() {
+    return new KafkaConsumer<>(
+        consumerProperties, new StringDeserializer(), new ByteArrayDeserializer());
+  }
+
+  /**
+   * Statistics of a completed replay.
+   *
+   * @param partitions the number of partitions replayed
+   * @param eventsRead the number of events read from the topics
+   * @param eventsAppended the number of events missing from the stores and appended to them
+   * @param elapsed the wall-clock duration of the replay
+   */
+  public record ReplayResult(
+      int partitions, long eventsRead, long eventsAppended, Duration elapsed) {
+
+    /**
+     * Gets the replay throughput.
+     *
+     * @return events read per second
+     */
+    public double eventsPerSecond() {
+      long nanos = Math.max(1, elapsed.toNanos());
+      return eventsRead * 1e9 / nanos;
+    }
+  }
+}
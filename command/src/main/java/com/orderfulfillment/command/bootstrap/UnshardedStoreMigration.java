@@ -0,0 +1,201 @@
+package com.orderfulfillment.command.bootstrap;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.eventstore.EventLog;
+import com.orderfulfillment.command.eventstore.EventSerializer;
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.eventstore.FsyncPolicy;
+import com.orderfulfillment.command.eventstore.ShardRouter;
+import com.orderfulfillment.command.eventstore.StoredEvent;
+import com.orderfulfillment.command.eventstore.impl.SegmentedFileEventStore;
+import com.orderfulfillment.command.eventstore.impl.ShardedEventStore;
+import com.orderfulfillment.command.exceptions.EventStoreException;
+import com.orderfulfillment.command.outbox.OutboxCheckpoint;
+import com.orderfulfillment.command.outbox.impl.FileOutboxCheckpoint;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves a file event store written before the stores were sharded into the shards of a {@link
+ * ShardedEventStore}.
+ *
+ * <p>Unsharded stores kept their segments, outbox checkpoint and snapshots directly in the store
+ * directory. The migration first moves them into an {@value #MIGRATED_DIRECTORY} directory next to
+ * the shards, then copies every event into the shard of its aggregate in log order and finally
+ * marks the copy as complete. Each step can be repeated, so a migration interrupted by a crash is
+ * resumed on the next start: events the shards already hold are skipped.
+ *
+ * <p>The outbox of the unsharded store had published the events before its checkpoint to the
+ * partitions Kafka's key partitioner chose for them, which are the partitions of their shards. The
+ * checkpoint of each shard is therefore set just past the published events copied into it, so the
+ * shard relays publish exactly the events the unsharded relay had not. Snapshots are not copied;
+ * they are taken again as aggregates are loaded.
+ *
+ * <p>A shard that holds events which did not come from the unsharded store means both layouts were
+ * written to, and the migration refuses to merge them.
+ */
+@Slf4j
+public class UnshardedStoreMigration {
+  static final String MIGRATED_DIRECTORY = "unsharded";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String CHECKPOINT_FILE = "outbox.checkpoint";
+  private static final String SNAPSHOT_DIRECTORY = "snapshots";
+  private static final String COMPLETE_MARKER = "migrated";
+  private static final int BATCH_SIZE = 1000;
+
+  private final Path directory;
+  private final Path migratedDirectory;
+  private final int segmentSize;
+  private final EventSerializer serializer;
+
+  /**
+   * Creates a migration.
+   *
+   * @param directory the directory of the unsharded store, which also holds the shard directories
+   * @param segmentSize the segment size the unsharded store was written with
+   * @param serializer the serializer the unsharded store was written with
+   */
+  public UnshardedStoreMigration(Path directory, int segmentSize, EventSerializer serializer) {
+    this.directory = directory;
+    this.migratedDirectory = directory.resolve(MIGRATED_DIRECTORY);
+    this.segmentSize = segmentSize;
+    this.serializer = serializer;
+  }
+
+  /**
+   * Migrates the unsharded store, if there is one that has not been migrated yet.
+   *
+   * @param target the sharded store to copy the events into
+   * @param checkpoints the outbox checkpoint of each shard, given its index
+   * @return the number of events copied
+   * @throws IllegalStateException if the shards hold events that are not in the unsharded store
+   * @throws EventStoreException if the files can't be moved
+   */
+  public long migrate(ShardedEventStore target, IntFunction<OutboxCheckpoint> checkpoints) {
+    try {
+      moveUnshardedFiles();
+      if (!Files.isDirectory(migratedDirectory)
+          || Files.exists(migratedDirectory.resolve(COMPLETE_MARKER))) {
+        return 0;
+      }
+      long copied = copy(target, checkpoints);
+      Files.createFile(migratedDirectory.resolve(COMPLETE_MARKER));
+      return copied;
+    } catch (IOException e) {
+      throw new EventStoreException("Failed to migrate unsharded event store " + directory, e);
+    }
+  }
+
+  private void moveUnshardedFiles() throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(directory)) {
+      files =
+          listing
+              .filter(
+                  path -> {
+                    String name = path.getFileName().toString();
+                    return name.endsWith(SEGMENT_SUFFIX)
+                        || name.equals(CHECKPOINT_FILE)
+                        || name.equals(SNAPSHOT_DIRECTORY);
+                  })
+              .toList();
+    }
+    if (files.isEmpty()) {
+      return;
+    }
+    log.info("Moving unsharded event store {} into {}", directory, migratedDirectory);
+    Files.createDirectories(migratedDirectory);
+    for (Path file : files) {
+      Files.move(file, migratedDirectory.resolve(file.getFileName()));
+    }
+  }
+
+  private long copy(ShardedEventStore target, IntFunction<OutboxCheckpoint> checkpoints) {
+    ShardRouter router = target.getRouter();
+    long published = new FileOutboxCheckpoint(migratedDirectory.resolve(CHECKPOINT_FILE)).load();
+    try (SegmentedFileEventStore source =
+        new SegmentedFileEventStore(
+            migratedDirectory, segmentSize, FsyncPolicy.ALWAYS, Duration.ZERO, serializer)) {
+      long head = source.getHeadPosition();
+      published = Math.min(published, head);
+      long[] publishedPerShard = new long[router.getShardCount()];
+      long present = 0;
+      for (long position = 0; position < head; ) {
+        List<StoredEvent> batch = source.readAll(position, BATCH_SIZE);
+        for (StoredEvent stored : batch) {
+          Event<?> event = stored.event();
+          if (stored.position() < published) {
+            publishedPerShard[router.shardOf(event.getAggregateId())]++;
+          }
+          if (target.getVersion(event.getAggregateId()) > event.getVersion()) {
+            present++;
+          }
+        }
+        position += batch.size();
+      }
+      if (present != target.getHeadPosition()) {
+        throw new IllegalStateException(
+            "Event store "
+                + directory
+                + " holds events in both the unsharded and the sharded layout; the shards hold "
+                + target.getHeadPosition()
+                + " events of which "
+                + present
+                + " are in the unsharded store");
+      }
+
+      // Published events are copied first, so they come first in the log of each shard.
+      long copied = copy(source, 0, published, target) + copy(source, published, head, target);
+      for (int shard = 0; shard < publishedPerShard.length; shard++) {
+        checkpoints.apply(shard).save(publishedPerShard[shard]);
+      }
+      log.info(
+          "Migrated {} events of unsharded event store {} into {} shards, {} of them still to be"
+              + " published",
+          head,
+          directory,
+          router.getShardCount(),
+          head - published);
+      return copied;
+    }
+  }
+
+  private static long copy(EventLog source, long from, long to, EventStore target) {
+    long copied = 0;
+    for (long position = from; position < to; ) {
+      List<StoredEvent> batch = source.readAll(position, (int) Math.min(BATCH_SIZE, to - position));
+      copied += append(target, batch);
+      position += batch.size();
+    }
+    return copied;
+  }
+
+  private static long append(EventStore target, List<StoredEvent> batch) {
+    Map<String, List<Event<?>>> streams = new LinkedHashMap<>();
+    for (StoredEvent stored : batch) {
+      Event<?> event = stored.event();
+      if (event.getVersion() >= target.getVersion(event.getAggregateId())) {
+        streams.computeIfAbsent(event.getAggregateId(), id -> new ArrayList<>()).add(event);
+      }
+    }
+    long appended = 0;
+    for (Map.Entry<String, List<Event<?>>> stream : streams.entrySet()) {
+      List<Event<?>> events = stream.getValue();
+      target.append(stream.getKey(), events.get(0).getVersion(), events);
+      appended += events.size();
+    }
+    return appended;
+  }
+}
@@ -0,0 +1,13 @@
+package com.orderfulfillment.command.commands;
+
+import java.util.List;
+
+/**
+ * Command to allocate inventory of one product to many orders at once.
+ *
+ * @param productId the unique identifier of the product
+ * @param allocations the allocations to make, in the order they are attempted; each must be for
+ *     {@code productId}
+ */
+public record AllocateInventoryBatchCommand(
+    String productId, List<AllocateInventoryCommand> allocations) {}
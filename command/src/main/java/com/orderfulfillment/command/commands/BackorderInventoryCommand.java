@@ -0,0 +1,15 @@
+package com.orderfulfillment.command.commands;
+
+import lombok.Builder;
+
+/**
+ * Command to queue an order line until enough stock of its product is available.
+ *
+ * @param productId the unique identifier of the product
+ * @param orderId the unique identifier of the order
+ * @param quantity the quantity to allocate once available
+ * @param priority the priority of the line; higher priorities are allocated first
+ */
+@Builder
+public record BackorderInventoryCommand(
+    String productId, String orderId, int quantity, int priority) {}
@@ -0,0 +1,13 @@
+package com.orderfulfillment.command.commands;
+
+import lombok.Builder;
+
+/**
+ * Command to allocate the quantity held by a reservation to an order.
+ *
+ * @param productId the unique identifier of the product
+ * @param reservationId the unique identifier of the reservation
+ * @param orderId the unique identifier of the order
+ */
+@Builder
+public record ConfirmReservationCommand(String productId, String reservationId, String orderId) {}
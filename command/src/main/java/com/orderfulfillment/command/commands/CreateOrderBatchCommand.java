@@ -0,0 +1,10 @@
+package com.orderfulfillment.command.commands;
+
+import java.util.List;
+
+/**
+ * Command to create many orders at once.
+ *
+ * @param orders the orders to create, in the order their results are reported
+ */
+public record CreateOrderBatchCommand(List<CreateOrderCommand> orders) {}
@@ -11,18 +11,27 @@ import lombok.Builder;
  * Immutable command record for creating a new order in the fulfillment system. Encapsulates all
  * necessary details required to process and fulfill the order.
  *
+ * @param orderId the unique identifier to give the new order; generated when the order is created
+ *     if null
  * @param customerId the unique identifier of the customer placing the order
  * @param items the list of items included in the order
  * @param shippingAddress the address where the order will be shipped
  * @param billingAddress the address used for billing; may differ from shipping address
  * @param totalCost the total monetary amount for the order, including taxes and fees
  * @param issuedAt the timestamp when the customer placed the order
+ * @param allowBackorder whether lines that cannot be allocated are backordered instead of rejecting
+ *     the order
+ * @param priority the priority of the order's backordered lines; higher priorities are allocated
+ *     first
  */
-@Builder
+@Builder(toBuilder = true)
 public record CreateOrderCommand(
+    String orderId,
     String customerId,
     List<OrderItem> items,
     Address shippingAddress,
     Address billingAddress,
     Money totalCost,
-    LocalDateTime issuedAt) {}
+    LocalDateTime issuedAt,
+    boolean allowBackorder,
+    int priority) {}
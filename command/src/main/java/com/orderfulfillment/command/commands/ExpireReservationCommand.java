@@ -0,0 +1,14 @@
+package com.orderfulfillment.command.commands;
+
+import java.time.Instant;
+import lombok.Builder;
+
+/**
+ * Command to release a reservation whose deadline has passed.
+ *
+ * @param productId the unique identifier of the product
+ * @param reservationId the unique identifier of the reservation
+ * @param now the time the expiry was triggered; reservations due later are kept
+ */
+@Builder
+public record ExpireReservationCommand(String productId, String reservationId, Instant now) {}
@@ -0,0 +1,16 @@
+package com.orderfulfillment.command.commands;
+
+import java.time.Instant;
+import lombok.Builder;
+
+/**
+ * Command to hold inventory for a limited time.
+ *
+ * @param productId the unique identifier of the product
+ * @param reservationId the unique identifier of the reservation
+ * @param quantity the quantity to hold
+ * @param expiresAt the instant after which the reservation is released unless confirmed
+ */
+@Builder
+public record ReserveInventoryCommand(
+    String productId, String reservationId, int quantity, Instant expiresAt) {}
@@ -0,0 +1,9 @@
+package com.orderfulfillment.command.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Binds the configuration of the bulk endpoints for orders and inventory. */
+@Configuration
+@EnableConfigurationProperties({OrderBatchProperties.class, InventoryImportProperties.class})
+public class ApiConfig {}
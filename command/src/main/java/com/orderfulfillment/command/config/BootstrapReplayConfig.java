@@ -0,0 +1,61 @@
+package com.orderfulfillment.command.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderfulfillment.command.bootstrap.BootstrapReplayRunner;
+import com.orderfulfillment.command.bootstrap.EventMessageDecoder;
+import com.orderfulfillment.command.bootstrap.KafkaEventReplayer;
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.outbox.OutboxRelay;
+import com.orderfulfillment.command.repositories.InventoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Wires the startup replay of the event topics, unless {@code bootstrap-replay.enabled} is off. */
+@Configuration
+@EnableConfigurationProperties(BootstrapReplayProperties.class)
+@ConditionalOnProperty(
+    prefix = "bootstrap-replay",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class BootstrapReplayConfig {
+
+  @Bean
+  public KafkaEventReplayer kafkaEventReplayer(
+      KafkaProperties kafkaProperties,
+      BootstrapReplayProperties properties,
+      ObjectMapper objectMapper,
+      @Qualifier("orderEventsTopic") NewTopic orderTopic,
+      @Qualifier("inventoryEventsTopic") NewTopic inventoryTopic,
+      @Qualifier("orderEventStore") EventStore orderEventStore,
+      @Qualifier("inventoryEventStore") EventStore inventoryEventStore) {
+    return new KafkaEventReplayer(
+        kafkaProperties.buildConsumerProperties(null),
+        Map.of(orderTopic.name(), orderEventStore, inventoryTopic.name(), inventoryEventStore),
+        new EventMessageDecoder(objectMapper),
+        properties.getPollTimeout());
+  }
+
+  @Bean
+  public BootstrapReplayRunner bootstrapReplayRunner(
+      KafkaEventReplayer kafkaEventReplayer,
+      InventoryRepository inventoryRepository,
+      List<OutboxRelay> outboxRelays,
+      BootstrapReplayProperties properties,
+      MeterRegistry meterRegistry) {
+    return new BootstrapReplayRunner(
+        kafkaEventReplayer,
+        inventoryRepository,
+        outboxRelays,
+        properties.getTimeout(),
+        meterRegistry);
+  }
+}
@@ -0,0 +1,25 @@
+package com.orderfulfillment.command.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the startup replay of the event topics into the event stores.
+ *
+ * <p>Bound from the {@code bootstrap-replay} prefix, for example:
+ *
+ * <pre>
+ * bootstrap-replay:
+ *   enabled: true
+ *   timeout: 5m
+ *   poll-timeout: 500ms
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "bootstrap-replay")
+public class BootstrapReplayProperties {
+  private boolean enabled = true;
+  private Duration timeout = Duration.ofMinutes(5);
+  private Duration pollTimeout = Duration.ofMillis(500);
+}
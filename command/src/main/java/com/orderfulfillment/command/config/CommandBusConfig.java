@@ -0,0 +1,26 @@
+package com.orderfulfillment.command.config;
+
+import com.orderfulfillment.command.dispatch.CommandBus;
+import com.orderfulfillment.command.utils.Constants;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/** Creates the command bus that the {@code queued-api} controllers accept commands on. */
+@Configuration
+@Profile(Constants.QUEUED_API_PROFILE)
+@EnableConfigurationProperties(CommandBusProperties.class)
+public class CommandBusConfig {
+
+  @Bean
+  public CommandBus commandBus(CommandBusProperties properties, MeterRegistry meterRegistry) {
+    return CommandBus.builder()
+        .capacity(properties.getCapacity())
+        .resultTtl(properties.getResultTtl())
+        .maxTrackedResults(properties.getMaxTrackedResults())
+        .meterRegistry(meterRegistry)
+        .build();
+  }
+}
@@ -0,0 +1,29 @@
+package com.orderfulfillment.command.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the command bus used by the {@code queued-api} profile.
+ *
+ * <p>Bound from the {@code command-bus} prefix, for example:
+ *
+ * <pre>
+ * command-bus:
+ *   capacity: 10000
+ *   result-ttl: 10m
+ *   max-tracked-results: 100000
+ * </pre>
+ *
+ * <p>At most {@code capacity} accepted commands may be outstanding; further commands are rejected
+ * until some complete. The status of a command is kept for {@code result-ttl} after it was accepted
+ * or completed, and for at most {@code max-tracked-results} commands at once.
+ */
+@Data
+@ConfigurationProperties(prefix = "command-bus")
+public class CommandBusProperties {
+  private int capacity = 10_000;
+  private Duration resultTtl = Duration.ofMinutes(10);
+  private long maxTrackedResults = 100_000;
+}
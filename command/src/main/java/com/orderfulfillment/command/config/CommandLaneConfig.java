@@ -0,0 +1,109 @@
+package com.orderfulfillment.command.config;
+
+import com.orderfulfillment.command.dispatch.CommandLanes;
+import com.orderfulfillment.command.dispatch.CommandTimers;
+import com.orderfulfillment.command.dispatch.ConflictRetryPolicy;
+import com.orderfulfillment.command.eventstore.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ThreadFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * Creates the lane groups that order and inventory commands are dispatched to, and the policies
+ * that retry them on concurrency conflicts.
+ *
+ * <p>The lanes are grouped by the shards of the event stores, so that each lane only writes the
+ * aggregates of one shard. Unless configured otherwise there is one lane per shard.
+ *
+ * <p>When virtual threads are enabled with {@code spring.threads.virtual.enabled}, the lane workers
+ * are virtual threads, like the Tomcat request threads that wait on them.
+ */
+@Configuration
+@EnableConfigurationProperties({
+  CommandLaneProperties.class,
+  CommandRetryProperties.class,
+  InventoryEscrowProperties.class
+})
+public class CommandLaneConfig {
+
+  @Bean(destroyMethod = "close")
+  public CommandLanes orderCommandLanes(
+      CommandLaneProperties properties,
+      ShardRouter shardRouter,
+      Environment environment,
+      MeterRegistry meterRegistry) {
+    return new CommandLanes(
+        "order",
+        laneCount(properties.getOrderCount(), shardRouter),
+        shardRouter,
+        workerThreadFactory(environment),
+        meterRegistry);
+  }
+
+  @Bean(destroyMethod = "close")
+  public CommandLanes inventoryCommandLanes(
+      CommandLaneProperties properties,
+      ShardRouter shardRouter,
+      Environment environment,
+      MeterRegistry meterRegistry) {
+    return new CommandLanes(
+        "inventory",
+        laneCount(properties.getInventoryCount(), shardRouter),
+        shardRouter,
+        workerThreadFactory(environment),
+        meterRegistry);
+  }
+
+  @Bean
+  public CommandTimers orderCommandTimers(MeterRegistry meterRegistry) {
+    return new CommandTimers("Order", meterRegistry);
+  }
+
+  @Bean
+  public CommandTimers inventoryCommandTimers(MeterRegistry meterRegistry) {
+    return new CommandTimers("InventoryItem", meterRegistry);
+  }
+
+  @Bean
+  public ConflictRetryPolicy orderRetryPolicy(
+      CommandRetryProperties properties, MeterRegistry meterRegistry) {
+    return createRetryPolicy("Order", properties, meterRegistry);
+  }
+
+  @Bean
+  public ConflictRetryPolicy inventoryRetryPolicy(
+      CommandRetryProperties properties, MeterRegistry meterRegistry) {
+    return createRetryPolicy("InventoryItem", properties, meterRegistry);
+  }
+
+  /**
+   * Creates virtual lane threads when {@code spring.threads.virtual.enabled} is set, the same
+   * condition under which Spring Boot moves Tomcat onto virtual threads.
+   */
+  static ThreadFactory workerThreadFactory(Environment environment) {
+    return Threading.VIRTUAL.isActive(environment)
+        ? new VirtualThreadTaskExecutor().getVirtualThreadFactory()
+        : Thread::new;
+  }
+
+  private static int laneCount(Integer configured, ShardRouter shardRouter) {
+    return configured != null ? configured : shardRouter.getShardCount();
+  }
+
+  private ConflictRetryPolicy createRetryPolicy(
+      String aggregateType, CommandRetryProperties properties, MeterRegistry meterRegistry) {
+    return ConflictRetryPolicy.builder()
+        .aggregateType(aggregateType)
+        .maxAttempts(properties.getMaxAttempts())
+        .initialBackoff(properties.getInitialBackoff())
+        .maxBackoff(properties.getMaxBackoff())
+        .trackedAggregates(properties.getTrackedAggregates())
+        .meterRegistry(meterRegistry)
+        .build();
+  }
+}
@@ -0,0 +1,30 @@
+package com.orderfulfillment.command.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the per-aggregate command execution lanes.
+ *
+ * <p>Bound from the {@code command-lanes} prefix, for example:
+ *
+ * <pre>
+ * command-lanes:
+ *   order-count: 8
+ *   inventory-count: 8
+ * </pre>
+ *
+ * <p>Both counts default to {@code shards.count}, one lane per shard, so that each shard's
+ * aggregates are written by a single thread. Larger counts are rounded up to a multiple of the
+ * shard count. With virtual threads enabled an idle or blocked lane is nearly free, and counts of
+ * several hundred let more commands wait on the event store at the same time.
+ */
+@Data
+@ConfigurationProperties(prefix = "command-lanes")
+public class CommandLaneProperties {
+  /** The number of order lanes, or null for one lane per shard. */
+  private Integer orderCount;
+
+  /** The number of inventory lanes, or null for one lane per shard. */
+  private Integer inventoryCount;
+}
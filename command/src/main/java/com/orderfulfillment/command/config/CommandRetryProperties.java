@@ -0,0 +1,31 @@
+package com.orderfulfillment.command.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the server-side retry of commands that lose an optimistic concurrency race.
+ *
+ * <p>Bound from the {@code command-retry} prefix, for example:
+ *
+ * <pre>
+ * command-retry:
+ *   max-attempts: 5
+ *   initial-backoff: 2ms
+ *   max-backoff: 50ms
+ *   tracked-aggregates: 10000
+ * </pre>
+ *
+ * <p>Backoff grows exponentially from {@code initial-backoff} up to {@code max-backoff} and the
+ * actual delay is drawn uniformly below it. {@code tracked-aggregates} bounds how many aggregates
+ * keep a conflict counter.
+ */
+@Data
+@ConfigurationProperties(prefix = "command-retry")
+public class CommandRetryProperties {
+  private int maxAttempts = 5;
+  private Duration initialBackoff = Duration.ofMillis(2);
+  private Duration maxBackoff = Duration.ofMillis(50);
+  private long trackedAggregates = 10_000;
+}
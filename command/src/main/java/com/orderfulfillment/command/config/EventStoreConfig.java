@@ -0,0 +1,186 @@
+package com.orderfulfillment.command.config;
+
+import com.orderfulfillment.command.bootstrap.UnshardedStoreMigration;
+import com.orderfulfillment.command.domain.InventoryItem;
+import com.orderfulfillment.command.domain.InventoryItemSnapshot;
+import com.orderfulfillment.command.domain.Order;
+import com.orderfulfillment.command.domain.OrderSnapshot;
+import com.orderfulfillment.command.eventstore.AggregateLoader;
+import com.orderfulfillment.command.eventstore.EventSerializer;
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.eventstore.EventStoreMetrics;
+import com.orderfulfillment.command.eventstore.ShardRouter;
+import com.orderfulfillment.command.eventstore.SnapshotPolicy;
+import com.orderfulfillment.command.eventstore.SnapshotStore;
+import com.orderfulfillment.command.eventstore.impl.BinaryEventSerializer;
+import com.orderfulfillment.command.eventstore.impl.FileSnapshotStore;
+import com.orderfulfillment.command.eventstore.impl.InMemoryEventStore;
+import com.orderfulfillment.command.eventstore.impl.InMemorySnapshotStore;
+import com.orderfulfillment.command.eventstore.impl.JavaEventSerializer;
+import com.orderfulfillment.command.eventstore.impl.SegmentedFileEventStore;
+import com.orderfulfillment.command.eventstore.impl.ShardedEventStore;
+import com.orderfulfillment.command.eventstore.impl.ShardedSnapshotStore;
+import com.orderfulfillment.command.outbox.impl.FileOutboxCheckpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({EventStoreProperties.class, ShardProperties.class})
+public class EventStoreConfig {
+  @Bean
+  public EventSerializer eventSerializer(EventStoreProperties properties) {
+    return switch (properties.getSerializer()) {
+      case JAVA -> new JavaEventSerializer();
+      case BINARY -> new BinaryEventSerializer(new JavaEventSerializer());
+    };
+  }
+
+  @Bean
+  public ShardRouter shardRouter(ShardProperties properties) {
+    return new ShardRouter(properties.getCount());
+  }
+
+  @Bean
+  public EventStore orderEventStore(
+      EventStoreProperties properties,
+      ShardRouter shardRouter,
+      EventSerializer serializer,
+      MeterRegistry meterRegistry) {
+    return createEventStore(properties, shardRouter, serializer, meterRegistry, "orders");
+  }
+
+  @Bean
+  public EventStore inventoryEventStore(
+      EventStoreProperties properties,
+      ShardRouter shardRouter,
+      EventSerializer serializer,
+      MeterRegistry meterRegistry) {
+    return createEventStore(properties, shardRouter, serializer, meterRegistry, "inventory");
+  }
+
+  /**
+   * Gets the directory of one shard of a file event store. Each shard count has its own
+   * directories, because aggregates move between shards when the count changes.
+   */
+  static Path shardDirectory(
+      EventStoreProperties properties, String name, int shard, ShardRouter shardRouter) {
+    return Path.of(
+        properties.getDirectory(), name, "shard-" + shard + "-of-" + shardRouter.getShardCount());
+  }
+
+  /** Gets the outbox checkpoint file of one shard of a file event store. */
+  static Path checkpointFile(
+      EventStoreProperties properties, String name, int shard, ShardRouter shardRouter) {
+    return shardDirectory(properties, name, shard, shardRouter).resolve("outbox.checkpoint");
+  }
+
+  @Bean
+  public SnapshotStore orderSnapshotStore(
+      EventStoreProperties properties, ShardRouter shardRouter) {
+    return createSnapshotStore(properties, shardRouter, "orders");
+  }
+
+  @Bean
+  public SnapshotStore inventorySnapshotStore(
+      EventStoreProperties properties, ShardRouter shardRouter) {
+    return createSnapshotStore(properties, shardRouter, "inventory");
+  }
+
+  @Bean
+  public SnapshotPolicy snapshotPolicy(EventStoreProperties properties) {
+    EventStoreProperties.Snapshots snapshots = properties.getSnapshots();
+    return new SnapshotPolicy(
+        snapshots.isEnabled(), snapshots.getEveryEvents(), snapshots.getReplayThreshold());
+  }
+
+  @Bean
+  public AggregateLoader<Order, OrderSnapshot> orderLoader(
+      @Qualifier("orderEventStore") EventStore eventStore,
+      @Qualifier("orderSnapshotStore") SnapshotStore snapshotStore,
+      SnapshotPolicy snapshotPolicy,
+      EventStoreProperties properties,
+      MeterRegistry meterRegistry) {
+    return AggregateLoader.<Order, OrderSnapshot>builder()
+        .aggregateType("Order")
+        .eventStore(eventStore)
+        .snapshotStore(snapshotStore)
+        .snapshotPolicy(snapshotPolicy)
+        .factory(Order::new)
+        .weigher(snapshot -> 1 + snapshot.items().size())
+        .cacheMaximumWeight(properties.getCache().getMaximumWeight())
+        .meterRegistry(meterRegistry)
+        .build();
+  }
+
+  @Bean
+  public AggregateLoader<InventoryItem, InventoryItemSnapshot> inventoryLoader(
+      @Qualifier("inventoryEventStore") EventStore eventStore,
+      @Qualifier("inventorySnapshotStore") SnapshotStore snapshotStore,
+      SnapshotPolicy snapshotPolicy,
+      EventStoreProperties properties,
+      MeterRegistry meterRegistry) {
+    return AggregateLoader.<InventoryItem, InventoryItemSnapshot>builder()
+        .aggregateType("InventoryItem")
+        .eventStore(eventStore)
+        .snapshotStore(snapshotStore)
+        .snapshotPolicy(snapshotPolicy)
+        .factory(InventoryItem::new)
+        .weigher(snapshot -> 1 + snapshot.reservations().size() + snapshot.backorders().size())
+        .cacheMaximumWeight(properties.getCache().getMaximumWeight())
+        .meterRegistry(meterRegistry)
+        .build();
+  }
+
+  private EventStore createEventStore(
+      EventStoreProperties properties,
+      ShardRouter shardRouter,
+      EventSerializer serializer,
+      MeterRegistry meterRegistry,
+      String name) {
+    EventStoreMetrics metrics = new EventStoreMetrics(name, meterRegistry);
+    ShardedEventStore eventStore =
+        new ShardedEventStore(
+            shardRouter,
+            shard ->
+                switch (properties.getEngine()) {
+                  case MEMORY -> new InMemoryEventStore();
+                  case FILE ->
+                      new SegmentedFileEventStore(
+                          shardDirectory(properties, name, shard, shardRouter),
+                          Math.toIntExact(properties.getSegmentSize().toBytes()),
+                          properties.getFsync(),
+                          properties.getGroupCommitInterval(),
+                          serializer,
+                          metrics);
+                });
+    if (properties.getEngine() == EventStoreProperties.Engine.FILE) {
+      new UnshardedStoreMigration(
+              Path.of(properties.getDirectory(), name),
+              Math.toIntExact(properties.getSegmentSize().toBytes()),
+              serializer)
+          .migrate(
+              eventStore,
+              shard ->
+                  new FileOutboxCheckpoint(checkpointFile(properties, name, shard, shardRouter)));
+    }
+    EventStoreMetrics.bind(name, eventStore, meterRegistry);
+    return eventStore;
+  }
+
+  private SnapshotStore createSnapshotStore(
+      EventStoreProperties properties, ShardRouter shardRouter, String name) {
+    return switch (properties.getEngine()) {
+      case MEMORY -> new InMemorySnapshotStore();
+      case FILE ->
+          new ShardedSnapshotStore(
+              shardRouter,
+              shard ->
+                  new FileSnapshotStore(
+                      shardDirectory(properties, name, shard, shardRouter).resolve("snapshots")));
+    };
+  }
+}
@@ -0,0 +1,73 @@
+package com.orderfulfillment.command.config;
+
+import com.orderfulfillment.command.eventstore.FsyncPolicy;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration of the event store engine backing the repositories.
+ *
+ * <p>Bound from the {@code event-store} prefix, for example:
+ *
+ * <pre>
+ * event-store:
+ *   engine: file
+ *   directory: data/event-store
+ *   segment-size: 64MB
+ *   fsync: group-commit
+ *   serializer: binary
+ *   group-commit-interval: 5ms
+ *   snapshots:
+ *     enabled: true
+ *     every-events: 100
+ *     replay-threshold: 10ms
+ *   cache:
+ *     maximum-weight: 100000
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "event-store")
+public class EventStoreProperties {
+  private Engine engine = Engine.FILE;
+  private String directory = "data/event-store";
+  private DataSize segmentSize = DataSize.ofMegabytes(64);
+  private FsyncPolicy fsync = FsyncPolicy.GROUP_COMMIT;
+  private Duration groupCommitInterval = Duration.ofMillis(5);
+  private Serializer serializer = Serializer.BINARY;
+  private Snapshots snapshots = new Snapshots();
+  private Cache cache = new Cache();
+
+  /** Available event store engines. */
+  public enum Engine {
+    MEMORY,
+    FILE
+  }
+
+  /**
+   * Available encodings of stored events. The binary serializer still reads events written by the
+   * Java serializer, so an existing store can be switched to it in place.
+   */
+  public enum Serializer {
+    JAVA,
+    BINARY
+  }
+
+  /** Settings controlling when aggregate snapshots are taken. */
+  @Data
+  public static class Snapshots {
+    private boolean enabled = true;
+    private int everyEvents = 100;
+    private Duration replayThreshold = Duration.ofMillis(10);
+  }
+
+  /**
+   * Settings of the in-memory aggregate cache. Each cached inventory item weighs 1 and each cached
+   * order weighs 1 plus its number of items; a maximum weight of 0 disables the cache.
+   */
+  @Data
+  public static class Cache {
+    private long maximumWeight = 100_000;
+  }
+}
@@ -0,0 +1,28 @@
+package com.orderfulfillment.command.config;
+
+import java.util.HashSet;
+import java.util.Set;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of escrow allocation for contended products.
+ *
+ * <p>Bound from the {@code inventory-escrow} prefix, for example:
+ *
+ * <pre>
+ * inventory-escrow:
+ *   product-ids: flash-sale-1, flash-sale-2
+ *   slots: 8
+ * </pre>
+ *
+ * <p>Allocations of the listed products are admitted against in-memory sub-budgets instead of
+ * queueing one save each on the product's lane. {@code slots} is the number of sub-budgets and
+ * defaults to the number of available processors. No product is in escrow by default.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory-escrow")
+public class InventoryEscrowProperties {
+  private Set<String> productIds = new HashSet<>();
+  private int slots = Runtime.getRuntime().availableProcessors();
+}
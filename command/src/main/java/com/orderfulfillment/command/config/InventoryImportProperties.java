@@ -0,0 +1,29 @@
+package com.orderfulfillment.command.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the streaming inventory import endpoint.
+ *
+ * <p>Bound from the {@code inventory-import} prefix, for example:
+ *
+ * <pre>
+ * inventory-import:
+ *   max-in-flight: 1024
+ *   max-reported-rejections: 1000
+ *   progress-interval: 50000
+ * </pre>
+ *
+ * <p>{@code max-in-flight} bounds how many updates are queued on the inventory lanes at once, which
+ * keeps memory constant however large the import is. Only the first {@code max-reported-rejections}
+ * rejected lines are listed in the response; the rest are only counted. Progress is logged every
+ * {@code progress-interval} lines.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory-import")
+public class InventoryImportProperties {
+  private int maxInFlight = 1024;
+  private int maxReportedRejections = 1000;
+  private long progressInterval = 50_000;
+}
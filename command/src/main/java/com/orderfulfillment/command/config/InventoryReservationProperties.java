@@ -0,0 +1,40 @@
+package com.orderfulfillment.command.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of time-bounded inventory reservations and their expiry.
+ *
+ * <p>Bound from the {@code inventory-reservations} prefix, for example:
+ *
+ * <pre>
+ * inventory-reservations:
+ *   default-ttl: 15m
+ *   max-ttl: 24h
+ *   order-hold-ttl: 1m
+ *   tick: 100ms
+ *   wheel-size: 512
+ *   batch-size: 1000
+ *   retry-delay: 1s
+ * </pre>
+ *
+ * <p>Reservations made without a time-to-live hold for {@code default-ttl}, and none may hold for
+ * longer than {@code max-ttl}. New orders hold the stock of their lines for {@code order-hold-ttl}
+ * until they are stored and the holds are confirmed. Expiry runs every {@code tick}, so
+ * reservations are released at most one tick after their deadline; {@code wheel-size} is the number
+ * of buckets per level of the timing wheel. {@code batch-size} bounds how many events are read from
+ * the inventory log at once, and an expiry that fails is tried again after {@code retry-delay}.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory-reservations")
+public class InventoryReservationProperties {
+  private Duration defaultTtl = Duration.ofMinutes(15);
+  private Duration maxTtl = Duration.ofHours(24);
+  private Duration orderHoldTtl = Duration.ofMinutes(1);
+  private Duration tick = Duration.ofMillis(100);
+  private int wheelSize = 512;
+  private int batchSize = 1_000;
+  private Duration retryDelay = Duration.ofSeconds(1);
+}
@@ -1,26 +1,37 @@
 package com.orderfulfillment.command.config;
 
+import com.orderfulfillment.command.outbox.EventMessageSerializer;
+import com.orderfulfillment.command.outbox.TopicPartitionCheck;
 import com.orderfulfillment.command.utils.Constants;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 @Configuration
 @EnableKafka
+@EnableConfigurationProperties({OutboxProperties.class, ShardProperties.class})
 public class KafkaConfig {
   @Bean
-  public NewTopic orderEventsTopic() {
-    return TopicBuilder.name(Constants.ORDER_EVENTS_TOPIC).partitions(3).replicas(1).build();
+  public NewTopic orderEventsTopic(ShardProperties shardProperties) {
+    return TopicBuilder.name(Constants.ORDER_EVENTS_TOPIC)
+        .partitions(shardProperties.getCount())
+        .replicas(1)
+        .build();
   }
 
   @Bean
@@ -30,20 +41,43 @@ public class KafkaConfig {
   }
 
   @Bean
-  public NewTopic inventoryEventsTopic() {
-    return TopicBuilder.name(Constants.INVENTORY_EVENTS_TOPIC).partitions(3).replicas(1).build();
+  public NewTopic inventoryEventsTopic(ShardProperties shardProperties) {
+    return TopicBuilder.name(Constants.INVENTORY_EVENTS_TOPIC)
+        .partitions(shardProperties.getCount())
+        .replicas(1)
+        .build();
   }
 
   @Bean
-  public ProducerFactory<String, Object> producerFactory() {
-    Map<String, Object> configProps = new HashMap<>();
-    configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "kafka:9092");
+  public TopicPartitionCheck topicPartitionCheck(
+      KafkaAdmin kafkaAdmin,
+      @Qualifier("orderEventsTopic") NewTopic orderEventsTopic,
+      @Qualifier("inventoryEventsTopic") NewTopic inventoryEventsTopic) {
+    // Runs while the singletons are created, before the KafkaAdmin creates or modifies topics.
+    TopicPartitionCheck check =
+        new TopicPartitionCheck(kafkaAdmin, List.of(orderEventsTopic, inventoryEventsTopic));
+    check.verify();
+    return check;
+  }
+
+  @Bean
+  public ProducerFactory<String, Object> producerFactory(
+      KafkaProperties kafkaProperties, OutboxProperties outboxProperties) {
+    Map<String, Object> configProps = new HashMap<>(kafkaProperties.buildProducerProperties(null));
     configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-    configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+    configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, EventMessageSerializer.class);
+    // The outbox relay sends whole batches without waiting; idempotence keeps retried sends from
+    // reordering or duplicating events within a partition.
+    configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    configProps.put(ProducerConfig.ACKS_CONFIG, "all");
 
     JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
     jsonSerializer.setAddTypeInfo(true);
 
-    return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), jsonSerializer);
+    EventMessageSerializer valueSerializer =
+        new EventMessageSerializer(
+            jsonSerializer, outboxProperties.getTopicFormats(), outboxProperties.getFormat());
+
+    return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), valueSerializer);
   }
 }
@@ -0,0 +1,23 @@
+package com.orderfulfillment.command.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the batch order endpoint.
+ *
+ * <p>Bound from the {@code order-batch} prefix, for example:
+ *
+ * <pre>
+ * order-batch:
+ *   max-orders: 10000
+ * </pre>
+ *
+ * <p>Requests with more than {@code max-orders} orders are rejected, since a batch is held in
+ * memory until all of its orders are handled.
+ */
+@Data
+@ConfigurationProperties(prefix = "order-batch")
+public class OrderBatchProperties {
+  private int maxOrders = 10_000;
+}
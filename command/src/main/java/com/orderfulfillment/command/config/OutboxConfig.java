@@ -0,0 +1,114 @@
+package com.orderfulfillment.command.config;
+
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.eventstore.ShardRouter;
+import com.orderfulfillment.command.outbox.OutboxCheckpoint;
+import com.orderfulfillment.command.outbox.OutboxRelay;
+import com.orderfulfillment.command.outbox.impl.FileOutboxCheckpoint;
+import com.orderfulfillment.command.outbox.impl.InMemoryOutboxCheckpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.IntFunction;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * Creates the outbox relays of the order and inventory event stores. Each relay publishes every
+ * shard of its store to the partition of the same index, from a checkpoint kept with the shard.
+ *
+ * <p>The relays are started once the application is ready, which is after the bootstrap replay, so
+ * they never publish events that the replay has just read from Kafka.
+ */
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+  @Bean(destroyMethod = "close")
+  public OutboxRelay orderOutboxRelay(
+      @Qualifier("orderEventStore") EventStore eventStore,
+      @Qualifier("orderEventsTopic") NewTopic topic,
+      KafkaTemplate<String, Object> kafkaTemplate,
+      EventStoreProperties eventStoreProperties,
+      ShardRouter shardRouter,
+      OutboxProperties properties,
+      Environment environment,
+      MeterRegistry meterRegistry) {
+    return createRelay(
+        eventStore,
+        shard -> createCheckpoint(eventStoreProperties, "orders", shard, shardRouter),
+        topic,
+        kafkaTemplate,
+        properties,
+        CommandLaneConfig.workerThreadFactory(environment),
+        meterRegistry);
+  }
+
+  @Bean(destroyMethod = "close")
+  public OutboxRelay inventoryOutboxRelay(
+      @Qualifier("inventoryEventStore") EventStore eventStore,
+      @Qualifier("inventoryEventsTopic") NewTopic topic,
+      KafkaTemplate<String, Object> kafkaTemplate,
+      EventStoreProperties eventStoreProperties,
+      ShardRouter shardRouter,
+      OutboxProperties properties,
+      Environment environment,
+      MeterRegistry meterRegistry) {
+    return createRelay(
+        eventStore,
+        shard -> createCheckpoint(eventStoreProperties, "inventory", shard, shardRouter),
+        topic,
+        kafkaTemplate,
+        properties,
+        CommandLaneConfig.workerThreadFactory(environment),
+        meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void startRelays(ApplicationReadyEvent event) {
+    event
+        .getApplicationContext()
+        .getBeansOfType(OutboxRelay.class)
+        .values()
+        .forEach(OutboxRelay::start);
+  }
+
+  private OutboxRelay createRelay(
+      EventStore eventStore,
+      IntFunction<OutboxCheckpoint> checkpoints,
+      NewTopic topic,
+      KafkaTemplate<String, Object> kafkaTemplate,
+      OutboxProperties properties,
+      ThreadFactory threadFactory,
+      MeterRegistry meterRegistry) {
+    return OutboxRelay.builder()
+        .eventStore(eventStore)
+        .checkpoints(checkpoints)
+        .kafkaTemplate(kafkaTemplate)
+        .topic(topic.name())
+        .batchSize(properties.getBatchSize())
+        .pollInterval(properties.getPollInterval())
+        .sendTimeout(properties.getSendTimeout())
+        .initialBackoff(properties.getInitialBackoff())
+        .maxBackoff(properties.getMaxBackoff())
+        .meterRegistry(meterRegistry)
+        .threadFactory(threadFactory)
+        .build();
+  }
+
+  private OutboxCheckpoint createCheckpoint(
+      EventStoreProperties properties, String name, int shard, ShardRouter shardRouter) {
+    return switch (properties.getEngine()) {
+      case MEMORY -> new InMemoryOutboxCheckpoint();
+      case FILE ->
+          new FileOutboxCheckpoint(
+              EventStoreConfig.checkpointFile(properties, name, shard, shardRouter));
+    };
+  }
+}
@@ -0,0 +1,41 @@
+package com.orderfulfillment.command.config;
+
+import com.orderfulfillment.command.outbox.EventFormat;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the relays that publish the event store logs to Kafka.
+ *
+ * <p>Bound from the {@code outbox} prefix, for example:
+ *
+ * <pre>
+ * outbox:
+ *   batch-size: 500
+ *   poll-interval: 100ms
+ *   send-timeout: 30s
+ *   initial-backoff: 100ms
+ *   max-backoff: 10s
+ *   format: json
+ *   topic-formats:
+ *     inventory-events: binary
+ * </pre>
+ *
+ * <p>{@code format} is the wire format of every topic not listed in {@code topic-formats}. The
+ * query service reads JSON only, so a topic should only be switched to binary when all of its
+ * consumers decode it.
+ */
+@Data
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+  private int batchSize = 500;
+  private Duration pollInterval = Duration.ofMillis(100);
+  private Duration sendTimeout = Duration.ofSeconds(30);
+  private Duration initialBackoff = Duration.ofMillis(100);
+  private Duration maxBackoff = Duration.ofSeconds(10);
+  private EventFormat format = EventFormat.JSON;
+  private Map<String, EventFormat> topicFormats = new HashMap<>();
+}
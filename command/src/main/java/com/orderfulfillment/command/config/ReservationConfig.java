@@ -0,0 +1,48 @@
+package com.orderfulfillment.command.config;
+
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.handlers.AsyncInventoryCommandHandler;
+import com.orderfulfillment.command.reservations.ReservationExpiryScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Creates the scheduler that releases expired inventory reservations.
+ *
+ * <p>The scheduler is started once the application is ready, which is after the bootstrap replay,
+ * so it rebuilds the outstanding reservations from the complete inventory log.
+ */
+@Configuration
+@EnableConfigurationProperties(InventoryReservationProperties.class)
+public class ReservationConfig {
+
+  @Bean(destroyMethod = "close")
+  public ReservationExpiryScheduler reservationExpiryScheduler(
+      @Qualifier("inventoryEventStore") EventStore eventStore,
+      AsyncInventoryCommandHandler inventoryCommandHandler,
+      InventoryReservationProperties properties,
+      Environment environment,
+      MeterRegistry meterRegistry) {
+    return ReservationExpiryScheduler.builder()
+        .eventStore(eventStore)
+        .inventoryCommandHandler(inventoryCommandHandler)
+        .tick(properties.getTick())
+        .wheelSize(properties.getWheelSize())
+        .batchSize(properties.getBatchSize())
+        .retryDelay(properties.getRetryDelay())
+        .meterRegistry(meterRegistry)
+        .threadFactory(CommandLaneConfig.workerThreadFactory(environment))
+        .build();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void startScheduler(ApplicationReadyEvent event) {
+    event.getApplicationContext().getBean(ReservationExpiryScheduler.class).start();
+  }
+}
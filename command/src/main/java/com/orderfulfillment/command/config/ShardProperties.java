@@ -0,0 +1,32 @@
+package com.orderfulfillment.command.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the shards the write model is split into.
+ *
+ * <p>Bound from the {@code shards} prefix, for example:
+ *
+ * <pre>
+ * shards:
+ *   count: 8
+ * </pre>
+ *
+ * <p>The count is at once the number of partitions of the order and inventory topics, the number of
+ * shards of each event store, the number of outbox publishers per topic and the number of groups
+ * the command lanes are split into. They are kept in step because an aggregate's shard is the
+ * partition its events are published to. Setting the count and both lane counts to the number of
+ * processors gives every shard a thread of its own.
+ *
+ * <p>The default of 3 matches the partitions the topics were created with. Kafka can add partitions
+ * to a topic but not remove them, and adding them moves keys to other partitions, so a new count
+ * needs new topics; the service refuses to start when an existing topic has another number of
+ * partitions. The event store keeps the files of each count apart and is refilled from the topics
+ * by the bootstrap replay.
+ */
+@Data
+@ConfigurationProperties(prefix = "shards")
+public class ShardProperties {
+  private int count = 3;
+}
@@ -0,0 +1,136 @@
+package com.orderfulfillment.command.dispatch;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orderfulfillment.command.events.impl.EventIds;
+import com.orderfulfillment.command.exceptions.CommandBusFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import lombok.Builder;
+
+/**
+ * Accepts commands for asynchronous execution and tracks their outcome.
+ *
+ * <p>An accepted command is handed to the asynchronous command handlers, which queue it on the lane
+ * of its aggregate, and the caller gets a command ID back without waiting for it to run. The bus
+ * bounds the number of commands that are accepted but not yet completed: once {@code capacity}
+ * commands are outstanding, further commands are rejected with a {@link CommandBusFullException}
+ * instead of growing the lane queues without limit.
+ *
+ * <p>The {@link CommandStatus} of every command is kept in a Caffeine cache from which it is
+ * evicted {@code resultTtl} after the command was accepted or completed, and beyond {@code
+ * maxTrackedResults} commands, so memory stays bounded however many commands pass through.
+ *
+ * <p>The bus publishes the {@code command.bus.outstanding} gauge and the {@code
+ * command.bus.rejected} counter.
+ */
+public class CommandBus {
+  private final int capacity;
+  private final Clock clock;
+  private final Semaphore permits;
+  private final Cache<String, CommandStatus> statuses;
+  private final Counter rejected;
+
+  /**
+   * Creates a command bus.
+   *
+   * @param capacity the maximum number of accepted commands that have not completed yet
+   * @param resultTtl how long the status of a command is kept after it was last updated
+   * @param maxTrackedResults the maximum number of command statuses kept
+   * @param clock the clock acceptance and completion times are taken from, the system clock if
+   *     {@code null}
+   * @param meterRegistry the registry metrics are published to
+   */
+  @Builder
+  private CommandBus(
+      int capacity,
+      Duration resultTtl,
+      long maxTrackedResults,
+      Clock clock,
+      MeterRegistry meterRegistry) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive, got " + capacity);
+    }
+
+    this.capacity = capacity;
+    this.clock = clock != null ? clock : Clock.systemUTC();
+    this.permits = new Semaphore(capacity);
+    this.statuses =
+        Caffeine.newBuilder().expireAfterWrite(resultTtl).maximumSize(maxTrackedResults).build();
+    this.rejected =
+        Counter.builder("command.bus.rejected")
+            .description("Commands rejected because the command bus was full")
+            .register(meterRegistry);
+    Gauge.builder("command.bus.outstanding", this, CommandBus::getOutstanding)
+        .description("Commands accepted by the command bus that have not completed yet")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Accepts a command and starts it.
+   *
+   * @param aggregateId the unique identifier of the aggregate the command applies to
+   * @param command submits the command to an asynchronous handler and returns its future
+   * @return the status of the accepted command
+   * @throws CommandBusFullException if {@code capacity} commands are already outstanding
+   */
+  public CommandStatus accept(String aggregateId, Supplier<CompletableFuture<?>> command) {
+    if (!permits.tryAcquire()) {
+      rejected.increment();
+      throw new CommandBusFullException(capacity);
+    }
+
+    CommandStatus accepted = CommandStatus.accepted(EventIds.next(), aggregateId, clock.instant());
+    statuses.put(accepted.commandId(), accepted);
+
+    CompletableFuture<?> result;
+    try {
+      result = command.get();
+    } catch (RuntimeException e) {
+      result = CompletableFuture.failedFuture(e);
+    }
+    result.whenComplete(
+        (done, failure) -> {
+          statuses.put(
+              accepted.commandId(),
+              failure == null
+                  ? accepted.succeeded(clock.instant())
+                  : accepted.failed(unwrap(failure), clock.instant()));
+          permits.release();
+        });
+    return accepted;
+  }
+
+  /**
+   * Gets the status of a command.
+   *
+   * @param commandId the unique identifier of the command
+   * @return the status, or empty if the command is unknown or its status has been evicted
+   */
+  public Optional<CommandStatus> status(String commandId) {
+    return Optional.ofNullable(statuses.getIfPresent(commandId));
+  }
+
+  /**
+   * Gets the number of accepted commands that have not completed yet.
+   *
+   * @return the number of outstanding commands
+   */
+  public int getOutstanding() {
+    return capacity - permits.availablePermits();
+  }
+
+  private static Throwable unwrap(Throwable failure) {
+    return failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause()
+        : failure;
+  }
+}
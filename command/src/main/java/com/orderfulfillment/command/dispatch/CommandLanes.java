@@ -0,0 +1,260 @@
+package com.orderfulfillment.command.dispatch;
+
+import com.orderfulfillment.command.eventstore.ShardRouter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fixed set of single-threaded executor lanes that commands are routed to by aggregate key.
+ *
+ * <p>Every key hashes to exactly one lane, so commands for the same aggregate run one after another
+ * in submission order and never race on its version, while commands for different aggregates are
+ * spread across the lanes and run in parallel. Callers of {@link #run} and {@link #call} block
+ * until their command has run and see its result or exception as if it had run on their own thread,
+ * while {@link #runAsync} and {@link #callAsync} hand back a future instead. A command submitted
+ * from a lane thread to its own lane runs inline, so nested dispatch cannot deadlock.
+ *
+ * <p>Each lane publishes its queue depth as the {@code command.lane.queue.depth} gauge, and the
+ * time commands spend queued before they start is recorded in the {@code command.lane.wait} timer,
+ * both tagged with the lane group name.
+ *
+ * <p>Lanes can be grouped by the shards of a {@link ShardRouter}: the lane count is rounded up to a
+ * multiple of the shard count and every key goes to one of the lanes of its shard, so the lanes of
+ * a shard are the only threads writing its aggregates. With as many lanes as shards, each shard is
+ * owned by a single thread.
+ *
+ * <p>Lane threads are created by a {@link ThreadFactory}, which may create virtual threads. A lane
+ * worker then costs almost nothing while it is blocked on the event store, so many more lanes than
+ * processors can be configured and their fsync waits overlap.
+ */
+@Slf4j
+public class CommandLanes implements AutoCloseable {
+  private final String name;
+  private final ShardRouter router;
+  private final int lanesPerShard;
+  private final Lane[] lanes;
+  private final Timer waitTimer;
+
+  /**
+   * Creates and starts lanes running on platform threads.
+   *
+   * @param name the lane group name used in thread names and metric tags
+   * @param count the number of lanes
+   * @param meterRegistry the registry metrics are published to
+   */
+  public CommandLanes(String name, int count, MeterRegistry meterRegistry) {
+    this(name, count, Thread::new, meterRegistry);
+  }
+
+  /**
+   * Creates and starts the lanes.
+   *
+   * @param name the lane group name used in thread names and metric tags
+   * @param count the number of lanes
+   * @param threadFactory creates the worker thread of each lane
+   * @param meterRegistry the registry metrics are published to
+   */
+  public CommandLanes(
+      String name, int count, ThreadFactory threadFactory, MeterRegistry meterRegistry) {
+    this(name, count, new ShardRouter(1), threadFactory, meterRegistry);
+  }
+
+  /**
+   * Creates and starts lanes grouped by shard.
+   *
+   * @param name the lane group name used in thread names and metric tags
+   * @param count the minimum number of lanes, rounded up to a multiple of the shard count
+   * @param router the router assigning keys to shards
+   * @param threadFactory creates the worker thread of each lane
+   * @param meterRegistry the registry metrics are published to
+   */
+  public CommandLanes(
+      String name,
+      int count,
+      ShardRouter router,
+      ThreadFactory threadFactory,
+      MeterRegistry meterRegistry) {
+    if (count < 1) {
+      throw new IllegalArgumentException("Lane count must be positive, got " + count);
+    }
+
+    this.name = name;
+    this.router = router;
+    this.lanesPerShard = (count + router.getShardCount() - 1) / router.getShardCount();
+    int laneCount = lanesPerShard * router.getShardCount();
+    this.lanes = new Lane[laneCount];
+    this.waitTimer =
+        Timer.builder("command.lane.wait")
+            .description("Time commands spend queued before their lane starts them")
+            .tag("group", name)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+
+    for (int i = 0; i < laneCount; i++) {
+      Lane lane = new Lane(name + "-lane-" + i, threadFactory);
+      lanes[i] = lane;
+      Gauge.builder("command.lane.queue.depth", lane.executor.getQueue(), BlockingQueue::size)
+          .description("Number of commands waiting in a lane")
+          .tag("group", name)
+          .tag("lane", String.valueOf(i))
+          .register(meterRegistry);
+    }
+    log.info(
+        "Started {} command lanes for {} across {} shards",
+        laneCount,
+        name,
+        router.getShardCount());
+  }
+
+  /**
+   * Runs a command on the lane of its aggregate and waits for it to complete.
+   *
+   * @param key the aggregate key the command targets
+   * @param command the command to run
+   */
+  public void run(String key, Runnable command) {
+    call(
+        key,
+        () -> {
+          command.run();
+          return null;
+        });
+  }
+
+  /**
+   * Runs a command on the lane of its aggregate and waits for its result.
+   *
+   * @param key the aggregate key the command targets
+   * @param command the command to run
+   * @param <T> the result type
+   * @return the result of the command
+   */
+  public <T> T call(String key, Supplier<T> command) {
+    try {
+      return callAsync(key, command).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Queues a command on the lane of its aggregate without waiting for it.
+   *
+   * @param key the aggregate key the command targets
+   * @param command the command to run
+   * @return a future completed when the command has run
+   */
+  public CompletableFuture<Void> runAsync(String key, Runnable command) {
+    return callAsync(
+        key,
+        () -> {
+          command.run();
+          return null;
+        });
+  }
+
+  /**
+   * Queues a command on the lane of its aggregate without waiting for its result.
+   *
+   * <p>The returned future completes on the lane thread, so dependent stages should be cheap or
+   * move to another executor. A command submitted from its own lane runs inline and returns a
+   * completed future.
+   *
+   * @param key the aggregate key the command targets
+   * @param command the command to run
+   * @param <T> the result type
+   * @return a future completed with the result or exception of the command
+   */
+  public <T> CompletableFuture<T> callAsync(String key, Supplier<T> command) {
+    Lane lane = laneFor(key);
+    if (Thread.currentThread() == lane.thread) {
+      try {
+        return CompletableFuture.completedFuture(command.get());
+      } catch (RuntimeException | Error e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+
+    long enqueued = System.nanoTime();
+    return CompletableFuture.supplyAsync(
+        () -> {
+          waitTimer.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+          return command.get();
+        },
+        lane.executor);
+  }
+
+  /**
+   * Gets the number of lanes.
+   *
+   * @return the lane count
+   */
+  public int size() {
+    return lanes.length;
+  }
+
+  @Override
+  public void close() {
+    for (Lane lane : lanes) {
+      lane.executor.shutdown();
+    }
+    for (Lane lane : lanes) {
+      try {
+        if (!lane.executor.awaitTermination(10, TimeUnit.SECONDS)) {
+          log.warn("Command lane {} did not drain in time", lane.thread.getName());
+          lane.executor.shutdownNow();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        lane.executor.shutdownNow();
+      }
+    }
+    log.info("Stopped command lanes for {}", name);
+  }
+
+  private Lane laneFor(String key) {
+    int hash = Objects.hashCode(key);
+    int lane = Math.floorMod(hash ^ (hash >>> 16), lanesPerShard);
+    return lanes[key == null ? lane : router.shardOf(key) * lanesPerShard + lane];
+  }
+
+  /** A single worker thread together with its FIFO command queue. */
+  private static final class Lane {
+    private final ThreadPoolExecutor executor;
+    private volatile Thread thread;
+
+    private Lane(String threadName, ThreadFactory threadFactory) {
+      this.executor =
+          new ThreadPoolExecutor(
+              1,
+              1,
+              0,
+              TimeUnit.MILLISECONDS,
+              new LinkedBlockingQueue<>(),
+              runnable -> {
+                Thread worker = threadFactory.newThread(runnable);
+                worker.setName(threadName);
+                thread = worker;
+                return worker;
+              });
+      this.executor.prestartAllCoreThreads();
+    }
+  }
+}
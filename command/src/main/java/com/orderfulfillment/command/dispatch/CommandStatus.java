@@ -0,0 +1,57 @@
+package com.orderfulfillment.command.dispatch;
+
+import com.orderfulfillment.command.exceptions.ConcurrencyException;
+import com.orderfulfillment.command.exceptions.domain.OrderFulfillmentException;
+import java.time.Instant;
+
+/**
+ * The progress of a command accepted by the {@link CommandBus}.
+ *
+ * @param commandId the unique identifier of the command
+ * @param aggregateId the unique identifier of the aggregate the command applies to
+ * @param state whether the command is still running, has been stored or has failed
+ * @param acceptedAt when the command was accepted
+ * @param completedAt when the command completed, or null while it is running
+ * @param error the simple name of the exception the command failed with, or null
+ * @param message the message of the exception the command failed with, or null; internal errors are
+ *     not described
+ */
+public record CommandStatus(
+    String commandId,
+    String aggregateId,
+    State state,
+    Instant acceptedAt,
+    Instant completedAt,
+    String error,
+    String message) {
+
+  /** The states of a command. */
+  public enum State {
+    ACCEPTED,
+    SUCCEEDED,
+    FAILED
+  }
+
+  static CommandStatus accepted(String commandId, String aggregateId, Instant now) {
+    return new CommandStatus(commandId, aggregateId, State.ACCEPTED, now, null, null, null);
+  }
+
+  CommandStatus succeeded(Instant now) {
+    return new CommandStatus(commandId, aggregateId, State.SUCCEEDED, acceptedAt, now, null, null);
+  }
+
+  CommandStatus failed(Throwable failure, Instant now) {
+    boolean described =
+        failure instanceof OrderFulfillmentException
+            || failure instanceof ConcurrencyException
+            || failure instanceof IllegalArgumentException;
+    return new CommandStatus(
+        commandId,
+        aggregateId,
+        State.FAILED,
+        acceptedAt,
+        now,
+        failure.getClass().getSimpleName(),
+        described ? failure.getMessage() : "An unexpected error occurred");
+  }
+}
@@ -0,0 +1,135 @@
+package com.orderfulfillment.command.dispatch;
+
+import com.orderfulfillment.command.jfr.CommandExecutionEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times the execution of commands by the handlers of one aggregate type.
+ *
+ * <p>Executions are recorded in the {@code command.handle} timer, tagged with the simple class name
+ * of the command and whether it succeeded or failed. Both tags have a fixed set of values, so the
+ * number of series stays bounded however many aggregates are written. The timers of a command class
+ * are registered on its first execution and then found without a registry lookup.
+ *
+ * <p>Each execution is also a {@link CommandExecutionEvent} for the flight recorder, which carries
+ * the order or product ID and the number of events the command saved, so recordings can tie a spike
+ * to the commands running at the time.
+ *
+ * <p>Only the handler itself is timed, inside the lane, so the time a command waits for its lane is
+ * left to the {@code command.lane.wait} timer and conflict retries are timed once per attempt.
+ * Commands handled in several steps on different lanes through {@link #callAsync} are timed from
+ * the start of the first step to the end of the last, including the waits in between.
+ */
+public class CommandTimers {
+  private final String aggregateType;
+  private final ClassValue<CommandMeters> meters;
+
+  /**
+   * Creates the command timers of one aggregate type.
+   *
+   * @param aggregateType the type of the aggregates the timed commands apply to
+   * @param meterRegistry the registry metrics are published to
+   */
+  public CommandTimers(String aggregateType, MeterRegistry meterRegistry) {
+    this.aggregateType = aggregateType;
+    this.meters =
+        new ClassValue<>() {
+          @Override
+          protected CommandMeters computeValue(Class<?> type) {
+            return new CommandMeters(
+                type.getSimpleName(),
+                timer(meterRegistry, type, "success"),
+                timer(meterRegistry, type, "failure"));
+          }
+        };
+  }
+
+  /**
+   * Runs the handler of a command and records its duration.
+   *
+   * @param command the command, whose class names the timer
+   * @param key the order or product ID the command applies to
+   * @param handler handles the command
+   */
+  public void run(Object command, String key, Runnable handler) {
+    call(
+        command,
+        key,
+        () -> {
+          handler.run();
+          return null;
+        });
+  }
+
+  /**
+   * Runs the handler of a command and records its duration.
+   *
+   * @param command the command, whose class names the timer
+   * @param key the order or product ID the command applies to
+   * @param handler handles the command
+   * @param <T> the type of the result
+   * @return the result of the handler
+   */
+  public <T> T call(Object command, String key, Supplier<T> handler) {
+    CommandMeters commandMeters = meters.get(command.getClass());
+    CommandExecutionEvent event = new CommandExecutionEvent();
+    CommandExecutionEvent outer = event.start();
+    long start = System.nanoTime();
+    boolean succeeded = false;
+    try {
+      T result = handler.get();
+      succeeded = true;
+      return result;
+    } finally {
+      (succeeded ? commandMeters.succeeded() : commandMeters.failed())
+          .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      event.complete(
+          outer, commandMeters.name(), aggregateType, key, succeeded ? "success" : "failure");
+    }
+  }
+
+  /**
+   * Starts the handler of a command that completes asynchronously and records its duration once the
+   * returned future completes.
+   *
+   * @param command the command, whose class names the timer
+   * @param key the order or product ID the command applies to
+   * @param handler starts handling the command
+   * @param <T> the type of the result
+   * @return the future returned by the handler, or a failed future if it threw
+   */
+  public <T> CompletableFuture<T> callAsync(
+      Object command, String key, Supplier<CompletableFuture<T>> handler) {
+    CommandMeters commandMeters = meters.get(command.getClass());
+    CommandExecutionEvent event = new CommandExecutionEvent();
+    event.begin();
+    long start = System.nanoTime();
+    CompletableFuture<T> result;
+    try {
+      result = handler.get();
+    } catch (RuntimeException | Error e) {
+      result = CompletableFuture.failedFuture(e);
+    }
+    return result.whenComplete(
+        (value, failure) -> {
+          (failure == null ? commandMeters.succeeded() : commandMeters.failed())
+              .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+          event.completeDetached(
+              commandMeters.name(), aggregateType, key, failure == null ? "success" : "failure");
+        });
+  }
+
+  private static Timer timer(MeterRegistry meterRegistry, Class<?> type, String outcome) {
+    return Timer.builder("command.handle")
+        .description("Time to handle a command, from loading the aggregate to storing its events")
+        .tag("command", type.getSimpleName())
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  private record CommandMeters(String name, Timer succeeded, Timer failed) {}
+}
@@ -0,0 +1,221 @@
+package com.orderfulfillment.command.dispatch;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orderfulfillment.command.exceptions.ConcurrencyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Re-executes commands that fail with a {@link ConcurrencyException}.
+ *
+ * <p>The command handlers load the aggregate, run the domain method and save in one call, so
+ * running the command again reloads the aggregate at its new version and re-applies the domain
+ * rules against it. Attempts are bounded, and between attempts the caller sleeps for a random delay
+ * below an exponentially growing backoff ("full jitter") so that competing writers spread out
+ * instead of colliding again. The sleep happens on the calling thread, outside any command lane, so
+ * a backing-off command never delays other aggregates. {@link #callAsync} waits with a delayed
+ * resubmission instead, so asynchronous callers hold no thread while they back off.
+ *
+ * <p>Conflicts are counted in the {@code command.conflicts} counter, tagged with the aggregate type
+ * and whether the command was retried or gave up, and per aggregate ID in a bounded table exposed
+ * through the {@code conflicts} actuator endpoint.
+ */
+@Slf4j
+public class ConflictRetryPolicy {
+  @Getter private final String aggregateType;
+  private final int maxAttempts;
+  private final long initialBackoffNanos;
+  private final long maxBackoffNanos;
+  private final Cache<String, LongAdder> conflictsByAggregate;
+  private final Counter retried;
+  private final Counter exhausted;
+
+  /**
+   * Creates a retry policy for one aggregate type.
+   *
+   * @param aggregateType the aggregate type used in metric tags
+   * @param maxAttempts the maximum number of executions of a command, including the first
+   * @param initialBackoff the backoff bound before the first retry
+   * @param maxBackoff the upper limit of the backoff bound
+   * @param trackedAggregates the maximum number of aggregates with a conflict counter
+   * @param meterRegistry the registry metrics are published to
+   */
+  @Builder
+  private ConflictRetryPolicy(
+      String aggregateType,
+      int maxAttempts,
+      Duration initialBackoff,
+      Duration maxBackoff,
+      long trackedAggregates,
+      MeterRegistry meterRegistry) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("Max attempts must be positive, got " + maxAttempts);
+    }
+
+    this.aggregateType = aggregateType;
+    this.maxAttempts = maxAttempts;
+    this.initialBackoffNanos = Math.max(1, initialBackoff.toNanos());
+    this.maxBackoffNanos = Math.max(initialBackoffNanos, maxBackoff.toNanos());
+    this.conflictsByAggregate = Caffeine.newBuilder().maximumSize(trackedAggregates).build();
+    this.retried = conflictCounter(meterRegistry, aggregateType, "retried");
+    this.exhausted = conflictCounter(meterRegistry, aggregateType, "exhausted");
+  }
+
+  /**
+   * Runs a command, re-running it on concurrency conflicts.
+   *
+   * @param command the command to run; must reload its aggregate on every execution
+   * @throws ConcurrencyException if the last attempt still conflicts
+   */
+  public void run(Runnable command) {
+    call(
+        () -> {
+          command.run();
+          return null;
+        });
+  }
+
+  /**
+   * Runs a command, re-running it on concurrency conflicts, and returns its result.
+   *
+   * @param command the command to run; must reload its aggregate on every execution
+   * @param <T> the result type
+   * @return the result of the first successful execution
+   * @throws ConcurrencyException if the last attempt still conflicts
+   */
+  public <T> T call(Supplier<T> command) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return command.get();
+      } catch (ConcurrencyException e) {
+        onConflict(attempt, e);
+        try {
+          TimeUnit.NANOSECONDS.sleep(backoffNanos(attempt));
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          throw e;
+        }
+      }
+    }
+  }
+
+  /**
+   * Runs an asynchronous command, re-running it on concurrency conflicts without blocking the
+   * caller.
+   *
+   * @param command starts the command and returns its outcome; must reload its aggregate on every
+   *     execution
+   * @param <T> the result type
+   * @return a future completed with the result of the first successful execution, or with the
+   *     {@link ConcurrencyException} of the last attempt
+   */
+  public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> command) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    attemptAsync(command, 1, result);
+    return result;
+  }
+
+  private <T> void attemptAsync(
+      Supplier<CompletableFuture<T>> command, int attempt, CompletableFuture<T> result) {
+    CompletableFuture<T> outcome;
+    try {
+      outcome = command.get();
+    } catch (RuntimeException | Error e) {
+      outcome = CompletableFuture.failedFuture(e);
+    }
+    outcome.whenComplete(
+        (value, failure) -> {
+          Throwable cause =
+              failure instanceof CompletionException && failure.getCause() != null
+                  ? failure.getCause()
+                  : failure;
+          if (cause == null) {
+            result.complete(value);
+            return;
+          }
+          if (!(cause instanceof ConcurrencyException conflict)) {
+            result.completeExceptionally(cause);
+            return;
+          }
+          try {
+            onConflict(attempt, conflict);
+          } catch (ConcurrencyException e) {
+            result.completeExceptionally(e);
+            return;
+          }
+          Executor delayed =
+              CompletableFuture.delayedExecutor(backoffNanos(attempt), TimeUnit.NANOSECONDS);
+          delayed.execute(() -> attemptAsync(command, attempt + 1, result));
+        });
+  }
+
+  /**
+   * Gets the aggregates with the most conflicts.
+   *
+   * @param limit the maximum number of aggregates to return
+   * @return conflict counts by aggregate ID, highest first
+   */
+  public Map<String, Long> topConflicts(int limit) {
+    Map<String, Long> top = new LinkedHashMap<>();
+    conflictsByAggregate.asMap().entrySet().stream()
+        .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+        .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+        .limit(limit)
+        .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+    return top;
+  }
+
+  /**
+   * Records a conflict of the given attempt.
+   *
+   * @throws ConcurrencyException the conflict itself if no attempts are left
+   */
+  private void onConflict(int attempt, ConcurrencyException conflict) {
+    conflictsByAggregate.get(conflict.getAggregateId(), id -> new LongAdder()).increment();
+    if (attempt >= maxAttempts) {
+      exhausted.increment();
+      log.warn(
+          "Giving up on {} {} after {} conflicting attempts",
+          aggregateType,
+          conflict.getAggregateId(),
+          attempt);
+      throw conflict;
+    }
+
+    retried.increment();
+    log.debug(
+        "Retrying {} {} after conflict {}", aggregateType, conflict.getAggregateId(), attempt);
+  }
+
+  private long backoffNanos(int attempt) {
+    long bound = initialBackoffNanos << Math.min(attempt - 1, 30);
+    if (bound <= 0 || bound > maxBackoffNanos) {
+      bound = maxBackoffNanos;
+    }
+    return ThreadLocalRandom.current().nextLong(bound + 1);
+  }
+
+  private static Counter conflictCounter(
+      MeterRegistry meterRegistry, String aggregateType, String outcome) {
+    return Counter.builder("command.conflicts")
+        .description("Commands that lost an optimistic concurrency race")
+        .tag("aggregate", aggregateType)
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,136 @@
+package com.orderfulfillment.command.dispatch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Quantity split into striped sub-budgets that threads draw from without coordinating.
+ *
+ * <p>Each thread takes from the slot its identity hashes to with a single compare-and-set, so
+ * threads on different slots never touch the same cache line. When its own slot cannot cover a
+ * request, the thread falls back to a locked path that gathers every slot, takes the request from
+ * the combined total if it suffices and spreads the rest evenly again. Quantity only ever leaves
+ * the budget through a successful take, so the sum of all takes never exceeds what was put in.
+ *
+ * <p>Slots drift apart as threads take unevenly; {@link #rebalance} evens them out and is meant to
+ * be called off the request path.
+ */
+public class EscrowBudget {
+  // Slots are spaced a cache line apart so that concurrent takes on neighbouring slots do not
+  // invalidate each other.
+  private static final int STRIDE = 8;
+
+  private final int slots;
+  private final AtomicLongArray budget;
+
+  /**
+   * Creates a budget.
+   *
+   * @param slots the number of sub-budgets, typically the number of processors
+   * @param quantity the initial total quantity
+   */
+  public EscrowBudget(int slots, long quantity) {
+    if (slots < 1) {
+      throw new IllegalArgumentException("Slot count must be positive, got " + slots);
+    }
+    if (quantity < 0) {
+      throw new IllegalArgumentException("Quantity cannot be negative, got " + quantity);
+    }
+
+    this.slots = slots;
+    this.budget = new AtomicLongArray(slots * STRIDE);
+    distribute(quantity);
+  }
+
+  /**
+   * Takes a quantity from the budget if it is still available.
+   *
+   * @param quantity the quantity to take, positive
+   * @return true if the quantity was taken, false if the budget cannot cover it
+   */
+  public boolean tryTake(long quantity) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("Quantity must be positive, got " + quantity);
+    }
+
+    int index = ownSlot();
+    long current = budget.get(index);
+    while (current >= quantity) {
+      if (budget.compareAndSet(index, current, current - quantity)) {
+        return true;
+      }
+      current = budget.get(index);
+    }
+    return takeFromAll(quantity);
+  }
+
+  /**
+   * Adds a quantity to the budget, for example stock that was returned or restocked.
+   *
+   * @param quantity the quantity to add, not negative
+   */
+  public void put(long quantity) {
+    if (quantity < 0) {
+      throw new IllegalArgumentException("Quantity cannot be negative, got " + quantity);
+    }
+    budget.addAndGet(ownSlot(), quantity);
+  }
+
+  /** Spreads the total quantity evenly over the slots again. */
+  public synchronized void rebalance() {
+    distribute(drain());
+  }
+
+  /**
+   * Replaces the total quantity, discarding whatever the slots held.
+   *
+   * @param quantity the new total quantity, not negative
+   */
+  public synchronized void reset(long quantity) {
+    if (quantity < 0) {
+      throw new IllegalArgumentException("Quantity cannot be negative, got " + quantity);
+    }
+    drain();
+    distribute(quantity);
+  }
+
+  /**
+   * Gets the total quantity left. Concurrent takes may change it while the slots are summed.
+   *
+   * @return the quantity left
+   */
+  public long available() {
+    long total = 0;
+    for (int i = 0; i < slots; i++) {
+      total += budget.get(i * STRIDE);
+    }
+    return total;
+  }
+
+  private synchronized boolean takeFromAll(long quantity) {
+    long total = drain();
+    boolean taken = total >= quantity;
+    distribute(taken ? total - quantity : total);
+    return taken;
+  }
+
+  private long drain() {
+    long total = 0;
+    for (int i = 0; i < slots; i++) {
+      total += budget.getAndSet(i * STRIDE, 0);
+    }
+    return total;
+  }
+
+  private void distribute(long quantity) {
+    long share = quantity / slots;
+    long remainder = quantity % slots;
+    for (int i = 0; i < slots; i++) {
+      budget.addAndGet(i * STRIDE, share + (i < remainder ? 1 : 0));
+    }
+  }
+
+  private int ownSlot() {
+    int hash = System.identityHashCode(Thread.currentThread());
+    return Math.floorMod(hash ^ (hash >>> 16), slots) * STRIDE;
+  }
+}
@@ -0,0 +1,221 @@
+package com.orderfulfillment.command.dispatch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel that fires timeouts at tick granularity.
+ *
+ * <p>Time is divided into ticks of a fixed length. The first level is a ring of {@code wheelSize}
+ * buckets of one tick each; every further level is a ring of the same size whose buckets span a
+ * whole turn of the level below. A timeout is placed in the lowest level whose range covers its
+ * deadline, so scheduling is a constant-time append. Each tick empties one bucket of the first
+ * level, and whenever a level completes a turn, the next bucket of the level above is cascaded down
+ * by rescheduling its timeouts. A timeout is therefore touched once per level at most, however many
+ * timeouts are pending, instead of being inspected on every tick as with a periodic scan.
+ *
+ * <p>Timeouts never fire before their deadline and at most one tick after it, measured from the
+ * last {@link #advance} call. Cancelled timeouts stay in their bucket until it is reached and are
+ * dropped then.
+ *
+ * <p>Not thread-safe: scheduling, cancelling and advancing must happen on one thread.
+ *
+ * @param <T> the type of the items attached to the timeouts
+ */
+public class TimingWheel<T> {
+  private final long tickMillis;
+  private final int wheelSize;
+  private final List<ArrayDeque<Timeout<T>>[]> levels = new ArrayList<>();
+  private final ArrayDeque<Timeout<T>> due = new ArrayDeque<>();
+  private long currentTick;
+  private int size;
+
+  /**
+   * Creates an empty wheel.
+   *
+   * @param tickMillis the length of a tick in milliseconds
+   * @param wheelSize the number of buckets per level
+   * @param startMillis the current time in epoch milliseconds
+   */
+  public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+    if (tickMillis < 1) {
+      throw new IllegalArgumentException("Tick must be positive, got " + tickMillis);
+    }
+    if (wheelSize < 2) {
+      throw new IllegalArgumentException("Wheel size must be at least 2, got " + wheelSize);
+    }
+
+    this.tickMillis = tickMillis;
+    this.wheelSize = wheelSize;
+    this.currentTick = Math.floorDiv(startMillis, tickMillis);
+  }
+
+  /**
+   * Schedules an item to fire at a deadline. Deadlines in the past fire on the next advance.
+   *
+   * @param item the item handed to the callback when the timeout fires
+   * @param deadlineMillis the deadline in epoch milliseconds
+   * @return the timeout, which can be cancelled
+   */
+  public Timeout<T> schedule(T item, long deadlineMillis) {
+    // Round up so that a timeout never fires before its deadline.
+    long deadlineTick = Math.floorDiv(deadlineMillis, tickMillis);
+    if (Math.floorMod(deadlineMillis, tickMillis) != 0) {
+      deadlineTick++;
+    }
+    Timeout<T> timeout = new Timeout<>(item, deadlineMillis, deadlineTick);
+    place(timeout);
+    size++;
+    return timeout;
+  }
+
+  /**
+   * Moves the wheel forward to the given time and fires every timeout that became due.
+   *
+   * @param nowMillis the current time in epoch milliseconds
+   * @param onExpired called with the item of each timeout that fires
+   * @return the number of timeouts fired
+   */
+  public int advance(long nowMillis, Consumer<T> onExpired) {
+    long targetTick = Math.floorDiv(nowMillis, tickMillis);
+    int fired = fire(due, onExpired);
+    while (currentTick < targetTick) {
+      if (size == 0) {
+        currentTick = targetTick;
+        break;
+      }
+      currentTick++;
+      cascade();
+      fired += fire(bucket(0, currentTick), onExpired);
+      fired += fire(due, onExpired);
+    }
+    return fired;
+  }
+
+  /**
+   * Gets the number of pending timeouts, including cancelled ones not yet dropped.
+   *
+   * @return the number of pending timeouts
+   */
+  public int size() {
+    return size;
+  }
+
+  private void place(Timeout<T> timeout) {
+    long delta = timeout.deadlineTick - currentTick;
+    if (delta <= 0) {
+      due.add(timeout);
+      return;
+    }
+
+    int level = 0;
+    long unit = 1;
+    while (delta >= unit * wheelSize && unit <= Long.MAX_VALUE / wheelSize / wheelSize) {
+      unit *= wheelSize;
+      level++;
+    }
+    bucket(level, timeout.deadlineTick / unit).add(timeout);
+  }
+
+  /** Moves the timeouts of every higher-level bucket that starts at the current tick down. */
+  private void cascade() {
+    for (int level = levels.size() - 1; level > 0; level--) {
+      long unit = unit(level);
+      if (currentTick % unit != 0) {
+        continue;
+      }
+      ArrayDeque<Timeout<T>> bucket = bucket(level, currentTick / unit);
+      for (Timeout<T> timeout; (timeout = bucket.poll()) != null; ) {
+        if (timeout.cancelled) {
+          size--;
+        } else {
+          place(timeout);
+        }
+      }
+    }
+  }
+
+  private int fire(ArrayDeque<Timeout<T>> bucket, Consumer<T> onExpired) {
+    int fired = 0;
+    for (Timeout<T> timeout; (timeout = bucket.poll()) != null; ) {
+      size--;
+      if (!timeout.cancelled) {
+        fired++;
+        onExpired.accept(timeout.item);
+      }
+    }
+    return fired;
+  }
+
+  private long unit(int level) {
+    long unit = 1;
+    for (int i = 0; i < level; i++) {
+      unit *= wheelSize;
+    }
+    return unit;
+  }
+
+  @SuppressWarnings("unchecked")
+  private ArrayDeque<Timeout<T>> bucket(int level, long slot) {
+    while (levels.size() <= level) {
+      ArrayDeque<Timeout<T>>[] buckets = new ArrayDeque[wheelSize];
+      for (int i = 0; i < wheelSize; i++) {
+        buckets[i] = new ArrayDeque<>();
+      }
+      levels.add(buckets);
+    }
+    return levels.get(level)[(int) Math.floorMod(slot, (long) wheelSize)];
+  }
+
+  /**
+   * A scheduled item.
+   *
+   * @param <T> the type of the item
+   */
+  public static final class Timeout<T> {
+    private final T item;
+    private final long deadlineMillis;
+    private final long deadlineTick;
+    private boolean cancelled;
+
+    private Timeout(T item, long deadlineMillis, long deadlineTick) {
+      this.item = item;
+      this.deadlineMillis = deadlineMillis;
+      this.deadlineTick = deadlineTick;
+    }
+
+    /**
+     * Gets the scheduled item.
+     *
+     * @return the item
+     */
+    public T item() {
+      return item;
+    }
+
+    /**
+     * Gets the deadline of this timeout.
+     *
+     * @return the deadline in epoch milliseconds
+     */
+    public long deadlineMillis() {
+      return deadlineMillis;
+    }
+
+    /** Cancels this timeout, so that it never fires. */
+    public void cancel() {
+      cancelled = true;
+    }
+
+    /**
+     * Checks whether this timeout was cancelled.
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+      return cancelled;
+    }
+  }
+}
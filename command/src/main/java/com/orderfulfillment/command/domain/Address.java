@@ -1,9 +1,11 @@
 package com.orderfulfillment.command.domain;
 
+import java.io.Serializable;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
+import lombok.extern.jackson.Jacksonized;
 
 /**
  * Represents a postal address.
@@ -17,10 +19,11 @@ import lombok.ToString;
  * @param country the country
  */
 @Builder
+@Jacksonized
 @Getter
 @ToString
 @EqualsAndHashCode
-public class Address {
+public class Address implements Serializable {
   private final String street;
   private final String city;
   private final String state;
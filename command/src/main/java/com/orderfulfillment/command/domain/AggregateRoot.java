@@ -3,16 +3,17 @@ package com.orderfulfillment.command.domain;
 import com.orderfulfillment.command.events.Event;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Consumer;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 /**
  * Base class for all aggregate roots in the domain. Provides common functionality for event
  * sourcing.
+ *
+ * <p>Events are applied by the {@link EventDispatchTable} of the aggregate class, which subclasses
+ * build once and pass to the constructor.
  */
 @Getter
 @Setter
@@ -20,7 +21,18 @@ public abstract class AggregateRoot {
   private String id;
   private long version = 0;
   private final List<Event<?>> uncommittedChanges = new ArrayList<>();
-  private final Map<String, Consumer<Event<?>>> eventHandlers = new HashMap<>();
+
+  @Getter(AccessLevel.NONE)
+  private final EventDispatchTable<?> eventHandlers;
+
+  /**
+   * Creates an aggregate that applies events with the handlers of its class.
+   *
+   * @param eventHandlers the dispatch table of the aggregate class
+   */
+  protected AggregateRoot(EventDispatchTable<?> eventHandlers) {
+    this.eventHandlers = eventHandlers;
+  }
 
   /**
    * Gets all uncommitted changes (events) that haven't been persisted.
@@ -39,16 +51,6 @@ public abstract class AggregateRoot {
     uncommittedChanges.clear();
   }
 
-  /**
-   * Register an event handler for a specific event type.
-   *
-   * @param eventType The event type string
-   * @param handler The handler function that processes the event
-   */
-  protected void registerHandler(String eventType, Consumer<Event<?>> handler) {
-    eventHandlers.put(eventType, handler);
-  }
-
   /**
    * Applies an event to this aggregate and increments its version. The event is not added to
    * uncommitted changes.
@@ -57,14 +59,7 @@ public abstract class AggregateRoot {
    * @param isNew whether the event is new (should be added to uncommitted changes)
    */
   protected void applyChange(Event<?> event, boolean isNew) {
-    String eventType = event.getEventType();
-    Consumer<Event<?>> handler = eventHandlers.get(eventType);
-
-    if (handler == null) {
-      throw new RuntimeException("No handler registered for event: " + eventType);
-    }
-
-    handler.accept(event);
+    eventHandlers.dispatch(this, event);
 
     if (isNew) {
       uncommittedChanges.add(event);
@@ -90,7 +85,20 @@ public abstract class AggregateRoot {
    * @param events the list of events to load
    */
   public void loadFromHistory(List<Event<?>> events) {
-    events.forEach(e -> applyChange(e, false));
-    version = events.size();
+    loadFromHistory(events, 0);
+  }
+
+  /**
+   * Loads the aggregate state from the events recorded after a given version. This is used when the
+   * aggregate has already been restored from a snapshot taken at {@code baseVersion}.
+   *
+   * @param events the list of events recorded after the base version
+   * @param baseVersion the version the aggregate had before applying the events
+   */
+  public void loadFromHistory(List<Event<?>> events, long baseVersion) {
+    for (Event<?> event : events) {
+      applyChange(event, false);
+    }
+    version = baseVersion + events.size();
   }
 }
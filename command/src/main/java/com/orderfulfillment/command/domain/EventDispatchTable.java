@@ -0,0 +1,97 @@
+package com.orderfulfillment.command.domain;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.EventType;
+import com.orderfulfillment.command.exceptions.EventHandlerNotFoundException;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * The event handlers of one aggregate class, indexed by {@link EventType} code.
+ *
+ * <p>Each aggregate class builds its table once, in a static initializer, from method references to
+ * its {@code apply} methods; instances share it. Applying an event calls the handler at the code of
+ * its {@link Event#getType()}, which events carry from the moment they are created or read, so
+ * neither creating an aggregate nor replaying its events allocates or looks up anything for
+ * dispatch.
+ *
+ * @param <A> the aggregate class whose events the table handles
+ */
+public final class EventDispatchTable<A extends AggregateRoot> {
+  private final BiConsumer<A, Event<?>>[] handlers;
+
+  private EventDispatchTable(BiConsumer<A, Event<?>>[] handlers) {
+    this.handlers = handlers;
+  }
+
+  /**
+   * Starts a table for an aggregate class.
+   *
+   * @param <A> the aggregate class
+   * @return a builder of the table
+   */
+  public static <A extends AggregateRoot> Builder<A> builder() {
+    return new Builder<>();
+  }
+
+  /**
+   * Applies an event to an aggregate with the handler of its event type.
+   *
+   * @param aggregate the aggregate, of the class the table was built for
+   * @param event the event to apply
+   * @throws EventHandlerNotFoundException if the table has no handler for the event type
+   */
+  @SuppressWarnings("unchecked")
+  void dispatch(AggregateRoot aggregate, Event<?> event) {
+    EventType type = event.getType();
+    BiConsumer<A, Event<?>> handler =
+        type != null && type.getCode() < handlers.length ? handlers[type.getCode()] : null;
+    if (handler == null) {
+      throw new EventHandlerNotFoundException(event.getEventType());
+    }
+    handler.accept((A) aggregate, event);
+  }
+
+  /**
+   * Collects the handlers of an {@link EventDispatchTable}.
+   *
+   * @param <A> the aggregate class
+   */
+  public static final class Builder<A extends AggregateRoot> {
+    @SuppressWarnings("unchecked")
+    private BiConsumer<A, Event<?>>[] handlers = new BiConsumer[EventType.values().length + 1];
+
+    private Builder() {}
+
+    /**
+     * Registers the handler of an event type.
+     *
+     * @param type the event type
+     * @param handler applies an event of the type to an aggregate
+     * @param <P> the payload type of the event type
+     * @return this builder
+     * @throws IllegalStateException if the event type already has a handler
+     */
+    @SuppressWarnings("unchecked")
+    public <P> Builder<A> on(EventType type, BiConsumer<A, Event<P>> handler) {
+      if (type.getCode() >= handlers.length) {
+        handlers = Arrays.copyOf(handlers, type.getCode() + 1);
+      }
+      if (handlers[type.getCode()] != null) {
+        throw new IllegalStateException("Handler already registered for event: " + type);
+      }
+      // Handlers are only called with events of their type, so the payload cast is safe.
+      handlers[type.getCode()] = (BiConsumer<A, Event<?>>) (BiConsumer<A, ?>) handler;
+      return this;
+    }
+
+    /**
+     * Builds the table.
+     *
+     * @return the dispatch table
+     */
+    public EventDispatchTable<A> build() {
+      return new EventDispatchTable<>(handlers.clone());
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.orderfulfillment.command.domain;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+/**
+ * An order line of an {@link InventoryItem} waiting for stock to arrive.
+ *
+ * @param orderId the unique identifier of the order
+ * @param quantity the quantity waited for
+ * @param priority the priority of the line; higher priorities are allocated first
+ * @param sequence the arrival number of the line on its item, which orders lines of the same
+ *     priority
+ */
+public record InventoryBackorder(String orderId, int quantity, int priority, long sequence)
+    implements Serializable {
+
+  /** Orders backorders as they are allocated: by descending priority, then by arrival. */
+  public static final Comparator<InventoryBackorder> ALLOCATION_ORDER =
+      Comparator.comparingInt(InventoryBackorder::priority)
+          .reversed()
+          .thenComparingLong(InventoryBackorder::sequence);
+}
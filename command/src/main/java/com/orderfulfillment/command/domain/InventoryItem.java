@@ -1,13 +1,30 @@
 package com.orderfulfillment.command.domain;
 
 import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.EventType;
+import com.orderfulfillment.command.events.impl.EventIds;
 import com.orderfulfillment.command.events.impl.InventoryEvents;
 import com.orderfulfillment.command.events.payloads.InventoryAllocatedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderAllocatedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderCancelledPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservationConfirmedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservationExpiredPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservedPayload;
 import com.orderfulfillment.command.events.payloads.InventoryReturnedPayload;
 import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
 import com.orderfulfillment.command.exceptions.domain.InsufficientInventoryException;
-import com.orderfulfillment.command.utils.Constants;
-import java.util.UUID;
+import com.orderfulfillment.command.exceptions.domain.ReservationNotFoundException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -17,26 +34,55 @@ import lombok.ToString;
  *
  * <p>This class is responsible for managing inventory levels, including tracking available
  * quantity, allocating inventory to orders, and restoring inventory when orders are cancelled.
+ *
+ * <p>Inventory can also be reserved for a limited time, for example while a checkout is open. A
+ * reservation moves its quantity out of the available stock until it is either confirmed, which
+ * allocates it to an order, or expires, which releases it again. Expiry is decided by the caller
+ * with the current time; the item only checks that the reservation's deadline has passed.
+ *
+ * <p>Order lines that cannot be allocated can be backordered instead. Backorders wait in a queue
+ * ordered by priority and then by arrival, and whenever available stock grows, by an update, a
+ * return or an expired reservation, the lines at the head of the queue are allocated as part of the
+ * same change, up to the first line that does not fit. The queue is sorted, so this costs time in
+ * proportion to the lines allocated rather than to the length of the queue. Allocations that are
+ * not backordered may still take stock that the head of the queue is waiting for.
  */
 @Getter
 @ToString
 @EqualsAndHashCode(callSuper = true)
-public class InventoryItem extends AggregateRoot {
+public class InventoryItem extends AggregateRoot implements Snapshottable<InventoryItemSnapshot> {
+  private static final EventDispatchTable<InventoryItem> EVENT_HANDLERS =
+      EventDispatchTable.<InventoryItem>builder()
+          .on(EventType.INVENTORY_UPDATED, InventoryItem::applyInventoryUpdated)
+          .on(EventType.INVENTORY_ALLOCATED, InventoryItem::applyInventoryAllocated)
+          .on(EventType.INVENTORY_RETURNED, InventoryItem::applyInventoryReturned)
+          .on(EventType.INVENTORY_RESERVED, InventoryItem::applyInventoryReserved)
+          .on(EventType.INVENTORY_RESERVATION_CONFIRMED, InventoryItem::applyReservationConfirmed)
+          .on(EventType.INVENTORY_RESERVATION_EXPIRED, InventoryItem::applyReservationExpired)
+          .on(EventType.INVENTORY_BACKORDERED, InventoryItem::applyBackordered)
+          .on(EventType.INVENTORY_BACKORDER_ALLOCATED, InventoryItem::applyBackorderAllocated)
+          .on(EventType.INVENTORY_BACKORDER_CANCELLED, InventoryItem::applyBackorderCancelled)
+          .build();
+
   private String productId;
   private int availableQuantity;
   private int allocatedQuantity;
+  private int reservedQuantity;
+  private final Map<String, InventoryReservation> reservations = new LinkedHashMap<>();
+  private int backorderedQuantity;
+
+  @Getter(AccessLevel.NONE)
+  private final NavigableSet<InventoryBackorder> backorders =
+      new TreeSet<>(InventoryBackorder.ALLOCATION_ORDER);
+
+  @Getter(AccessLevel.NONE)
+  private final Map<String, InventoryBackorder> backordersByOrder = new HashMap<>();
+
+  @Getter(AccessLevel.NONE)
+  private long nextBackorderSequence;
 
-  @SuppressWarnings("unchecked")
   public InventoryItem() {
-    registerHandler(
-        Constants.INVENTORY_UPDATED_EVENT,
-        event -> applyInventoryUpdated((Event<InventoryUpdatedPayload>) event));
-    registerHandler(
-        Constants.INVENTORY_ALLOCATED_EVENT,
-        event -> applyInventoryAllocated((Event<InventoryAllocatedPayload>) event));
-    registerHandler(
-        Constants.INVENTORY_RETURNED_EVENT,
-        event -> applyInventoryReturned((Event<InventoryReturnedPayload>) event));
+    super(EVENT_HANDLERS);
   }
 
   /**
@@ -47,8 +93,19 @@ public class InventoryItem extends AggregateRoot {
    * @return a new InventoryItem instance
    */
   public static InventoryItem createNew(String productId, int quantity) {
+    return createNew(EventIds.next(), productId, quantity);
+  }
+
+  /**
+   * Creates a new InventoryItem for a product under a given ID.
+   *
+   * @param inventoryId the identifier of the new inventory item
+   * @param productId the product identifier
+   * @param quantity the initial available quantity
+   * @return a new InventoryItem instance
+   */
+  public static InventoryItem createNew(String inventoryId, String productId, int quantity) {
     InventoryItem inventoryItem = new InventoryItem();
-    String inventoryId = UUID.randomUUID().toString();
 
     InventoryUpdatedPayload payload = new InventoryUpdatedPayload(productId, quantity);
     Event<InventoryUpdatedPayload> event =
@@ -78,6 +135,7 @@ public class InventoryItem extends AggregateRoot {
         InventoryEvents.createInventoryUpdatedEvent(getId(), payload, getVersion());
 
     applyChange(event);
+    allocateBackorders();
   }
 
   /**
@@ -104,25 +162,169 @@ public class InventoryItem extends AggregateRoot {
   }
 
   /**
-   * Returns previously allocated inventory when an order is cancelled.
+   * Returns previously allocated inventory when an order is cancelled. If the order still has a
+   * line in the backorder queue, that line is withdrawn and only the quantity beyond it is returned
+   * from the allocated stock.
    *
    * @param orderId the order identifier
-   * @param quantity the quantity to return
+   * @param quantity the quantity to return, including the order's backordered quantity
+   * @throws IllegalArgumentException if the quantity is less than the order's backordered quantity
+   *     or the rest exceeds the allocated quantity
    */
   public void returnInventory(String orderId, int quantity) {
     if (quantity <= 0) {
       throw new IllegalArgumentException("Return quantity must be positive");
     }
 
-    if (quantity > allocatedQuantity) {
+    InventoryBackorder backorder = backordersByOrder.get(orderId);
+    int backordered = backorder != null ? backorder.quantity() : 0;
+    if (quantity < backordered) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Cannot return %d units of order %s, which has %d units backordered",
+              quantity, orderId, backordered));
+    }
+    int allocated = quantity - backordered;
+    if (allocated > allocatedQuantity) {
       throw new IllegalArgumentException("Cannot return more than allocated quantity");
     }
 
-    InventoryReturnedPayload payload = new InventoryReturnedPayload(productId, orderId, quantity);
-    Event<InventoryReturnedPayload> event =
-        InventoryEvents.createInventoryReturnedEvent(getId(), payload, getVersion());
+    if (backorder != null) {
+      InventoryBackorderCancelledPayload payload =
+          new InventoryBackorderCancelledPayload(productId, orderId, backordered);
+      applyChange(
+          InventoryEvents.createInventoryBackorderCancelledEvent(getId(), payload, getVersion()));
+    }
+    if (allocated > 0) {
+      InventoryReturnedPayload payload =
+          new InventoryReturnedPayload(productId, orderId, allocated);
+      applyChange(InventoryEvents.createInventoryReturnedEvent(getId(), payload, getVersion()));
+    }
+    // Returned stock, or a withdrawn line that blocked smaller lines behind it, may let the queue
+    // move on.
+    allocateBackorders();
+  }
+
+  /**
+   * Reserves a quantity of this inventory item until the given instant.
+   *
+   * @param reservationId the unique identifier of the reservation
+   * @param quantity the quantity to reserve
+   * @param expiresAt the instant after which the reservation may be released
+   * @throws InsufficientInventoryException if there is not enough available inventory
+   */
+  public void reserve(String reservationId, int quantity, Instant expiresAt) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("Reservation quantity must be positive");
+    }
+
+    if (reservations.containsKey(reservationId)) {
+      throw new IllegalArgumentException("Reservation " + reservationId + " already exists");
+    }
+
+    if (quantity > availableQuantity) {
+      throw new InsufficientInventoryException(productId, quantity, availableQuantity);
+    }
+
+    InventoryReservedPayload payload =
+        new InventoryReservedPayload(productId, reservationId, quantity, expiresAt);
+    Event<InventoryReservedPayload> event =
+        InventoryEvents.createInventoryReservedEvent(getId(), payload, getVersion());
+
+    applyChange(event);
+  }
+
+  /**
+   * Allocates the quantity held by a reservation to an order.
+   *
+   * @param reservationId the unique identifier of the reservation
+   * @param orderId the order identifier to allocate to
+   * @throws ReservationNotFoundException if the reservation is not held, for example because it has
+   *     expired
+   */
+  public void confirmReservation(String reservationId, String orderId) {
+    InventoryReservation reservation = reservations.get(reservationId);
+    if (reservation == null) {
+      throw new ReservationNotFoundException(productId, reservationId);
+    }
+
+    InventoryReservationConfirmedPayload payload =
+        new InventoryReservationConfirmedPayload(
+            productId, reservationId, orderId, reservation.quantity());
+    Event<InventoryReservationConfirmedPayload> event =
+        InventoryEvents.createInventoryReservationConfirmedEvent(getId(), payload, getVersion());
+
+    applyChange(event);
+  }
+
+  /**
+   * Releases a reservation whose deadline has passed back to available stock.
+   *
+   * <p>Reservations that are no longer held or have not reached their deadline are left alone, so
+   * an expiry that arrives late or twice has no effect.
+   *
+   * @param reservationId the unique identifier of the reservation
+   * @param now the current time
+   * @return true if the reservation was released
+   */
+  public boolean expireReservation(String reservationId, Instant now) {
+    InventoryReservation reservation = reservations.get(reservationId);
+    if (reservation == null || now.isBefore(reservation.expiresAt())) {
+      return false;
+    }
+
+    InventoryReservationExpiredPayload payload =
+        new InventoryReservationExpiredPayload(productId, reservationId, reservation.quantity());
+    Event<InventoryReservationExpiredPayload> event =
+        InventoryEvents.createInventoryReservationExpiredEvent(getId(), payload, getVersion());
+
+    applyChange(event);
+    allocateBackorders();
+    return true;
+  }
+
+  /**
+   * Queues an order line until enough stock is available for it. If the line is at the head of the
+   * queue and fits the available stock, it is allocated right away.
+   *
+   * @param orderId the order identifier
+   * @param quantity the quantity to allocate once available
+   * @param priority the priority of the line; higher priorities are allocated first
+   */
+  public void backorder(String orderId, int quantity, int priority) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("Backorder quantity must be positive");
+    }
+
+    if (backordersByOrder.containsKey(orderId)) {
+      throw new IllegalArgumentException("Order " + orderId + " is already backordered");
+    }
+
+    InventoryBackorderedPayload payload =
+        new InventoryBackorderedPayload(productId, orderId, quantity, priority);
+    Event<InventoryBackorderedPayload> event =
+        InventoryEvents.createInventoryBackorderedEvent(getId(), payload, getVersion());
 
     applyChange(event);
+    allocateBackorders();
+  }
+
+  /**
+   * Gets the backordered order lines in the order they will be allocated.
+   *
+   * @return an unmodifiable view of the backorders
+   */
+  public Collection<InventoryBackorder> getBackorders() {
+    return Collections.unmodifiableCollection(backorders);
+  }
+
+  /**
+   * Gets the reservations currently held, in the order they were made.
+   *
+   * @return an unmodifiable view of the reservations
+   */
+  public Collection<InventoryReservation> getReservations() {
+    return Collections.unmodifiableCollection(reservations.values());
   }
 
   /**
@@ -136,12 +338,74 @@ public class InventoryItem extends AggregateRoot {
   }
 
   /**
-   * Gets the total quantity (available + allocated).
+   * Gets the total quantity (available + reserved + allocated).
    *
    * @return the total quantity
    */
   public int getTotalQuantity() {
-    return availableQuantity + allocatedQuantity;
+    return availableQuantity + reservedQuantity + allocatedQuantity;
+  }
+
+  @Override
+  public InventoryItemSnapshot toSnapshot() {
+    return new InventoryItemSnapshot(
+        getId(),
+        productId,
+        availableQuantity,
+        allocatedQuantity,
+        List.copyOf(reservations.values()),
+        List.copyOf(backorders));
+  }
+
+  @Override
+  public void restoreFromSnapshot(InventoryItemSnapshot snapshot) {
+    setId(snapshot.inventoryId());
+    productId = snapshot.productId();
+    availableQuantity = snapshot.availableQuantity();
+    allocatedQuantity = snapshot.allocatedQuantity();
+    reservations.clear();
+    reservedQuantity = 0;
+    // Snapshots taken before reservations existed have no reservation list.
+    if (snapshot.reservations() != null) {
+      for (InventoryReservation reservation : snapshot.reservations()) {
+        reservations.put(reservation.reservationId(), reservation);
+        reservedQuantity += reservation.quantity();
+      }
+    }
+    backorders.clear();
+    backordersByOrder.clear();
+    backorderedQuantity = 0;
+    nextBackorderSequence = 0;
+    if (snapshot.backorders() != null) {
+      snapshot.backorders().forEach(this::enqueueBackorder);
+    }
+  }
+
+  /** Allocates the lines at the head of the backorder queue for as long as they fit. */
+  private void allocateBackorders() {
+    while (!backorders.isEmpty() && backorders.first().quantity() <= availableQuantity) {
+      InventoryBackorder head = backorders.first();
+      InventoryBackorderAllocatedPayload payload =
+          new InventoryBackorderAllocatedPayload(productId, head.orderId(), head.quantity());
+      applyChange(
+          InventoryEvents.createInventoryBackorderAllocatedEvent(getId(), payload, getVersion()));
+    }
+  }
+
+  private void enqueueBackorder(InventoryBackorder backorder) {
+    // Only the order of the sequence numbers matters, so they may restart after a snapshot.
+    nextBackorderSequence = Math.max(nextBackorderSequence, backorder.sequence() + 1);
+    backorders.add(backorder);
+    backordersByOrder.put(backorder.orderId(), backorder);
+    backorderedQuantity += backorder.quantity();
+  }
+
+  private void dequeueBackorder(String orderId) {
+    InventoryBackorder backorder = backordersByOrder.remove(orderId);
+    if (backorder != null) {
+      backorders.remove(backorder);
+      backorderedQuantity -= backorder.quantity();
+    }
   }
 
   private void applyInventoryUpdated(Event<InventoryUpdatedPayload> event) {
@@ -162,4 +426,45 @@ public class InventoryItem extends AggregateRoot {
     availableQuantity += payload.quantity();
     allocatedQuantity -= payload.quantity();
   }
+
+  private void applyInventoryReserved(Event<InventoryReservedPayload> event) {
+    InventoryReservedPayload payload = event.getPayload();
+    availableQuantity -= payload.quantity();
+    reservedQuantity += payload.quantity();
+    reservations.put(
+        payload.reservationId(),
+        new InventoryReservation(payload.reservationId(), payload.quantity(), payload.expiresAt()));
+  }
+
+  private void applyReservationConfirmed(Event<InventoryReservationConfirmedPayload> event) {
+    InventoryReservationConfirmedPayload payload = event.getPayload();
+    reservations.remove(payload.reservationId());
+    reservedQuantity -= payload.quantity();
+    allocatedQuantity += payload.quantity();
+  }
+
+  private void applyReservationExpired(Event<InventoryReservationExpiredPayload> event) {
+    InventoryReservationExpiredPayload payload = event.getPayload();
+    reservations.remove(payload.reservationId());
+    reservedQuantity -= payload.quantity();
+    availableQuantity += payload.quantity();
+  }
+
+  private void applyBackordered(Event<InventoryBackorderedPayload> event) {
+    InventoryBackorderedPayload payload = event.getPayload();
+    enqueueBackorder(
+        new InventoryBackorder(
+            payload.orderId(), payload.quantity(), payload.priority(), nextBackorderSequence));
+  }
+
+  private void applyBackorderAllocated(Event<InventoryBackorderAllocatedPayload> event) {
+    InventoryBackorderAllocatedPayload payload = event.getPayload();
+    dequeueBackorder(payload.orderId());
+    availableQuantity -= payload.quantity();
+    allocatedQuantity += payload.quantity();
+  }
+
+  private void applyBackorderCancelled(Event<InventoryBackorderCancelledPayload> event) {
+    dequeueBackorder(event.getPayload().orderId());
+  }
 }
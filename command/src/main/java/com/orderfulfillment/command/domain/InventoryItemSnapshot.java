@@ -0,0 +1,25 @@
+package com.orderfulfillment.command.domain;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Snapshot of the state of an {@link InventoryItem} aggregate.
+ *
+ * @param inventoryId the unique identifier of the inventory aggregate
+ * @param productId the unique identifier of the product
+ * @param availableQuantity the quantity available for allocation
+ * @param allocatedQuantity the quantity allocated to orders
+ * @param reservations the reservations held, or {@code null} in snapshots taken before reservations
+ *     existed
+ * @param backorders the backordered order lines in allocation order, or {@code null} in snapshots
+ *     taken before backorders existed
+ */
+public record InventoryItemSnapshot(
+    String inventoryId,
+    String productId,
+    int availableQuantity,
+    int allocatedQuantity,
+    List<InventoryReservation> reservations,
+    List<InventoryBackorder> backorders)
+    implements Serializable {}
@@ -0,0 +1,15 @@
+package com.orderfulfillment.command.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A quantity of an {@link InventoryItem} held for a limited time, until it is confirmed for an
+ * order or expires.
+ *
+ * @param reservationId the unique identifier of the reservation
+ * @param quantity the quantity held
+ * @param expiresAt the instant after which the reservation is released
+ */
+public record InventoryReservation(String reservationId, int quantity, Instant expiresAt)
+    implements Serializable {}
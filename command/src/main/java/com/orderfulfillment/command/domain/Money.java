@@ -1,5 +1,8 @@
 package com.orderfulfillment.command.domain;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.io.Serializable;
 import java.math.BigDecimal;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -12,10 +15,12 @@ import lombok.ToString;
 @Getter
 @ToString
 @EqualsAndHashCode
-public class Money {
+@JsonIgnoreProperties(value = "currency", allowGetters = true)
+public class Money implements Serializable {
   private final BigDecimal value;
   private final String currency;
 
+  @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
   public Money(BigDecimal value) {
     this.value = value;
     this.currency = "EUR";
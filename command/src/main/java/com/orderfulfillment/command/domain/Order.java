@@ -1,16 +1,16 @@
 package com.orderfulfillment.command.domain;
 
 import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.EventType;
+import com.orderfulfillment.command.events.impl.EventIds;
 import com.orderfulfillment.command.events.impl.OrderEvents;
 import com.orderfulfillment.command.events.payloads.OrderCancelledPayload;
 import com.orderfulfillment.command.events.payloads.OrderCreatedPayload;
 import com.orderfulfillment.command.events.payloads.OrderStatusUpdatedPayload;
 import com.orderfulfillment.command.exceptions.domain.CancelledOrderModificationException;
 import com.orderfulfillment.command.exceptions.domain.OrderCannotBeCancelledException;
-import com.orderfulfillment.command.utils.Constants;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -25,7 +25,14 @@ import lombok.ToString;
 @Getter
 @ToString
 @EqualsAndHashCode(callSuper = true)
-public class Order extends AggregateRoot {
+public class Order extends AggregateRoot implements Snapshottable<OrderSnapshot> {
+  private static final EventDispatchTable<Order> EVENT_HANDLERS =
+      EventDispatchTable.<Order>builder()
+          .on(EventType.ORDER_CREATED, Order::applyOrderCreated)
+          .on(EventType.ORDER_STATUS_UPDATED, Order::applyStatusUpdate)
+          .on(EventType.ORDER_CANCELLED, Order::applyOrderCancelled)
+          .build();
+
   private String customerId;
   private List<OrderItem> items = new ArrayList<>();
   private OrderStatus status;
@@ -33,22 +40,14 @@ public class Order extends AggregateRoot {
   private Address billingAddress;
   private Money totalCost;
 
-  @SuppressWarnings("unchecked")
   public Order() {
-    registerHandler(
-        Constants.ORDER_CREATED_EVENT,
-        event -> applyOrderCreated((Event<OrderCreatedPayload>) event));
-    registerHandler(
-        Constants.ORDER_STATUS_UPDATED_EVENT,
-        event -> applyStatusUpdate((Event<OrderStatusUpdatedPayload>) event));
-    registerHandler(
-        Constants.ORDER_CANCELED_EVENT,
-        event -> applyOrderCancelled((Event<OrderCancelledPayload>) event));
+    super(EVENT_HANDLERS);
   }
 
   /**
    * Creates a new Order from a command.
    *
+   * @param orderId the ID to give the order, or null to generate one
    * @param customerId the customer ID
    * @param items the order items
    * @param shippingAddress the shipping address
@@ -57,6 +56,7 @@ public class Order extends AggregateRoot {
    * @return a new Order instance
    */
   public static Order createNew(
+      String orderId,
       String customerId,
       List<OrderItem> items,
       Address shippingAddress,
@@ -64,7 +64,9 @@ public class Order extends AggregateRoot {
       Money totalCost) {
 
     Order order = new Order();
-    String orderId = UUID.randomUUID().toString();
+    if (orderId == null) {
+      orderId = EventIds.next();
+    }
 
     OrderCreatedPayload payload =
         OrderCreatedPayload.builder()
@@ -129,6 +131,23 @@ public class Order extends AggregateRoot {
     applyChange(event);
   }
 
+  @Override
+  public OrderSnapshot toSnapshot() {
+    return new OrderSnapshot(
+        getId(), customerId, items, status, shippingAddress, billingAddress, totalCost);
+  }
+
+  @Override
+  public void restoreFromSnapshot(OrderSnapshot snapshot) {
+    setId(snapshot.orderId());
+    this.customerId = snapshot.customerId();
+    this.items = snapshot.items();
+    this.status = snapshot.status();
+    this.shippingAddress = snapshot.shippingAddress();
+    this.billingAddress = snapshot.billingAddress();
+    this.totalCost = snapshot.totalCost();
+  }
+
   /**
    * Handles the OrderCreated event.
    *
@@ -1,5 +1,7 @@
 package com.orderfulfillment.command.domain;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import java.io.Serializable;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -16,11 +18,12 @@ import lombok.ToString;
 @Getter
 @ToString
 @EqualsAndHashCode
-public class OrderItem {
+public class OrderItem implements Serializable {
   private final String productId;
   private final int quantity;
   private final Money price;
 
+  @JsonCreator
   public OrderItem(String productId, int quantity, Money price) {
     validateProductId(productId);
     validateQuantity(quantity);
@@ -0,0 +1,25 @@
+package com.orderfulfillment.command.domain;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Snapshot of the state of an {@link Order} aggregate.
+ *
+ * @param orderId the unique identifier of the order
+ * @param customerId the unique identifier of the customer
+ * @param items the items of the order
+ * @param status the current status of the order
+ * @param shippingAddress the shipping address
+ * @param billingAddress the billing address
+ * @param totalCost the total cost of the order
+ */
+public record OrderSnapshot(
+    String orderId,
+    String customerId,
+    List<OrderItem> items,
+    OrderStatus status,
+    Address shippingAddress,
+    Address billingAddress,
+    Money totalCost)
+    implements Serializable {}
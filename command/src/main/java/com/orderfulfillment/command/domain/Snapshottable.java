@@ -0,0 +1,26 @@
+package com.orderfulfillment.command.domain;
+
+import java.io.Serializable;
+
+/**
+ * Implemented by aggregates whose state can be captured in a snapshot, so they can be rebuilt
+ * without replaying their full event history.
+ *
+ * @param <S> the type of the snapshot state
+ */
+public interface Snapshottable<S extends Serializable> {
+
+  /**
+   * Captures the current state of the aggregate.
+   *
+   * @return an immutable snapshot of the aggregate state
+   */
+  S toSnapshot();
+
+  /**
+   * Restores the aggregate state from a snapshot previously produced by {@link #toSnapshot()}.
+   *
+   * @param snapshot the snapshot to restore from
+   */
+  void restoreFromSnapshot(S snapshot);
+}
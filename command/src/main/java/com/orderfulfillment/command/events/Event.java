@@ -2,6 +2,7 @@ package com.orderfulfillment.command.events;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 /**
  * Common interface for all domain events in the system. Includes default methods for common
@@ -14,11 +15,38 @@ public interface Event<T> extends Serializable {
 
   String getEventType();
 
+  /**
+   * Returns the type of the event. Events that know their type when they are created or read should
+   * return it without looking up {@link #getEventType()}, which this default does.
+   *
+   * @return the event type, or {@code null} if the name is not a known type
+   */
+  default EventType getType() {
+    return EventType.fromName(getEventType());
+  }
+
   String getAggregateId();
 
   String getAggregateType();
 
-  LocalDateTime getTimestamp();
+  /**
+   * Returns when the event was created.
+   *
+   * @return nanoseconds since the Unix epoch
+   */
+  long getTimestampNanos();
+
+  /**
+   * Returns when the event was created as a date and time in UTC.
+   *
+   * @return the creation time in UTC
+   */
+  default LocalDateTime getTimestamp() {
+    return LocalDateTime.ofEpochSecond(
+        Math.floorDiv(getTimestampNanos(), 1_000_000_000L),
+        (int) Math.floorMod(getTimestampNanos(), 1_000_000_000L),
+        ZoneOffset.UTC);
+  }
 
   long getVersion();
 
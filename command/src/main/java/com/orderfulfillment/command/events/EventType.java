@@ -0,0 +1,118 @@
+package com.orderfulfillment.command.events;
+
+import com.orderfulfillment.command.events.payloads.InventoryAllocatedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderAllocatedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderCancelledPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservationConfirmedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservationExpiredPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReturnedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
+import com.orderfulfillment.command.events.payloads.OrderCancelledPayload;
+import com.orderfulfillment.command.events.payloads.OrderCreatedPayload;
+import com.orderfulfillment.command.events.payloads.OrderStatusUpdatedPayload;
+import com.orderfulfillment.command.utils.Constants;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The event types produced by the command side, each with a stable integer code and its payload
+ * class.
+ *
+ * <p>The codes identify event types in binary encodings, so they must never be reused or changed;
+ * new types get the next free code.
+ */
+public enum EventType {
+  ORDER_CREATED(1, Constants.ORDER_CREATED_EVENT, OrderCreatedPayload.class),
+  ORDER_STATUS_UPDATED(2, Constants.ORDER_STATUS_UPDATED_EVENT, OrderStatusUpdatedPayload.class),
+  ORDER_CANCELLED(3, Constants.ORDER_CANCELED_EVENT, OrderCancelledPayload.class),
+  INVENTORY_UPDATED(4, Constants.INVENTORY_UPDATED_EVENT, InventoryUpdatedPayload.class),
+  INVENTORY_ALLOCATED(5, Constants.INVENTORY_ALLOCATED_EVENT, InventoryAllocatedPayload.class),
+  INVENTORY_RETURNED(6, Constants.INVENTORY_RETURNED_EVENT, InventoryReturnedPayload.class),
+  INVENTORY_RESERVED(7, Constants.INVENTORY_RESERVED_EVENT, InventoryReservedPayload.class),
+  INVENTORY_RESERVATION_CONFIRMED(
+      8,
+      Constants.INVENTORY_RESERVATION_CONFIRMED_EVENT,
+      InventoryReservationConfirmedPayload.class),
+  INVENTORY_RESERVATION_EXPIRED(
+      9, Constants.INVENTORY_RESERVATION_EXPIRED_EVENT, InventoryReservationExpiredPayload.class),
+  INVENTORY_BACKORDERED(
+      10, Constants.INVENTORY_BACKORDERED_EVENT, InventoryBackorderedPayload.class),
+  INVENTORY_BACKORDER_ALLOCATED(
+      11, Constants.INVENTORY_BACKORDER_ALLOCATED_EVENT, InventoryBackorderAllocatedPayload.class),
+  INVENTORY_BACKORDER_CANCELLED(
+      12, Constants.INVENTORY_BACKORDER_CANCELLED_EVENT, InventoryBackorderCancelledPayload.class);
+
+  private static final EventType[] BY_CODE;
+  private static final Map<String, EventType> BY_NAME = new HashMap<>();
+
+  static {
+    int maxCode = 0;
+    for (EventType type : values()) {
+      maxCode = Math.max(maxCode, type.code);
+      BY_NAME.put(type.typeName, type);
+    }
+    BY_CODE = new EventType[maxCode + 1];
+    for (EventType type : values()) {
+      BY_CODE[type.code] = type;
+    }
+  }
+
+  private final int code;
+  private final String typeName;
+  private final Class<?> payloadType;
+
+  EventType(int code, String typeName, Class<?> payloadType) {
+    this.code = code;
+    this.typeName = typeName;
+    this.payloadType = payloadType;
+  }
+
+  /**
+   * Gets the stable integer code of this event type.
+   *
+   * @return the code, greater than 0
+   */
+  public int getCode() {
+    return code;
+  }
+
+  /**
+   * Gets the name of this event type as returned by {@link Event#getEventType()}.
+   *
+   * @return the event type name
+   */
+  public String getTypeName() {
+    return typeName;
+  }
+
+  /**
+   * Gets the class of the payload carried by events of this type.
+   *
+   * @return the payload class
+   */
+  public Class<?> getPayloadType() {
+    return payloadType;
+  }
+
+  /**
+   * Looks up an event type by its code.
+   *
+   * @param code the event type code
+   * @return the event type, or {@code null} if the code is unknown
+   */
+  public static EventType fromCode(int code) {
+    return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+  }
+
+  /**
+   * Looks up an event type by its name.
+   *
+   * @param typeName the event type name
+   * @return the event type, or {@code null} if the name is unknown
+   */
+  public static EventType fromName(String typeName) {
+    return BY_NAME.get(typeName);
+  }
+}
@@ -1,10 +1,15 @@
 package com.orderfulfillment.command.events.impl;
 
 import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.EventType;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.Serial;
 import java.time.LocalDateTime;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 
 /**
@@ -14,26 +19,205 @@ import lombok.ToString;
  *
  * <ul>
  *   <li><b>eventId</b>: a unique identifier for this event
- *   <li><b>eventType</b>: a string denoting the type or category of the event
+ *   <li><b>eventType</b>: a string denoting the type or category of the event, resolved to its
+ *       {@link EventType} once when the event is created or read
  *   <li><b>aggregateId</b>: the identifier of the aggregate that produced the event
  *   <li><b>aggregateType</b>: the type of the aggregate that produced the event
- *   <li><b>timestamp</b>: the date and time when the event was created
+ *   <li><b>timestampNanos</b>: when the event was created, in nanoseconds since the Unix epoch
  *   <li><b>version</b>: the version of the event, useful for event sourcing
  *   <li><b>payload</b>: the event-specific data of type {@code T}
  * </ul>
  *
+ * <p>New events are created with {@link #create}, which reads the clock once for both the
+ * time-ordered event ID and the timestamp. The timestamp is kept as a number and only turned into a
+ * {@link LocalDateTime} when asked for one.
+ *
+ * <p>The Java serialized form still carries the timestamp as a {@link LocalDateTime}, so stores
+ * written with {@link com.orderfulfillment.command.eventstore.impl.JavaEventSerializer} before the
+ * change remain readable. The fields are not final only because {@link #readObject} assigns them;
+ * events are never modified after construction.
+ *
  * @param <T> the type of the event payload
  */
 @Getter
 @EqualsAndHashCode
 @ToString
-@RequiredArgsConstructor
 public class BaseEvent<T> implements Event<T> {
-  private final String eventId;
-  private final String eventType;
-  private final String aggregateId;
-  private final String aggregateType;
-  private final LocalDateTime timestamp;
-  private final long version;
-  private final T payload;
+  @Serial private static final long serialVersionUID = 2279277403414986151L;
+
+  @Serial
+  private static final ObjectStreamField[] serialPersistentFields = {
+    new ObjectStreamField("eventId", String.class),
+    new ObjectStreamField("eventType", String.class),
+    new ObjectStreamField("aggregateId", String.class),
+    new ObjectStreamField("aggregateType", String.class),
+    new ObjectStreamField("timestamp", LocalDateTime.class),
+    new ObjectStreamField("version", long.class),
+    new ObjectStreamField("payload", Object.class)
+  };
+
+  private String eventId;
+  private String eventType;
+  private String aggregateId;
+  private String aggregateType;
+  private long timestampNanos;
+  private long version;
+  private T payload;
+
+  // Derived from the type name and not part of the serialized form.
+  @EqualsAndHashCode.Exclude @ToString.Exclude private EventType type;
+
+  /**
+   * Creates an event.
+   *
+   * @param eventId the unique identifier of the event
+   * @param eventType the type of the event
+   * @param aggregateId the identifier of the aggregate that produced the event
+   * @param aggregateType the type of the aggregate that produced the event
+   * @param timestampNanos when the event was created, in nanoseconds since the Unix epoch
+   * @param version the version of the event
+   * @param payload the event-specific data
+   */
+  public BaseEvent(
+      String eventId,
+      String eventType,
+      String aggregateId,
+      String aggregateType,
+      long timestampNanos,
+      long version,
+      T payload) {
+    this(
+        eventId,
+        eventType,
+        EventType.fromName(eventType),
+        aggregateId,
+        aggregateType,
+        timestampNanos,
+        version,
+        payload);
+  }
+
+  /**
+   * Creates an event of a known type.
+   *
+   * @param eventId the unique identifier of the event
+   * @param type the type of the event
+   * @param aggregateId the identifier of the aggregate that produced the event
+   * @param aggregateType the type of the aggregate that produced the event
+   * @param timestampNanos when the event was created, in nanoseconds since the Unix epoch
+   * @param version the version of the event
+   * @param payload the event-specific data
+   */
+  public BaseEvent(
+      String eventId,
+      EventType type,
+      String aggregateId,
+      String aggregateType,
+      long timestampNanos,
+      long version,
+      T payload) {
+    this(
+        eventId,
+        type.getTypeName(),
+        type,
+        aggregateId,
+        aggregateType,
+        timestampNanos,
+        version,
+        payload);
+  }
+
+  private BaseEvent(
+      String eventId,
+      String eventType,
+      EventType type,
+      String aggregateId,
+      String aggregateType,
+      long timestampNanos,
+      long version,
+      T payload) {
+    this.eventId = eventId;
+    this.eventType = eventType;
+    this.type = type;
+    this.aggregateId = aggregateId;
+    this.aggregateType = aggregateType;
+    this.timestampNanos = timestampNanos;
+    this.version = version;
+    this.payload = payload;
+  }
+
+  /**
+   * Creates an event with its timestamp given as a date and time in UTC.
+   *
+   * @param eventId the unique identifier of the event
+   * @param eventType the type of the event
+   * @param aggregateId the identifier of the aggregate that produced the event
+   * @param aggregateType the type of the aggregate that produced the event
+   * @param timestamp when the event was created, in UTC
+   * @param version the version of the event
+   * @param payload the event-specific data
+   */
+  public BaseEvent(
+      String eventId,
+      String eventType,
+      String aggregateId,
+      String aggregateType,
+      LocalDateTime timestamp,
+      long version,
+      T payload) {
+    this(
+        eventId,
+        eventType,
+        aggregateId,
+        aggregateType,
+        EventTimestamps.of(timestamp),
+        version,
+        payload);
+  }
+
+  /**
+   * Creates a new event stamped with the current time and a fresh time-ordered ID.
+   *
+   * @param type the type of the event
+   * @param aggregateId the identifier of the aggregate that produced the event
+   * @param aggregateType the type of the aggregate that produced the event
+   * @param version the version of the event
+   * @param payload the event-specific data
+   * @param <T> the type of the event payload
+   * @return the event
+   */
+  public static <T> BaseEvent<T> create(
+      EventType type, String aggregateId, String aggregateType, long version, T payload) {
+    long now = System.currentTimeMillis();
+    return new BaseEvent<>(
+        EventIds.next(now), type, aggregateId, aggregateType, now * 1_000_000L, version, payload);
+  }
+
+  @Serial
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("eventId", eventId);
+    fields.put("eventType", eventType);
+    fields.put("aggregateId", aggregateId);
+    fields.put("aggregateType", aggregateType);
+    fields.put("timestamp", getTimestamp());
+    fields.put("version", version);
+    fields.put("payload", payload);
+    out.writeFields();
+  }
+
+  @Serial
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    ObjectInputStream.GetField fields = in.readFields();
+    eventId = (String) fields.get("eventId", null);
+    eventType = (String) fields.get("eventType", null);
+    type = EventType.fromName(eventType);
+    aggregateId = (String) fields.get("aggregateId", null);
+    aggregateType = (String) fields.get("aggregateType", null);
+    LocalDateTime timestamp = (LocalDateTime) fields.get("timestamp", null);
+    timestampNanos = timestamp == null ? 0 : EventTimestamps.of(timestamp);
+    version = fields.get("version", 0L);
+    payload = (T) fields.get("payload", null);
+  }
 }
@@ -0,0 +1,47 @@
+package com.orderfulfillment.command.events.impl;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates event IDs as time-ordered version 7 UUIDs. Aggregates, reservations and queued commands
+ * take their IDs from here too.
+ *
+ * <p>The first 48 bits hold the creation time in Unix milliseconds and the remaining 74 bits not
+ * taken by the version and variant are random, so IDs sort by creation time across instances while
+ * staying unique. The random bits come from {@link ThreadLocalRandom}: event IDs only need to be
+ * unique, not unpredictable, and unlike {@link UUID#randomUUID()} this takes no lock shared by all
+ * threads. IDs are rendered in the canonical UUID form, which the binary serializer stores in 16
+ * bytes.
+ *
+ * <p><strong>Thread Safety:</strong> All methods are stateless and safe to invoke concurrently.
+ */
+public final class EventIds {
+  private static final long VERSION_7 = 0x7000L;
+  private static final long VARIANT_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+  private static final long VARIANT_IETF = 0x8000_0000_0000_0000L;
+
+  private EventIds() {}
+
+  /**
+   * Generates an event ID for an event created at the current time.
+   *
+   * @return a version 7 UUID in canonical form
+   */
+  public static String next() {
+    return next(System.currentTimeMillis());
+  }
+
+  /**
+   * Generates an event ID for an event created at a given time.
+   *
+   * @param epochMillis the creation time in Unix milliseconds
+   * @return a version 7 UUID in canonical form
+   */
+  public static String next(long epochMillis) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long mostSigBits = (epochMillis << 16) | VERSION_7 | (random.nextInt() & 0x0FFF);
+    long leastSigBits = (random.nextLong() & VARIANT_MASK) | VARIANT_IETF;
+    return new UUID(mostSigBits, leastSigBits).toString();
+  }
+}
@@ -0,0 +1,141 @@
+package com.orderfulfillment.command.events.impl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Conversions of event timestamps, which are held as nanoseconds since the Unix epoch in UTC.
+ *
+ * <p>{@link #format(long, char[])} writes the ISO-8601 local date-time published in JSON event
+ * messages without going through {@link LocalDateTime}. Unlike {@link LocalDateTime#toString()} it
+ * always includes the seconds, which the query side requires to parse the timestamp; the fraction
+ * is written with three, six or nine digits, or left out when it is zero.
+ */
+public final class EventTimestamps {
+  /** Length of a buffer large enough for any timestamp {@link #format(long, char[])} writes. */
+  public static final int MAX_LENGTH = 29;
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+  private static final int SECONDS_PER_DAY = 86_400;
+  private static final long DAYS_0000_TO_1970 = 719_468L;
+  private static final long DAYS_PER_ERA = 146_097L;
+  private static final long MIN_FORMATTED_DAY = -719_528L;
+  private static final long MAX_FORMATTED_DAY = 2_932_896L;
+
+  private EventTimestamps() {}
+
+  /**
+   * Returns the current time with the millisecond precision of the system clock.
+   *
+   * @return nanoseconds since the Unix epoch
+   */
+  public static long now() {
+    return System.currentTimeMillis() * 1_000_000L;
+  }
+
+  /**
+   * Converts a UTC date-time to a timestamp.
+   *
+   * @param dateTime the date and time in UTC
+   * @return nanoseconds since the Unix epoch
+   */
+  public static long of(LocalDateTime dateTime) {
+    return dateTime.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + dateTime.getNano();
+  }
+
+  /**
+   * Converts a timestamp to a UTC date-time.
+   *
+   * @param epochNanos nanoseconds since the Unix epoch
+   * @return the date and time in UTC
+   */
+  public static LocalDateTime toDateTime(long epochNanos) {
+    return LocalDateTime.ofEpochSecond(
+        epochSeconds(epochNanos), nanoOfSecond(epochNanos), ZoneOffset.UTC);
+  }
+
+  /**
+   * Returns the whole seconds of a timestamp.
+   *
+   * @param epochNanos nanoseconds since the Unix epoch
+   * @return seconds since the Unix epoch, rounded down
+   */
+  public static long epochSeconds(long epochNanos) {
+    return Math.floorDiv(epochNanos, NANOS_PER_SECOND);
+  }
+
+  /**
+   * Returns the nanosecond within the second of a timestamp.
+   *
+   * @param epochNanos nanoseconds since the Unix epoch
+   * @return the nanosecond of the second, from 0 to 999,999,999
+   */
+  public static int nanoOfSecond(long epochNanos) {
+    return (int) Math.floorMod(epochNanos, NANOS_PER_SECOND);
+  }
+
+  /**
+   * Writes a timestamp as an ISO-8601 local date-time in UTC, such as {@code
+   * 2024-07-01T12:30:00.123}.
+   *
+   * @param epochNanos nanoseconds since the Unix epoch
+   * @param buffer the buffer written from its start, at least {@link #MAX_LENGTH} long
+   * @return the number of characters written
+   */
+  public static int format(long epochNanos, char[] buffer) {
+    long seconds = epochSeconds(epochNanos);
+    int nanos = nanoOfSecond(epochNanos);
+    long epochDay = Math.floorDiv(seconds, SECONDS_PER_DAY);
+    if (epochDay < MIN_FORMATTED_DAY || epochDay > MAX_FORMATTED_DAY) {
+      // Years outside 0000-9999 are never produced by the clock; leave them to java.time.
+      String text = toDateTime(epochNanos).toString();
+      text.getChars(0, text.length(), buffer, 0);
+      return text.length();
+    }
+    int secondOfDay = (int) Math.floorMod(seconds, SECONDS_PER_DAY);
+
+    // Civil date from days since 1970-01-01, counting years from March so leap days come last.
+    long days = epochDay + DAYS_0000_TO_1970;
+    long era = Math.floorDiv(days, DAYS_PER_ERA);
+    int dayOfEra = (int) (days - era * DAYS_PER_ERA);
+    int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    int marchMonth = (5 * dayOfYear + 2) / 153;
+    int day = dayOfYear - (153 * marchMonth + 2) / 5 + 1;
+    int month = marchMonth < 10 ? marchMonth + 3 : marchMonth - 9;
+    int year = (int) (era * 400 + yearOfEra) + (month <= 2 ? 1 : 0);
+
+    writeDigits(buffer, 0, year, 4);
+    buffer[4] = '-';
+    writeDigits(buffer, 5, month, 2);
+    buffer[7] = '-';
+    writeDigits(buffer, 8, day, 2);
+    buffer[10] = 'T';
+    writeDigits(buffer, 11, secondOfDay / 3600, 2);
+    buffer[13] = ':';
+    writeDigits(buffer, 14, secondOfDay / 60 % 60, 2);
+    buffer[16] = ':';
+    writeDigits(buffer, 17, secondOfDay % 60, 2);
+    if (nanos == 0) {
+      return 19;
+    }
+    buffer[19] = '.';
+    if (nanos % 1_000_000 == 0) {
+      writeDigits(buffer, 20, nanos / 1_000_000, 3);
+      return 23;
+    }
+    if (nanos % 1_000 == 0) {
+      writeDigits(buffer, 20, nanos / 1_000, 6);
+      return 26;
+    }
+    writeDigits(buffer, 20, nanos, 9);
+    return MAX_LENGTH;
+  }
+
+  private static void writeDigits(char[] buffer, int offset, int value, int width) {
+    for (int i = offset + width - 1; i >= offset; i--) {
+      buffer[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+  }
+}
@@ -1,12 +1,17 @@
 package com.orderfulfillment.command.events.impl;
 
 import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.EventType;
 import com.orderfulfillment.command.events.payloads.InventoryAllocatedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderAllocatedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderCancelledPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservationConfirmedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservationExpiredPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservedPayload;
 import com.orderfulfillment.command.events.payloads.InventoryReturnedPayload;
 import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
 import com.orderfulfillment.command.utils.Constants;
-import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Utility class providing factory methods to create Inventory-related events.
@@ -21,6 +26,12 @@ import java.util.UUID;
  *   <li>{@code InventoryUpdated} – when inventory levels are updated
  *   <li>{@code InventoryAllocated} – when inventory is allocated to an order
  *   <li>{@code InventoryReturned} – when inventory is returned from a cancelled order
+ *   <li>{@code InventoryReserved} – when inventory is held for a limited time
+ *   <li>{@code InventoryReservationConfirmed} – when a held quantity is allocated to an order
+ *   <li>{@code InventoryReservationExpired} – when a hold lapses and its quantity is released
+ *   <li>{@code InventoryBackordered} – when an order line is queued until stock arrives
+ *   <li>{@code InventoryBackorderAllocated} – when arriving stock is allocated to a queued line
+ *   <li>{@code InventoryBackorderCancelled} – when a queued line is withdrawn
  * </ul>
  *
  * <p>Each factory method returns an {@code Event<T>} instance, where {@code T} is the payload type
@@ -40,12 +51,10 @@ public class InventoryEvents {
    */
   public static Event<InventoryUpdatedPayload> createInventoryUpdatedEvent(
       String inventoryId, InventoryUpdatedPayload payload, long version) {
-    return new BaseEvent<>(
-        UUID.randomUUID().toString(),
-        Constants.INVENTORY_UPDATED_EVENT,
+    return BaseEvent.create(
+        EventType.INVENTORY_UPDATED,
         inventoryId,
         Constants.AGGREGATE_TYPE_INVENTORY,
-        LocalDateTime.now(),
         version,
         payload);
   }
@@ -60,12 +69,10 @@ public class InventoryEvents {
    */
   public static Event<InventoryAllocatedPayload> createInventoryAllocatedEvent(
       String inventoryId, InventoryAllocatedPayload payload, long version) {
-    return new BaseEvent<>(
-        UUID.randomUUID().toString(),
-        Constants.INVENTORY_ALLOCATED_EVENT,
+    return BaseEvent.create(
+        EventType.INVENTORY_ALLOCATED,
         inventoryId,
         Constants.AGGREGATE_TYPE_INVENTORY,
-        LocalDateTime.now(),
         version,
         payload);
   }
@@ -80,12 +87,120 @@ public class InventoryEvents {
    */
   public static Event<InventoryReturnedPayload> createInventoryReturnedEvent(
       String inventoryId, InventoryReturnedPayload payload, long version) {
-    return new BaseEvent<>(
-        UUID.randomUUID().toString(),
-        Constants.INVENTORY_RETURNED_EVENT,
+    return BaseEvent.create(
+        EventType.INVENTORY_RETURNED,
+        inventoryId,
+        Constants.AGGREGATE_TYPE_INVENTORY,
+        version,
+        payload);
+  }
+
+  /**
+   * Creates a new InventoryReserved event.
+   *
+   * @param inventoryId the unique identifier of the inventory aggregate
+   * @param payload the payload containing details about the reservation
+   * @param version the version of the event
+   * @return an {@code Event<InventoryReservedPayload>} representing the reservation
+   */
+  public static Event<InventoryReservedPayload> createInventoryReservedEvent(
+      String inventoryId, InventoryReservedPayload payload, long version) {
+    return BaseEvent.create(
+        EventType.INVENTORY_RESERVED,
+        inventoryId,
+        Constants.AGGREGATE_TYPE_INVENTORY,
+        version,
+        payload);
+  }
+
+  /**
+   * Creates a new InventoryReservationConfirmed event.
+   *
+   * @param inventoryId the unique identifier of the inventory aggregate
+   * @param payload the payload containing details about the confirmation
+   * @param version the version of the event
+   * @return an {@code Event<InventoryReservationConfirmedPayload>} representing the confirmation
+   */
+  public static Event<InventoryReservationConfirmedPayload>
+      createInventoryReservationConfirmedEvent(
+          String inventoryId, InventoryReservationConfirmedPayload payload, long version) {
+    return BaseEvent.create(
+        EventType.INVENTORY_RESERVATION_CONFIRMED,
+        inventoryId,
+        Constants.AGGREGATE_TYPE_INVENTORY,
+        version,
+        payload);
+  }
+
+  /**
+   * Creates a new InventoryReservationExpired event.
+   *
+   * @param inventoryId the unique identifier of the inventory aggregate
+   * @param payload the payload containing details about the expired reservation
+   * @param version the version of the event
+   * @return an {@code Event<InventoryReservationExpiredPayload>} representing the expiry
+   */
+  public static Event<InventoryReservationExpiredPayload> createInventoryReservationExpiredEvent(
+      String inventoryId, InventoryReservationExpiredPayload payload, long version) {
+    return BaseEvent.create(
+        EventType.INVENTORY_RESERVATION_EXPIRED,
+        inventoryId,
+        Constants.AGGREGATE_TYPE_INVENTORY,
+        version,
+        payload);
+  }
+
+  /**
+   * Creates a new InventoryBackordered event.
+   *
+   * @param inventoryId the unique identifier of the inventory aggregate
+   * @param payload the payload containing details about the backorder
+   * @param version the version of the event
+   * @return an {@code Event<InventoryBackorderedPayload>} representing the backorder
+   */
+  public static Event<InventoryBackorderedPayload> createInventoryBackorderedEvent(
+      String inventoryId, InventoryBackorderedPayload payload, long version) {
+    return BaseEvent.create(
+        EventType.INVENTORY_BACKORDERED,
+        inventoryId,
+        Constants.AGGREGATE_TYPE_INVENTORY,
+        version,
+        payload);
+  }
+
+  /**
+   * Creates a new InventoryBackorderAllocated event.
+   *
+   * @param inventoryId the unique identifier of the inventory aggregate
+   * @param payload the payload containing details about the filled backorder
+   * @param version the version of the event
+   * @return an {@code Event<InventoryBackorderAllocatedPayload>} representing the filled backorder
+   */
+  public static Event<InventoryBackorderAllocatedPayload> createInventoryBackorderAllocatedEvent(
+      String inventoryId, InventoryBackorderAllocatedPayload payload, long version) {
+    return BaseEvent.create(
+        EventType.INVENTORY_BACKORDER_ALLOCATED,
+        inventoryId,
+        Constants.AGGREGATE_TYPE_INVENTORY,
+        version,
+        payload);
+  }
+
+  /**
+   * Creates a new InventoryBackorderCancelled event.
+   *
+   * @param inventoryId the unique identifier of the inventory aggregate
+   * @param payload the payload containing details about the cancelled backorder
+   * @param version the version of the event
+   * @return an {@code Event<InventoryBackorderCancelledPayload>} representing the cancelled
+   *     backorder
+   */
+  public static Event<InventoryBackorderCancelledPayload> createInventoryBackorderCancelledEvent(
+      String inventoryId, InventoryBackorderCancelledPayload payload, long version) {
+    return BaseEvent.create(
+        EventType.INVENTORY_BACKORDER_CANCELLED,
         inventoryId,
         Constants.AGGREGATE_TYPE_INVENTORY,
-        LocalDateTime.now(),
         version,
         payload);
   }
@@ -1,12 +1,11 @@
 package com.orderfulfillment.command.events.impl;
 
 import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.EventType;
 import com.orderfulfillment.command.events.payloads.OrderCancelledPayload;
 import com.orderfulfillment.command.events.payloads.OrderCreatedPayload;
 import com.orderfulfillment.command.events.payloads.OrderStatusUpdatedPayload;
 import com.orderfulfillment.command.utils.Constants;
-import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Utility class providing factory methods to create Order-related events.
@@ -38,14 +37,8 @@ public class OrderEvents {
    */
   public static Event<OrderCreatedPayload> createOrderCreatedEvent(
       String orderId, OrderCreatedPayload payload, long version) {
-    return new BaseEvent<>(
-        UUID.randomUUID().toString(),
-        Constants.ORDER_CREATED_EVENT,
-        orderId,
-        Constants.AGGREGATE_TYPE_ORDER,
-        LocalDateTime.now(),
-        version,
-        payload);
+    return BaseEvent.create(
+        EventType.ORDER_CREATED, orderId, Constants.AGGREGATE_TYPE_ORDER, version, payload);
   }
 
   /**
@@ -58,14 +51,8 @@ public class OrderEvents {
    */
   public static Event<OrderCancelledPayload> createOrderCancelledEvent(
       String orderId, OrderCancelledPayload payload, long version) {
-    return new BaseEvent<>(
-        UUID.randomUUID().toString(),
-        Constants.ORDER_CANCELED_EVENT,
-        orderId,
-        Constants.AGGREGATE_TYPE_ORDER,
-        LocalDateTime.now(),
-        version,
-        payload);
+    return BaseEvent.create(
+        EventType.ORDER_CANCELLED, orderId, Constants.AGGREGATE_TYPE_ORDER, version, payload);
   }
 
   /**
@@ -78,13 +65,7 @@ public class OrderEvents {
    */
   public static Event<OrderStatusUpdatedPayload> createOrderStatusUpdatedEvent(
       String orderId, OrderStatusUpdatedPayload payload, long version) {
-    return new BaseEvent<>(
-        UUID.randomUUID().toString(),
-        Constants.ORDER_STATUS_UPDATED_EVENT,
-        orderId,
-        Constants.AGGREGATE_TYPE_ORDER,
-        LocalDateTime.now(),
-        version,
-        payload);
+    return BaseEvent.create(
+        EventType.ORDER_STATUS_UPDATED, orderId, Constants.AGGREGATE_TYPE_ORDER, version, payload);
   }
 }
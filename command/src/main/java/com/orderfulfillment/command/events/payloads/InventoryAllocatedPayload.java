@@ -1,5 +1,7 @@
 package com.orderfulfillment.command.events.payloads;
 
+import java.io.Serializable;
+
 /**
  * Represents the payload for an inventory allocation event.
  *
@@ -9,4 +11,5 @@ package com.orderfulfillment.command.events.payloads;
  * @param orderId the unique identifier of the order
  * @param quantity the quantity allocated to the order
  */
-public record InventoryAllocatedPayload(String productId, String orderId, int quantity) {}
+public record InventoryAllocatedPayload(String productId, String orderId, int quantity)
+    implements Serializable {}
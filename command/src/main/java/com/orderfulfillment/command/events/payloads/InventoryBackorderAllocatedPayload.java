@@ -0,0 +1,16 @@
+package com.orderfulfillment.command.events.payloads;
+
+import java.io.Serializable;
+
+/**
+ * Represents the payload for the allocation of a backordered order line.
+ *
+ * <p>This payload contains the product identifier, order identifier, and the quantity allocated
+ * from arriving stock.
+ *
+ * @param productId the unique identifier of the product
+ * @param orderId the unique identifier of the order
+ * @param quantity the quantity allocated
+ */
+public record InventoryBackorderAllocatedPayload(String productId, String orderId, int quantity)
+    implements Serializable {}
@@ -0,0 +1,16 @@
+package com.orderfulfillment.command.events.payloads;
+
+import java.io.Serializable;
+
+/**
+ * Represents the payload for the cancellation of a backordered order line.
+ *
+ * <p>This payload contains the product identifier, order identifier, and the quantity that is no
+ * longer waited for.
+ *
+ * @param productId the unique identifier of the product
+ * @param orderId the unique identifier of the order
+ * @param quantity the quantity withdrawn from the backorder queue
+ */
+public record InventoryBackorderCancelledPayload(String productId, String orderId, int quantity)
+    implements Serializable {}
@@ -0,0 +1,17 @@
+package com.orderfulfillment.command.events.payloads;
+
+import java.io.Serializable;
+
+/**
+ * Represents the payload for an inventory backorder event.
+ *
+ * <p>This payload contains the product identifier, the order whose line could not be allocated, the
+ * quantity it waits for and its priority in the backorder queue.
+ *
+ * @param productId the unique identifier of the product
+ * @param orderId the unique identifier of the order
+ * @param quantity the quantity waiting for stock
+ * @param priority the priority of the line; higher priorities are allocated first
+ */
+public record InventoryBackorderedPayload(
+    String productId, String orderId, int quantity, int priority) implements Serializable {}
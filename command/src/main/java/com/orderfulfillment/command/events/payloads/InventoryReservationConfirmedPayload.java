@@ -0,0 +1,17 @@
+package com.orderfulfillment.command.events.payloads;
+
+import java.io.Serializable;
+
+/**
+ * Represents the payload for an inventory reservation confirmation event.
+ *
+ * <p>This payload contains the product identifier, reservation identifier, the order the reserved
+ * quantity is allocated to, and that quantity.
+ *
+ * @param productId the unique identifier of the product
+ * @param reservationId the unique identifier of the confirmed reservation
+ * @param orderId the unique identifier of the order
+ * @param quantity the quantity allocated to the order
+ */
+public record InventoryReservationConfirmedPayload(
+    String productId, String reservationId, String orderId, int quantity) implements Serializable {}
@@ -0,0 +1,16 @@
+package com.orderfulfillment.command.events.payloads;
+
+import java.io.Serializable;
+
+/**
+ * Represents the payload for an inventory reservation expiry event.
+ *
+ * <p>This payload contains the product identifier, reservation identifier, and the quantity
+ * released back to available stock.
+ *
+ * @param productId the unique identifier of the product
+ * @param reservationId the unique identifier of the expired reservation
+ * @param quantity the quantity released
+ */
+public record InventoryReservationExpiredPayload(
+    String productId, String reservationId, int quantity) implements Serializable {}
@@ -0,0 +1,19 @@
+package com.orderfulfillment.command.events.payloads;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Represents the payload for an inventory reservation event.
+ *
+ * <p>This payload contains the product identifier, reservation identifier, the reserved quantity
+ * and the instant the reservation expires unless it is confirmed.
+ *
+ * @param productId the unique identifier of the product
+ * @param reservationId the unique identifier of the reservation
+ * @param quantity the quantity held by the reservation
+ * @param expiresAt the instant after which the reservation is released
+ */
+public record InventoryReservedPayload(
+    String productId, String reservationId, int quantity, Instant expiresAt)
+    implements Serializable {}
@@ -1,5 +1,7 @@
 package com.orderfulfillment.command.events.payloads;
 
+import java.io.Serializable;
+
 /**
  * Represents the payload for an inventory return event.
  *
@@ -9,4 +11,5 @@ package com.orderfulfillment.command.events.payloads;
  * @param orderId the unique identifier of the order
  * @param quantity the quantity returned from the order
  */
-public record InventoryReturnedPayload(String productId, String orderId, int quantity) {}
+public record InventoryReturnedPayload(String productId, String orderId, int quantity)
+    implements Serializable {}
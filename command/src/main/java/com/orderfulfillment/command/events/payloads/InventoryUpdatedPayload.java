@@ -1,5 +1,7 @@
 package com.orderfulfillment.command.events.payloads;
 
+import java.io.Serializable;
+
 /**
  * Represents the payload for an inventory update event.
  *
@@ -8,4 +10,4 @@ package com.orderfulfillment.command.events.payloads;
  * @param productId the unique identifier of the product
  * @param quantity the new available quantity
  */
-public record InventoryUpdatedPayload(String productId, int quantity) {}
+public record InventoryUpdatedPayload(String productId, int quantity) implements Serializable {}
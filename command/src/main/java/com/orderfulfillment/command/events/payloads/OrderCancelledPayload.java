@@ -1,5 +1,7 @@
 package com.orderfulfillment.command.events.payloads;
 
+import java.io.Serializable;
+
 /**
  * Represents the payload for an order cancellation event.
  *
@@ -7,4 +9,4 @@ package com.orderfulfillment.command.events.payloads;
  *
  * @param orderId the unique identifier of the cancelled order
  */
-public record OrderCancelledPayload(String orderId) {}
+public record OrderCancelledPayload(String orderId) implements Serializable {}
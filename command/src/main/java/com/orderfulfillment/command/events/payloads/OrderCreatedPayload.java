@@ -4,6 +4,7 @@ import com.orderfulfillment.command.domain.Address;
 import com.orderfulfillment.command.domain.Money;
 import com.orderfulfillment.command.domain.OrderItem;
 import com.orderfulfillment.command.domain.OrderStatus;
+import java.io.Serializable;
 import java.util.List;
 import lombok.Builder;
 
@@ -15,4 +16,5 @@ public record OrderCreatedPayload(
     OrderStatus status,
     Address shippingAddress,
     Address billingAddress,
-    Money totalCost) {}
+    Money totalCost)
+    implements Serializable {}
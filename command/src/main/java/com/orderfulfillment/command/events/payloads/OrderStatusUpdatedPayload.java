@@ -1,6 +1,7 @@
 package com.orderfulfillment.command.events.payloads;
 
 import com.orderfulfillment.command.domain.OrderStatus;
+import java.io.Serializable;
 
 /**
  * Represents the payload for an order status update event.
@@ -10,4 +11,5 @@ import com.orderfulfillment.command.domain.OrderStatus;
  * @param orderId the unique identifier of the order
  * @param status the new status of the order
  */
-public record OrderStatusUpdatedPayload(String orderId, OrderStatus status) {}
+public record OrderStatusUpdatedPayload(String orderId, OrderStatus status)
+    implements Serializable {}
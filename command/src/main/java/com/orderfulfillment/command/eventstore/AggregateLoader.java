@@ -0,0 +1,247 @@
+package com.orderfulfillment.command.eventstore;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orderfulfillment.command.domain.AggregateRoot;
+import com.orderfulfillment.command.domain.Snapshottable;
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.exceptions.EventStoreException;
+import com.orderfulfillment.command.jfr.AggregateHydrationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rebuilds aggregates from a bounded in-memory cache, or from their latest snapshot plus the events
+ * recorded after it.
+ *
+ * <p>The cache holds the committed state of recently used aggregates as immutable {@link Snapshot}
+ * values rather than the aggregate instances themselves, because handlers mutate the aggregates
+ * they load and may fail before saving. A cached entry is only reused if its version matches the
+ * current head of the stream; otherwise it is discarded and the aggregate is rebuilt from the event
+ * store. A committed save replaces the entry with the new state. Eviction is bounded by total
+ * weight using Caffeine's W-TinyLFU policy, and hit, miss and eviction statistics are published as
+ * {@code cache.*} metrics tagged with {@code cache=aggregate.<type>}.
+ *
+ * <p>Snapshots are taken according to the {@link SnapshotPolicy}, either after a long or slow
+ * replay or when a save crosses the configured event interval. A snapshot is only used if the
+ * stream has reached its version; one ahead of the stream, as after the event store was lost or
+ * rebuilt, is discarded and counted in {@code aggregate.snapshot.discarded}, and the aggregate is
+ * rebuilt from its events alone. Replay times are recorded in the {@code aggregate.replay} timer,
+ * tagged by whether a snapshot was used, and the number of replayed events in the {@code
+ * aggregate.replay.events} summary. Every load is also an {@link AggregateHydrationEvent} for the
+ * flight recorder.
+ *
+ * @param <A> the aggregate type
+ * @param <S> the snapshot state type of the aggregate
+ */
+@Slf4j
+public class AggregateLoader<A extends AggregateRoot & Snapshottable<S>, S extends Serializable> {
+  private final String aggregateType;
+  private final EventStore eventStore;
+  private final SnapshotStore snapshotStore;
+  private final SnapshotPolicy snapshotPolicy;
+  private final Supplier<A> factory;
+  private final Cache<String, Snapshot<S>> cache;
+  private final Counter staleCacheEntries;
+  private final Counter discardedSnapshots;
+  private final Timer replayWithSnapshot;
+  private final Timer replayWithoutSnapshot;
+  private final DistributionSummary replayedEvents;
+
+  /**
+   * Creates a loader for one aggregate type.
+   *
+   * @param aggregateType the aggregate type used in metric tags and flight recorder events
+   * @param eventStore the event store holding the aggregate streams
+   * @param snapshotStore the store holding the latest snapshot of each aggregate
+   * @param snapshotPolicy the policy deciding when snapshots are taken
+   * @param factory creates empty aggregate instances
+   * @param weigher computes the cache weight of a snapshot state
+   * @param cacheMaximumWeight the maximum total weight of cached aggregates, 0 disables the cache
+   * @param meterRegistry the registry metrics are published to
+   */
+  @Builder
+  private AggregateLoader(
+      String aggregateType,
+      EventStore eventStore,
+      SnapshotStore snapshotStore,
+      SnapshotPolicy snapshotPolicy,
+      Supplier<A> factory,
+      ToIntFunction<S> weigher,
+      long cacheMaximumWeight,
+      MeterRegistry meterRegistry) {
+    this.aggregateType = aggregateType;
+    this.eventStore = eventStore;
+    this.snapshotStore = snapshotStore;
+    this.snapshotPolicy = snapshotPolicy;
+    this.factory = factory;
+    this.cache =
+        cacheMaximumWeight > 0
+            ? Caffeine.newBuilder()
+                .maximumWeight(cacheMaximumWeight)
+                .<String, Snapshot<S>>weigher(
+                    (id, snapshot) -> weigher.applyAsInt(snapshot.state()))
+                .recordStats()
+                .build()
+            : null;
+    if (cache != null) {
+      CaffeineCacheMetrics.monitor(meterRegistry, cache, "aggregate." + aggregateType);
+    }
+    this.staleCacheEntries =
+        Counter.builder("aggregate.cache.stale")
+            .description("Cached aggregates discarded because the stream moved ahead")
+            .tag("aggregate", aggregateType)
+            .register(meterRegistry);
+    this.discardedSnapshots =
+        Counter.builder("aggregate.snapshot.discarded")
+            .description("Snapshots ignored because they are ahead of the event stream")
+            .tag("aggregate", aggregateType)
+            .register(meterRegistry);
+    this.replayWithSnapshot = replayTimer(meterRegistry, aggregateType, true);
+    this.replayWithoutSnapshot = replayTimer(meterRegistry, aggregateType, false);
+    this.replayedEvents =
+        DistributionSummary.builder("aggregate.replay.events")
+            .description("Number of events applied when rebuilding an aggregate")
+            .tag("aggregate", aggregateType)
+            .register(meterRegistry);
+  }
+
+  /**
+   * Loads an aggregate at the current head of its stream.
+   *
+   * @param aggregateId the unique identifier of the aggregate
+   * @return the aggregate, or empty if the aggregate has no snapshot and no events
+   */
+  public Optional<A> load(String aggregateId) {
+    AggregateHydrationEvent hydration = new AggregateHydrationEvent();
+    hydration.begin();
+    try {
+      if (cache != null) {
+        Snapshot<S> cached = cache.getIfPresent(aggregateId);
+        if (cached != null) {
+          if (cached.version() == eventStore.getVersion(aggregateId)) {
+            A aggregate = restore(cached, List.of());
+            hydration.complete(aggregateType, aggregateId, "cache", 0, "found");
+            return Optional.of(aggregate);
+          }
+          staleCacheEntries.increment();
+          cache.invalidate(aggregateId);
+        }
+      }
+
+      Optional<A> aggregate = replay(aggregateId, hydration);
+      aggregate.ifPresent(this::cache);
+      return aggregate;
+    } catch (RuntimeException e) {
+      hydration.complete(aggregateType, aggregateId, null, 0, "failure");
+      throw e;
+    }
+  }
+
+  /**
+   * Records a freshly saved aggregate in the cache and takes a snapshot of it if the save crossed
+   * the snapshot interval.
+   *
+   * @param aggregate the saved aggregate, already at its new version
+   * @param previousVersion the version of the aggregate before the save
+   */
+  public void afterSave(A aggregate, long previousVersion) {
+    cache(aggregate);
+    if (snapshotPolicy.shouldSnapshotAfterSave(previousVersion, aggregate.getVersion())) {
+      takeSnapshot(aggregate);
+    }
+  }
+
+  private Optional<A> replay(String aggregateId, AggregateHydrationEvent hydration) {
+    long start = System.nanoTime();
+
+    Optional<Snapshot<S>> snapshot =
+        snapshotPolicy.enabled() ? snapshotStore.load(aggregateId) : Optional.empty();
+    if (snapshot.isPresent()) {
+      long head = eventStore.getVersion(aggregateId);
+      if (snapshot.get().version() > head) {
+        log.warn(
+            "Discarding snapshot of aggregate {} at version {}, ahead of its stream at version {}",
+            aggregateId,
+            snapshot.get().version(),
+            head);
+        discardedSnapshots.increment();
+        snapshot = Optional.empty();
+      }
+    }
+    long baseVersion = snapshot.map(Snapshot::version).orElse(0L);
+    List<Event<?>> events = eventStore.readStream(aggregateId, baseVersion);
+    if (snapshot.isEmpty() && events.isEmpty()) {
+      hydration.complete(aggregateType, aggregateId, null, 0, "missing");
+      return Optional.empty();
+    }
+
+    A aggregate = restore(snapshot.orElse(null), events);
+
+    long elapsed = System.nanoTime() - start;
+    (snapshot.isPresent() ? replayWithSnapshot : replayWithoutSnapshot)
+        .record(elapsed, TimeUnit.NANOSECONDS);
+    replayedEvents.record(events.size());
+
+    if (snapshotPolicy.shouldSnapshotAfterReplay(events.size(), elapsed)) {
+      takeSnapshot(aggregate);
+    }
+    hydration.complete(
+        aggregateType,
+        aggregateId,
+        snapshot.isPresent() ? "snapshot" : "events",
+        events.size(),
+        "found");
+    return Optional.of(aggregate);
+  }
+
+  private A restore(Snapshot<S> snapshot, List<Event<?>> events) {
+    A aggregate = factory.get();
+    long baseVersion = 0;
+    if (snapshot != null) {
+      aggregate.restoreFromSnapshot(snapshot.state());
+      baseVersion = snapshot.version();
+    }
+    aggregate.loadFromHistory(events, baseVersion);
+    return aggregate;
+  }
+
+  private void cache(A aggregate) {
+    if (cache != null) {
+      cache.put(
+          aggregate.getId(),
+          new Snapshot<>(aggregate.getId(), aggregate.getVersion(), aggregate.toSnapshot()));
+    }
+  }
+
+  private void takeSnapshot(A aggregate) {
+    try {
+      snapshotStore.save(
+          new Snapshot<>(aggregate.getId(), aggregate.getVersion(), aggregate.toSnapshot()));
+      log.debug("Snapshot of {} taken at version {}", aggregate.getId(), aggregate.getVersion());
+    } catch (EventStoreException e) {
+      log.warn("Failed to take snapshot of aggregate {}", aggregate.getId(), e);
+    }
+  }
+
+  private static Timer replayTimer(
+      MeterRegistry meterRegistry, String aggregateType, boolean fromSnapshot) {
+    return Timer.builder("aggregate.replay")
+        .description("Time taken to rebuild an aggregate from the event store")
+        .tag("aggregate", aggregateType)
+        .tag("snapshot", String.valueOf(fromSnapshot))
+        .publishPercentiles(0.5, 0.99)
+        .register(meterRegistry);
+  }
+}
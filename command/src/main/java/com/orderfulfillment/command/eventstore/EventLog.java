@@ -0,0 +1,23 @@
+package com.orderfulfillment.command.eventstore;
+
+import java.util.List;
+
+/**
+ * {@link EventStore} that keeps the global order in which the events of all its aggregates were
+ * appended.
+ *
+ * <p>This log is what the outbox relay publishes from, so a committed append is all it takes for
+ * events to be delivered eventually. A store split into shards has no order between the events of
+ * different shards and is not a log itself; each of its shards is.
+ */
+public interface EventLog extends EventStore {
+
+  /**
+   * Reads events of all aggregates in the order they were appended.
+   *
+   * @param fromPosition the global position of the first event to read
+   * @param maxEvents the maximum number of events to return
+   * @return up to {@code maxEvents} events starting at {@code fromPosition}, in append order
+   */
+  List<StoredEvent> readAll(long fromPosition, int maxEvents);
+}
@@ -0,0 +1,26 @@
+package com.orderfulfillment.command.eventstore;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.exceptions.EventSerializationException;
+
+/** Converts domain events to and from the byte representation persisted by an event store. */
+public interface EventSerializer {
+
+  /**
+   * Serializes an event.
+   *
+   * @param event the event to serialize
+   * @return the serialized bytes
+   * @throws EventSerializationException if the event cannot be serialized
+   */
+  byte[] serialize(Event<?> event);
+
+  /**
+   * Deserializes an event previously produced by {@link #serialize(Event)}.
+   *
+   * @param data the serialized bytes
+   * @return the deserialized event
+   * @throws EventSerializationException if the bytes cannot be deserialized
+   */
+  Event<?> deserialize(byte[] data);
+}
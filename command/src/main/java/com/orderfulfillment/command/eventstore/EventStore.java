@@ -0,0 +1,89 @@
+package com.orderfulfillment.command.eventstore;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.exceptions.ConcurrencyException;
+import java.io.Closeable;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Storage engine for aggregate event streams.
+ *
+ * <p>Each aggregate owns a single ordered stream of events identified by its aggregate ID. The
+ * version of a stream is the number of events it contains, which is the value compared against an
+ * aggregate's version for optimistic concurrency control.
+ *
+ * <p>Implementations are safe for concurrent use by request threads. Appends are compare-and-append
+ * operations: the expected version is checked and the events are written as one atomic step per
+ * aggregate, so of two writers that loaded the same version only one can succeed.
+ *
+ * <p>Besides the per-aggregate streams, a store counts the events of all aggregates in {@link
+ * #getHeadPosition()}. Stores that also keep the global order in which they were appended, which
+ * the outbox relay publishes from, are {@link EventLog event logs}.
+ */
+public interface EventStore extends Closeable {
+
+  /**
+   * Reads every event of an aggregate stream in the order it was appended.
+   *
+   * @param aggregateId the unique identifier of the aggregate
+   * @return the events of the stream, or an empty list if the stream does not exist
+   */
+  default List<Event<?>> readStream(String aggregateId) {
+    return readStream(aggregateId, 0);
+  }
+
+  /**
+   * Reads the events of an aggregate stream starting at a given version.
+   *
+   * @param aggregateId the unique identifier of the aggregate
+   * @param fromVersion the number of leading events to skip
+   * @return the events recorded after {@code fromVersion}, or an empty list if there are none
+   */
+  List<Event<?>> readStream(String aggregateId, long fromVersion);
+
+  /**
+   * Gets the current version of an aggregate stream.
+   *
+   * @param aggregateId the unique identifier of the aggregate
+   * @return the number of events in the stream, or 0 if the stream does not exist
+   */
+  long getVersion(String aggregateId);
+
+  /**
+   * Appends events to the end of an aggregate stream if the stream is still at the expected
+   * version, creating the stream if needed.
+   *
+   * @param aggregateId the unique identifier of the aggregate
+   * @param expectedVersion the version the stream must have, 0 for a new stream
+   * @param events the events to append, in order
+   * @throws ConcurrencyException if the stream is not at {@code expectedVersion}
+   */
+  void append(String aggregateId, long expectedVersion, List<Event<?>> events);
+
+  /**
+   * Gets the global position the next appended event will get.
+   *
+   * @return the number of events in the store across all aggregates
+   */
+  long getHeadPosition();
+
+  /**
+   * Gets the identifiers of all aggregates that have at least one event.
+   *
+   * @return a snapshot of the known aggregate IDs
+   */
+  Set<String> getAggregateIds();
+
+  /**
+   * Gets the number of aggregates that have at least one event, without copying their IDs.
+   *
+   * @return the number of known aggregates
+   */
+  default long getAggregateCount() {
+    return getAggregateIds().size();
+  }
+
+  @Override
+  default void close() {}
+}
@@ -0,0 +1,127 @@
+package com.orderfulfillment.command.eventstore;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of one event store, tagged with the store name only.
+ *
+ * <p>Appends are recorded in the {@code event.store.append} timer, and their phases in the {@code
+ * event.store.append.phase} timer tagged with the {@link Phase}. The size of every serialized event
+ * is recorded in the {@code event.store.event.size} summary. {@link #bind} publishes the number of
+ * aggregates and events of a store as the {@code event.store.aggregates} and {@code
+ * event.store.events} gauges.
+ *
+ * <p>All meters are registered up front, so recording costs a clock read and an update of an
+ * existing meter, without any lookup by tags on the append path.
+ */
+public class EventStoreMetrics {
+  private final Timer append;
+  private final Timer[] phases = new Timer[Phase.values().length];
+  private final DistributionSummary eventSize;
+
+  /** The phases of an append. */
+  public enum Phase {
+    /** Serializing the events, before the store is locked. */
+    SERIALIZE("serialize"),
+    /** Waiting for the store lock and comparing the stream version with the expected one. */
+    VERSION_CHECK("version-check"),
+    /** Writing the records to the log and publishing them to readers. */
+    WRITE("write"),
+    /** Waiting for the records to be synced to disk, if the fsync policy requires it. */
+    SYNC("sync");
+
+    private final String tag;
+
+    Phase(String tag) {
+      this.tag = tag;
+    }
+  }
+
+  /**
+   * Registers the meters of an event store.
+   *
+   * @param store the name of the store used in metric tags
+   * @param meterRegistry the registry metrics are published to
+   */
+  public EventStoreMetrics(String store, MeterRegistry meterRegistry) {
+    this.append =
+        Timer.builder("event.store.append")
+            .description("Time to append a batch of events, from serialization to durability")
+            .tag("store", store)
+            .register(meterRegistry);
+    for (Phase phase : Phase.values()) {
+      phases[phase.ordinal()] =
+          Timer.builder("event.store.append.phase")
+              .description("Time spent in one phase of appending a batch of events")
+              .tag("store", store)
+              .tag("phase", phase.tag)
+              .register(meterRegistry);
+    }
+    this.eventSize =
+        DistributionSummary.builder("event.store.event.size")
+            .description("Size of a serialized event")
+            .baseUnit("bytes")
+            .tag("store", store)
+            .register(meterRegistry);
+  }
+
+  /**
+   * Creates meters that are not published anywhere.
+   *
+   * @return metrics that discard what is recorded
+   */
+  public static EventStoreMetrics disabled() {
+    return new EventStoreMetrics("disabled", new CompositeMeterRegistry());
+  }
+
+  /**
+   * Publishes the number of aggregates and events of a store as gauges.
+   *
+   * @param store the name of the store used in metric tags
+   * @param eventStore the store
+   * @param meterRegistry the registry metrics are published to
+   */
+  public static void bind(String store, EventStore eventStore, MeterRegistry meterRegistry) {
+    Gauge.builder("event.store.aggregates", eventStore, EventStore::getAggregateCount)
+        .description("Number of aggregates with at least one event")
+        .tag("store", store)
+        .register(meterRegistry);
+    Gauge.builder("event.store.events", eventStore, EventStore::getHeadPosition)
+        .description("Number of events across all aggregates")
+        .tag("store", store)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Records the duration of a whole append.
+   *
+   * @param nanos the duration in nanoseconds
+   */
+  public void recordAppend(long nanos) {
+    append.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Records the duration of a phase of an append.
+   *
+   * @param phase the phase
+   * @param nanos the duration in nanoseconds
+   */
+  public void recordPhase(Phase phase, long nanos) {
+    phases[phase.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Records the size of a serialized event.
+   *
+   * @param bytes the size in bytes
+   */
+  public void recordEventSize(int bytes) {
+    eventSize.record(bytes);
+  }
+}
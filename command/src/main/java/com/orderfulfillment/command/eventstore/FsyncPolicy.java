@@ -0,0 +1,16 @@
+package com.orderfulfillment.command.eventstore;
+
+/**
+ * Controls when appended events are forced to the storage device.
+ *
+ * <ul>
+ *   <li>{@code ALWAYS} – every append is synced before it returns
+ *   <li>{@code GROUP_COMMIT} – concurrent appends wait for a shared sync issued at a fixed interval
+ *   <li>{@code NEVER} – syncing is left to the operating system
+ * </ul>
+ */
+public enum FsyncPolicy {
+  ALWAYS,
+  GROUP_COMMIT,
+  NEVER
+}
@@ -0,0 +1,77 @@
+package com.orderfulfillment.command.eventstore;
+
+import com.orderfulfillment.command.events.impl.EventIds;
+import java.nio.charset.StandardCharsets;
+import org.apache.kafka.common.utils.Utils;
+
+/**
+ * Assigns aggregates to shards with the hash Kafka's default partitioner uses for record keys.
+ *
+ * <p>An aggregate ID is hashed with murmur2 over its UTF-8 bytes, exactly as the producer hashes
+ * the key of the records the outbox sends, so with as many shards as topic partitions an
+ * aggregate's shard is also the partition its events are published to. Everything that owns a shard
+ * (event store, command lanes, outbox publisher) routes with the same router and therefore agrees
+ * on where an aggregate lives.
+ */
+public final class ShardRouter {
+  private final int shardCount;
+
+  /**
+   * Creates a router.
+   *
+   * @param shardCount the number of shards, equal to the number of topic partitions
+   */
+  public ShardRouter(int shardCount) {
+    if (shardCount < 1) {
+      throw new IllegalArgumentException("Shard count must be positive, got " + shardCount);
+    }
+    this.shardCount = shardCount;
+  }
+
+  /**
+   * Gets the number of shards.
+   *
+   * @return the shard count
+   */
+  public int getShardCount() {
+    return shardCount;
+  }
+
+  /**
+   * Gets the shard of an aggregate.
+   *
+   * @param aggregateId the aggregate ID, which is also the Kafka record key of its events
+   * @return the shard, which is also the partition of the aggregate's events
+   */
+  public int shardOf(String aggregateId) {
+    if (shardCount == 1) {
+      return 0;
+    }
+    return Utils.toPositive(Utils.murmur2(aggregateId.getBytes(StandardCharsets.UTF_8)))
+        % shardCount;
+  }
+
+  /**
+   * Generates a random aggregate ID in the same shard as a key. Commands routed by a key other than
+   * the aggregate ID, such as inventory commands keyed by product, give new aggregates such an ID
+   * so that the thread owning the key's shard also owns the aggregate's events.
+   *
+   * <p>Candidates are drawn from {@link EventIds}, which takes no lock shared by all threads, until
+   * one hashes to the shard, which takes {@code shardCount} draws on average.
+   *
+   * @param key the key the aggregate's commands are routed by
+   * @return a time-ordered UUID routed to the shard of {@code key}
+   */
+  public String newIdInShardOf(String key) {
+    if (shardCount == 1) {
+      return EventIds.next();
+    }
+    int shard = shardOf(key);
+    long now = System.currentTimeMillis();
+    String id;
+    do {
+      id = EventIds.next(now);
+    } while (shardOf(id) != shard);
+    return id;
+  }
+}
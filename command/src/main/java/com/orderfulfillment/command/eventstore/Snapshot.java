@@ -0,0 +1,14 @@
+package com.orderfulfillment.command.eventstore;
+
+import java.io.Serializable;
+
+/**
+ * Snapshot of an aggregate taken at a specific stream version.
+ *
+ * @param aggregateId the unique identifier of the aggregate
+ * @param version the number of events the snapshot reflects
+ * @param state the captured aggregate state
+ * @param <S> the type of the snapshot state
+ */
+public record Snapshot<S extends Serializable>(String aggregateId, long version, S state)
+    implements Serializable {}
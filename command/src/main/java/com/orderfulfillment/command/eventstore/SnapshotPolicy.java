@@ -0,0 +1,40 @@
+package com.orderfulfillment.command.eventstore;
+
+import java.time.Duration;
+
+/**
+ * Decides when an aggregate snapshot should be taken.
+ *
+ * <p>A snapshot is taken once {@code everyEvents} events have been appended since the last one, or
+ * when replaying an aggregate took longer than {@code replayThreshold}.
+ *
+ * @param enabled whether snapshots are taken at all
+ * @param everyEvents the number of events between two snapshots
+ * @param replayThreshold the replay duration above which a snapshot is taken
+ */
+public record SnapshotPolicy(boolean enabled, int everyEvents, Duration replayThreshold) {
+
+  /**
+   * Checks whether a snapshot should be taken after replaying an aggregate.
+   *
+   * @param replayedEvents the number of events applied on top of the previous snapshot
+   * @param replayNanos the time the replay took in nanoseconds
+   * @return true if a snapshot should be taken
+   */
+  public boolean shouldSnapshotAfterReplay(int replayedEvents, long replayNanos) {
+    return enabled
+        && replayedEvents > 0
+        && (replayedEvents >= everyEvents || replayNanos > replayThreshold.toNanos());
+  }
+
+  /**
+   * Checks whether a snapshot should be taken after a save moved an aggregate between two versions.
+   *
+   * @param fromVersion the version before the save
+   * @param toVersion the version after the save
+   * @return true if the save crossed a multiple of {@code everyEvents}
+   */
+  public boolean shouldSnapshotAfterSave(long fromVersion, long toVersion) {
+    return enabled && fromVersion / everyEvents != toVersion / everyEvents;
+  }
+}
@@ -0,0 +1,27 @@
+package com.orderfulfillment.command.eventstore;
+
+import java.io.Closeable;
+import java.io.Serializable;
+import java.util.Optional;
+
+/** Storage for the latest snapshot of each aggregate. */
+public interface SnapshotStore extends Closeable {
+
+  /**
+   * Loads the latest snapshot of an aggregate.
+   *
+   * @param aggregateId the unique identifier of the aggregate
+   * @return the latest snapshot, or empty if none has been taken
+   */
+  <S extends Serializable> Optional<Snapshot<S>> load(String aggregateId);
+
+  /**
+   * Stores a snapshot, replacing any older snapshot of the same aggregate.
+   *
+   * @param snapshot the snapshot to store
+   */
+  void save(Snapshot<?> snapshot);
+
+  @Override
+  default void close() {}
+}
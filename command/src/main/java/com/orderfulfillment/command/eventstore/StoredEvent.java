@@ -0,0 +1,11 @@
+package com.orderfulfillment.command.eventstore;
+
+import com.orderfulfillment.command.events.Event;
+
+/**
+ * An event together with its position in the global log of an event store.
+ *
+ * @param position the zero-based index of the event among all events of the store, in append order
+ * @param event the event
+ */
+public record StoredEvent(long position, Event<?> event) {}
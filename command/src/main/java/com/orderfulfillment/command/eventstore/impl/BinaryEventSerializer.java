@@ -0,0 +1,360 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import com.orderfulfillment.command.domain.Address;
+import com.orderfulfillment.command.domain.Money;
+import com.orderfulfillment.command.domain.OrderItem;
+import com.orderfulfillment.command.domain.OrderStatus;
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.EventType;
+import com.orderfulfillment.command.events.impl.BaseEvent;
+import com.orderfulfillment.command.events.impl.EventTimestamps;
+import com.orderfulfillment.command.events.payloads.InventoryAllocatedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderAllocatedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderCancelledPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservationConfirmedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservationExpiredPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReturnedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
+import com.orderfulfillment.command.events.payloads.OrderCancelledPayload;
+import com.orderfulfillment.command.events.payloads.OrderCreatedPayload;
+import com.orderfulfillment.command.events.payloads.OrderStatusUpdatedPayload;
+import com.orderfulfillment.command.eventstore.EventSerializer;
+import com.orderfulfillment.command.exceptions.EventSerializationException;
+import com.orderfulfillment.command.utils.Constants;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact {@link EventSerializer} with a hand-written binary layout per event type.
+ *
+ * <p>An encoded event starts with the magic byte {@code 0xEB} and a schema version, followed by the
+ * integer code of its {@link EventType}, the event ID, aggregate ID and aggregate type, the
+ * timestamp as UTC epoch seconds and nanoseconds, the version and finally the payload fields in
+ * declaration order. Numbers are varints, UUIDs take 16 bytes and field names are never written, so
+ * a typical event is several times smaller than its JSON form and is encoded without reflection.
+ *
+ * <p>Data that does not start with the magic byte is handed to the fallback serializer, if any, so
+ * that a store written with {@link JavaEventSerializer} stays readable after switching to this one.
+ *
+ * <p>Payload layouts are part of the schema: changing one requires a new {@link #SCHEMA_VERSION}
+ * and a decoder for the previous one.
+ */
+public class BinaryEventSerializer implements EventSerializer {
+  /** First byte of every event encoded by this serializer. */
+  public static final byte MAGIC = (byte) 0xEB;
+
+  /** Version of the layout written by this serializer. */
+  public static final int SCHEMA_VERSION = 1;
+
+  private static final int AGGREGATE_OTHER = 0;
+  private static final int AGGREGATE_ORDER = 1;
+  private static final int AGGREGATE_INVENTORY = 2;
+  private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+  private final EventSerializer fallback;
+
+  /** Creates a serializer that only reads its own format. */
+  public BinaryEventSerializer() {
+    this(null);
+  }
+
+  /**
+   * Creates a serializer that delegates data in any other format to a fallback serializer.
+   *
+   * @param fallback the serializer for data without the magic byte, or {@code null}
+   */
+  public BinaryEventSerializer(EventSerializer fallback) {
+    this.fallback = fallback;
+  }
+
+  /**
+   * Checks whether data was written by this serializer.
+   *
+   * @param data the serialized bytes
+   * @return {@code true} if the data starts with the magic byte
+   */
+  public static boolean isBinary(byte[] data) {
+    return data.length > 0 && data[0] == MAGIC;
+  }
+
+  @Override
+  public byte[] serialize(Event<?> event) {
+    EventType type = event.getType();
+    if (type == null) {
+      throw new EventSerializationException(
+          event.getEventId(),
+          new IllegalArgumentException("Unknown event type: " + event.getEventType()));
+    }
+
+    BinaryOutput out = new BinaryOutput(128);
+    out.writeByte(MAGIC);
+    out.writeByte(SCHEMA_VERSION);
+    out.writeVarInt(type.getCode());
+    out.writeId(event.getEventId());
+    out.writeId(event.getAggregateId());
+    writeAggregateType(out, event.getAggregateType());
+    long timestamp = event.getTimestampNanos();
+    out.writeSignedVarLong(EventTimestamps.epochSeconds(timestamp));
+    out.writeVarInt(EventTimestamps.nanoOfSecond(timestamp));
+    out.writeVarLong(event.getVersion());
+    try {
+      writePayload(out, type, event.getPayload());
+    } catch (RuntimeException e) {
+      throw new EventSerializationException(event.getEventId(), e);
+    }
+    return out.toByteArray();
+  }
+
+  @Override
+  public Event<?> deserialize(byte[] data) {
+    if (!isBinary(data)) {
+      if (fallback != null) {
+        return fallback.deserialize(data);
+      }
+      throw new EventSerializationException(
+          "unknown", new IllegalArgumentException("Data is not a binary encoded event"));
+    }
+
+    BinaryInput in = new BinaryInput(data);
+    String eventId = "unknown";
+    try {
+      in.readByte();
+      int schemaVersion = in.readByte();
+      if (schemaVersion != SCHEMA_VERSION) {
+        throw new IllegalArgumentException("Unsupported schema version " + schemaVersion);
+      }
+      int code = in.readVarInt();
+      EventType type = EventType.fromCode(code);
+      if (type == null) {
+        throw new IllegalArgumentException("Unknown event type code " + code);
+      }
+      eventId = in.readId();
+      String aggregateId = in.readId();
+      String aggregateType = readAggregateType(in);
+      long timestamp = in.readSignedVarLong() * 1_000_000_000L + in.readVarInt();
+      long version = in.readVarLong();
+      return new BaseEvent<>(
+          eventId, type, aggregateId, aggregateType, timestamp, version, readPayload(in, type));
+    } catch (RuntimeException e) {
+      throw new EventSerializationException(eventId, e);
+    }
+  }
+
+  private static void writeAggregateType(BinaryOutput out, String aggregateType) {
+    if (Constants.AGGREGATE_TYPE_ORDER.equals(aggregateType)) {
+      out.writeByte(AGGREGATE_ORDER);
+    } else if (Constants.AGGREGATE_TYPE_INVENTORY.equals(aggregateType)) {
+      out.writeByte(AGGREGATE_INVENTORY);
+    } else {
+      out.writeByte(AGGREGATE_OTHER);
+      out.writeString(aggregateType);
+    }
+  }
+
+  private static String readAggregateType(BinaryInput in) {
+    int code = in.readByte();
+    return switch (code) {
+      case AGGREGATE_ORDER -> Constants.AGGREGATE_TYPE_ORDER;
+      case AGGREGATE_INVENTORY -> Constants.AGGREGATE_TYPE_INVENTORY;
+      case AGGREGATE_OTHER -> in.readString();
+      default -> throw new IllegalArgumentException("Unknown aggregate type code " + code);
+    };
+  }
+
+  private static void writePayload(BinaryOutput out, EventType type, Object payload) {
+    switch (type) {
+      case ORDER_CREATED -> {
+        OrderCreatedPayload created = (OrderCreatedPayload) payload;
+        out.writeString(created.customerId());
+        out.writeSignedVarLong(created.quantity());
+        writeItems(out, created.items());
+        writeStatus(out, created.status());
+        writeAddress(out, created.shippingAddress());
+        writeAddress(out, created.billingAddress());
+        writeMoney(out, created.totalCost());
+      }
+      case ORDER_STATUS_UPDATED -> {
+        OrderStatusUpdatedPayload updated = (OrderStatusUpdatedPayload) payload;
+        out.writeId(updated.orderId());
+        writeStatus(out, updated.status());
+      }
+      case ORDER_CANCELLED -> out.writeId(((OrderCancelledPayload) payload).orderId());
+      case INVENTORY_UPDATED -> {
+        InventoryUpdatedPayload updated = (InventoryUpdatedPayload) payload;
+        out.writeString(updated.productId());
+        out.writeSignedVarLong(updated.quantity());
+      }
+      case INVENTORY_ALLOCATED -> {
+        InventoryAllocatedPayload allocated = (InventoryAllocatedPayload) payload;
+        out.writeString(allocated.productId());
+        out.writeId(allocated.orderId());
+        out.writeSignedVarLong(allocated.quantity());
+      }
+      case INVENTORY_RETURNED -> {
+        InventoryReturnedPayload returned = (InventoryReturnedPayload) payload;
+        out.writeString(returned.productId());
+        out.writeId(returned.orderId());
+        out.writeSignedVarLong(returned.quantity());
+      }
+      case INVENTORY_RESERVED -> {
+        InventoryReservedPayload reserved = (InventoryReservedPayload) payload;
+        out.writeString(reserved.productId());
+        out.writeId(reserved.reservationId());
+        out.writeSignedVarLong(reserved.quantity());
+        out.writeSignedVarLong(reserved.expiresAt().getEpochSecond());
+        out.writeVarInt(reserved.expiresAt().getNano());
+      }
+      case INVENTORY_RESERVATION_CONFIRMED -> {
+        InventoryReservationConfirmedPayload confirmed =
+            (InventoryReservationConfirmedPayload) payload;
+        out.writeString(confirmed.productId());
+        out.writeId(confirmed.reservationId());
+        out.writeId(confirmed.orderId());
+        out.writeSignedVarLong(confirmed.quantity());
+      }
+      case INVENTORY_RESERVATION_EXPIRED -> {
+        InventoryReservationExpiredPayload expired = (InventoryReservationExpiredPayload) payload;
+        out.writeString(expired.productId());
+        out.writeId(expired.reservationId());
+        out.writeSignedVarLong(expired.quantity());
+      }
+      case INVENTORY_BACKORDERED -> {
+        InventoryBackorderedPayload backordered = (InventoryBackorderedPayload) payload;
+        out.writeString(backordered.productId());
+        out.writeId(backordered.orderId());
+        out.writeSignedVarLong(backordered.quantity());
+        out.writeSignedVarLong(backordered.priority());
+      }
+      case INVENTORY_BACKORDER_ALLOCATED -> {
+        InventoryBackorderAllocatedPayload filled = (InventoryBackorderAllocatedPayload) payload;
+        out.writeString(filled.productId());
+        out.writeId(filled.orderId());
+        out.writeSignedVarLong(filled.quantity());
+      }
+      case INVENTORY_BACKORDER_CANCELLED -> {
+        InventoryBackorderCancelledPayload cancelled = (InventoryBackorderCancelledPayload) payload;
+        out.writeString(cancelled.productId());
+        out.writeId(cancelled.orderId());
+        out.writeSignedVarLong(cancelled.quantity());
+      }
+    }
+  }
+
+  private static Object readPayload(BinaryInput in, EventType type) {
+    return switch (type) {
+      case ORDER_CREATED ->
+          new OrderCreatedPayload(
+              in.readString(),
+              readInt(in),
+              readItems(in),
+              readStatus(in),
+              readAddress(in),
+              readAddress(in),
+              readMoney(in));
+      case ORDER_STATUS_UPDATED -> new OrderStatusUpdatedPayload(in.readId(), readStatus(in));
+      case ORDER_CANCELLED -> new OrderCancelledPayload(in.readId());
+      case INVENTORY_UPDATED -> new InventoryUpdatedPayload(in.readString(), readInt(in));
+      case INVENTORY_ALLOCATED ->
+          new InventoryAllocatedPayload(in.readString(), in.readId(), readInt(in));
+      case INVENTORY_RETURNED ->
+          new InventoryReturnedPayload(in.readString(), in.readId(), readInt(in));
+      case INVENTORY_RESERVED ->
+          new InventoryReservedPayload(
+              in.readString(),
+              in.readId(),
+              readInt(in),
+              Instant.ofEpochSecond(in.readSignedVarLong(), in.readVarInt()));
+      case INVENTORY_RESERVATION_CONFIRMED ->
+          new InventoryReservationConfirmedPayload(
+              in.readString(), in.readId(), in.readId(), readInt(in));
+      case INVENTORY_RESERVATION_EXPIRED ->
+          new InventoryReservationExpiredPayload(in.readString(), in.readId(), readInt(in));
+      case INVENTORY_BACKORDERED ->
+          new InventoryBackorderedPayload(in.readString(), in.readId(), readInt(in), readInt(in));
+      case INVENTORY_BACKORDER_ALLOCATED ->
+          new InventoryBackorderAllocatedPayload(in.readString(), in.readId(), readInt(in));
+      case INVENTORY_BACKORDER_CANCELLED ->
+          new InventoryBackorderCancelledPayload(in.readString(), in.readId(), readInt(in));
+    };
+  }
+
+  private static int readInt(BinaryInput in) {
+    return Math.toIntExact(in.readSignedVarLong());
+  }
+
+  private static void writeItems(BinaryOutput out, List<OrderItem> items) {
+    if (items == null) {
+      out.writeVarInt(0);
+      return;
+    }
+    out.writeVarInt(items.size() + 1);
+    for (OrderItem item : items) {
+      out.writeString(item.getProductId());
+      out.writeSignedVarLong(item.getQuantity());
+      writeMoney(out, item.getPrice());
+    }
+  }
+
+  private static List<OrderItem> readItems(BinaryInput in) {
+    int size = in.readVarInt() - 1;
+    if (size < 0) {
+      return null;
+    }
+    List<OrderItem> items = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      items.add(new OrderItem(in.readString(), readInt(in), readMoney(in)));
+    }
+    return items;
+  }
+
+  private static void writeStatus(BinaryOutput out, OrderStatus status) {
+    out.writeByte(status == null ? 0 : status.ordinal() + 1);
+  }
+
+  private static OrderStatus readStatus(BinaryInput in) {
+    int code = in.readByte();
+    return code == 0 ? null : STATUSES[code - 1];
+  }
+
+  private static void writeMoney(BinaryOutput out, Money money) {
+    if (money == null) {
+      out.writeByte(0);
+      return;
+    }
+    out.writeByte(1);
+    out.writeDecimal(money.getValue());
+  }
+
+  private static Money readMoney(BinaryInput in) {
+    return in.readByte() == 0 ? null : new Money(in.readDecimal());
+  }
+
+  private static void writeAddress(BinaryOutput out, Address address) {
+    if (address == null) {
+      out.writeByte(0);
+      return;
+    }
+    out.writeByte(1);
+    out.writeString(address.getStreet());
+    out.writeString(address.getCity());
+    out.writeString(address.getState());
+    out.writeString(address.getZipcode());
+    out.writeString(address.getCountry());
+  }
+
+  private static Address readAddress(BinaryInput in) {
+    if (in.readByte() == 0) {
+      return null;
+    }
+    return Address.builder()
+        .street(in.readString())
+        .city(in.readString())
+        .state(in.readString())
+        .zipcode(in.readString())
+        .country(in.readString())
+        .build();
+  }
+}
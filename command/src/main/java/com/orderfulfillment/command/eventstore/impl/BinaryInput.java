@@ -0,0 +1,110 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/** Reads the primitive encodings written by {@link BinaryOutput} from a byte array. */
+final class BinaryInput {
+  private final byte[] data;
+  private int position;
+
+  BinaryInput(byte[] data) {
+    this.data = data;
+  }
+
+  int readByte() {
+    if (position >= data.length) {
+      throw new IllegalArgumentException("Unexpected end of data at " + position);
+    }
+    return data[position++] & 0xFF;
+  }
+
+  int readVarInt() {
+    int result = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      int b = readByte();
+      result |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint at " + position);
+  }
+
+  long readVarLong() {
+    long result = 0;
+    for (int shift = 0; shift < 70; shift += 7) {
+      int b = readByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varlong at " + position);
+  }
+
+  long readSignedVarLong() {
+    long value = readVarLong();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  long readLong() {
+    long result = 0;
+    for (int i = 0; i < 8; i++) {
+      result = result << 8 | readByte();
+    }
+    return result;
+  }
+
+  byte[] readBytes(int length) {
+    checkRemaining(length);
+    byte[] bytes = Arrays.copyOfRange(data, position, position + length);
+    position += length;
+    return bytes;
+  }
+
+  String readString() {
+    int length = readVarInt() - 1;
+    if (length < 0) {
+      return null;
+    }
+    checkRemaining(length);
+    String value = new String(data, position, length, StandardCharsets.UTF_8);
+    position += length;
+    return value;
+  }
+
+  String readId() {
+    int tag = readByte();
+    return switch (tag) {
+      case BinaryOutput.ID_UUID -> new UUID(readLong(), readLong()).toString();
+      case BinaryOutput.ID_STRING -> readString();
+      default -> throw new IllegalArgumentException("Unknown identifier tag " + tag);
+    };
+  }
+
+  BigDecimal readDecimal() {
+    int kind = readByte();
+    return switch (kind) {
+      case BinaryOutput.DECIMAL_NULL -> null;
+      case BinaryOutput.DECIMAL_LONG -> {
+        int scale = Math.toIntExact(readSignedVarLong());
+        yield BigDecimal.valueOf(readSignedVarLong(), scale);
+      }
+      case BinaryOutput.DECIMAL_BIG -> {
+        int scale = Math.toIntExact(readSignedVarLong());
+        yield new BigDecimal(new BigInteger(readBytes(readVarInt())), scale);
+      }
+      default -> throw new IllegalArgumentException("Unknown decimal encoding " + kind);
+    };
+  }
+
+  private void checkRemaining(int length) {
+    if (length > data.length - position) {
+      throw new IllegalArgumentException("Unexpected end of data at " + position);
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer with the primitive encodings used by {@link BinaryEventSerializer}.
+ *
+ * <p>Integers are written as unsigned LEB128 varints, signed values zigzag-encoded first. Strings
+ * are written as a varint of their UTF-8 length plus one, so that 0 denotes {@code null}.
+ */
+final class BinaryOutput {
+  static final int ID_UUID = 1;
+  static final int ID_STRING = 2;
+  static final int DECIMAL_NULL = 0;
+  static final int DECIMAL_LONG = 1;
+  static final int DECIMAL_BIG = 2;
+
+  private byte[] buffer;
+  private int size;
+
+  BinaryOutput(int initialCapacity) {
+    this.buffer = new byte[initialCapacity];
+  }
+
+  void writeByte(int value) {
+    ensureCapacity(1);
+    buffer[size++] = (byte) value;
+  }
+
+  void writeVarInt(int value) {
+    ensureCapacity(5);
+    while ((value & ~0x7F) != 0) {
+      buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[size++] = (byte) value;
+  }
+
+  void writeVarLong(long value) {
+    ensureCapacity(10);
+    while ((value & ~0x7FL) != 0) {
+      buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[size++] = (byte) value;
+  }
+
+  void writeSignedVarLong(long value) {
+    writeVarLong((value << 1) ^ (value >> 63));
+  }
+
+  void writeLong(long value) {
+    ensureCapacity(8);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      buffer[size++] = (byte) (value >>> shift);
+    }
+  }
+
+  void writeBytes(byte[] bytes) {
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, size, bytes.length);
+    size += bytes.length;
+  }
+
+  void writeString(String value) {
+    if (value == null) {
+      writeVarInt(0);
+      return;
+    }
+    int length = value.length();
+    if (isAscii(value, length)) {
+      writeVarInt(length + 1);
+      ensureCapacity(length);
+      for (int i = 0; i < length; i++) {
+        buffer[size++] = (byte) value.charAt(i);
+      }
+      return;
+    }
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(utf8.length + 1);
+    writeBytes(utf8);
+  }
+
+  /**
+   * Writes an identifier, using 16 bytes instead of 36 characters when it is a UUID in its
+   * canonical lower-case form, as produced by {@link java.util.UUID#toString()}.
+   */
+  void writeId(String value) {
+    if (isCanonicalUuid(value)) {
+      writeByte(ID_UUID);
+      writeLong(
+          parseHex(value, 0, 8) << 32 | parseHex(value, 9, 13) << 16 | parseHex(value, 14, 18));
+      writeLong(parseHex(value, 19, 23) << 48 | parseHex(value, 24, 36));
+    } else {
+      writeByte(ID_STRING);
+      writeString(value);
+    }
+  }
+
+  void writeDecimal(BigDecimal value) {
+    if (value == null) {
+      writeByte(DECIMAL_NULL);
+    } else if (value.precision() <= 18) {
+      writeByte(DECIMAL_LONG);
+      writeSignedVarLong(value.scale());
+      writeSignedVarLong(value.unscaledValue().longValueExact());
+    } else {
+      byte[] unscaled = value.unscaledValue().toByteArray();
+      writeByte(DECIMAL_BIG);
+      writeSignedVarLong(value.scale());
+      writeVarInt(unscaled.length);
+      writeBytes(unscaled);
+    }
+  }
+
+  byte[] toByteArray() {
+    return Arrays.copyOf(buffer, size);
+  }
+
+  private void ensureCapacity(int extra) {
+    if (size + extra > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+    }
+  }
+
+  private static boolean isAscii(String value, int length) {
+    for (int i = 0; i < length; i++) {
+      if (value.charAt(i) >= 0x80) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isCanonicalUuid(String value) {
+    if (value == null || value.length() != 36) {
+      return false;
+    }
+    for (int i = 0; i < 36; i++) {
+      char c = value.charAt(i);
+      boolean valid =
+          i == 8 || i == 13 || i == 18 || i == 23
+              ? c == '-'
+              : (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+      if (!valid) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long parseHex(String value, int from, int to) {
+    long result = 0;
+    for (int i = from; i < to; i++) {
+      char c = value.charAt(i);
+      result = result << 4 | (c <= '9' ? c - '0' : c - 'a' + 10);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,74 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import com.orderfulfillment.command.eventstore.Snapshot;
+import com.orderfulfillment.command.eventstore.SnapshotStore;
+import com.orderfulfillment.command.exceptions.EventStoreException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link SnapshotStore} that keeps the latest snapshot of each aggregate in its own file.
+ *
+ * <p>Snapshots are written to a temporary file and atomically moved into place, so a crash never
+ * leaves a partially written snapshot behind. An unreadable snapshot is ignored and the aggregate
+ * is rebuilt from its full event stream instead.
+ */
+@Slf4j
+public class FileSnapshotStore implements SnapshotStore {
+  private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+  private final Path directory;
+
+  public FileSnapshotStore(Path directory) {
+    this.directory = directory;
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new EventStoreException("Failed to open snapshot store at " + directory, e);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <S extends Serializable> Optional<Snapshot<S>> load(String aggregateId) {
+    try (InputStream file = Files.newInputStream(pathOf(aggregateId));
+        ObjectInputStream in = new ObjectInputStream(file)) {
+      return Optional.of((Snapshot<S>) in.readObject());
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      log.warn("Ignoring unreadable snapshot of aggregate {}", aggregateId, e);
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public void save(Snapshot<?> snapshot) {
+    Path target = pathOf(snapshot.aggregateId());
+    try {
+      Path temp = Files.createTempFile(directory, snapshot.aggregateId(), ".tmp");
+      try (OutputStream file = Files.newOutputStream(temp);
+          ObjectOutputStream out = new ObjectOutputStream(file)) {
+        out.writeObject(snapshot);
+      }
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new EventStoreException(
+          "Failed to store snapshot of aggregate " + snapshot.aggregateId(), e);
+    }
+  }
+
+  private Path pathOf(String aggregateId) {
+    return directory.resolve(aggregateId + SNAPSHOT_SUFFIX);
+  }
+}
@@ -0,0 +1,121 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.eventstore.EventLog;
+import com.orderfulfillment.command.eventstore.StoredEvent;
+import com.orderfulfillment.command.exceptions.ConcurrencyException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link EventLog} that keeps every stream on the heap.
+ *
+ * <p>Streams are guarded by {@link StripedLocks}, so the version check and the append of {@link
+ * #append(String, long, List)} are atomic per aggregate while unrelated aggregates are written in
+ * parallel. The global log is appended to under its own monitor while the stripe is held, so it
+ * orders the events of each aggregate the same way as their stream.
+ *
+ * <p>Nothing survives a restart, so this engine is intended for tests and local experiments.
+ */
+public class InMemoryEventStore implements EventLog {
+  private static final int DEFAULT_STRIPES = 64;
+
+  private final Map<String, List<Event<?>>> streams = new ConcurrentHashMap<>();
+  private final List<Event<?>> log = new ArrayList<>();
+  private final StripedLocks locks;
+
+  public InMemoryEventStore() {
+    this(DEFAULT_STRIPES);
+  }
+
+  public InMemoryEventStore(int stripes) {
+    this.locks = new StripedLocks(stripes);
+  }
+
+  @Override
+  public List<Event<?>> readStream(String aggregateId, long fromVersion) {
+    ReentrantLock lock = locks.get(aggregateId);
+    lock.lock();
+    try {
+      List<Event<?>> stream = streams.getOrDefault(aggregateId, List.of());
+      if (fromVersion >= stream.size()) {
+        return new ArrayList<>();
+      }
+      return new ArrayList<>(stream.subList((int) fromVersion, stream.size()));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long getVersion(String aggregateId) {
+    ReentrantLock lock = locks.get(aggregateId);
+    lock.lock();
+    try {
+      return streams.getOrDefault(aggregateId, List.of()).size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void append(String aggregateId, long expectedVersion, List<Event<?>> events) {
+    ReentrantLock lock = locks.get(aggregateId);
+    lock.lock();
+    try {
+      List<Event<?>> stream = streams.get(aggregateId);
+      long actualVersion = stream == null ? 0 : stream.size();
+      if (actualVersion != expectedVersion) {
+        throw new ConcurrencyException(aggregateId, expectedVersion, actualVersion);
+      }
+      if (events.isEmpty()) {
+        return;
+      }
+      if (stream == null) {
+        stream = new ArrayList<>();
+        streams.put(aggregateId, stream);
+      }
+      stream.addAll(events);
+      synchronized (log) {
+        log.addAll(events);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public List<StoredEvent> readAll(long fromPosition, int maxEvents) {
+    synchronized (log) {
+      int from = (int) Math.min(fromPosition, log.size());
+      int to = (int) Math.min((long) from + maxEvents, log.size());
+      List<StoredEvent> events = new ArrayList<>(to - from);
+      for (int i = from; i < to; i++) {
+        events.add(new StoredEvent(i, log.get(i)));
+      }
+      return events;
+    }
+  }
+
+  @Override
+  public long getHeadPosition() {
+    synchronized (log) {
+      return log.size();
+    }
+  }
+
+  @Override
+  public Set<String> getAggregateIds() {
+    return new HashSet<>(streams.keySet());
+  }
+
+  @Override
+  public long getAggregateCount() {
+    return streams.size();
+  }
+}
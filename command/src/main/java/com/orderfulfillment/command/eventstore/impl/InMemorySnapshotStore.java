@@ -0,0 +1,27 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import com.orderfulfillment.command.eventstore.Snapshot;
+import com.orderfulfillment.command.eventstore.SnapshotStore;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** {@link SnapshotStore} that keeps the latest snapshot of each aggregate on the heap. */
+public class InMemorySnapshotStore implements SnapshotStore {
+  private final Map<String, Snapshot<?>> snapshots = new ConcurrentHashMap<>();
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <S extends Serializable> Optional<Snapshot<S>> load(String aggregateId) {
+    return Optional.ofNullable((Snapshot<S>) snapshots.get(aggregateId));
+  }
+
+  @Override
+  public void save(Snapshot<?> snapshot) {
+    snapshots.merge(
+        snapshot.aggregateId(),
+        snapshot,
+        (current, candidate) -> candidate.version() > current.version() ? candidate : current);
+  }
+}
@@ -0,0 +1,39 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.eventstore.EventSerializer;
+import com.orderfulfillment.command.exceptions.EventSerializationException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * {@link EventSerializer} based on Java object serialization.
+ *
+ * <p>Events, their payloads and the value objects they carry are all {@link java.io.Serializable},
+ * so this serializer works for every event type without any per-type mapping.
+ */
+public class JavaEventSerializer implements EventSerializer {
+
+  @Override
+  public byte[] serialize(Event<?> event) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(event);
+    } catch (IOException e) {
+      throw new EventSerializationException(event.getEventId(), e);
+    }
+    return bytes.toByteArray();
+  }
+
+  @Override
+  public Event<?> deserialize(byte[] data) {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+      return (Event<?>) in.readObject();
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      throw new EventSerializationException("unknown", e);
+    }
+  }
+}
@@ -0,0 +1,582 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.eventstore.EventLog;
+import com.orderfulfillment.command.eventstore.EventSerializer;
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.eventstore.EventStoreMetrics;
+import com.orderfulfillment.command.eventstore.EventStoreMetrics.Phase;
+import com.orderfulfillment.command.eventstore.FsyncPolicy;
+import com.orderfulfillment.command.eventstore.StoredEvent;
+import com.orderfulfillment.command.exceptions.ConcurrencyException;
+import com.orderfulfillment.command.exceptions.EventStoreException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link EventStore} backed by segmented, append-only log files on local disk.
+ *
+ * <p>Events of all aggregates are appended sequentially to the active segment. When a segment is
+ * full a new one is started, so old segments are never rewritten. Every record is laid out as:
+ *
+ * <pre>
+ * [int bodyLength][int crc32(body)][short idLength][aggregateId bytes][event bytes]
+ * </pre>
+ *
+ * <p>The events of one append are written with a single write and never span segments. The top bit
+ * of {@code bodyLength} is set on every record of the batch but the last, which thereby commits the
+ * batch: on recovery the records of a batch are only indexed once its last record has been read.
+ *
+ * <p>Segments are preallocated and memory-mapped, so reads are served straight from the page cache
+ * through an in-memory per-aggregate offset index. The index is rebuilt on startup by scanning the
+ * segments; a torn record at the tail of the last segment is detected through its checksum and
+ * discarded together with the rest of its batch, and the tail is cleared before new records are
+ * appended over it.
+ *
+ * <p>Writes to the log tail are serialized, and the expected-version check of {@link
+ * #append(String, long, List)} happens under the same lock, so compare-and-append is atomic. Events
+ * are serialized before the lock is taken. Reads never lock: the index is a concurrent map and each
+ * stream publishes its positions through volatile fields after the record has been written. The
+ * global log read by {@link #readAll(long, int)} is the order of the records in the segments,
+ * indexed the same way.
+ *
+ * <p>Durability is controlled by {@link FsyncPolicy}. With {@code GROUP_COMMIT} appenders wait for
+ * a background thread that syncs the log at a fixed interval, so a burst of concurrent appends
+ * shares a single disk sync.
+ *
+ * <p>Appends are timed phase by phase in the {@link EventStoreMetrics} the store is created with.
+ */
+@Slf4j
+public class SegmentedFileEventStore implements EventLog {
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+  private static final int BATCH_CONTINUES = 0x80000000;
+  private static final int CLEAR_CHUNK_SIZE = 64 * 1024;
+
+  private final Path directory;
+  private final int segmentSize;
+  private final FsyncPolicy fsyncPolicy;
+  private final long groupCommitIntervalNanos;
+  private final EventSerializer serializer;
+  private final EventStoreMetrics metrics;
+
+  private final List<Segment> segments = new CopyOnWriteArrayList<>();
+  private final Map<String, StreamIndex> index = new ConcurrentHashMap<>();
+  private final StreamIndex globalIndex = new StreamIndex();
+  private final Object syncMonitor = new Object();
+  private long writtenBytes;
+  private long requestedSyncBytes;
+  private long durableBytes;
+  private Thread groupCommitThread;
+  private volatile boolean closed;
+
+  public SegmentedFileEventStore(
+      Path directory,
+      int segmentSize,
+      FsyncPolicy fsyncPolicy,
+      Duration groupCommitInterval,
+      EventSerializer serializer) {
+    this(
+        directory,
+        segmentSize,
+        fsyncPolicy,
+        groupCommitInterval,
+        serializer,
+        EventStoreMetrics.disabled());
+  }
+
+  public SegmentedFileEventStore(
+      Path directory,
+      int segmentSize,
+      FsyncPolicy fsyncPolicy,
+      Duration groupCommitInterval,
+      EventSerializer serializer,
+      EventStoreMetrics metrics) {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.fsyncPolicy = fsyncPolicy;
+    this.groupCommitIntervalNanos = groupCommitInterval.toNanos();
+    this.serializer = serializer;
+    this.metrics = metrics;
+
+    try {
+      Files.createDirectories(directory);
+      recover();
+    } catch (IOException e) {
+      throw new EventStoreException("Failed to open event store at " + directory, e);
+    }
+
+    if (fsyncPolicy == FsyncPolicy.GROUP_COMMIT) {
+      groupCommitThread = new Thread(this::runGroupCommit, "event-store-sync-" + directory);
+      groupCommitThread.setDaemon(true);
+      groupCommitThread.start();
+    }
+  }
+
+  @Override
+  public List<Event<?>> readStream(String aggregateId, long fromVersion) {
+    StreamIndex stream = index.get(aggregateId);
+    if (stream == null) {
+      return new ArrayList<>();
+    }
+
+    // Read the size before the positions so that the array holds at least that many entries.
+    int size = stream.size;
+    long[] positions = stream.positions;
+    if (fromVersion >= size) {
+      return new ArrayList<>();
+    }
+
+    List<Event<?>> events = new ArrayList<>(size - (int) fromVersion);
+    for (int i = (int) fromVersion; i < size; i++) {
+      events.add(readRecord(positions[i]));
+    }
+    return events;
+  }
+
+  @Override
+  public long getVersion(String aggregateId) {
+    StreamIndex stream = index.get(aggregateId);
+    return stream == null ? 0 : stream.size;
+  }
+
+  @Override
+  public void append(String aggregateId, long expectedVersion, List<Event<?>> events) {
+    long start = System.nanoTime();
+    byte[] id = aggregateId.getBytes(StandardCharsets.UTF_8);
+    List<byte[]> bodies = new ArrayList<>(events.size());
+    for (Event<?> event : events) {
+      byte[] body = serializer.serialize(event);
+      metrics.recordEventSize(body.length);
+      bodies.add(body);
+    }
+    long serialized = System.nanoTime();
+    metrics.recordPhase(Phase.SERIALIZE, serialized - start);
+
+    long syncTarget;
+    long written;
+    synchronized (this) {
+      ensureOpen();
+      long actualVersion = getVersion(aggregateId);
+      long checked = System.nanoTime();
+      metrics.recordPhase(Phase.VERSION_CHECK, checked - serialized);
+      if (actualVersion != expectedVersion) {
+        throw new ConcurrencyException(aggregateId, expectedVersion, actualVersion);
+      }
+      if (events.isEmpty()) {
+        return;
+      }
+      try {
+        long[] positions = appendBatch(id, bodies);
+        // Publish the whole batch at once so readers never observe part of it.
+        index.computeIfAbsent(aggregateId, key -> new StreamIndex()).addAll(positions);
+        globalIndex.addAll(positions);
+        written = System.nanoTime();
+        metrics.recordPhase(Phase.WRITE, written - checked);
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+          activeSegment().channel.force(false);
+        }
+      } catch (IOException e) {
+        throw new EventStoreException("Failed to append events for aggregate " + aggregateId, e);
+      }
+      syncTarget = writtenBytes;
+    }
+
+    if (fsyncPolicy == FsyncPolicy.GROUP_COMMIT) {
+      awaitDurable(syncTarget);
+    }
+    long end = System.nanoTime();
+    if (fsyncPolicy != FsyncPolicy.NEVER) {
+      metrics.recordPhase(Phase.SYNC, end - written);
+    }
+    metrics.recordAppend(end - start);
+  }
+
+  @Override
+  public List<StoredEvent> readAll(long fromPosition, int maxEvents) {
+    int size = globalIndex.size;
+    long[] positions = globalIndex.positions;
+    if (fromPosition >= size) {
+      return new ArrayList<>();
+    }
+
+    int to = (int) Math.min(fromPosition + maxEvents, size);
+    List<StoredEvent> events = new ArrayList<>(to - (int) fromPosition);
+    for (int i = (int) fromPosition; i < to; i++) {
+      events.add(new StoredEvent(i, readRecord(positions[i])));
+    }
+    return events;
+  }
+
+  @Override
+  public long getHeadPosition() {
+    return globalIndex.size;
+  }
+
+  @Override
+  public Set<String> getAggregateIds() {
+    return new HashSet<>(index.keySet());
+  }
+
+  @Override
+  public long getAggregateCount() {
+    return index.size();
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    if (groupCommitThread != null) {
+      synchronized (syncMonitor) {
+        syncMonitor.notifyAll();
+      }
+      try {
+        groupCommitThread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    synchronized (this) {
+      for (Segment segment : segments) {
+        try {
+          if (segment == activeSegment()) {
+            segment.channel.force(false);
+          }
+          segment.channel.close();
+        } catch (IOException e) {
+          log.warn("Failed to close event store segment {}", segment.path, e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the records of one append to the log tail. Nothing is indexed or counted as written
+   * unless the whole batch was written; after a failed write the tail is cleared again so that no
+   * part of the batch is recovered on restart.
+   */
+  private long[] appendBatch(byte[] id, List<byte[]> bodies) throws IOException {
+    int batchLength = 0;
+    for (byte[] body : bodies) {
+      batchLength += RECORD_HEADER_SIZE + Short.BYTES + id.length + body.length;
+    }
+    if (batchLength > segmentSize) {
+      throw new EventStoreException(
+          String.format(
+              "Events of %d bytes do not fit into a segment of %d bytes",
+              batchLength, segmentSize));
+    }
+
+    Segment segment = activeSegment();
+    if (segment.writePosition + batchLength > segmentSize) {
+      segment.channel.force(false);
+      segment = openSegment(segments.size());
+    }
+    int segmentIndex = segments.size() - 1;
+
+    ByteBuffer batch = ByteBuffer.allocate(batchLength);
+    long[] positions = new long[bodies.size()];
+    for (int i = 0; i < positions.length; i++) {
+      byte[] event = bodies.get(i);
+      int recordStart = batch.position();
+      int bodyLength = Short.BYTES + id.length + event.length;
+      positions[i] = pack(segmentIndex, segment.writePosition + recordStart);
+
+      batch.position(recordStart + RECORD_HEADER_SIZE);
+      batch.putShort((short) id.length).put(id).put(event);
+      CRC32 crc = new CRC32();
+      crc.update(batch.array(), recordStart + RECORD_HEADER_SIZE, bodyLength);
+      batch.putInt(
+          recordStart, i < positions.length - 1 ? bodyLength | BATCH_CONTINUES : bodyLength);
+      batch.putInt(recordStart + Integer.BYTES, (int) crc.getValue());
+    }
+    batch.flip();
+
+    long position = segment.writePosition;
+    try {
+      while (batch.hasRemaining()) {
+        position += segment.channel.write(batch, position);
+      }
+    } catch (IOException e) {
+      clear(segment, segment.writePosition, segment.writePosition + batchLength);
+      throw e;
+    }
+
+    segment.writePosition += batchLength;
+    writtenBytes += batchLength;
+    return positions;
+  }
+
+  private Event<?> readRecord(long position) {
+    Segment segment = segments.get((int) (position >>> 32));
+    int offset = (int) position;
+
+    ByteBuffer buffer = segment.buffer.duplicate();
+    int bodyLength = buffer.getInt(offset) & ~BATCH_CONTINUES;
+    buffer.position(offset + RECORD_HEADER_SIZE);
+    short idLength = buffer.getShort();
+    buffer.position(buffer.position() + idLength);
+
+    byte[] event = new byte[bodyLength - Short.BYTES - idLength];
+    buffer.get(event);
+    return serializer.deserialize(event);
+  }
+
+  private void recover() throws IOException {
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(directory)) {
+      files =
+          listing
+              .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+              .sorted()
+              .toList();
+    }
+
+    for (int i = 0; i < files.size(); i++) {
+      Segment segment = openSegment(i);
+      segment.writePosition = scan(segment, i, i == files.size() - 1);
+      writtenBytes += segment.writePosition;
+    }
+
+    if (segments.isEmpty()) {
+      openSegment(0);
+    }
+
+    durableBytes = writtenBytes;
+    requestedSyncBytes = writtenBytes;
+    log.info(
+        "Event store {} opened with {} segments and {} streams",
+        directory,
+        segments.size(),
+        index.size());
+  }
+
+  /**
+   * Indexes the committed records of a segment and returns the offset after the last of them.
+   *
+   * <p>Only the last segment can end in a record or batch torn by a crash, because a batch never
+   * spans segments and a segment is synced before the next one is started. Its tail is cleared.
+   * Anything but zeros after the committed records of an earlier segment means committed events
+   * were damaged, and the store refuses to open rather than leave holes in the streams.
+   */
+  private int scan(Segment segment, int segmentIndex, boolean last) {
+    ByteBuffer buffer = segment.buffer.duplicate();
+    int position = 0;
+    int committed = 0;
+    List<String> batchIds = new ArrayList<>();
+    List<Long> batchPositions = new ArrayList<>();
+
+    while (position + RECORD_HEADER_SIZE <= segmentSize) {
+      int header = buffer.getInt(position);
+      int bodyLength = header & ~BATCH_CONTINUES;
+      if (bodyLength <= Short.BYTES || position + RECORD_HEADER_SIZE + bodyLength > segmentSize) {
+        break;
+      }
+
+      ByteBuffer body = buffer.duplicate();
+      body.limit(position + RECORD_HEADER_SIZE + bodyLength)
+          .position(position + RECORD_HEADER_SIZE);
+      CRC32 crc = new CRC32();
+      crc.update(body.duplicate());
+      if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+        break;
+      }
+
+      short idLength = body.getShort();
+      byte[] id = new byte[idLength];
+      body.get(id);
+      batchIds.add(new String(id, StandardCharsets.UTF_8));
+      batchPositions.add(pack(segmentIndex, position));
+      position += RECORD_HEADER_SIZE + bodyLength;
+
+      if ((header & BATCH_CONTINUES) == 0) {
+        for (int i = 0; i < batchIds.size(); i++) {
+          long[] packed = {batchPositions.get(i)};
+          index.computeIfAbsent(batchIds.get(i), key -> new StreamIndex()).addAll(packed);
+          globalIndex.addAll(packed);
+        }
+        batchIds.clear();
+        batchPositions.clear();
+        committed = position;
+      }
+    }
+
+    if (committed + RECORD_HEADER_SIZE <= segmentSize && buffer.getLong(committed) != 0) {
+      if (!last) {
+        throw new EventStoreException(
+            String.format(
+                "Segment %s is damaged at offset %d; it is not the last segment, so the records"
+                    + " after that offset were committed",
+                segment.path, committed));
+      }
+      log.warn(
+          "Discarding torn records in segment {} from offset {}, {} of them complete",
+          segment.path,
+          committed,
+          batchIds.size());
+      // Left over records could otherwise be recovered once new records are appended before them.
+      clear(segment, committed, segmentSize);
+    }
+    return committed;
+  }
+
+  /** Overwrites part of a segment with zeros. */
+  private void clear(Segment segment, int from, int to) {
+    ByteBuffer zeros = ByteBuffer.allocate(Math.min(CLEAR_CHUNK_SIZE, Math.max(0, to - from)));
+    try {
+      for (long position = from; position < to; ) {
+        zeros.clear().limit((int) Math.min(zeros.capacity(), to - position));
+        position += segment.channel.write(zeros, position);
+      }
+    } catch (IOException e) {
+      log.warn("Failed to clear segment {} from offset {}", segment.path, from, e);
+    }
+  }
+
+  private Segment openSegment(int segmentIndex) throws IOException {
+    Path path = directory.resolve(String.format("%020d%s", segmentIndex, SEGMENT_SUFFIX));
+    FileChannel channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    if (channel.size() < segmentSize) {
+      channel.write(ByteBuffer.allocate(1), segmentSize - 1);
+    }
+
+    Segment segment =
+        new Segment(path, channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, segmentSize));
+    segments.add(segment);
+    return segment;
+  }
+
+  private Segment activeSegment() {
+    return segments.get(segments.size() - 1);
+  }
+
+  private void ensureOpen() {
+    if (closed) {
+      throw new EventStoreException("Event store " + directory + " is closed");
+    }
+  }
+
+  private void awaitDurable(long target) {
+    synchronized (syncMonitor) {
+      if (target > requestedSyncBytes) {
+        requestedSyncBytes = target;
+        syncMonitor.notifyAll();
+      }
+
+      while (durableBytes < target) {
+        if (closed) {
+          throw new EventStoreException("Event store " + directory + " closed before sync");
+        }
+        try {
+          syncMonitor.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new EventStoreException("Interrupted while waiting for event store sync", e);
+        }
+      }
+    }
+  }
+
+  private void runGroupCommit() {
+    while (true) {
+      synchronized (syncMonitor) {
+        while (!closed && requestedSyncBytes <= durableBytes) {
+          try {
+            syncMonitor.wait();
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+        if (closed) {
+          return;
+        }
+      }
+
+      // Give concurrent appenders a moment to join this sync.
+      LockSupport.parkNanos(groupCommitIntervalNanos);
+
+      Segment segment;
+      long target;
+      synchronized (this) {
+        segment = activeSegment();
+        target = writtenBytes;
+      }
+
+      try {
+        segment.channel.force(false);
+      } catch (IOException e) {
+        log.error("Group commit sync of {} failed", directory, e);
+        continue;
+      }
+
+      synchronized (syncMonitor) {
+        durableBytes = Math.max(durableBytes, target);
+        syncMonitor.notifyAll();
+      }
+    }
+  }
+
+  private static long pack(int segmentIndex, int offset) {
+    return ((long) segmentIndex << 32) | (offset & 0xFFFFFFFFL);
+  }
+
+  /** A single log file together with its read-only mapping and next write offset. */
+  private static final class Segment {
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+
+    private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+      this.path = path;
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+  }
+
+  /**
+   * Packed record positions of one aggregate stream or of the whole log, kept as a growable
+   * primitive array.
+   *
+   * <p>Only the appending thread calls {@link #addAll(long[])}. The positions are stored and a
+   * grown array is published before the size, so readers that read the size first never see a
+   * missing entry.
+   */
+  private static final class StreamIndex {
+    private volatile long[] positions = new long[4];
+    private volatile int size;
+
+    private void addAll(long[] added) {
+      int currentSize = size;
+      long[] current = positions;
+      if (currentSize + added.length > current.length) {
+        current = Arrays.copyOf(current, Math.max(current.length * 2, currentSize + added.length));
+      }
+      System.arraycopy(added, 0, current, currentSize, added.length);
+      positions = current;
+      size = currentSize + added.length;
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.eventstore.EventLog;
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.eventstore.ShardRouter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * {@link EventStore} split into independent shards, one per partition of the event topic.
+ *
+ * <p>Each aggregate lives in the shard its ID is routed to by the {@link ShardRouter}, so stream
+ * reads and appends only touch the structures, locks and files of that shard and shards never
+ * contend with each other. Every shard keeps its own global log, which is published by its own
+ * outbox publisher to its own partition.
+ *
+ * <p>There is no order between the logs of different shards, so the sharded store is not an {@link
+ * EventLog} itself, even with a single shard; followers of the log read {@link #getShard(int) each
+ * shard} instead. {@link #getHeadPosition()} is the total number of events in all shards.
+ */
+public class ShardedEventStore implements EventStore {
+  private final ShardRouter router;
+  private final EventLog[] shards;
+
+  /**
+   * Creates a sharded store.
+   *
+   * @param router the router assigning aggregates to shards
+   * @param shardFactory opens the store of a shard, given its index
+   */
+  public ShardedEventStore(ShardRouter router, IntFunction<? extends EventLog> shardFactory) {
+    this.router = router;
+    this.shards = new EventLog[router.getShardCount()];
+    for (int i = 0; i < shards.length; i++) {
+      shards[i] = shardFactory.apply(i);
+    }
+  }
+
+  /**
+   * Gets the router assigning aggregates to shards.
+   *
+   * @return the shard router
+   */
+  public ShardRouter getRouter() {
+    return router;
+  }
+
+  /**
+   * Gets the number of shards.
+   *
+   * @return the shard count
+   */
+  public int getShardCount() {
+    return shards.length;
+  }
+
+  /**
+   * Gets the store of a shard.
+   *
+   * @param shard the shard index, from 0 to the shard count exclusive
+   * @return the store holding the aggregates of the shard
+   */
+  public EventLog getShard(int shard) {
+    return shards[shard];
+  }
+
+  /**
+   * Gets the logs that make up a store: the shards of a sharded store, otherwise the store itself.
+   *
+   * @param eventStore the store
+   * @return the logs to follow, in shard order
+   * @throws IllegalArgumentException if the store keeps no log
+   */
+  public static List<EventLog> logsOf(EventStore eventStore) {
+    if (eventStore instanceof ShardedEventStore sharded) {
+      return List.of(sharded.shards);
+    }
+    if (eventStore instanceof EventLog log) {
+      return List.of(log);
+    }
+    throw new IllegalArgumentException(
+        "Event store " + eventStore.getClass().getSimpleName() + " keeps no log to follow");
+  }
+
+  @Override
+  public List<Event<?>> readStream(String aggregateId, long fromVersion) {
+    return shardOf(aggregateId).readStream(aggregateId, fromVersion);
+  }
+
+  @Override
+  public long getVersion(String aggregateId) {
+    return shardOf(aggregateId).getVersion(aggregateId);
+  }
+
+  @Override
+  public void append(String aggregateId, long expectedVersion, List<Event<?>> events) {
+    shardOf(aggregateId).append(aggregateId, expectedVersion, events);
+  }
+
+  @Override
+  public long getHeadPosition() {
+    long head = 0;
+    for (EventStore shard : shards) {
+      head += shard.getHeadPosition();
+    }
+    return head;
+  }
+
+  @Override
+  public Set<String> getAggregateIds() {
+    Set<String> aggregateIds = new HashSet<>();
+    for (EventStore shard : shards) {
+      aggregateIds.addAll(shard.getAggregateIds());
+    }
+    return aggregateIds;
+  }
+
+  @Override
+  public long getAggregateCount() {
+    long count = 0;
+    for (EventStore shard : shards) {
+      count += shard.getAggregateCount();
+    }
+    return count;
+  }
+
+  @Override
+  public void close() {
+    for (EventStore shard : shards) {
+      shard.close();
+    }
+  }
+
+  private EventStore shardOf(String aggregateId) {
+    return shards[router.shardOf(aggregateId)];
+  }
+}
@@ -0,0 +1,49 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import com.orderfulfillment.command.eventstore.ShardRouter;
+import com.orderfulfillment.command.eventstore.Snapshot;
+import com.orderfulfillment.command.eventstore.SnapshotStore;
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+/**
+ * {@link SnapshotStore} split into the same shards as the {@link ShardedEventStore} it belongs to,
+ * so the snapshots of an aggregate are kept next to its events.
+ */
+public class ShardedSnapshotStore implements SnapshotStore {
+  private final ShardRouter router;
+  private final SnapshotStore[] shards;
+
+  /**
+   * Creates a sharded store.
+   *
+   * @param router the router assigning aggregates to shards
+   * @param shardFactory opens the store of a shard, given its index
+   */
+  public ShardedSnapshotStore(
+      ShardRouter router, IntFunction<? extends SnapshotStore> shardFactory) {
+    this.router = router;
+    this.shards = new SnapshotStore[router.getShardCount()];
+    for (int i = 0; i < shards.length; i++) {
+      shards[i] = shardFactory.apply(i);
+    }
+  }
+
+  @Override
+  public <S extends Serializable> Optional<Snapshot<S>> load(String aggregateId) {
+    return shards[router.shardOf(aggregateId)].load(aggregateId);
+  }
+
+  @Override
+  public void save(Snapshot<?> snapshot) {
+    shards[router.shardOf(snapshot.aggregateId())].save(snapshot);
+  }
+
+  @Override
+  public void close() {
+    for (SnapshotStore shard : shards) {
+      shard.close();
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks that aggregate IDs are hashed onto.
+ *
+ * <p>Two aggregates only contend if they happen to share a stripe, so appends to different streams
+ * proceed in parallel without allocating a lock per aggregate.
+ */
+final class StripedLocks {
+  private final ReentrantLock[] locks;
+
+  /**
+   * Creates the stripes.
+   *
+   * @param stripes the number of locks, rounded up to the next power of two
+   */
+  StripedLocks(int stripes) {
+    int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+    locks = new ReentrantLock[size];
+    for (int i = 0; i < size; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Gets the lock guarding an aggregate stream.
+   *
+   * @param aggregateId the unique identifier of the aggregate
+   * @return the lock of the stripe the aggregate hashes to
+   */
+  ReentrantLock get(String aggregateId) {
+    int hash = aggregateId.hashCode();
+    return locks[(hash ^ (hash >>> 16)) & (locks.length - 1)];
+  }
+}
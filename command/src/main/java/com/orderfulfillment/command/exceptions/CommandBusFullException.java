@@ -0,0 +1,18 @@
+package com.orderfulfillment.command.exceptions;
+
+/**
+ * Exception thrown when a command cannot be accepted because the command bus already holds as many
+ * outstanding commands as it is allowed to. The client should retry later.
+ */
+public class CommandBusFullException extends RuntimeException {
+  private final int capacity;
+
+  public CommandBusFullException(int capacity) {
+    super("Command bus is full with " + capacity + " outstanding commands");
+    this.capacity = capacity;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+}
@@ -0,0 +1,18 @@
+package com.orderfulfillment.command.exceptions;
+
+/**
+ * Exception thrown when the status of a command is requested that the command bus does not track,
+ * because it was never accepted or its result has been evicted.
+ */
+public class CommandNotFoundException extends RuntimeException {
+  private final String commandId;
+
+  public CommandNotFoundException(String commandId) {
+    super("Command not found: " + commandId);
+    this.commandId = commandId;
+  }
+
+  public String getCommandId() {
+    return commandId;
+  }
+}
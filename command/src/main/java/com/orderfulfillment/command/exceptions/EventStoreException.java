@@ -0,0 +1,16 @@
+package com.orderfulfillment.command.exceptions;
+
+/**
+ * Exception thrown when the event store cannot read or write its underlying storage. This usually
+ * indicates an I/O failure or a corrupted log segment.
+ */
+public class EventStoreException extends RuntimeException {
+
+  public EventStoreException(String message) {
+    super(message);
+  }
+
+  public EventStoreException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
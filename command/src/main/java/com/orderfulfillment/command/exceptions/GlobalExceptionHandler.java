@@ -11,6 +11,7 @@ import com.orderfulfillment.command.exceptions.domain.OrderNotFoundException;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -189,6 +190,66 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
   }
 
+  /**
+   * Handles command not found exceptions.
+   *
+   * <p>This method captures cases where the status of an unknown or expired command is requested,
+   * logs the error message, and constructs a response entity indicating the command ID that was not
+   * found.
+   *
+   * @param ex the exception indicating a command was not found
+   * @return a {@link ResponseEntity} with an {@link ErrorResponseDto} indicating the command not
+   *     found
+   */
+  @ExceptionHandler(CommandNotFoundException.class)
+  public ResponseEntity<ErrorResponseDto> handleCommandNotFoundException(
+      CommandNotFoundException ex) {
+    log.warn("Command not found: {}", ex.getMessage());
+    Map<String, Object> details = new HashMap<>();
+    details.put("commandId", ex.getCommandId());
+
+    ErrorResponseDto response =
+        ErrorResponseDto.builder()
+            .success(false)
+            .error("COMMAND_NOT_FOUND")
+            .message(ex.getMessage())
+            .details(details)
+            .build();
+
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+  }
+
+  /**
+   * Handles command bus full exceptions.
+   *
+   * <p>This method captures cases where a command cannot be accepted because too many commands are
+   * outstanding, logs the error message, and constructs a response entity asking the client to
+   * retry later.
+   *
+   * @param ex the exception indicating the command bus is full
+   * @return a {@link ResponseEntity} with an {@link ErrorResponseDto} indicating the command bus is
+   *     full
+   */
+  @ExceptionHandler(CommandBusFullException.class)
+  public ResponseEntity<ErrorResponseDto> handleCommandBusFullException(
+      CommandBusFullException ex) {
+    log.warn("Command bus full: {}", ex.getMessage());
+    Map<String, Object> details = new HashMap<>();
+    details.put("capacity", ex.getCapacity());
+
+    ErrorResponseDto response =
+        ErrorResponseDto.builder()
+            .success(false)
+            .error("COMMAND_BUS_FULL")
+            .message(ex.getMessage())
+            .details(details)
+            .build();
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(response);
+  }
+
   /**
    * Handles concurrency exceptions.
    *
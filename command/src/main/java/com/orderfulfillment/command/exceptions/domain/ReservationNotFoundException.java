@@ -0,0 +1,24 @@
+package com.orderfulfillment.command.exceptions.domain;
+
+/**
+ * Thrown when a reservation is not held by an inventory item, because it never existed, was already
+ * confirmed or has expired.
+ */
+public class ReservationNotFoundException extends DomainRuleViolationException {
+  private final String productId;
+  private final String reservationId;
+
+  public ReservationNotFoundException(String productId, String reservationId) {
+    super(String.format("No reservation %s held for product %s", reservationId, productId));
+    this.productId = productId;
+    this.reservationId = reservationId;
+  }
+
+  public String getProductId() {
+    return productId;
+  }
+
+  public String getReservationId() {
+    return reservationId;
+  }
+}
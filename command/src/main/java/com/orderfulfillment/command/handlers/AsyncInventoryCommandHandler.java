@@ -0,0 +1,87 @@
+package com.orderfulfillment.command.handlers;
+
+import com.orderfulfillment.command.commands.AllocateInventoryBatchCommand;
+import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.BackorderInventoryCommand;
+import com.orderfulfillment.command.commands.ConfirmReservationCommand;
+import com.orderfulfillment.command.commands.ExpireReservationCommand;
+import com.orderfulfillment.command.commands.ReserveInventoryCommand;
+import com.orderfulfillment.command.commands.ReturnInventoryCommand;
+import com.orderfulfillment.command.commands.UpdateInventoryCommand;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link InventoryCommandHandler}.
+ *
+ * <p>Each method queues the command and returns immediately with a future that completes once the
+ * command has been handled and its events are stored, or completes exceptionally with the same
+ * exception the blocking handler would throw.
+ */
+public interface AsyncInventoryCommandHandler {
+
+  /**
+   * Submits a command to update inventory quantity.
+   *
+   * @param command the command containing the product ID and new quantity
+   * @return a future completed when the update is stored
+   */
+  CompletableFuture<Void> submit(UpdateInventoryCommand command);
+
+  /**
+   * Submits a command to allocate inventory to an order.
+   *
+   * @param command the command containing product ID, order ID, and quantity
+   * @return a future completed when the allocation is stored
+   */
+  CompletableFuture<Void> submit(AllocateInventoryCommand command);
+
+  /**
+   * Submits a command to return inventory from a cancelled order.
+   *
+   * @param command the command containing product ID, order ID, and quantity
+   * @return a future completed when the return is stored
+   */
+  CompletableFuture<Void> submit(ReturnInventoryCommand command);
+
+  /**
+   * Submits a command to allocate inventory of one product to many orders.
+   *
+   * @param command the command containing the product ID and the allocations
+   * @return a future of the result of each allocation in command order
+   */
+  CompletableFuture<List<BatchItemResult>> submit(AllocateInventoryBatchCommand command);
+
+  /**
+   * Submits a command to hold inventory for a limited time.
+   *
+   * @param command the command containing product ID, reservation ID, quantity and expiry
+   * @return a future completed when the reservation is stored
+   */
+  CompletableFuture<Void> submit(ReserveInventoryCommand command);
+
+  /**
+   * Submits a command to allocate a reserved quantity to an order.
+   *
+   * @param command the command containing product ID, reservation ID and order ID
+   * @return a future completed when the confirmation is stored
+   */
+  CompletableFuture<Void> submit(ConfirmReservationCommand command);
+
+  /**
+   * Submits a command to release a reservation whose deadline has passed.
+   *
+   * @param command the command containing product ID, reservation ID and the current time
+   * @return a future completed when the expiry is stored, or right away if there was nothing to
+   *     release
+   */
+  CompletableFuture<Void> submit(ExpireReservationCommand command);
+
+  /**
+   * Submits a command to queue an order line until enough stock is available.
+   *
+   * @param command the command containing product ID, order ID, quantity and priority
+   * @return a future completed when the backorder, or its immediate allocation, is stored
+   */
+  CompletableFuture<Void> submit(BackorderInventoryCommand command);
+}
@@ -0,0 +1,40 @@
+package com.orderfulfillment.command.handlers;
+
+import com.orderfulfillment.command.commands.CancelOrderCommand;
+import com.orderfulfillment.command.commands.CreateOrderCommand;
+import com.orderfulfillment.command.commands.UpdateOrderStatusCommand;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link OrderCommandHandler}.
+ *
+ * <p>Each method queues the command and returns immediately with a future that completes once the
+ * command has been handled and its events are stored, or completes exceptionally with the same
+ * exception the blocking handler would throw.
+ */
+public interface AsyncOrderCommandHandler {
+
+  /**
+   * Submits a command to create a new order.
+   *
+   * @param command the command containing all required order creation information
+   * @return a future completed when the order is stored
+   */
+  CompletableFuture<Void> submit(CreateOrderCommand command);
+
+  /**
+   * Submits a command to update an order's status.
+   *
+   * @param command the command containing the order ID and the new status
+   * @return a future completed when the status update is stored
+   */
+  CompletableFuture<Void> submit(UpdateOrderStatusCommand command);
+
+  /**
+   * Submits a command to cancel an order.
+   *
+   * @param command the command containing the order ID to be cancelled
+   * @return a future completed when the cancellation is stored
+   */
+  CompletableFuture<Void> submit(CancelOrderCommand command);
+}
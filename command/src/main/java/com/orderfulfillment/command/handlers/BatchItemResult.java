@@ -0,0 +1,41 @@
+package com.orderfulfillment.command.handlers;
+
+/**
+ * Outcome of one item of a batch command.
+ *
+ * @param id the identifier of the aggregate the item created or targeted, or {@code null} if none
+ *     was assigned
+ * @param failure the exception the item failed with, or {@code null} if it succeeded
+ */
+public record BatchItemResult(String id, RuntimeException failure) {
+
+  /**
+   * Creates the result of an item that succeeded.
+   *
+   * @param id the identifier of the aggregate the item created or targeted
+   * @return the result
+   */
+  public static BatchItemResult succeeded(String id) {
+    return new BatchItemResult(id, null);
+  }
+
+  /**
+   * Creates the result of an item that failed.
+   *
+   * @param id the identifier of the aggregate the item targeted, or {@code null}
+   * @param failure the exception the item failed with
+   * @return the result
+   */
+  public static BatchItemResult failed(String id, RuntimeException failure) {
+    return new BatchItemResult(id, failure);
+  }
+
+  /**
+   * Checks whether the item succeeded.
+   *
+   * @return true if the item has no failure
+   */
+  public boolean isSuccess() {
+    return failure == null;
+  }
+}
@@ -0,0 +1,23 @@
+package com.orderfulfillment.command.handlers;
+
+import com.orderfulfillment.command.commands.CreateOrderBatchCommand;
+import java.util.List;
+
+/**
+ * Handles commands that create many orders in one call.
+ *
+ * <p>Each order of a batch is created or rejected on its own with the same all-or-nothing
+ * allocation as {@link OrderCommandHandler#handle(com.orderfulfillment.command.commands.
+ * CreateOrderCommand)}, but the work is shared across the batch: the inventory of each product is
+ * loaded and stored once for all orders that contain it.
+ */
+public interface BatchOrderCommandHandler {
+
+  /**
+   * Handles a command to create a batch of orders.
+   *
+   * @param command the command containing the orders to create
+   * @return the result of each order in command order, identified by the new order ID
+   */
+  List<BatchItemResult> handle(CreateOrderBatchCommand command);
+}
@@ -1,8 +1,14 @@
 package com.orderfulfillment.command.handlers;
 
+import com.orderfulfillment.command.commands.AllocateInventoryBatchCommand;
 import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.BackorderInventoryCommand;
+import com.orderfulfillment.command.commands.ConfirmReservationCommand;
+import com.orderfulfillment.command.commands.ExpireReservationCommand;
+import com.orderfulfillment.command.commands.ReserveInventoryCommand;
 import com.orderfulfillment.command.commands.ReturnInventoryCommand;
 import com.orderfulfillment.command.commands.UpdateInventoryCommand;
+import java.util.List;
 
 /**
  * Handles inventory-related commands by converting them to domain events.
@@ -38,4 +44,58 @@ public interface InventoryCommandHandler {
    * @param command the command containing product ID, order ID, and quantity
    */
   void handle(ReturnInventoryCommand command);
+
+  /**
+   * Handles a command to allocate inventory of one product to many orders.
+   *
+   * <p>Allocations are attempted in order against the stock left by the ones before them, and all
+   * that succeed are stored together. An allocation that exceeds the remaining stock fails on its
+   * own without affecting the others.
+   *
+   * @param command the command containing the product ID and the allocations
+   * @return the result of each allocation in command order, identified by its order ID
+   * @throws com.orderfulfillment.command.exceptions.domain.ProductNotFoundException if the product
+   *     has no inventory
+   */
+  List<BatchItemResult> handle(AllocateInventoryBatchCommand command);
+
+  /**
+   * Handles a command to hold inventory for a limited time.
+   *
+   * <p>The reserved quantity is no longer available for allocation until the reservation is
+   * confirmed or expires.
+   *
+   * @param command the command containing product ID, reservation ID, quantity and expiry
+   */
+  void handle(ReserveInventoryCommand command);
+
+  /**
+   * Handles a command to allocate a reserved quantity to an order.
+   *
+   * @param command the command containing product ID, reservation ID and order ID
+   * @throws com.orderfulfillment.command.exceptions.domain.ReservationNotFoundException if the
+   *     reservation is not held, for example because it has expired
+   */
+  void handle(ConfirmReservationCommand command);
+
+  /**
+   * Handles a command to release a reservation whose deadline has passed.
+   *
+   * <p>Does nothing if the reservation is no longer held or not yet due.
+   *
+   * @param command the command containing product ID, reservation ID and the current time
+   */
+  void handle(ExpireReservationCommand command);
+
+  /**
+   * Handles a command to queue an order line until enough stock is available.
+   *
+   * <p>The line is allocated right away if it is at the head of the backorder queue and fits the
+   * available stock.
+   *
+   * @param command the command containing product ID, order ID, quantity and priority
+   * @throws com.orderfulfillment.command.exceptions.domain.ProductNotFoundException if the product
+   *     does not exist
+   */
+  void handle(BackorderInventoryCommand command);
 }
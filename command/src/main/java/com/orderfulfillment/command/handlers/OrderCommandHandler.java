@@ -19,7 +19,14 @@ public interface OrderCommandHandler {
    * containing customer details, order items, addresses, and total cost. The order is initially set
    * to the REGISTERED status.
    *
+   * <p>Inventory for every order item is allocated before the order is stored. If any item cannot
+   * be allocated, the items that were allocated are returned and no order is created.
+   *
    * @param command the command containing all required order creation information
+   * @throws com.orderfulfillment.command.exceptions.domain.InsufficientInventoryException if an
+   *     item has less inventory available than ordered
+   * @throws com.orderfulfillment.command.exceptions.domain.ProductNotFoundException if an item
+   *     refers to a product without inventory
    */
   void handle(CreateOrderCommand command);
 
@@ -0,0 +1,255 @@
+package com.orderfulfillment.command.handlers.impl;
+
+import com.orderfulfillment.command.commands.AllocateInventoryBatchCommand;
+import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.BackorderInventoryCommand;
+import com.orderfulfillment.command.commands.CreateOrderBatchCommand;
+import com.orderfulfillment.command.commands.CreateOrderCommand;
+import com.orderfulfillment.command.dispatch.CommandLanes;
+import com.orderfulfillment.command.domain.Order;
+import com.orderfulfillment.command.domain.OrderItem;
+import com.orderfulfillment.command.exceptions.domain.InsufficientInventoryException;
+import com.orderfulfillment.command.handlers.AsyncInventoryCommandHandler;
+import com.orderfulfillment.command.handlers.BatchItemResult;
+import com.orderfulfillment.command.handlers.BatchOrderCommandHandler;
+import com.orderfulfillment.command.repositories.OrderRepository;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link BatchOrderCommandHandler} that groups the order lines of a batch by product.
+ *
+ * <p>A batch is handled in three steps, each spread across the command lanes:
+ *
+ * <ol>
+ *   <li>Reserve: the lines of all orders are grouped by product, and each group is allocated by one
+ *       {@link AllocateInventoryBatchCommand} on the inventory lane of its product, so an inventory
+ *       item is loaded and appended to once per batch rather than once per line.
+ *   <li>Release: orders with a line that could not be allocated are rejected, and their other lines
+ *       are returned.
+ *   <li>Confirm: the remaining orders are stored on their order lanes in parallel, so their appends
+ *       share event store syncs. An order that fails to store is rejected and released as well.
+ * </ol>
+ *
+ * <p>Lines are allocated in batch order, so a line of an order that is later rejected holds its
+ * stock until the release step, and an order after it in the same batch may be refused that stock.
+ * Orders that allow backorders have their lines that lack stock backordered at the end of the
+ * reserve step, unless another of their lines failed. The events of the batch reach Kafka through
+ * the outbox relays, which publish them in batches.
+ */
+@Slf4j
+@Component
+public class BatchOrderCommandHandlerImpl implements BatchOrderCommandHandler {
+  private final OrderRepository orderRepository;
+  private final AsyncInventoryCommandHandler inventoryCommandHandler;
+  private final CommandLanes orderLanes;
+
+  public BatchOrderCommandHandlerImpl(
+      OrderRepository orderRepository,
+      AsyncInventoryCommandHandler inventoryCommandHandler,
+      @Qualifier("orderCommandLanes") CommandLanes orderLanes) {
+    this.orderRepository = orderRepository;
+    this.inventoryCommandHandler = inventoryCommandHandler;
+    this.orderLanes = orderLanes;
+  }
+
+  @Override
+  public List<BatchItemResult> handle(CreateOrderBatchCommand command) {
+    List<CreateOrderCommand> commands = command.orders();
+    log.info("Handling CreateOrderBatchCommand with {} orders", commands.size());
+
+    List<Order> orders = new ArrayList<>(commands.size());
+    for (CreateOrderCommand order : commands) {
+      orders.add(
+          Order.createNew(
+              order.orderId(),
+              order.customerId(),
+              order.items(),
+              order.shippingAddress(),
+              order.billingAddress(),
+              order.totalCost()));
+    }
+
+    RuntimeException[] failures = new RuntimeException[orders.size()];
+    List<List<AllocateInventoryCommand>> reserved = reserveAll(commands, orders, failures);
+
+    List<AllocateInventoryCommand> rejected = new ArrayList<>();
+    for (int i = 0; i < orders.size(); i++) {
+      if (failures[i] != null) {
+        rejected.addAll(reserved.get(i));
+      }
+    }
+    InventoryReservations.releaseAll(inventoryCommandHandler, rejected).join();
+
+    confirmAll(orders, failures, reserved);
+
+    List<BatchItemResult> results = new ArrayList<>(orders.size());
+    int created = 0;
+    for (int i = 0; i < orders.size(); i++) {
+      String orderId = orders.get(i).getId();
+      if (failures[i] == null) {
+        results.add(BatchItemResult.succeeded(orderId));
+        created++;
+      } else {
+        results.add(BatchItemResult.failed(orderId, failures[i]));
+      }
+    }
+    log.info("Created {} of {} orders of the batch", created, orders.size());
+    return results;
+  }
+
+  /**
+   * Allocates the lines of all orders with one batch command per product, then backorders the lines
+   * that lack stock of orders that allow it.
+   *
+   * @param failures receives the first allocation failure of each order
+   * @return the allocations that succeeded or were backordered, per order
+   */
+  private List<List<AllocateInventoryCommand>> reserveAll(
+      List<CreateOrderCommand> commands, List<Order> orders, RuntimeException[] failures) {
+    Map<String, List<AllocateInventoryCommand>> byProduct = new LinkedHashMap<>();
+    Map<String, List<Integer>> ordersByProduct = new LinkedHashMap<>();
+    for (int i = 0; i < orders.size(); i++) {
+      Order order = orders.get(i);
+      for (OrderItem item : order.getItems()) {
+        byProduct
+            .computeIfAbsent(item.getProductId(), productId -> new ArrayList<>())
+            .add(
+                AllocateInventoryCommand.builder()
+                    .productId(item.getProductId())
+                    .orderId(order.getId())
+                    .quantity(item.getQuantity())
+                    .build());
+        ordersByProduct.computeIfAbsent(item.getProductId(), productId -> new ArrayList<>()).add(i);
+      }
+    }
+
+    Map<String, CompletableFuture<List<BatchItemResult>>> results = new LinkedHashMap<>();
+    byProduct.forEach(
+        (productId, allocations) ->
+            results.put(
+                productId,
+                inventoryCommandHandler.submit(
+                    new AllocateInventoryBatchCommand(productId, allocations))));
+
+    List<List<AllocateInventoryCommand>> reserved = new ArrayList<>(orders.size());
+    for (int i = 0; i < orders.size(); i++) {
+      reserved.add(new ArrayList<>());
+    }
+    Map<Integer, List<AllocateInventoryCommand>> shortLines = new LinkedHashMap<>();
+    results.forEach(
+        (productId, result) -> {
+          List<AllocateInventoryCommand> allocations = byProduct.get(productId);
+          List<Integer> orderIndexes = ordersByProduct.get(productId);
+          List<BatchItemResult> lineResults;
+          try {
+            lineResults = result.join();
+          } catch (CompletionException e) {
+            RuntimeException cause = unwrap(e);
+            orderIndexes.forEach(index -> fail(failures, index, cause));
+            return;
+          }
+          for (int line = 0; line < allocations.size(); line++) {
+            int index = orderIndexes.get(line);
+            BatchItemResult lineResult = lineResults.get(line);
+            if (lineResult.isSuccess()) {
+              reserved.get(index).add(allocations.get(line));
+            } else if (commands.get(index).allowBackorder()
+                && lineResult.failure() instanceof InsufficientInventoryException) {
+              shortLines
+                  .computeIfAbsent(index, ignored -> new ArrayList<>())
+                  .add(allocations.get(line));
+            } else {
+              fail(failures, index, lineResult.failure());
+            }
+          }
+        });
+
+    backorderAll(commands, shortLines, failures, reserved);
+    return reserved;
+  }
+
+  /** Backorders the lines that lack stock of orders that have no other failure. */
+  private void backorderAll(
+      List<CreateOrderCommand> commands,
+      Map<Integer, List<AllocateInventoryCommand>> shortLines,
+      RuntimeException[] failures,
+      List<List<AllocateInventoryCommand>> reserved) {
+    List<Integer> orderIndexes = new ArrayList<>();
+    List<AllocateInventoryCommand> lines = new ArrayList<>();
+    List<CompletableFuture<Void>> results = new ArrayList<>();
+    shortLines.forEach(
+        (index, orderLines) -> {
+          if (failures[index] != null) {
+            return;
+          }
+          for (AllocateInventoryCommand line : orderLines) {
+            orderIndexes.add(index);
+            lines.add(line);
+            results.add(
+                inventoryCommandHandler.submit(
+                    BackorderInventoryCommand.builder()
+                        .productId(line.productId())
+                        .orderId(line.orderId())
+                        .quantity(line.quantity())
+                        .priority(commands.get(index).priority())
+                        .build()));
+          }
+        });
+
+    for (int i = 0; i < results.size(); i++) {
+      try {
+        results.get(i).join();
+        reserved.get(orderIndexes.get(i)).add(lines.get(i));
+      } catch (CompletionException e) {
+        fail(failures, orderIndexes.get(i), unwrap(e));
+      }
+    }
+  }
+
+  /** Stores the orders that have no failure in parallel, releasing those that fail to store. */
+  private void confirmAll(
+      List<Order> orders,
+      RuntimeException[] failures,
+      List<List<AllocateInventoryCommand>> reserved) {
+    List<CompletableFuture<Void>> saves = new ArrayList<>(orders.size());
+    for (int i = 0; i < orders.size(); i++) {
+      Order order = orders.get(i);
+      saves.add(
+          failures[i] == null
+              ? orderLanes.runAsync(order.getCustomerId(), () -> orderRepository.save(order))
+              : null);
+    }
+
+    List<AllocateInventoryCommand> unsaved = new ArrayList<>();
+    for (int i = 0; i < orders.size(); i++) {
+      if (saves.get(i) == null) {
+        continue;
+      }
+      try {
+        saves.get(i).join();
+      } catch (CompletionException e) {
+        fail(failures, i, unwrap(e));
+        unsaved.addAll(reserved.get(i));
+      }
+    }
+    InventoryReservations.releaseAll(inventoryCommandHandler, unsaved).join();
+  }
+
+  private static void fail(RuntimeException[] failures, int index, RuntimeException failure) {
+    if (failures[index] == null) {
+      failures[index] = failure;
+    }
+  }
+
+  private static RuntimeException unwrap(CompletionException e) {
+    return e.getCause() instanceof RuntimeException cause ? cause : e;
+  }
+}
@@ -1,13 +1,22 @@
 package com.orderfulfillment.command.handlers.impl;
 
+import com.orderfulfillment.command.commands.AllocateInventoryBatchCommand;
 import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.BackorderInventoryCommand;
+import com.orderfulfillment.command.commands.ConfirmReservationCommand;
+import com.orderfulfillment.command.commands.ExpireReservationCommand;
+import com.orderfulfillment.command.commands.ReserveInventoryCommand;
 import com.orderfulfillment.command.commands.ReturnInventoryCommand;
 import com.orderfulfillment.command.commands.UpdateInventoryCommand;
 import com.orderfulfillment.command.domain.InventoryItem;
+import com.orderfulfillment.command.eventstore.ShardRouter;
 import com.orderfulfillment.command.exceptions.domain.InsufficientInventoryException;
 import com.orderfulfillment.command.exceptions.domain.ProductNotFoundException;
+import com.orderfulfillment.command.handlers.BatchItemResult;
 import com.orderfulfillment.command.handlers.InventoryCommandHandler;
 import com.orderfulfillment.command.repositories.InventoryRepository;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -16,9 +25,12 @@ import org.springframework.stereotype.Component;
 public class InventoryCommandHandlerImpl implements InventoryCommandHandler {
 
   private final InventoryRepository inventoryRepository;
+  private final ShardRouter shardRouter;
 
-  public InventoryCommandHandlerImpl(InventoryRepository inventoryRepository) {
+  public InventoryCommandHandlerImpl(
+      InventoryRepository inventoryRepository, ShardRouter shardRouter) {
     this.inventoryRepository = inventoryRepository;
+    this.shardRouter = shardRouter;
   }
 
   @Override
@@ -27,12 +39,20 @@ public class InventoryCommandHandlerImpl implements InventoryCommandHandler {
 
     InventoryItem inventoryItem;
 
-    try {
+    // New products are common during bulk imports, so they are detected through the product index
+    // rather than by catching ProductNotFoundException.
+    if (inventoryRepository.existsByProductId(command.productId())) {
       inventoryItem = inventoryRepository.findByProductId(command.productId());
       inventoryItem.updateQuantity(command.quantity());
-    } catch (ProductNotFoundException e) {
+    } else {
       log.info("No inventory found for product {}, creating new inventory", command.productId());
-      inventoryItem = InventoryItem.createNew(command.productId(), command.quantity());
+      // The item is given an ID in its product's shard, so its events are stored and published by
+      // the shard whose lane runs the product's commands.
+      inventoryItem =
+          InventoryItem.createNew(
+              shardRouter.newIdInShardOf(command.productId()),
+              command.productId(),
+              command.quantity());
     }
 
     inventoryRepository.save(inventoryItem);
@@ -69,6 +89,44 @@ public class InventoryCommandHandlerImpl implements InventoryCommandHandler {
     }
   }
 
+  @Override
+  public List<BatchItemResult> handle(AllocateInventoryBatchCommand command) {
+    log.info(
+        "Handling AllocateInventoryBatchCommand for product {} with {} allocations",
+        command.productId(),
+        command.allocations().size());
+
+    InventoryItem inventoryItem;
+    try {
+      inventoryItem = inventoryRepository.findByProductId(command.productId());
+    } catch (ProductNotFoundException e) {
+      log.error("Product not found when allocating inventory: {}", command.productId());
+      throw e;
+    }
+
+    List<BatchItemResult> results = new ArrayList<>(command.allocations().size());
+    int allocated = 0;
+    for (AllocateInventoryCommand allocation : command.allocations()) {
+      try {
+        inventoryItem.allocate(allocation.orderId(), allocation.quantity());
+        results.add(BatchItemResult.succeeded(allocation.orderId()));
+        allocated++;
+      } catch (InsufficientInventoryException | IllegalArgumentException e) {
+        results.add(BatchItemResult.failed(allocation.orderId(), e));
+      }
+    }
+
+    if (allocated > 0) {
+      inventoryRepository.save(inventoryItem);
+    }
+    log.info(
+        "Allocated {} of {} requested allocations of product {}",
+        allocated,
+        command.allocations().size(),
+        command.productId());
+    return results;
+  }
+
   @Override
   public void handle(ReturnInventoryCommand command) {
     log.info("Handling ReturnInventoryCommand: {}", command);
@@ -94,4 +152,60 @@ public class InventoryCommandHandlerImpl implements InventoryCommandHandler {
       throw e;
     }
   }
+
+  @Override
+  public void handle(ReserveInventoryCommand command) {
+    log.info("Handling ReserveInventoryCommand: {}", command);
+
+    InventoryItem inventoryItem = inventoryRepository.findByProductId(command.productId());
+    inventoryItem.reserve(command.reservationId(), command.quantity(), command.expiresAt());
+    inventoryRepository.save(inventoryItem);
+    log.info(
+        "Reserved {} units of product {} as {} until {}",
+        command.quantity(),
+        command.productId(),
+        command.reservationId(),
+        command.expiresAt());
+  }
+
+  @Override
+  public void handle(ConfirmReservationCommand command) {
+    log.info("Handling ConfirmReservationCommand: {}", command);
+
+    InventoryItem inventoryItem = inventoryRepository.findByProductId(command.productId());
+    inventoryItem.confirmReservation(command.reservationId(), command.orderId());
+    inventoryRepository.save(inventoryItem);
+    log.info(
+        "Confirmed reservation {} of product {} for order {}",
+        command.reservationId(),
+        command.productId(),
+        command.orderId());
+  }
+
+  @Override
+  public void handle(ExpireReservationCommand command) {
+    InventoryItem inventoryItem = inventoryRepository.findByProductId(command.productId());
+    if (inventoryItem.expireReservation(command.reservationId(), command.now())) {
+      inventoryRepository.save(inventoryItem);
+      log.info(
+          "Released expired reservation {} of product {}",
+          command.reservationId(),
+          command.productId());
+    }
+  }
+
+  @Override
+  public void handle(BackorderInventoryCommand command) {
+    log.info("Handling BackorderInventoryCommand: {}", command);
+
+    InventoryItem inventoryItem = inventoryRepository.findByProductId(command.productId());
+    inventoryItem.backorder(command.orderId(), command.quantity(), command.priority());
+    inventoryRepository.save(inventoryItem);
+    log.info(
+        "Backordered {} units of product {} for order {} with priority {}",
+        command.quantity(),
+        command.productId(),
+        command.orderId(),
+        command.priority());
+  }
 }
@@ -0,0 +1,376 @@
+package com.orderfulfillment.command.handlers.impl;
+
+import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.BackorderInventoryCommand;
+import com.orderfulfillment.command.commands.ConfirmReservationCommand;
+import com.orderfulfillment.command.commands.ExpireReservationCommand;
+import com.orderfulfillment.command.commands.ReserveInventoryCommand;
+import com.orderfulfillment.command.commands.ReturnInventoryCommand;
+import com.orderfulfillment.command.commands.UpdateInventoryCommand;
+import com.orderfulfillment.command.config.InventoryEscrowProperties;
+import com.orderfulfillment.command.dispatch.CommandLanes;
+import com.orderfulfillment.command.dispatch.EscrowBudget;
+import com.orderfulfillment.command.domain.InventoryItem;
+import com.orderfulfillment.command.exceptions.ConcurrencyException;
+import com.orderfulfillment.command.exceptions.domain.InsufficientInventoryException;
+import com.orderfulfillment.command.repositories.InventoryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Escrow allocation for the contended products listed in {@link InventoryEscrowProperties}.
+ *
+ * <p>Through the regular lane dispatch every allocation of a product loads, changes and saves its
+ * inventory item on the product's single lane, so a flash-sale product is limited to one store
+ * append at a time. In escrow, the available quantity of such a product is held in an {@link
+ * EscrowBudget} whose per-processor sub-budgets admit allocations with a compare-and-set on the
+ * caller's thread. Admitted changes are queued and written by a flush on the product's lane, which
+ * applies everything queued since the previous flush to the inventory item and stores the resulting
+ * {@code InventoryAllocated}, {@code InventoryReturned} and {@code InventoryUpdated} events with a
+ * single save. Callers are completed once their event is stored, as with the regular dispatch.
+ * After each flush the sub-budgets are rebalanced on the lane, away from the callers.
+ *
+ * <p>The budget never admits more than the item had available, and the item still applies its own
+ * rules when the flush replays the changes, so a product cannot be oversold even if the budget
+ * drifts from the stored state, for example because another instance wrote the same item. Changes
+ * the item rejects fail individually, and the budget is then reset from the stored state.
+ *
+ * <p>Reservations are admitted like allocations. The budget of a product is loaded from its
+ * inventory item on first use. Returns, expired reservations and quantity updates credit it only
+ * after they are stored, so stock is never admitted before it is durable. Stock that the item
+ * allocates to its backorders on such a change is never credited.
+ */
+@Slf4j
+@Component
+public class InventoryEscrow {
+  private final InventoryRepository inventoryRepository;
+  private final CommandLanes lanes;
+  private final Set<String> productIds;
+  private final int slots;
+  private final DistributionSummary flushedChanges;
+  private final Map<String, CompletableFuture<Account>> accounts = new ConcurrentHashMap<>();
+
+  public InventoryEscrow(
+      InventoryRepository inventoryRepository,
+      @Qualifier("inventoryCommandLanes") CommandLanes lanes,
+      InventoryEscrowProperties properties,
+      MeterRegistry meterRegistry) {
+    this.inventoryRepository = inventoryRepository;
+    this.lanes = lanes;
+    this.productIds = Set.copyOf(properties.getProductIds());
+    this.slots = properties.getSlots();
+    this.flushedChanges =
+        DistributionSummary.builder("inventory.escrow.flush.changes")
+            .description("Number of escrowed inventory changes stored with one save")
+            .register(meterRegistry);
+    if (!productIds.isEmpty()) {
+      log.info("Allocating products {} from escrow with {} slots", productIds, slots);
+    }
+  }
+
+  /**
+   * Checks whether allocations of a product go through escrow.
+   *
+   * @param productId the product identifier
+   * @return true if the product is configured for escrow
+   */
+  public boolean covers(String productId) {
+    return productIds.contains(productId);
+  }
+
+  /**
+   * Checks whether the budget of a product has been opened, so that every change of its inventory
+   * item must go through escrow to keep the budget in step.
+   *
+   * @param productId the product identifier
+   * @return true if the product has a budget
+   */
+  public boolean isOpen(String productId) {
+    return accounts.containsKey(productId);
+  }
+
+  /**
+   * Admits an allocation against the budget of its product and queues it to be stored.
+   *
+   * @param command the allocation
+   * @return a future completed when the allocation is stored, or failed with an {@link
+   *     InsufficientInventoryException} if the budget cannot cover it
+   */
+  public CompletableFuture<Void> allocate(AllocateInventoryCommand command) {
+    if (command.quantity() <= 0) {
+      return CompletableFuture.failedFuture(
+          new IllegalArgumentException("Allocation quantity must be positive"));
+    }
+
+    return admit(
+        command.productId(),
+        command.quantity(),
+        item -> item.allocate(command.orderId(), command.quantity()));
+  }
+
+  /**
+   * Admits a reservation against the budget of its product and queues it to be stored. The reserved
+   * quantity stays out of the budget until the reservation expires.
+   *
+   * @param command the reservation
+   * @return a future completed when the reservation is stored, or failed with an {@link
+   *     InsufficientInventoryException} if the budget cannot cover it
+   */
+  public CompletableFuture<Void> reserve(ReserveInventoryCommand command) {
+    if (command.quantity() <= 0) {
+      return CompletableFuture.failedFuture(
+          new IllegalArgumentException("Reservation quantity must be positive"));
+    }
+
+    return admit(
+        command.productId(),
+        command.quantity(),
+        item -> item.reserve(command.reservationId(), command.quantity(), command.expiresAt()));
+  }
+
+  /**
+   * Queues the confirmation of a reservation, which leaves the budget unchanged.
+   *
+   * @param command the confirmation
+   * @return a future completed when the confirmation is stored
+   */
+  public CompletableFuture<Void> confirm(ConfirmReservationCommand command) {
+    return account(command.productId())
+        .thenCompose(
+            account ->
+                account.enqueue(
+                    item -> item.confirmReservation(command.reservationId(), command.orderId()),
+                    0));
+  }
+
+  /**
+   * Queues the expiry of a reservation, whose quantity is credited to the budget once stored.
+   *
+   * @param command the expiry
+   * @return a future completed when the expiry is stored or found to have nothing to release
+   */
+  public CompletableFuture<Void> expire(ExpireReservationCommand command) {
+    return account(command.productId())
+        .thenCompose(
+            account ->
+                account.enqueue(
+                    item -> item.expireReservation(command.reservationId(), command.now()), 0));
+  }
+
+  /**
+   * Queues a backorder. Allocating it right away takes stock the budget may have admitted already,
+   * so the budget is then reset from the stored state.
+   *
+   * @param command the backorder
+   * @return a future completed when the backorder is stored
+   */
+  public CompletableFuture<Void> backorder(BackorderInventoryCommand command) {
+    return account(command.productId())
+        .thenCompose(
+            account ->
+                account.enqueue(
+                    item ->
+                        item.backorder(command.orderId(), command.quantity(), command.priority()),
+                    0));
+  }
+
+  /**
+   * Queues a return of allocated inventory, which is credited to the budget once stored.
+   *
+   * @param command the return
+   * @return a future completed when the return is stored
+   */
+  public CompletableFuture<Void> returnInventory(ReturnInventoryCommand command) {
+    return account(command.productId())
+        .thenCompose(
+            account ->
+                account.enqueue(
+                    item -> item.returnInventory(command.orderId(), command.quantity()), 0));
+  }
+
+  /**
+   * Queues a quantity update of a product whose budget is open, behind the changes already queued.
+   *
+   * @param command the update
+   * @return a future completed when the update is stored
+   */
+  public CompletableFuture<Void> update(UpdateInventoryCommand command) {
+    return account(command.productId())
+        .thenCompose(
+            account -> account.enqueue(item -> item.updateQuantity(command.quantity()), 0));
+  }
+
+  private CompletableFuture<Void> admit(
+      String productId, int quantity, Consumer<InventoryItem> apply) {
+    return account(productId)
+        .thenCompose(
+            account -> {
+              if (!account.budget.tryTake(quantity)) {
+                return CompletableFuture.failedFuture(
+                    new InsufficientInventoryException(
+                        productId, quantity, (int) account.budget.available()));
+              }
+              return account.enqueue(apply, quantity);
+            });
+  }
+
+  private CompletableFuture<Account> account(String productId) {
+    CompletableFuture<Account> account = accounts.computeIfAbsent(productId, this::open);
+    if (account.isCompletedExceptionally()) {
+      // A product that did not exist yet is looked up again on its next use.
+      accounts.remove(productId, account);
+    }
+    return account;
+  }
+
+  private CompletableFuture<Account> open(String productId) {
+    return lanes.callAsync(
+        productId,
+        () -> {
+          int available = inventoryRepository.findByProductId(productId).getAvailableQuantity();
+          log.info("Opened escrow for product {} with {} available", productId, available);
+          return new Account(productId, new EscrowBudget(slots, available));
+        });
+  }
+
+  /** Runs on the product's lane and stores everything queued for it with one save. */
+  private void flush(Account account) {
+    account.flushScheduled.set(false);
+    List<PendingChange> batch = new ArrayList<>();
+    for (PendingChange change; (change = account.queue.poll()) != null; ) {
+      batch.add(change);
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    InventoryItem item;
+    try {
+      item = inventoryRepository.findByProductId(account.productId);
+    } catch (RuntimeException e) {
+      fail(account, batch, e);
+      return;
+    }
+
+    List<PendingChange> applied = new ArrayList<>(batch.size());
+    long credit = 0;
+    boolean drifted = false;
+    for (PendingChange change : batch) {
+      int availableBefore = item.getAvailableQuantity();
+      try {
+        change.apply.accept(item);
+      } catch (RuntimeException e) {
+        // Only this change is rejected, for example a confirmation of an expired reservation; the
+        // rest of the batch is still stored.
+        drifted |= change.reserved > 0;
+        change.done.completeExceptionally(e);
+        continue;
+      }
+      applied.add(change);
+      credit += item.getAvailableQuantity() - availableBefore + change.reserved;
+    }
+
+    if (!item.getUncommittedChanges().isEmpty()) {
+      try {
+        inventoryRepository.save(item);
+      } catch (ConcurrencyException e) {
+        // Another writer moved the item on; the callers' retry policy admits the changes again.
+        try {
+          resync(account, inventoryRepository.findByProductId(account.productId));
+        } catch (RuntimeException reloadFailure) {
+          log.error("Failed to reload product {}", account.productId, reloadFailure);
+        }
+        applied.forEach(change -> change.done.completeExceptionally(e));
+        return;
+      } catch (RuntimeException e) {
+        fail(account, applied, e);
+        return;
+      }
+    }
+
+    flushedChanges.record(applied.size());
+    // A negative credit means stock left the item without being admitted, for example to
+    // backorders.
+    if (drifted || credit < 0) {
+      resync(account, item);
+    } else if (credit > 0) {
+      account.budget.put(credit);
+    }
+    account.budget.rebalance();
+    applied.forEach(change -> change.done.complete(null));
+  }
+
+  /** Fails changes that were not stored and gives their admitted quantities back to the budget. */
+  private void fail(Account account, List<PendingChange> changes, RuntimeException e) {
+    log.error("Failed to store escrowed changes of product {}", account.productId, e);
+    for (PendingChange change : changes) {
+      if (change.reserved > 0) {
+        account.budget.put(change.reserved);
+      }
+      change.done.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Resets a budget to the stored available quantity less what is admitted but still queued.
+   * Allocations admitted concurrently may be missed; the item rejects them if they do not fit.
+   */
+  private void resync(Account account, InventoryItem item) {
+    long queued = 0;
+    for (PendingChange change : account.queue) {
+      queued += change.reserved;
+    }
+    long available = Math.max(0, item.getAvailableQuantity() - queued);
+    log.warn(
+        "Escrow of product {} drifted from the stored state, resetting it to {}",
+        account.productId,
+        available);
+    account.budget.reset(available);
+  }
+
+  /** The budget of one product and the changes admitted against it that are not stored yet. */
+  private final class Account {
+    private final String productId;
+    private final EscrowBudget budget;
+    private final Queue<PendingChange> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private Account(String productId, EscrowBudget budget) {
+      this.productId = productId;
+      this.budget = budget;
+    }
+
+    private CompletableFuture<Void> enqueue(Consumer<InventoryItem> apply, long reserved) {
+      PendingChange change = new PendingChange(apply, reserved, new CompletableFuture<>());
+      queue.add(change);
+      // Changes queued while a flush is saving are picked up together by the next one.
+      if (flushScheduled.compareAndSet(false, true)) {
+        lanes.runAsync(productId, () -> flush(this));
+      }
+      return change.done;
+    }
+  }
+
+  /**
+   * A change admitted but not stored yet.
+   *
+   * @param apply applies the change to the inventory item
+   * @param reserved the quantity taken from the budget when the change was admitted
+   * @param done completed when the change is stored
+   */
+  private record PendingChange(
+      Consumer<InventoryItem> apply, long reserved, CompletableFuture<Void> done) {}
+}
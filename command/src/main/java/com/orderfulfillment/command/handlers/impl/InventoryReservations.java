@@ -0,0 +1,91 @@
+package com.orderfulfillment.command.handlers.impl;
+
+import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.ExpireReservationCommand;
+import com.orderfulfillment.command.commands.ReserveInventoryCommand;
+import com.orderfulfillment.command.commands.ReturnInventoryCommand;
+import com.orderfulfillment.command.handlers.AsyncInventoryCommandHandler;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+
+/** Releases stock held for orders that could not be created and returns that of cancelled ones. */
+@Slf4j
+final class InventoryReservations {
+
+  private InventoryReservations() {}
+
+  /**
+   * Returns allocations in parallel, each on the lane of its product, without waiting for them.
+   * Allocations that cannot be returned are logged and skipped.
+   *
+   * @param inventoryCommandHandler the handler the returns are submitted to
+   * @param allocations the allocations to return
+   * @return a future completed once every return has been handled, which never fails
+   */
+  static CompletableFuture<Void> releaseAll(
+      AsyncInventoryCommandHandler inventoryCommandHandler,
+      List<AllocateInventoryCommand> allocations) {
+    CompletableFuture<?>[] results = new CompletableFuture<?>[allocations.size()];
+    for (int i = 0; i < results.length; i++) {
+      AllocateInventoryCommand allocation = allocations.get(i);
+      results[i] =
+          inventoryCommandHandler
+              .submit(
+                  ReturnInventoryCommand.builder()
+                      .productId(allocation.productId())
+                      .orderId(allocation.orderId())
+                      .quantity(allocation.quantity())
+                      .build())
+              .exceptionally(
+                  failure -> {
+                    log.error(
+                        "Error releasing inventory for product {} of order {}: {}",
+                        allocation.productId(),
+                        allocation.orderId(),
+                        failure.getCause() != null
+                            ? failure.getCause().getMessage()
+                            : failure.getMessage());
+                    return null;
+                  });
+    }
+    return CompletableFuture.allOf(results);
+  }
+
+  /**
+   * Releases holds in parallel, each on the lane of its product, without waiting for them. A hold
+   * is released by expiring it at its own deadline. Holds that cannot be released are logged and
+   * left to expire.
+   *
+   * @param inventoryCommandHandler the handler the expiries are submitted to
+   * @param holds the holds to release
+   * @return a future completed once every release has been handled, which never fails
+   */
+  static CompletableFuture<Void> releaseHolds(
+      AsyncInventoryCommandHandler inventoryCommandHandler, List<ReserveInventoryCommand> holds) {
+    CompletableFuture<?>[] results = new CompletableFuture<?>[holds.size()];
+    for (int i = 0; i < results.length; i++) {
+      ReserveInventoryCommand hold = holds.get(i);
+      results[i] =
+          inventoryCommandHandler
+              .submit(
+                  ExpireReservationCommand.builder()
+                      .productId(hold.productId())
+                      .reservationId(hold.reservationId())
+                      .now(hold.expiresAt())
+                      .build())
+              .exceptionally(
+                  failure -> {
+                    log.error(
+                        "Error releasing hold {} of product {}: {}",
+                        hold.reservationId(),
+                        hold.productId(),
+                        failure.getCause() != null
+                            ? failure.getCause().getMessage()
+                            : failure.getMessage());
+                    return null;
+                  });
+    }
+    return CompletableFuture.allOf(results);
+  }
+}
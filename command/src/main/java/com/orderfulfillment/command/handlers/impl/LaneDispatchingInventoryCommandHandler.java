@@ -0,0 +1,259 @@
+package com.orderfulfillment.command.handlers.impl;
+
+import com.orderfulfillment.command.commands.AllocateInventoryBatchCommand;
+import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.BackorderInventoryCommand;
+import com.orderfulfillment.command.commands.ConfirmReservationCommand;
+import com.orderfulfillment.command.commands.ExpireReservationCommand;
+import com.orderfulfillment.command.commands.ReserveInventoryCommand;
+import com.orderfulfillment.command.commands.ReturnInventoryCommand;
+import com.orderfulfillment.command.commands.UpdateInventoryCommand;
+import com.orderfulfillment.command.dispatch.CommandLanes;
+import com.orderfulfillment.command.dispatch.CommandTimers;
+import com.orderfulfillment.command.dispatch.ConflictRetryPolicy;
+import com.orderfulfillment.command.handlers.AsyncInventoryCommandHandler;
+import com.orderfulfillment.command.handlers.BatchItemResult;
+import com.orderfulfillment.command.handlers.InventoryCommandHandler;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link InventoryCommandHandler} that runs every command on the inventory lane of its product.
+ *
+ * <p>Each product maps to a single inventory item, so keying by product ID serializes all commands
+ * for that item without locks or retries. Conflicts can still occur when another instance writes
+ * the same item; such commands are re-run by the {@link ConflictRetryPolicy}, which backs off on
+ * the calling thread and resubmits to the lane. The commands themselves are handled by {@link
+ * InventoryCommandHandlerImpl}.
+ *
+ * <p>The same dispatch is offered without blocking the caller through {@link
+ * AsyncInventoryCommandHandler}, which the {@code async-api} controllers use. There the retry
+ * policy backs off with a delayed resubmission instead of a sleep.
+ *
+ * <p>Products configured for escrow are allocated and reserved through {@link InventoryEscrow}
+ * instead, which admits them without queueing on the lane and stores them in batches. Once a
+ * product's escrow is open, every other change of its item goes through the escrow too, so that its
+ * budget follows the item.
+ */
+@Primary
+@Component
+public class LaneDispatchingInventoryCommandHandler
+    implements InventoryCommandHandler, AsyncInventoryCommandHandler {
+  private final InventoryCommandHandlerImpl delegate;
+  private final CommandLanes lanes;
+  private final ConflictRetryPolicy retryPolicy;
+  private final CommandTimers timers;
+  private final InventoryEscrow escrow;
+
+  public LaneDispatchingInventoryCommandHandler(
+      InventoryCommandHandlerImpl delegate,
+      @Qualifier("inventoryCommandLanes") CommandLanes lanes,
+      @Qualifier("inventoryRetryPolicy") ConflictRetryPolicy retryPolicy,
+      @Qualifier("inventoryCommandTimers") CommandTimers timers,
+      InventoryEscrow escrow) {
+    this.delegate = delegate;
+    this.lanes = lanes;
+    this.retryPolicy = retryPolicy;
+    this.timers = timers;
+    this.escrow = escrow;
+  }
+
+  @Override
+  public void handle(UpdateInventoryCommand command) {
+    if (escrow.isOpen(command.productId())) {
+      await(submit(command));
+      return;
+    }
+    dispatch(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public void handle(AllocateInventoryCommand command) {
+    if (escrow.covers(command.productId())) {
+      await(submit(command));
+      return;
+    }
+    dispatch(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public void handle(ReturnInventoryCommand command) {
+    if (escrow.covers(command.productId())) {
+      await(submit(command));
+      return;
+    }
+    dispatch(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public List<BatchItemResult> handle(AllocateInventoryBatchCommand command) {
+    if (escrow.covers(command.productId())) {
+      return await(submit(command));
+    }
+    return dispatchCall(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public CompletableFuture<Void> submit(UpdateInventoryCommand command) {
+    if (escrow.isOpen(command.productId())) {
+      return retryPolicy.callAsync(() -> escrow.update(command));
+    }
+    return dispatchAsync(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public CompletableFuture<Void> submit(AllocateInventoryCommand command) {
+    if (escrow.covers(command.productId())) {
+      return retryPolicy.callAsync(() -> escrow.allocate(command));
+    }
+    return dispatchAsync(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public CompletableFuture<Void> submit(ReturnInventoryCommand command) {
+    if (escrow.covers(command.productId())) {
+      return retryPolicy.callAsync(() -> escrow.returnInventory(command));
+    }
+    return dispatchAsync(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public CompletableFuture<List<BatchItemResult>> submit(AllocateInventoryBatchCommand command) {
+    if (escrow.covers(command.productId())) {
+      return allocateFromEscrow(command);
+    }
+    return dispatchCallAsync(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public void handle(ReserveInventoryCommand command) {
+    if (escrow.covers(command.productId())) {
+      await(submit(command));
+      return;
+    }
+    dispatch(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public void handle(ConfirmReservationCommand command) {
+    if (escrow.isOpen(command.productId())) {
+      await(submit(command));
+      return;
+    }
+    dispatch(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public void handle(ExpireReservationCommand command) {
+    if (escrow.isOpen(command.productId())) {
+      await(submit(command));
+      return;
+    }
+    dispatch(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public CompletableFuture<Void> submit(ReserveInventoryCommand command) {
+    if (escrow.covers(command.productId())) {
+      return retryPolicy.callAsync(() -> escrow.reserve(command));
+    }
+    return dispatchAsync(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public CompletableFuture<Void> submit(ConfirmReservationCommand command) {
+    if (escrow.isOpen(command.productId())) {
+      return retryPolicy.callAsync(() -> escrow.confirm(command));
+    }
+    return dispatchAsync(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public CompletableFuture<Void> submit(ExpireReservationCommand command) {
+    if (escrow.isOpen(command.productId())) {
+      return retryPolicy.callAsync(() -> escrow.expire(command));
+    }
+    return dispatchAsync(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public void handle(BackorderInventoryCommand command) {
+    if (escrow.isOpen(command.productId())) {
+      await(submit(command));
+      return;
+    }
+    dispatch(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public CompletableFuture<Void> submit(BackorderInventoryCommand command) {
+    if (escrow.isOpen(command.productId())) {
+      return retryPolicy.callAsync(() -> escrow.backorder(command));
+    }
+    return dispatchAsync(command.productId(), command, () -> delegate.handle(command));
+  }
+
+  /** Runs a command on the lane of its key, timed, and re-runs it when it conflicts. */
+  private void dispatch(String key, Object command, Runnable body) {
+    retryPolicy.run(() -> lanes.run(key, () -> timers.run(command, key, body)));
+  }
+
+  private <T> T dispatchCall(String key, Object command, Supplier<T> body) {
+    return retryPolicy.call(() -> lanes.call(key, () -> timers.call(command, key, body)));
+  }
+
+  /** Submits a command to the lane of its key as {@link #dispatch} runs it. */
+  private CompletableFuture<Void> dispatchAsync(String key, Object command, Runnable body) {
+    return retryPolicy.callAsync(() -> lanes.runAsync(key, () -> timers.run(command, key, body)));
+  }
+
+  private <T> CompletableFuture<T> dispatchCallAsync(String key, Object command, Supplier<T> body) {
+    return retryPolicy.callAsync(() -> lanes.callAsync(key, () -> timers.call(command, key, body)));
+  }
+
+  /** Admits each allocation of a batch separately; the escrow stores them together anyway. */
+  private CompletableFuture<List<BatchItemResult>> allocateFromEscrow(
+      AllocateInventoryBatchCommand command) {
+    List<CompletableFuture<BatchItemResult>> results =
+        command.allocations().stream()
+            .map(
+                allocation ->
+                    submit(allocation)
+                        .handle(
+                            (ignored, failure) ->
+                                failure == null
+                                    ? BatchItemResult.succeeded(allocation.orderId())
+                                    : BatchItemResult.failed(
+                                        allocation.orderId(), asRuntimeException(failure))))
+            .toList();
+    return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+        .thenApply(ignored -> results.stream().map(CompletableFuture::join).toList());
+  }
+
+  private static <T> T await(CompletableFuture<T> result) {
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      throw asRuntimeException(e);
+    }
+  }
+
+  private static RuntimeException asRuntimeException(Throwable failure) {
+    Throwable cause =
+        failure instanceof CompletionException && failure.getCause() != null
+            ? failure.getCause()
+            : failure;
+    if (cause instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    if (cause instanceof Error error) {
+      throw error;
+    }
+    return new CompletionException(cause);
+  }
+}
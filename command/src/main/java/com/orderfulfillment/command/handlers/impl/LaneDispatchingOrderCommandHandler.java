@@ -0,0 +1,129 @@
+package com.orderfulfillment.command.handlers.impl;
+
+import com.orderfulfillment.command.commands.CancelOrderCommand;
+import com.orderfulfillment.command.commands.CreateOrderCommand;
+import com.orderfulfillment.command.commands.UpdateOrderStatusCommand;
+import com.orderfulfillment.command.dispatch.CommandLanes;
+import com.orderfulfillment.command.dispatch.CommandTimers;
+import com.orderfulfillment.command.dispatch.ConflictRetryPolicy;
+import com.orderfulfillment.command.events.impl.EventIds;
+import com.orderfulfillment.command.handlers.AsyncOrderCommandHandler;
+import com.orderfulfillment.command.handlers.OrderCommandHandler;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link OrderCommandHandler} that runs every command on the order lane of its aggregate.
+ *
+ * <p>Every command is keyed by order ID. A creation that carries no order ID is given one before it
+ * is dispatched, so that the order is created on the lane of its own shard, the lane all its later
+ * commands run on. Inventory allocations and returns issued by the order commands run on the
+ * separate inventory lanes, and inventory commands never call back into orders, so the two lane
+ * groups cannot wait on each other in a cycle.
+ *
+ * <p>Status updates and cancellations that conflict with a write from another instance are re-run
+ * by the {@link ConflictRetryPolicy}. Order creation is not retried: a new order cannot conflict,
+ * and its inventory allocations are retried on their own lanes.
+ *
+ * <p>The same dispatch is offered without blocking the caller through {@link
+ * AsyncOrderCommandHandler}, which the {@code async-api} controllers use. No thread waits there for
+ * inventory: an order is created in two steps on its lane, holding the stock of its lines and then
+ * storing it once the inventory lanes have held them, and a cancellation completes once the
+ * inventory lanes have returned its lines. The lane is free for other orders in between. The
+ * blocking methods run the same steps in one go and wait for the inventory on the lane.
+ */
+@Primary
+@Component
+public class LaneDispatchingOrderCommandHandler
+    implements OrderCommandHandler, AsyncOrderCommandHandler {
+  private final OrderCommandHandlerImpl delegate;
+  private final CommandLanes lanes;
+  private final ConflictRetryPolicy retryPolicy;
+  private final CommandTimers timers;
+
+  public LaneDispatchingOrderCommandHandler(
+      OrderCommandHandlerImpl delegate,
+      @Qualifier("orderCommandLanes") CommandLanes lanes,
+      @Qualifier("orderRetryPolicy") ConflictRetryPolicy retryPolicy,
+      @Qualifier("orderCommandTimers") CommandTimers timers) {
+    this.delegate = delegate;
+    this.lanes = lanes;
+    this.retryPolicy = retryPolicy;
+    this.timers = timers;
+  }
+
+  @Override
+  public void handle(CreateOrderCommand command) {
+    CreateOrderCommand identified = withOrderId(command);
+    lanes.run(
+        identified.orderId(),
+        () -> timers.run(identified, identified.orderId(), () -> delegate.handle(identified)));
+  }
+
+  @Override
+  public void handle(UpdateOrderStatusCommand command) {
+    dispatch(command.orderId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public void handle(CancelOrderCommand command) {
+    dispatch(command.orderId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public CompletableFuture<Void> submit(CreateOrderCommand command) {
+    CreateOrderCommand identified = withOrderId(command);
+    String orderId = identified.orderId();
+    return timers.callAsync(
+        identified,
+        orderId,
+        () ->
+            lanes
+                .callAsync(orderId, () -> delegate.reserve(identified))
+                .thenCompose(Function.identity())
+                .thenCompose(
+                    reserved ->
+                        lanes
+                            .callAsync(orderId, () -> delegate.save(reserved))
+                            .thenCompose(Function.identity())));
+  }
+
+  @Override
+  public CompletableFuture<Void> submit(UpdateOrderStatusCommand command) {
+    return dispatchAsync(command.orderId(), command, () -> delegate.handle(command));
+  }
+
+  @Override
+  public CompletableFuture<Void> submit(CancelOrderCommand command) {
+    return retryPolicy.callAsync(
+        () ->
+            lanes
+                .callAsync(
+                    command.orderId(),
+                    () ->
+                        timers.callAsync(
+                            command, command.orderId(), () -> delegate.cancel(command)))
+                .thenCompose(Function.identity()));
+  }
+
+  /** Gives a creation without an order ID a new one, so that it can be routed by it. */
+  private static CreateOrderCommand withOrderId(CreateOrderCommand command) {
+    if (command.orderId() != null) {
+      return command;
+    }
+    return command.toBuilder().orderId(EventIds.next()).build();
+  }
+
+  /** Runs a command on the lane of its key, timed, and re-runs it when it conflicts. */
+  private void dispatch(String key, Object command, Runnable body) {
+    retryPolicy.run(() -> lanes.run(key, () -> timers.run(command, key, body)));
+  }
+
+  /** Submits a command to the lane of its key as {@link #dispatch} runs it. */
+  private CompletableFuture<Void> dispatchAsync(String key, Object command, Runnable body) {
+    return retryPolicy.callAsync(() -> lanes.runAsync(key, () -> timers.run(command, key, body)));
+  }
+}
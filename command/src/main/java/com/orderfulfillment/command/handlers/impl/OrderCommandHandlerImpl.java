@@ -1,70 +1,69 @@
 package com.orderfulfillment.command.handlers.impl;
 
 import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.BackorderInventoryCommand;
 import com.orderfulfillment.command.commands.CancelOrderCommand;
+import com.orderfulfillment.command.commands.ConfirmReservationCommand;
 import com.orderfulfillment.command.commands.CreateOrderCommand;
-import com.orderfulfillment.command.commands.ReturnInventoryCommand;
+import com.orderfulfillment.command.commands.ReserveInventoryCommand;
 import com.orderfulfillment.command.commands.UpdateOrderStatusCommand;
+import com.orderfulfillment.command.config.InventoryReservationProperties;
 import com.orderfulfillment.command.domain.Order;
 import com.orderfulfillment.command.domain.OrderItem;
 import com.orderfulfillment.command.exceptions.domain.DomainRuleViolationException;
 import com.orderfulfillment.command.exceptions.domain.InsufficientInventoryException;
 import com.orderfulfillment.command.exceptions.domain.OrderNotFoundException;
-import com.orderfulfillment.command.handlers.InventoryCommandHandler;
+import com.orderfulfillment.command.handlers.AsyncInventoryCommandHandler;
 import com.orderfulfillment.command.handlers.OrderCommandHandler;
 import com.orderfulfillment.command.repositories.OrderRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+/**
+ * Handles order commands.
+ *
+ * <p>Creating and cancelling an order involve inventory commands on the lanes of the products, so
+ * both are built as futures that never wait for them: {@link #reserve} holds the stock of every
+ * line for {@code inventory-reservations.order-hold-ttl} and completes once every line is held,
+ * {@link #save} then stores the order and confirms the holds as allocations to it, and {@link
+ * #cancel} stores the cancellation and completes once the inventory has been returned. The blocking
+ * {@code handle} methods wait for these futures, while {@link LaneDispatchingOrderCommandHandler}
+ * chains them on the order lanes for the asynchronous endpoints.
+ *
+ * <p>Nothing is allocated before the order is stored, so no allocation is ever published for an
+ * order that does not exist. Holds of an order that fails are released right away, and holds left
+ * behind by a crash before the order was stored expire by themselves. A crash after the order was
+ * stored but before its holds were confirmed leaves those lines unallocated once the holds expire.
+ */
 @Slf4j
 @Component
 public class OrderCommandHandlerImpl implements OrderCommandHandler {
   private final OrderRepository orderRepository;
-  private final InventoryCommandHandler inventoryCommandHandler;
+  private final AsyncInventoryCommandHandler inventoryCommandHandler;
+  private final Duration holdTtl;
+  private final Clock clock;
 
   public OrderCommandHandlerImpl(
-      OrderRepository orderRepository, InventoryCommandHandler inventoryCommandHandler) {
+      OrderRepository orderRepository,
+      AsyncInventoryCommandHandler inventoryCommandHandler,
+      InventoryReservationProperties reservationProperties) {
     this.orderRepository = orderRepository;
     this.inventoryCommandHandler = inventoryCommandHandler;
+    this.holdTtl = reservationProperties.getOrderHoldTtl();
+    this.clock = Clock.systemUTC();
   }
 
   @Override
   public void handle(CreateOrderCommand command) {
-    log.info("Handling CreateOrderCommand: {}", command);
-
-    Order order =
-        Order.createNew(
-            command.customerId(),
-            command.items(),
-            command.shippingAddress(),
-            command.billingAddress(),
-            command.totalCost());
-
-    orderRepository.save(order);
-    log.info("Order created with ID: {}", order.getId());
-
-    for (OrderItem item : command.items()) {
-      try {
-        inventoryCommandHandler.handle(
-            AllocateInventoryCommand.builder()
-                .productId(item.getProductId())
-                .orderId(order.getId())
-                .quantity(item.getQuantity())
-                .build());
-
-        log.info(
-            "Allocated {} units of product {} to order {}",
-            item.getQuantity(),
-            item.getProductId(),
-            order.getId());
-      } catch (InsufficientInventoryException e) {
-        log.warn(
-            "Insufficient inventory for product {}: requested {}, available {}",
-            e.getProductId(),
-            e.getRequested(),
-            e.getAvailable());
-      }
-    }
+    await(save(await(reserve(command))));
   }
 
   @Override
@@ -91,6 +90,156 @@ public class OrderCommandHandlerImpl implements OrderCommandHandler {
 
   @Override
   public void handle(CancelOrderCommand command) {
+    await(cancel(command));
+  }
+
+  /**
+   * Builds a new order and holds the stock of all of its lines at once, each on the lane of its
+   * product, without waiting for them.
+   *
+   * <p>If any line fails, the lines that are held are released again and the future fails with the
+   * first failure, so an order is either held in full or not at all. If the order allows
+   * backorders, lines that fail for lack of stock are backordered once the order is stored instead.
+   *
+   * @param command the command to create the order
+   * @return a future of the order with its held lines, to be stored with {@link #save}
+   */
+  CompletableFuture<ReservedOrder> reserve(CreateOrderCommand command) {
+    log.info("Handling CreateOrderCommand: {}", command);
+
+    Order order =
+        Order.createNew(
+            command.orderId(),
+            command.customerId(),
+            command.items(),
+            command.shippingAddress(),
+            command.billingAddress(),
+            command.totalCost());
+
+    Instant expiresAt = clock.instant().plus(holdTtl);
+    List<OrderItem> items = order.getItems();
+    List<ReserveInventoryCommand> holds = new ArrayList<>(items.size());
+    for (int i = 0; i < items.size(); i++) {
+      holds.add(
+          ReserveInventoryCommand.builder()
+              .productId(items.get(i).getProductId())
+              .reservationId(order.getId() + "-" + i)
+              .quantity(items.get(i).getQuantity())
+              .expiresAt(expiresAt)
+              .build());
+    }
+    List<CompletableFuture<Void>> results =
+        holds.stream().map(inventoryCommandHandler::submit).toList();
+
+    return allDone(results)
+        .thenCompose(
+            done -> {
+              List<ReserveInventoryCommand> held = new ArrayList<>(holds.size());
+              List<BackorderInventoryCommand> backorders = new ArrayList<>();
+              RuntimeException failure = null;
+              for (int i = 0; i < holds.size(); i++) {
+                ReserveInventoryCommand hold = holds.get(i);
+                RuntimeException cause = failureOf(results.get(i));
+                if (cause == null) {
+                  held.add(hold);
+                } else if (command.allowBackorder()
+                    && cause instanceof InsufficientInventoryException) {
+                  backorders.add(
+                      BackorderInventoryCommand.builder()
+                          .productId(hold.productId())
+                          .orderId(order.getId())
+                          .quantity(hold.quantity())
+                          .priority(command.priority())
+                          .build());
+                } else {
+                  failure = combine(failure, cause);
+                }
+              }
+
+              if (failure == null) {
+                return CompletableFuture.completedFuture(
+                    new ReservedOrder(order, held, backorders));
+              }
+              RuntimeException lineFailure = failure;
+              log.warn(
+                  "Holding stock for order {} failed, releasing {} of {} lines: {}",
+                  order.getId(),
+                  held.size(),
+                  holds.size(),
+                  lineFailure.getMessage());
+              return InventoryReservations.releaseHolds(inventoryCommandHandler, held)
+                  .thenCompose(released -> CompletableFuture.failedFuture(lineFailure));
+            });
+  }
+
+  /**
+   * Stores an order whose lines are held, then allocates the holds to it and backorders the lines
+   * that lack stock, without waiting for them. If the order cannot be stored, its holds are
+   * released again.
+   *
+   * <p>Lines that fail to be confirmed or backordered once the order is stored are logged; the
+   * order is kept, and a hold that could not be confirmed expires.
+   *
+   * @param reservedOrder the order returned by {@link #reserve}
+   * @return a future completed once the lines are allocated or backordered, or failed once the
+   *     holds are released
+   */
+  CompletableFuture<Void> save(ReservedOrder reservedOrder) {
+    Order order = reservedOrder.order();
+    try {
+      orderRepository.save(order);
+    } catch (RuntimeException e) {
+      return InventoryReservations.releaseHolds(inventoryCommandHandler, reservedOrder.holds())
+          .thenCompose(released -> CompletableFuture.failedFuture(e));
+    }
+
+    List<String> productIds = new ArrayList<>();
+    List<CompletableFuture<Void>> results = new ArrayList<>();
+    for (ReserveInventoryCommand hold : reservedOrder.holds()) {
+      productIds.add(hold.productId());
+      results.add(
+          inventoryCommandHandler.submit(
+              ConfirmReservationCommand.builder()
+                  .productId(hold.productId())
+                  .reservationId(hold.reservationId())
+                  .orderId(order.getId())
+                  .build()));
+    }
+    for (BackorderInventoryCommand backorder : reservedOrder.backorders()) {
+      productIds.add(backorder.productId());
+      results.add(inventoryCommandHandler.submit(backorder));
+    }
+    return allDone(results)
+        .thenRun(
+            () -> {
+              for (int i = 0; i < results.size(); i++) {
+                RuntimeException cause = failureOf(results.get(i));
+                if (cause != null) {
+                  log.error(
+                      "Order {} was stored but its line of product {} was not allocated: {}",
+                      order.getId(),
+                      productIds.get(i),
+                      cause.getMessage());
+                }
+              }
+              log.info(
+                  "Order created with ID: {}, {} lines allocated, {} backordered",
+                  order.getId(),
+                  reservedOrder.holds().size(),
+                  reservedOrder.backorders().size());
+            });
+  }
+
+  /**
+   * Cancels an order and returns its inventory, each line on the lane of its product, without
+   * waiting for the returns. Lines whose inventory cannot be returned are logged and skipped.
+   *
+   * @param command the command to cancel the order
+   * @return a future completed once the inventory of every line has been returned
+   * @throws OrderNotFoundException if the order does not exist
+   * @throws DomainRuleViolationException if the order can no longer be cancelled
+   */
+  CompletableFuture<Void> cancel(CancelOrderCommand command) {
     log.info("Handling CancelOrderCommand: {}", command);
 
     Order order;
@@ -105,29 +254,82 @@ public class OrderCommandHandlerImpl implements OrderCommandHandler {
       order.cancel();
       orderRepository.save(order);
       log.info("Order cancelled: {}", command.orderId());
-
-      for (OrderItem item : order.getItems()) {
-        try {
-          inventoryCommandHandler.handle(
-              ReturnInventoryCommand.builder()
-                  .productId(item.getProductId())
-                  .orderId(order.getId())
-                  .quantity(item.getQuantity())
-                  .build());
-
-          log.info(
-              "Returned {} units of product {} from cancelled order {}",
-              item.getQuantity(),
-              item.getProductId(),
-              order.getId());
-        } catch (Exception e) {
-          log.error(
-              "Error returning inventory for product {}: {}", item.getProductId(), e.getMessage());
-        }
-      }
     } catch (DomainRuleViolationException e) {
       log.error("Domain rule violation when cancelling order: {}", e.getMessage());
       throw e;
     }
+
+    List<AllocateInventoryCommand> lines =
+        order.getItems().stream()
+            .map(
+                item ->
+                    AllocateInventoryCommand.builder()
+                        .productId(item.getProductId())
+                        .orderId(order.getId())
+                        .quantity(item.getQuantity())
+                        .build())
+            .toList();
+    return InventoryReservations.releaseAll(inventoryCommandHandler, lines)
+        .thenRun(
+            () ->
+                log.info(
+                    "Returned inventory of {} lines from cancelled order {}",
+                    lines.size(),
+                    order.getId()));
   }
+
+  /** Completes once every future has completed, whether or not it failed. */
+  private static CompletableFuture<Void> allDone(List<CompletableFuture<Void>> results) {
+    return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+        .handle((ignored, failure) -> null);
+  }
+
+  /** Gets the failure of a completed future, or null if it succeeded. */
+  private static RuntimeException failureOf(CompletableFuture<?> result) {
+    if (!result.isCompletedExceptionally()) {
+      return null;
+    }
+    try {
+      result.join();
+      return null;
+    } catch (CompletionException e) {
+      return unwrap(e);
+    } catch (CancellationException e) {
+      return e;
+    }
+  }
+
+  private static <T> T await(CompletableFuture<T> result) {
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      throw unwrap(e);
+    }
+  }
+
+  private static RuntimeException unwrap(CompletionException e) {
+    return e.getCause() instanceof RuntimeException cause ? cause : e;
+  }
+
+  private static RuntimeException combine(RuntimeException failure, RuntimeException cause) {
+    if (failure == null) {
+      return cause;
+    }
+    if (failure != cause) {
+      failure.addSuppressed(cause);
+    }
+    return failure;
+  }
+
+  /**
+   * A new order whose lines are held but which is not stored yet.
+   *
+   * @param order the new order
+   * @param holds the holds of the lines that had stock
+   * @param backorders the backorders of the lines that lack stock, made once the order is stored
+   */
+  record ReservedOrder(
+      Order order,
+      List<ReserveInventoryCommand> holds,
+      List<BackorderInventoryCommand> backorders) {}
 }
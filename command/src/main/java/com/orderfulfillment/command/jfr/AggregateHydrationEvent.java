@@ -0,0 +1,54 @@
+package com.orderfulfillment.command.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight recorder event spanning the load of an aggregate from the cache or its history. */
+@Name("com.orderfulfillment.AggregateHydration")
+@Label("Aggregate Hydration")
+@Category({"Order Fulfillment", "Event Store"})
+@Description("Load of an aggregate from the cache, or from its snapshot and events")
+@StackTrace(false)
+public class AggregateHydrationEvent extends jdk.jfr.Event {
+  @Label("Aggregate Type")
+  String aggregateType;
+
+  @Label("Aggregate ID")
+  String aggregateId;
+
+  @Label("Source")
+  @Description("cache, snapshot or events")
+  String source;
+
+  @Label("Event Count")
+  @Description("Events applied to rebuild the aggregate")
+  int eventCount;
+
+  @Label("Outcome")
+  String outcome;
+
+  /**
+   * Ends the load and commits the event if it is enabled and above its threshold.
+   *
+   * @param aggregateType the type of the aggregate
+   * @param aggregateId the unique identifier of the aggregate
+   * @param source {@code cache}, {@code snapshot} or {@code events}
+   * @param eventCount the number of events applied
+   * @param outcome {@code found}, {@code missing} or {@code failure}
+   */
+  public void complete(
+      String aggregateType, String aggregateId, String source, int eventCount, String outcome) {
+    end();
+    if (shouldCommit()) {
+      this.aggregateType = aggregateType;
+      this.aggregateId = aggregateId;
+      this.source = source;
+      this.eventCount = eventCount;
+      this.outcome = outcome;
+      commit();
+    }
+  }
+}
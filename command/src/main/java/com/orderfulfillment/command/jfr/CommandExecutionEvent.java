@@ -0,0 +1,125 @@
+package com.orderfulfillment.command.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning the execution of a command by its handler.
+ *
+ * <p>The event counts the events saved on its thread while it runs, so repository saves report into
+ * the command they belong to through {@link #recordSaved(int)}. Only commands whose event is
+ * enabled are tracked, so nothing is kept per thread while no recording is running.
+ */
+@Name("com.orderfulfillment.CommandExecution")
+@Label("Command Execution")
+@Category({"Order Fulfillment", "Commands"})
+@Description("Execution of a command by its handler, from loading the aggregate to saving it")
+@StackTrace(false)
+public class CommandExecutionEvent extends jdk.jfr.Event {
+  private static final ThreadLocal<CommandExecutionEvent> CURRENT = new ThreadLocal<>();
+
+  @Label("Command")
+  String command;
+
+  @Label("Aggregate Type")
+  String aggregateType;
+
+  @Label("Key")
+  @Description("Order ID or product ID the command applies to")
+  String key;
+
+  @Label("Event Count")
+  @Description("Events saved by the command")
+  int eventCount;
+
+  @Label("Outcome")
+  String outcome;
+
+  // Transient fields are not recorded.
+  private transient boolean tracked;
+
+  /**
+   * Starts timing a command on the current thread.
+   *
+   * @return the event of the command that was running on this thread before, or null
+   */
+  public CommandExecutionEvent start() {
+    begin();
+    if (!isEnabled()) {
+      return null;
+    }
+    CommandExecutionEvent outer = CURRENT.get();
+    CURRENT.set(this);
+    tracked = true;
+    return outer;
+  }
+
+  /**
+   * Ends the command and commits the event if it is enabled and above its threshold.
+   *
+   * @param outer the event returned by {@link #start()}
+   * @param command the simple class name of the command
+   * @param aggregateType the type of the aggregate the command applies to
+   * @param key the order ID or product ID the command applies to
+   * @param outcome {@code success} or {@code failure}
+   */
+  public void complete(
+      CommandExecutionEvent outer,
+      String command,
+      String aggregateType,
+      String key,
+      String outcome) {
+    end();
+    if (!tracked) {
+      return;
+    }
+    if (outer != null) {
+      CURRENT.set(outer);
+    } else {
+      CURRENT.remove();
+    }
+    if (shouldCommit()) {
+      this.command = command;
+      this.aggregateType = aggregateType;
+      this.key = key;
+      this.outcome = outcome;
+      commit();
+    }
+  }
+
+  /**
+   * Ends a command that was started with {@link #begin()} rather than {@link #start()}, on any
+   * thread, and commits the event if it is enabled and above its threshold. Such commands span
+   * several threads, so they are not tracked on one and count no saved events.
+   *
+   * @param command the simple class name of the command
+   * @param aggregateType the type of the aggregate the command applies to
+   * @param key the order ID or product ID the command applies to
+   * @param outcome {@code success} or {@code failure}
+   */
+  public void completeDetached(String command, String aggregateType, String key, String outcome) {
+    end();
+    if (shouldCommit()) {
+      this.command = command;
+      this.aggregateType = aggregateType;
+      this.key = key;
+      this.outcome = outcome;
+      commit();
+    }
+  }
+
+  /**
+   * Adds saved events to the command running on the current thread, if it is being recorded.
+   *
+   * @param events the number of events saved
+   */
+  public static void recordSaved(int events) {
+    CommandExecutionEvent current = CURRENT.get();
+    if (current != null) {
+      current.eventCount += events;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.orderfulfillment.command.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight recorder event spanning the publication of an outbox batch to Kafka. */
+@Name("com.orderfulfillment.OutboxPublish")
+@Label("Outbox Publish")
+@Category({"Order Fulfillment", "Kafka"})
+@Description("Publication of a batch of stored events until Kafka acknowledged all of it")
+@StackTrace(false)
+public class OutboxPublishEvent extends jdk.jfr.Event {
+  @Label("Aggregate Type")
+  String aggregateType;
+
+  @Label("Topic")
+  String topic;
+
+  @Label("Event Count")
+  @Description("Events in the batch")
+  int eventCount;
+
+  @Label("Outcome")
+  String outcome;
+
+  /**
+   * Ends the publication and commits the event if it is enabled and above its threshold.
+   *
+   * @param aggregateType the type of the aggregates whose events were published
+   * @param topic the topic the batch was sent to
+   * @param eventCount the number of events in the batch
+   * @param outcome {@code success} or {@code failure}
+   */
+  public void complete(String aggregateType, String topic, int eventCount, String outcome) {
+    end();
+    if (shouldCommit()) {
+      this.aggregateType = aggregateType;
+      this.topic = topic;
+      this.eventCount = eventCount;
+      this.outcome = outcome;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.orderfulfillment.command.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning the save of an aggregate, from the append to the event store to
+ * the update of the cache and projections.
+ */
+@Name("com.orderfulfillment.RepositorySave")
+@Label("Repository Save")
+@Category({"Order Fulfillment", "Event Store"})
+@Description("Save of the uncommitted events of an aggregate")
+@StackTrace(false)
+public class RepositorySaveEvent extends jdk.jfr.Event {
+  @Label("Aggregate Type")
+  String aggregateType;
+
+  @Label("Aggregate ID")
+  String aggregateId;
+
+  @Label("Event Count")
+  @Description("Events appended")
+  int eventCount;
+
+  @Label("Outcome")
+  String outcome;
+
+  /**
+   * Ends the save and commits the event if it is enabled and above its threshold. Successful saves
+   * are also added to the {@link CommandExecutionEvent} running on the current thread.
+   *
+   * @param aggregateType the type of the aggregate
+   * @param aggregateId the unique identifier of the aggregate
+   * @param eventCount the number of events saved
+   * @param outcome {@code success}, {@code conflict} or {@code failure}
+   */
+  public void complete(String aggregateType, String aggregateId, int eventCount, String outcome) {
+    end();
+    if ("success".equals(outcome)) {
+      CommandExecutionEvent.recordSaved(eventCount);
+    }
+    if (shouldCommit()) {
+      this.aggregateType = aggregateType;
+      this.aggregateId = aggregateId;
+      this.eventCount = eventCount;
+      this.outcome = outcome;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.orderfulfillment.command.outbox;
+
+/**
+ * Wire format of the events published to a topic.
+ *
+ * <ul>
+ *   <li>{@code JSON} – an {@link com.orderfulfillment.command.domain.EventMessage} in JSON with
+ *       type headers, readable by every consumer
+ *   <li>{@code BINARY} – the compact layout of {@link
+ *       com.orderfulfillment.command.eventstore.impl.BinaryEventSerializer}, for consumers that
+ *       decode it
+ * </ul>
+ */
+public enum EventFormat {
+  JSON,
+  BINARY
+}
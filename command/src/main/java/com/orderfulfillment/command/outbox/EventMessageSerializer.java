@@ -0,0 +1,138 @@
+package com.orderfulfillment.command.outbox;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.orderfulfillment.command.domain.EventMessage;
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.impl.EventTimestamps;
+import com.orderfulfillment.command.eventstore.impl.BinaryEventSerializer;
+import com.orderfulfillment.command.utils.Constants;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * Kafka value serializer that encodes events in the {@link EventFormat} configured for their topic.
+ *
+ * <p>Events bound for a {@code JSON} topic are written in the layout of an {@link EventMessage},
+ * with the type header the {@link JsonSerializer} would add for one, but straight from the event
+ * without building the message first. The payload is written with the same Jackson configuration
+ * the {@link JsonSerializer} uses by default and the timestamp is written by {@link
+ * EventTimestamps#format}, which always includes the seconds. Events bound for a {@code BINARY}
+ * topic are written by the {@link BinaryEventSerializer}. Values other than events are always
+ * written by the {@link JsonSerializer}.
+ *
+ * <p>Records of events in either format carry the version of the aggregate before the event, in
+ * decimal, in the {@value Constants#EVENT_VERSION_HEADER} header. It lets the bootstrap replay
+ * recognise events the outbox published more than once.
+ */
+public class EventMessageSerializer implements Serializer<Object> {
+  private final JsonSerializer<Object> jsonSerializer;
+  private final BinaryEventSerializer binarySerializer = new BinaryEventSerializer();
+  private final ObjectWriter writer;
+  private final JavaType messageType;
+  private final Map<String, EventFormat> topicFormats;
+  private final EventFormat defaultFormat;
+
+  /**
+   * Creates a serializer.
+   *
+   * @param jsonSerializer the serializer used for non-event values, whose type mapper also adds the
+   *     type header of events on {@code JSON} topics
+   * @param topicFormats the format of each topic that does not use the default
+   * @param defaultFormat the format of all other topics
+   */
+  public EventMessageSerializer(
+      JsonSerializer<Object> jsonSerializer,
+      Map<String, EventFormat> topicFormats,
+      EventFormat defaultFormat) {
+    this.jsonSerializer = jsonSerializer;
+    ObjectMapper objectMapper =
+        JacksonUtils.enhancedObjectMapper()
+            .registerModule(new SimpleModule().addSerializer(new EnvelopeSerializer()));
+    this.writer = objectMapper.writerFor(Event.class);
+    this.messageType = objectMapper.constructType(EventMessage.class);
+    this.topicFormats = Map.copyOf(topicFormats);
+    this.defaultFormat = defaultFormat;
+  }
+
+  @Override
+  public void configure(Map<String, ?> configs, boolean isKey) {
+    jsonSerializer.configure(configs, isKey);
+  }
+
+  @Override
+  public byte[] serialize(String topic, Object data) {
+    return serialize(topic, null, data);
+  }
+
+  @Override
+  public byte[] serialize(String topic, Headers headers, Object data) {
+    if (!(data instanceof Event<?> event)) {
+      return jsonSerializer.serialize(topic, headers, data);
+    }
+    if (headers != null) {
+      headers
+          .remove(Constants.EVENT_VERSION_HEADER)
+          .add(
+              Constants.EVENT_VERSION_HEADER,
+              Long.toString(event.getVersion()).getBytes(StandardCharsets.US_ASCII));
+    }
+    if (topicFormats.getOrDefault(topic, defaultFormat) == EventFormat.BINARY) {
+      return binarySerializer.serialize(event);
+    }
+    if (headers != null && jsonSerializer.isAddTypeInfo()) {
+      jsonSerializer.getTypeMapper().fromJavaType(messageType, headers);
+    }
+    return writeJson(topic, event);
+  }
+
+  @Override
+  public void close() {
+    jsonSerializer.close();
+  }
+
+  private byte[] writeJson(String topic, Event<?> event) {
+    try {
+      return writer.writeValueAsBytes(event);
+    } catch (IOException e) {
+      throw new SerializationException(
+          "Can't serialize event " + event.getEventId() + " for topic " + topic, e);
+    }
+  }
+
+  /** Writes an event in the layout of an {@link EventMessage}. */
+  @SuppressWarnings("rawtypes")
+  private static class EnvelopeSerializer extends StdSerializer<Event> {
+    EnvelopeSerializer() {
+      super(Event.class);
+    }
+
+    @Override
+    public void serialize(Event event, JsonGenerator generator, SerializerProvider provider)
+        throws IOException {
+      char[] timestamp = new char[EventTimestamps.MAX_LENGTH];
+      int timestampLength = EventTimestamps.format(event.getTimestampNanos(), timestamp);
+      generator.writeStartObject();
+      generator.writeStringField("eventId", event.getEventId());
+      generator.writeStringField("eventType", event.getEventType());
+      generator.writeStringField("aggregateId", event.getAggregateId());
+      generator.writeStringField("aggregateType", event.getAggregateType());
+      generator.writeFieldName("timestamp");
+      generator.writeString(timestamp, 0, timestampLength);
+      generator.writeFieldName("payload");
+      provider.defaultSerializeValue(event.getPayload(), generator);
+      generator.writeEndObject();
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.orderfulfillment.command.outbox;
+
+/**
+ * Durable record of how far the outbox relay has published the global log of an event store.
+ *
+ * <p>The checkpoint is only advanced after Kafka has acknowledged every event before it, so after a
+ * crash the relay resumes at the checkpoint and at worst publishes some events a second time.
+ */
+public interface OutboxCheckpoint {
+
+  /**
+   * Loads the acknowledged position.
+   *
+   * @return the global position of the first event not yet acknowledged, or 0 if none was stored
+   */
+  long load();
+
+  /**
+   * Stores the acknowledged position.
+   *
+   * @param position the global position of the first event not yet acknowledged
+   */
+  void save(long position);
+}
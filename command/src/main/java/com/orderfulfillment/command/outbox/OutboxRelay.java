@@ -0,0 +1,325 @@
+package com.orderfulfillment.command.outbox;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.eventstore.EventLog;
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.eventstore.StoredEvent;
+import com.orderfulfillment.command.eventstore.impl.ShardedEventStore;
+import com.orderfulfillment.command.jfr.OutboxPublishEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * Publishes the global log of an event store to a Kafka topic in the background.
+ *
+ * <p>The event store is the outbox: a save only appends its events locally and signals the relay,
+ * so request threads never wait for the broker. The relay reads the log from its checkpoint in
+ * batches, sends a whole batch without waiting between records, and only advances the checkpoint
+ * once Kafka has acknowledged all of it. A failed batch is retried from the checkpoint after a
+ * jittered exponential backoff, so delivery is at least once. Events are sent in log order with the
+ * aggregate ID as key, which keeps the events of each aggregate in order within their partition.
+ * The events are handed to the template as they are; the {@link EventMessageSerializer} encodes
+ * them in the format configured for the topic.
+ *
+ * <p>A {@link ShardedEventStore} is published by one publisher thread per shard, each following the
+ * log of its shard from its own checkpoint and sending only to the partition with the shard's
+ * index. The shards route aggregates with the hash of the producer's partitioner, so the events of
+ * an aggregate go to the same partition as before, without any coordination between shards.
+ *
+ * <p>The relay publishes the {@code outbox.lag} gauge (events appended but not yet acknowledged),
+ * the {@code outbox.published} and {@code outbox.failures} counters and the {@code outbox.batch}
+ * timer, all tagged with the topic. Every batch is also an {@link OutboxPublishEvent} for the
+ * flight recorder.
+ */
+@Slf4j
+public class OutboxRelay implements AutoCloseable {
+  private final KafkaTemplate<String, Object> kafkaTemplate;
+  private final String topic;
+  private final int batchSize;
+  private final long pollIntervalNanos;
+  private final long sendTimeoutNanos;
+  private final long initialBackoffNanos;
+  private final long maxBackoffNanos;
+  private final Counter published;
+  private final Counter failures;
+  private final Timer batchTimer;
+  private final ThreadFactory threadFactory;
+  private final ShardedEventStore shardedStore;
+  private final Publisher[] publishers;
+
+  private volatile boolean running;
+
+  /**
+   * Creates a relay for one event store and topic. The relay does nothing until {@link #start()}.
+   *
+   * @param eventStore the event store whose log is published
+   * @param checkpoints opens the checkpoint recording the acknowledged position of each shard,
+   *     given its index; a store that is not sharded has the single shard 0
+   * @param kafkaTemplate the template used to send the events
+   * @param topic the topic the events are published to
+   * @param batchSize the maximum number of events sent before waiting for acknowledgements
+   * @param pollInterval how long the relay sleeps when the log is drained and it is not signalled
+   * @param sendTimeout how long the relay waits for a batch to be acknowledged
+   * @param initialBackoff the backoff bound after the first failed batch
+   * @param maxBackoff the upper limit of the backoff bound
+   * @param meterRegistry the registry metrics are published to
+   * @param threadFactory creates the relay threads, a platform thread factory if {@code null}
+   */
+  @Builder
+  private OutboxRelay(
+      EventStore eventStore,
+      IntFunction<OutboxCheckpoint> checkpoints,
+      KafkaTemplate<String, Object> kafkaTemplate,
+      String topic,
+      int batchSize,
+      Duration pollInterval,
+      Duration sendTimeout,
+      Duration initialBackoff,
+      Duration maxBackoff,
+      MeterRegistry meterRegistry,
+      ThreadFactory threadFactory) {
+    this.threadFactory = threadFactory != null ? threadFactory : Thread::new;
+    this.kafkaTemplate = kafkaTemplate;
+    this.topic = topic;
+    this.batchSize = batchSize;
+    this.pollIntervalNanos = pollInterval.toNanos();
+    this.sendTimeoutNanos = sendTimeout.toNanos();
+    this.initialBackoffNanos = Math.max(1, initialBackoff.toNanos());
+    this.maxBackoffNanos = Math.max(initialBackoffNanos, maxBackoff.toNanos());
+    this.shardedStore = eventStore instanceof ShardedEventStore sharded ? sharded : null;
+
+    List<EventLog> logs = ShardedEventStore.logsOf(eventStore);
+    this.publishers = new Publisher[logs.size()];
+    for (int shard = 0; shard < publishers.length; shard++) {
+      publishers[shard] =
+          new Publisher(
+              logs.get(shard), checkpoints.apply(shard), shardedStore != null ? shard : null);
+    }
+
+    this.published =
+        Counter.builder("outbox.published")
+            .description("Events acknowledged by Kafka")
+            .tag("topic", topic)
+            .register(meterRegistry);
+    this.failures =
+        Counter.builder("outbox.failures")
+            .description("Batches that failed to publish and will be retried")
+            .tag("topic", topic)
+            .register(meterRegistry);
+    this.batchTimer =
+        Timer.builder("outbox.batch")
+            .description("Time taken to publish a batch until it was acknowledged")
+            .tag("topic", topic)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    Gauge.builder("outbox.lag", this, OutboxRelay::getLag)
+        .description("Events appended to the event store but not yet acknowledged by Kafka")
+        .tag("topic", topic)
+        .register(meterRegistry);
+  }
+
+  /** Starts the relay threads. */
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    for (Publisher publisher : publishers) {
+      publisher.start();
+    }
+  }
+
+  /** Wakes the relay up after events were appended, so it does not wait for its poll interval. */
+  public void signal() {
+    for (Publisher publisher : publishers) {
+      publisher.signal();
+    }
+  }
+
+  /**
+   * Wakes up the publisher of an aggregate's shard after its events were appended.
+   *
+   * @param aggregateId the aggregate whose events were appended
+   */
+  public void signal(String aggregateId) {
+    if (shardedStore == null) {
+      signal();
+      return;
+    }
+    publishers[shardedStore.getRouter().shardOf(aggregateId)].signal();
+  }
+
+  /**
+   * Gets the number of events Kafka has acknowledged.
+   *
+   * @return the sum of the acknowledged positions of all shards, which for a store that is not
+   *     sharded is the global position of the first event not yet acknowledged
+   */
+  public long getAcknowledgedPosition() {
+    long acknowledged = 0;
+    for (Publisher publisher : publishers) {
+      acknowledged += publisher.acknowledged;
+    }
+    return acknowledged;
+  }
+
+  /**
+   * Gets the number of events waiting to be published.
+   *
+   * @return the distance between the head of the log and the acknowledged position, summed over all
+   *     shards
+   */
+  public long getLag() {
+    long lag = 0;
+    for (Publisher publisher : publishers) {
+      lag += publisher.getLag();
+    }
+    return lag;
+  }
+
+  /**
+   * Marks the whole log as published without sending it. Used when the log was rebuilt from the
+   * topic itself, so its events are already in Kafka. Must not be called while the relay is
+   * running.
+   */
+  public synchronized void acknowledgeAll() {
+    if (running) {
+      throw new IllegalStateException("Outbox relay for " + topic + " is already running");
+    }
+    for (Publisher publisher : publishers) {
+      publisher.acknowledged = publisher.store.getHeadPosition();
+      publisher.checkpoint.save(publisher.acknowledged);
+    }
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      running = false;
+    }
+    for (Publisher publisher : publishers) {
+      publisher.signal();
+    }
+    for (Publisher publisher : publishers) {
+      publisher.join();
+    }
+  }
+
+  /** Publishes the log of one shard, to the partition of the same index if the store is sharded. */
+  private final class Publisher {
+    private final EventLog store;
+    private final OutboxCheckpoint checkpoint;
+    private final Integer partition;
+    private final String name;
+
+    private volatile long acknowledged;
+    private Thread thread;
+
+    private Publisher(EventLog store, OutboxCheckpoint checkpoint, Integer partition) {
+      this.store = store;
+      this.checkpoint = checkpoint;
+      this.partition = partition;
+      this.name = partition == null ? topic : topic + "-" + partition;
+      this.acknowledged = checkpoint.load();
+    }
+
+    private void start() {
+      thread = threadFactory.newThread(this::run);
+      thread.setName("outbox-relay-" + name);
+      thread.start();
+      log.info("Outbox relay for {} started at position {}", name, acknowledged);
+    }
+
+    private void signal() {
+      Thread current = thread;
+      if (current != null) {
+        LockSupport.unpark(current);
+      }
+    }
+
+    private long getLag() {
+      return Math.max(0, store.getHeadPosition() - acknowledged);
+    }
+
+    private void join() {
+      Thread current = thread;
+      if (current == null) {
+        return;
+      }
+      try {
+        current.join(TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos) + 1_000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      log.info(
+          "Outbox relay for {} stopped at position {} with lag {}", name, acknowledged, getLag());
+    }
+
+    private void run() {
+      long backoff = initialBackoffNanos;
+      while (running) {
+        List<StoredEvent> batch = store.readAll(acknowledged, batchSize);
+        if (batch.isEmpty()) {
+          LockSupport.parkNanos(this, pollIntervalNanos);
+          continue;
+        }
+
+        try {
+          publish(batch);
+          acknowledged = batch.get(batch.size() - 1).position() + 1;
+          checkpoint.save(acknowledged);
+          published.increment(batch.size());
+          backoff = initialBackoffNanos;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        } catch (Exception e) {
+          failures.increment();
+          log.warn(
+              "Failed to publish {} events to {} from position {}, retrying",
+              batch.size(),
+              name,
+              acknowledged,
+              e);
+          LockSupport.parkNanos(this, ThreadLocalRandom.current().nextLong(backoff + 1));
+          backoff = Math.min(maxBackoffNanos, backoff * 2);
+        }
+      }
+    }
+
+    private void publish(List<StoredEvent> batch) throws Exception {
+      OutboxPublishEvent publishEvent = new OutboxPublishEvent();
+      publishEvent.begin();
+      String aggregateType = batch.get(0).event().getAggregateType();
+      long start = System.nanoTime();
+      try {
+        List<CompletableFuture<?>> futures = new ArrayList<>(batch.size());
+        for (StoredEvent stored : batch) {
+          Event<?> event = stored.event();
+          futures.add(kafkaTemplate.send(topic, partition, event.getAggregateId(), event));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .get(sendTimeoutNanos, TimeUnit.NANOSECONDS);
+      } catch (Exception e) {
+        publishEvent.complete(aggregateType, topic, batch.size(), "failure");
+        throw e;
+      }
+      batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      publishEvent.complete(aggregateType, topic, batch.size(), "success");
+    }
+  }
+}
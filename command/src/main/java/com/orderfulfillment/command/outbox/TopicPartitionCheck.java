@@ -0,0 +1,103 @@
+package com.orderfulfillment.command.outbox;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.springframework.kafka.core.KafkaAdmin;
+
+/**
+ * Checks at startup that the event topics have exactly one partition per shard.
+ *
+ * <p>The outbox publisher of each shard sends to the partition with the index of its shard, and
+ * aggregates are assigned to shards with Kafka's key partitioner. A topic with fewer partitions
+ * than shards would make the publishers of the remaining shards fail on every send, and one with
+ * more partitions would put keys in other partitions than the bootstrap replay and the consumers
+ * expect. The check fails the startup in both cases.
+ *
+ * <p>Topics that already exist are also withheld from the {@link KafkaAdmin}, which would otherwise
+ * add partitions to them when the shard count is raised and thereby move keys to other partitions.
+ * Missing topics are still created by it, with one partition per shard. If the brokers can't be
+ * reached the check is skipped with a warning and the {@code KafkaAdmin} is left as it is; it can't
+ * reach them either.
+ */
+@Slf4j
+public class TopicPartitionCheck {
+  private final KafkaAdmin kafkaAdmin;
+  private final List<NewTopic> topics;
+
+  /**
+   * Creates a check.
+   *
+   * @param kafkaAdmin the admin that creates the topics, whose client configuration is used
+   * @param topics the event topics, each declared with one partition per shard
+   */
+  public TopicPartitionCheck(KafkaAdmin kafkaAdmin, List<NewTopic> topics) {
+    this.kafkaAdmin = kafkaAdmin;
+    this.topics = List.copyOf(topics);
+  }
+
+  /**
+   * Describes the topics and compares their partition counts with the shard count.
+   *
+   * @throws IllegalStateException if an existing topic has another number of partitions
+   */
+  public void verify() {
+    Set<String> existing = new HashSet<>();
+    try (AdminClient adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+      Map<String, KafkaFuture<TopicDescription>> descriptions =
+          adminClient
+              .describeTopics(topics.stream().map(NewTopic::name).toList())
+              .topicNameValues();
+      for (NewTopic topic : topics) {
+        TopicDescription description = describe(descriptions.get(topic.name()));
+        if (description == null) {
+          continue;
+        }
+        existing.add(topic.name());
+        int partitions = description.partitions().size();
+        if (partitions != topic.numPartitions()) {
+          throw new IllegalStateException(
+              "Topic "
+                  + topic.name()
+                  + " has "
+                  + partitions
+                  + " partitions but the service runs "
+                  + topic.numPartitions()
+                  + " shards; set shards.count to "
+                  + partitions
+                  + " or publish to new topics");
+        }
+      }
+    } catch (KafkaException | TimeoutException | ExecutionException e) {
+      log.warn("Could not check the partitions of the event topics", e);
+      return;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while checking the event topics", e);
+    }
+    kafkaAdmin.setCreateOrModifyTopic(topic -> !existing.contains(topic.name()));
+  }
+
+  private TopicDescription describe(KafkaFuture<TopicDescription> description)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    try {
+      return description.get(kafkaAdmin.getOperationTimeout(), TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof UnknownTopicOrPartitionException) {
+        return null;
+      }
+      throw e;
+    }
+  }
+}
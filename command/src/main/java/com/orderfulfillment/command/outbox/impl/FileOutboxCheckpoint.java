@@ -0,0 +1,54 @@
+package com.orderfulfillment.command.outbox.impl;
+
+import com.orderfulfillment.command.exceptions.EventStoreException;
+import com.orderfulfillment.command.outbox.OutboxCheckpoint;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link OutboxCheckpoint} kept as a small text file next to the event store segments.
+ *
+ * <p>The position is written to a temporary file and atomically moved into place. The file is not
+ * synced: losing the latest update after a crash only means the relay republishes a few events.
+ */
+@Slf4j
+public class FileOutboxCheckpoint implements OutboxCheckpoint {
+  private final Path file;
+
+  public FileOutboxCheckpoint(Path file) {
+    this.file = file;
+    try {
+      Files.createDirectories(file.getParent());
+    } catch (IOException e) {
+      throw new EventStoreException("Failed to open outbox checkpoint at " + file, e);
+    }
+  }
+
+  @Override
+  public long load() {
+    try {
+      return Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+    } catch (NoSuchFileException e) {
+      return 0;
+    } catch (IOException | NumberFormatException e) {
+      log.warn("Ignoring unreadable outbox checkpoint {}, republishing from the start", file, e);
+      return 0;
+    }
+  }
+
+  @Override
+  public void save(long position) {
+    try {
+      Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+      Files.writeString(temp, Long.toString(position), StandardCharsets.US_ASCII);
+      Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new EventStoreException("Failed to store outbox checkpoint " + file, e);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.orderfulfillment.command.outbox.impl;
+
+import com.orderfulfillment.command.outbox.OutboxCheckpoint;
+
+/**
+ * {@link OutboxCheckpoint} for the in-memory event store, which does not survive restarts either.
+ */
+public class InMemoryOutboxCheckpoint implements OutboxCheckpoint {
+  private volatile long position;
+
+  @Override
+  public long load() {
+    return position;
+  }
+
+  @Override
+  public void save(long position) {
+    this.position = position;
+  }
+}
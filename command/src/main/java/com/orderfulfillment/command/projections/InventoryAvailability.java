@@ -0,0 +1,85 @@
+package com.orderfulfillment.command.projections;
+
+import com.orderfulfillment.command.domain.InventoryItem;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process projection of the available and allocated quantity of every product.
+ *
+ * <p>The inventory repository records each inventory item here once its events are committed,
+ * before the command that changed it completes, so a caller that has seen its write acknowledged
+ * reads it back from this projection. This serves availability checks from memory instead of from
+ * the query service, whose read model follows Kafka and lags behind the write side.
+ *
+ * <p>Each product has a slot holding both quantities packed into a single {@code long}, so an
+ * update allocates nothing once the product is known and a read sees both quantities from the same
+ * commit without locking. Slots are updated under their own monitor and ignore item versions older
+ * than the one they hold, so concurrent commits of the same item cannot roll the projection back.
+ */
+@Component
+public class InventoryAvailability {
+  private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+
+  /**
+   * Records the committed state of an inventory item.
+   *
+   * @param inventoryItem the inventory item, without uncommitted changes
+   */
+  public void record(InventoryItem inventoryItem) {
+    String productId = inventoryItem.getProductId();
+    Slot slot = slots.get(productId);
+    if (slot == null) {
+      slot = slots.computeIfAbsent(productId, id -> new Slot());
+    }
+    slot.update(
+        inventoryItem.getVersion(),
+        inventoryItem.getAvailableQuantity(),
+        inventoryItem.getAllocatedQuantity());
+  }
+
+  /**
+   * Gets the quantities of a product as of its last committed change.
+   *
+   * @param productId the unique identifier of the product
+   * @return the quantities of the product, or null if it has no inventory
+   */
+  public Availability get(String productId) {
+    Slot slot = slots.get(productId);
+    if (slot == null) {
+      return null;
+    }
+    long quantities = slot.quantities;
+    return new Availability((int) (quantities >> 32), (int) quantities);
+  }
+
+  /**
+   * Gets the number of products in the projection.
+   *
+   * @return the number of products with inventory
+   */
+  public int size() {
+    return slots.size();
+  }
+
+  /**
+   * The quantities of a product.
+   *
+   * @param availableQuantity the quantity that can still be allocated
+   * @param allocatedQuantity the quantity allocated to orders
+   */
+  public record Availability(int availableQuantity, int allocatedQuantity) {}
+
+  private static final class Slot {
+    private long version = -1;
+    private volatile long quantities;
+
+    synchronized void update(long version, int availableQuantity, int allocatedQuantity) {
+      if (version <= this.version) {
+        return;
+      }
+      this.version = version;
+      quantities = ((long) availableQuantity << 32) | (allocatedQuantity & 0xFFFFFFFFL);
+    }
+  }
+}
@@ -46,4 +46,13 @@ public interface InventoryRepository {
    * @return true if inventory exists, false otherwise
    */
   boolean existsByProductId(String productId);
+
+  /**
+   * Rebuilds the product-to-inventory index and the availability projection from every inventory
+   * aggregate in the event store.
+   *
+   * <p>Used after events have been written to the store behind the repository's back, such as
+   * during the bootstrap replay from Kafka.
+   */
+  void rebuildProductIndex();
 }
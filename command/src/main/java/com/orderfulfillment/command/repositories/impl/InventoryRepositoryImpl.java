@@ -1,45 +1,61 @@
 package com.orderfulfillment.command.repositories.impl;
 
-import com.orderfulfillment.command.domain.EventMessage;
 import com.orderfulfillment.command.domain.InventoryItem;
+import com.orderfulfillment.command.domain.InventoryItemSnapshot;
 import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.eventstore.AggregateLoader;
+import com.orderfulfillment.command.eventstore.EventStore;
 import com.orderfulfillment.command.exceptions.ConcurrencyException;
-import com.orderfulfillment.command.exceptions.EventPublishingException;
 import com.orderfulfillment.command.exceptions.domain.ProductNotFoundException;
+import com.orderfulfillment.command.jfr.RepositorySaveEvent;
+import com.orderfulfillment.command.outbox.OutboxRelay;
+import com.orderfulfillment.command.projections.InventoryAvailability;
 import com.orderfulfillment.command.repositories.InventoryRepository;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Repository;
 
 /**
  * Implementation of the InventoryRepository interface for storing and retrieving InventoryItem
  * aggregates using an event-sourcing pattern.
  *
- * <p>This repository maintains an in-memory event store while also publishing events to Kafka to
- * ensure events are durably stored. It handles optimistic concurrency control by checking version
- * numbers before saving changes to prevent conflicts when multiple processes attempt to modify the
- * same inventory simultaneously.
+ * <p>This repository appends events to the inventory {@link EventStore}, which doubles as the
+ * outbox: the {@link OutboxRelay} publishes them to Kafka for downstream consumers in the
+ * background. It handles optimistic concurrency control by appending at the version the inventory
+ * item was loaded at: the store rejects the append atomically if another request modified the same
+ * inventory in the meantime, and only accepted events are published.
+ *
+ * <p>Inventory items are served from the aggregate cache or rebuilt from their latest snapshot plus
+ * the events recorded after it, see {@link AggregateLoader}.
+ *
+ * <p>Every saved inventory item is recorded in the {@link InventoryAvailability} projection before
+ * the save returns, so availability checks read their own writes. The whole save, projection
+ * included, is a {@link RepositorySaveEvent} for the flight recorder.
  */
 @Slf4j
 @Repository
 public class InventoryRepositoryImpl implements InventoryRepository {
-  private final KafkaTemplate<String, Object> kafkaTemplate;
-  private final NewTopic topic;
-  private final Map<String, List<Event<?>>> eventStore = new HashMap<>();
-  private final Map<String, String> productToInventoryMap = new HashMap<>();
+  private static final String AGGREGATE_TYPE = "InventoryItem";
+
+  private final EventStore eventStore;
+  private final OutboxRelay outboxRelay;
+  private final AggregateLoader<InventoryItem, InventoryItemSnapshot> loader;
+  private final InventoryAvailability availability;
+  private final Map<String, String> productToInventoryMap = new ConcurrentHashMap<>();
 
   public InventoryRepositoryImpl(
-      KafkaTemplate<String, Object> kafkaTemplate,
-      @Qualifier("inventoryEventsTopic") NewTopic inventoryTopic) {
-    this.kafkaTemplate = kafkaTemplate;
-    this.topic = inventoryTopic;
+      @Qualifier("inventoryEventStore") EventStore eventStore,
+      @Qualifier("inventoryOutboxRelay") OutboxRelay outboxRelay,
+      AggregateLoader<InventoryItem, InventoryItemSnapshot> loader,
+      InventoryAvailability availability) {
+    this.eventStore = eventStore;
+    this.outboxRelay = outboxRelay;
+    this.loader = loader;
+    this.availability = availability;
+    rebuildProductIndex();
   }
 
   @Override
@@ -54,13 +70,11 @@ public class InventoryRepositoryImpl implements InventoryRepository {
 
   @Override
   public InventoryItem findById(String inventoryId) {
-    List<Event<?>> events = eventStore.getOrDefault(inventoryId, new ArrayList<>());
-    if (events.isEmpty()) {
-      throw new ProductNotFoundException("No inventory found with ID: " + inventoryId);
-    }
-
-    InventoryItem inventoryItem = new InventoryItem();
-    inventoryItem.loadFromHistory(events);
+    InventoryItem inventoryItem =
+        loader
+            .load(inventoryId)
+            .orElseThrow(
+                () -> new ProductNotFoundException("No inventory found with ID: " + inventoryId));
     productToInventoryMap.put(inventoryItem.getProductId(), inventoryId);
 
     return inventoryItem;
@@ -68,55 +82,36 @@ public class InventoryRepositoryImpl implements InventoryRepository {
 
   @Override
   public void save(InventoryItem inventoryItem) {
-    List<Event<?>> currentEvents =
-        eventStore.getOrDefault(inventoryItem.getId(), new ArrayList<>());
-    long expectedVersion = currentEvents.size();
+    long expectedVersion = inventoryItem.getVersion();
+    List<Event<?>> uncommittedEvents = inventoryItem.getUncommittedChanges();
+    int eventCount = uncommittedEvents.size();
+    RepositorySaveEvent saveEvent = new RepositorySaveEvent();
+    saveEvent.begin();
 
-    if (inventoryItem.getVersion() != expectedVersion && !currentEvents.isEmpty()) {
+    try {
+      eventStore.append(inventoryItem.getId(), expectedVersion, uncommittedEvents);
+    } catch (ConcurrencyException e) {
+      saveEvent.complete(AGGREGATE_TYPE, inventoryItem.getId(), eventCount, "conflict");
       log.error(
           "Concurrency conflict for inventory {}: expected version {}, but found {}",
           inventoryItem.getId(),
-          expectedVersion,
-          inventoryItem.getVersion());
-      throw new ConcurrencyException(
-          inventoryItem.getId(), expectedVersion, inventoryItem.getVersion());
-    }
-
-    List<Event<?>> uncommittedEvents = inventoryItem.getUncommittedChanges();
-    List<CompletableFuture<?>> futures = new ArrayList<>();
-
-    for (Event<?> event : uncommittedEvents) {
-      try {
-        EventMessage message = createEventMessage(event, event.getPayload());
-
-        log.info("Publishing inventory event {} to topic {}", event.getEventId(), topic.name());
-        futures.add(
-            kafkaTemplate
-                .send(topic.name(), event.getAggregateId(), message)
-                .toCompletableFuture());
-
-        if (!eventStore.containsKey(inventoryItem.getId())) {
-          eventStore.put(inventoryItem.getId(), new ArrayList<>());
-        }
-        eventStore.get(inventoryItem.getId()).add(event);
-
-        productToInventoryMap.put(inventoryItem.getProductId(), inventoryItem.getId());
-
-      } catch (Exception e) {
-        throw new EventPublishingException(event.getEventId(), e);
-      }
-    }
-
-    try {
-      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-    } catch (Exception e) {
-      throw new EventPublishingException("Multiple inventory events", e);
+          e.getExpectedVersion(),
+          e.getActualVersion());
+      throw e;
+    } catch (RuntimeException e) {
+      saveEvent.complete(AGGREGATE_TYPE, inventoryItem.getId(), eventCount, "failure");
+      throw e;
     }
+    productToInventoryMap.put(inventoryItem.getProductId(), inventoryItem.getId());
 
     log.info("Inventory {} saved with {} events", inventoryItem.getId(), uncommittedEvents.size());
 
-    inventoryItem.setVersion(currentEvents.size() + uncommittedEvents.size());
+    inventoryItem.setVersion(expectedVersion + uncommittedEvents.size());
     inventoryItem.markChangesAsCommitted();
+    loader.afterSave(inventoryItem, expectedVersion);
+    availability.record(inventoryItem);
+    outboxRelay.signal(inventoryItem.getId());
+    saveEvent.complete(AGGREGATE_TYPE, inventoryItem.getId(), eventCount, "success");
   }
 
   @Override
@@ -124,13 +119,11 @@ public class InventoryRepositoryImpl implements InventoryRepository {
     return productToInventoryMap.containsKey(productId);
   }
 
-  private EventMessage createEventMessage(Event<?> event, Object payload) {
-    return new EventMessage(
-        event.getEventId(),
-        event.getEventType(),
-        event.getAggregateId(),
-        event.getAggregateType(),
-        event.getTimestamp().toString(),
-        payload);
+  @Override
+  public void rebuildProductIndex() {
+    for (String inventoryId : eventStore.getAggregateIds()) {
+      availability.record(findById(inventoryId));
+    }
+    log.info("Rebuilt product index with {} inventory items", productToInventoryMap.size());
   }
 }
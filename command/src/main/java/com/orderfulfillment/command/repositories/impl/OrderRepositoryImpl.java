@@ -1,31 +1,33 @@
 package com.orderfulfillment.command.repositories.impl;
 
-import com.orderfulfillment.command.domain.EventMessage;
 import com.orderfulfillment.command.domain.Order;
+import com.orderfulfillment.command.domain.OrderSnapshot;
 import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.eventstore.AggregateLoader;
+import com.orderfulfillment.command.eventstore.EventStore;
 import com.orderfulfillment.command.exceptions.ConcurrencyException;
-import com.orderfulfillment.command.exceptions.EventPublishingException;
 import com.orderfulfillment.command.exceptions.domain.OrderNotFoundException;
+import com.orderfulfillment.command.jfr.RepositorySaveEvent;
+import com.orderfulfillment.command.outbox.OutboxRelay;
 import com.orderfulfillment.command.repositories.OrderRepository;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Repository;
 
 /**
  * Implementation of the OrderRepository interface for storing and retrieving Order aggregates using
  * an event-sourcing pattern.
  *
- * <p>This repository maintains an in-memory event store while also publishing events to Kafka to
- * ensure events are durably stored. It handles optimistic concurrency control by checking version
- * numbers before saving changes to prevent conflicts when multiple processes attempt to modify the
- * same order simultaneously.
+ * <p>This repository appends events to the order {@link EventStore}, which doubles as the outbox:
+ * the {@link OutboxRelay} publishes them to Kafka for downstream consumers in the background. It
+ * handles optimistic concurrency control by appending at the version the order was loaded at: the
+ * store rejects the append atomically if another request modified the same order in the meantime,
+ * and only accepted events are published.
+ *
+ * <p>Orders are served from the aggregate cache or rebuilt from their latest snapshot plus the
+ * events recorded after it, see {@link AggregateLoader}. Saves are recorded as {@link
+ * RepositorySaveEvent}s for the flight recorder.
  *
  * @see OrderRepository
  * @see Order
@@ -34,81 +36,53 @@ import org.springframework.stereotype.Repository;
 @Slf4j
 @Repository
 public class OrderRepositoryImpl implements OrderRepository {
-  private final KafkaTemplate<String, Object> kafkaTemplate;
-  private final NewTopic topic;
-  private final Map<String, List<Event<?>>> eventStore = new HashMap<>();
+  private static final String AGGREGATE_TYPE = "Order";
+
+  private final EventStore eventStore;
+  private final OutboxRelay outboxRelay;
+  private final AggregateLoader<Order, OrderSnapshot> loader;
 
   public OrderRepositoryImpl(
-      KafkaTemplate<String, Object> kafkaTemplate, @Qualifier("orderEventsTopic") NewTopic topic) {
-    this.kafkaTemplate = kafkaTemplate;
-    this.topic = topic;
+      @Qualifier("orderEventStore") EventStore eventStore,
+      @Qualifier("orderOutboxRelay") OutboxRelay outboxRelay,
+      AggregateLoader<Order, OrderSnapshot> loader) {
+    this.eventStore = eventStore;
+    this.outboxRelay = outboxRelay;
+    this.loader = loader;
   }
 
   public Order findById(String orderId) {
-    List<Event<?>> events = eventStore.getOrDefault(orderId, new ArrayList<>());
-    if (events.isEmpty()) {
-      throw new OrderNotFoundException(orderId);
-    }
-
-    Order order = new Order();
-    order.loadFromHistory(events);
-    return order;
+    return loader.load(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
   }
 
   public void save(Order order) {
-    List<Event<?>> currentEvents = eventStore.getOrDefault(order.getId(), new ArrayList<>());
-    long expectedVersion = currentEvents.size();
+    long expectedVersion = order.getVersion();
+    List<Event<?>> uncommittedEvents = order.getUncommittedChanges();
+    int eventCount = uncommittedEvents.size();
+    RepositorySaveEvent saveEvent = new RepositorySaveEvent();
+    saveEvent.begin();
 
-    if (order.getVersion() != expectedVersion && !currentEvents.isEmpty()) {
+    try {
+      eventStore.append(order.getId(), expectedVersion, uncommittedEvents);
+    } catch (ConcurrencyException e) {
+      saveEvent.complete(AGGREGATE_TYPE, order.getId(), eventCount, "conflict");
       log.error(
           "Concurrency conflict for order {}: expected version {}, but found {}",
           order.getId(),
-          expectedVersion,
-          order.getVersion());
-      throw new ConcurrencyException(order.getId(), expectedVersion, order.getVersion());
-    }
-
-    List<Event<?>> uncommittedEvents = order.getUncommittedChanges();
-    List<CompletableFuture<?>> futures = new ArrayList<>();
-
-    for (Event<?> event : uncommittedEvents) {
-      try {
-        EventMessage message = createEventMessage(event, event.getPayload());
-
-        log.info("Publishing event {} to topic {}", event.getEventId(), topic.name());
-        futures.add(
-            kafkaTemplate
-                .send(topic.name(), event.getAggregateId(), message)
-                .toCompletableFuture());
-
-        if (!eventStore.containsKey(order.getId())) {
-          eventStore.put(order.getId(), new ArrayList<>());
-        }
-        eventStore.get(order.getId()).add(event);
-      } catch (Exception e) {
-        throw new EventPublishingException(event.getEventId(), e);
-      }
-    }
-
-    try {
-      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-    } catch (Exception e) {
-      throw new EventPublishingException("Multiple events", e);
+          e.getExpectedVersion(),
+          e.getActualVersion());
+      throw e;
+    } catch (RuntimeException e) {
+      saveEvent.complete(AGGREGATE_TYPE, order.getId(), eventCount, "failure");
+      throw e;
     }
 
     log.info("Order {} saved with {} events", order.getId(), uncommittedEvents.size());
 
-    order.setVersion(currentEvents.size() + uncommittedEvents.size());
+    order.setVersion(expectedVersion + uncommittedEvents.size());
     order.markChangesAsCommitted();
-  }
-
-  private EventMessage createEventMessage(Event<?> event, Object payload) {
-    return new EventMessage(
-        event.getEventId(),
-        event.getEventType(),
-        event.getAggregateId(),
-        event.getAggregateType(),
-        event.getTimestamp().toString(),
-        payload);
+    loader.afterSave(order, expectedVersion);
+    outboxRelay.signal(order.getId());
+    saveEvent.complete(AGGREGATE_TYPE, order.getId(), eventCount, "success");
   }
 }
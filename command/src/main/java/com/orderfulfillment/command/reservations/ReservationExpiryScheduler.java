@@ -0,0 +1,262 @@
+package com.orderfulfillment.command.reservations;
+
+import com.orderfulfillment.command.commands.ExpireReservationCommand;
+import com.orderfulfillment.command.dispatch.TimingWheel;
+import com.orderfulfillment.command.dispatch.TimingWheel.Timeout;
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.payloads.InventoryReservationConfirmedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservationExpiredPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservedPayload;
+import com.orderfulfillment.command.eventstore.EventLog;
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.eventstore.StoredEvent;
+import com.orderfulfillment.command.eventstore.impl.ShardedEventStore;
+import com.orderfulfillment.command.handlers.AsyncInventoryCommandHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Releases inventory reservations once their deadline has passed.
+ *
+ * <p>The scheduler follows the global log of the inventory event store, or the log of each shard of
+ * a sharded store, the way the outbox relay does: every reservation event schedules a timeout on a
+ * {@link TimingWheel} and every confirmation or expiry cancels it, so the handlers do not need to
+ * know about the scheduler. As the log is read from the start, the outstanding reservations are
+ * rebuilt from the stored events on every start, including after the bootstrap replay has refilled
+ * the store from Kafka.
+ *
+ * <p>When a timeout fires, an {@link ExpireReservationCommand} is submitted to the inventory
+ * handler, which runs it on the product's lane. Expiring a reservation that was confirmed in the
+ * meantime is a no-op, so a race with a confirmation is harmless. An expiry that fails is scheduled
+ * again after the retry delay.
+ *
+ * <p>The scheduler publishes the {@code reservations.pending} gauge and the {@code
+ * reservations.expired} and {@code reservations.expiry.failures} counters.
+ */
+@Slf4j
+public class ReservationExpiryScheduler implements AutoCloseable {
+  private final List<EventLog> logs;
+  private final long[] positions;
+  private final AsyncInventoryCommandHandler inventoryCommandHandler;
+  private final Clock clock;
+  private final long tickMillis;
+  private final int wheelSize;
+  private final int batchSize;
+  private final long retryDelayMillis;
+  private final Counter expired;
+  private final Counter failures;
+  private final ThreadFactory threadFactory;
+  private final Queue<Hold> failed = new ConcurrentLinkedQueue<>();
+
+  private volatile long position;
+  private volatile int pending;
+  private volatile boolean running;
+  private Thread thread;
+
+  /**
+   * Creates a scheduler for the inventory event store. It does nothing until {@link #start()}.
+   *
+   * @param eventStore the inventory event store whose log is followed
+   * @param inventoryCommandHandler the handler the expiries are submitted to
+   * @param clock the clock deadlines are compared with, the system clock if {@code null}
+   * @param tick the granularity of the timing wheel and the interval the log is polled at
+   * @param wheelSize the number of buckets per level of the timing wheel
+   * @param batchSize the maximum number of events read from the log at once
+   * @param retryDelay how long to wait before a failed expiry is tried again
+   * @param meterRegistry the registry metrics are published to
+   * @param threadFactory creates the scheduler thread, a platform thread factory if {@code null}
+   */
+  @Builder
+  private ReservationExpiryScheduler(
+      EventStore eventStore,
+      AsyncInventoryCommandHandler inventoryCommandHandler,
+      Clock clock,
+      Duration tick,
+      int wheelSize,
+      int batchSize,
+      Duration retryDelay,
+      MeterRegistry meterRegistry,
+      ThreadFactory threadFactory) {
+    this.logs = ShardedEventStore.logsOf(eventStore);
+    this.positions = new long[logs.size()];
+    this.inventoryCommandHandler = inventoryCommandHandler;
+    this.clock = clock != null ? clock : Clock.systemUTC();
+    this.tickMillis = Math.max(1, tick.toMillis());
+    this.wheelSize = wheelSize;
+    this.batchSize = batchSize;
+    this.retryDelayMillis = retryDelay.toMillis();
+    this.threadFactory = threadFactory != null ? threadFactory : Thread::new;
+
+    this.expired =
+        Counter.builder("reservations.expired")
+            .description("Reservations released because their deadline passed")
+            .register(meterRegistry);
+    this.failures =
+        Counter.builder("reservations.expiry.failures")
+            .description("Reservation expiries that failed and will be retried")
+            .register(meterRegistry);
+    Gauge.builder("reservations.pending", this, ReservationExpiryScheduler::getPending)
+        .description("Reservations waiting for their deadline")
+        .register(meterRegistry);
+  }
+
+  /** Starts the scheduler thread. */
+  public synchronized void start() {
+    if (thread != null) {
+      return;
+    }
+    running = true;
+    thread = threadFactory.newThread(this::run);
+    thread.setName("reservation-expiry");
+    thread.start();
+    log.info("Reservation expiry scheduler started");
+  }
+
+  /**
+   * Gets the number of reservations waiting for their deadline.
+   *
+   * @return the number of scheduled reservations
+   */
+  public int getPending() {
+    return pending;
+  }
+
+  /**
+   * Gets the position up to which the log has been read.
+   *
+   * @return the number of events read, which for a store that is not sharded is the global position
+   *     of the first event not yet read
+   */
+  public long getPosition() {
+    return position;
+  }
+
+  @Override
+  public void close() {
+    Thread current;
+    synchronized (this) {
+      running = false;
+      current = thread;
+    }
+    if (current == null) {
+      return;
+    }
+
+    LockSupport.unpark(current);
+    try {
+      current.join(tickMillis + 1_000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    log.info("Reservation expiry scheduler stopped with {} pending", pending);
+  }
+
+  private void run() {
+    TimingWheel<Hold> wheel = new TimingWheel<>(tickMillis, wheelSize, clock.millis());
+    Map<Hold, Timeout<Hold>> holds = new HashMap<>();
+    while (running) {
+      try {
+        follow(wheel, holds);
+        for (Hold hold; (hold = failed.poll()) != null; ) {
+          holds.put(hold, wheel.schedule(hold, clock.millis() + retryDelayMillis));
+        }
+        wheel.advance(
+            clock.millis(),
+            hold -> {
+              holds.remove(hold);
+              expire(hold);
+            });
+        pending = holds.size();
+      } catch (Exception e) {
+        log.error("Reservation expiry failed after {} events", position, e);
+      }
+      LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(tickMillis));
+    }
+  }
+
+  /** Reads the events appended since the last tick and schedules or cancels their timeouts. */
+  private void follow(TimingWheel<Hold> wheel, Map<Hold, Timeout<Hold>> holds) {
+    for (int shard = 0; shard < positions.length; shard++) {
+      follow(shard, wheel, holds);
+    }
+  }
+
+  private void follow(int shard, TimingWheel<Hold> wheel, Map<Hold, Timeout<Hold>> holds) {
+    EventLog eventStore = logs.get(shard);
+    List<StoredEvent> batch;
+    do {
+      batch = eventStore.readAll(positions[shard], batchSize);
+      for (StoredEvent stored : batch) {
+        Event<?> event = stored.event();
+        if (event.getPayload() instanceof InventoryReservedPayload reserved) {
+          Hold hold = new Hold(reserved.productId(), reserved.reservationId());
+          holds.put(hold, wheel.schedule(hold, deadlineMillis(reserved.expiresAt())));
+        } else if (event.getPayload() instanceof InventoryReservationConfirmedPayload confirmed) {
+          cancel(holds, new Hold(confirmed.productId(), confirmed.reservationId()));
+        } else if (event.getPayload() instanceof InventoryReservationExpiredPayload released) {
+          cancel(holds, new Hold(released.productId(), released.reservationId()));
+        }
+        positions[shard] = stored.position() + 1;
+        position++;
+      }
+    } while (batch.size() == batchSize && running);
+  }
+
+  /**
+   * Rounds a deadline up to the millisecond, so that the timeout does not fire before the item
+   * considers the reservation expired and leave it held for good.
+   */
+  private static long deadlineMillis(Instant expiresAt) {
+    long millis = expiresAt.toEpochMilli();
+    return expiresAt.getNano() % 1_000_000 == 0 ? millis : millis + 1;
+  }
+
+  private static void cancel(Map<Hold, Timeout<Hold>> holds, Hold hold) {
+    Timeout<Hold> timeout = holds.remove(hold);
+    if (timeout != null) {
+      timeout.cancel();
+    }
+  }
+
+  private void expire(Hold hold) {
+    ExpireReservationCommand command =
+        ExpireReservationCommand.builder()
+            .productId(hold.productId())
+            .reservationId(hold.reservationId())
+            .now(clock.instant())
+            .build();
+    inventoryCommandHandler
+        .submit(command)
+        .whenComplete(
+            (done, error) -> {
+              if (error == null) {
+                expired.increment();
+                return;
+              }
+              failures.increment();
+              log.warn(
+                  "Failed to expire reservation {} of product {}, retrying",
+                  hold.reservationId(),
+                  hold.productId(),
+                  error);
+              failed.add(hold);
+            });
+  }
+
+  /** A reservation waiting for its deadline. */
+  private record Hold(String productId, String reservationId) {}
+}
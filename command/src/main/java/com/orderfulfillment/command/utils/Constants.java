@@ -5,6 +5,9 @@ public class Constants {
   public static final String ORDER_EVENTS_TOPIC = "order-events";
   public static final String INVENTORY_EVENTS_TOPIC = "inventory-events";
 
+  // Kafka record headers
+  public static final String EVENT_VERSION_HEADER = "eventVersion";
+
   // Order event names
   public static final String ORDER_CREATED_EVENT = "OrderCreated";
   public static final String ORDER_STATUS_UPDATED_EVENT = "OrderStatusUpdated";
@@ -16,6 +19,13 @@ public class Constants {
   public static final String INVENTORY_UPDATED_EVENT = "InventoryUpdated";
   public static final String INVENTORY_ALLOCATED_EVENT = "InventoryAllocated";
   public static final String INVENTORY_RETURNED_EVENT = "InventoryReturned";
+  public static final String INVENTORY_RESERVED_EVENT = "InventoryReserved";
+  public static final String INVENTORY_RESERVATION_CONFIRMED_EVENT =
+      "InventoryReservationConfirmed";
+  public static final String INVENTORY_RESERVATION_EXPIRED_EVENT = "InventoryReservationExpired";
+  public static final String INVENTORY_BACKORDERED_EVENT = "InventoryBackordered";
+  public static final String INVENTORY_BACKORDER_ALLOCATED_EVENT = "InventoryBackorderAllocated";
+  public static final String INVENTORY_BACKORDER_CANCELLED_EVENT = "InventoryBackorderCancelled";
 
   // Event types
   public static final String EVENT_TYPE_ORDER = "OrderEvent";
@@ -24,4 +34,8 @@ public class Constants {
   // Aggregate types
   public static final String AGGREGATE_TYPE_ORDER = "OrderAggregate";
   public static final String AGGREGATE_TYPE_INVENTORY = "InventoryAggregate";
+
+  // Spring profiles
+  public static final String ASYNC_API_PROFILE = "async-api";
+  public static final String QUEUED_API_PROFILE = "queued-api";
 }
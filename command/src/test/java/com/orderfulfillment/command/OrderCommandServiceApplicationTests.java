@@ -3,7 +3,7 @@ package com.orderfulfillment.command;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {"event-store.engine=memory", "bootstrap-replay.enabled=false"})
 class OrderCommandServiceApplicationTests {
 
   @Test
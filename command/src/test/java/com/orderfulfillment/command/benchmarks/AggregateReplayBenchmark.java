@@ -0,0 +1,107 @@
+package com.orderfulfillment.command.benchmarks;
+
+import com.orderfulfillment.command.domain.InventoryItem;
+import com.orderfulfillment.command.domain.Money;
+import com.orderfulfillment.command.domain.Order;
+import com.orderfulfillment.command.domain.OrderStatus;
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.impl.InventoryEvents;
+import com.orderfulfillment.command.events.impl.OrderEvents;
+import com.orderfulfillment.command.events.payloads.InventoryAllocatedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReturnedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
+import com.orderfulfillment.command.events.payloads.OrderCreatedPayload;
+import com.orderfulfillment.command.events.payloads.OrderStatusUpdatedPayload;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time taken by {@code AggregateRoot.loadFromHistory} to rebuild an aggregate from streams of
+ * different lengths, without a snapshot or cache in front of it.
+ *
+ * <p>The inventory stream cycles through updates, allocations and returns; the order stream is a
+ * creation followed by status updates, which is longer than real orders get but isolates the cost
+ * per replayed event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregateReplayBenchmark {
+  private static final String ID = "aggregate-1";
+
+  @Param({"1", "10", "100", "1000"})
+  public int streamLength;
+
+  private List<Event<?>> inventoryStream;
+  private List<Event<?>> orderStream;
+
+  @Setup
+  public void setUp() {
+    inventoryStream = new ArrayList<>(streamLength);
+    for (int version = 0; version < streamLength; version++) {
+      inventoryStream.add(inventoryEvent(version));
+    }
+
+    orderStream = new ArrayList<>(streamLength);
+    OrderCreatedPayload created =
+        OrderCreatedPayload.builder()
+            .customerId("customer-1")
+            .quantity(3)
+            .items(BenchmarkFixtures.orderItems())
+            .status(OrderStatus.REGISTERED)
+            .shippingAddress(BenchmarkFixtures.address())
+            .billingAddress(BenchmarkFixtures.address())
+            .totalCost(new Money(new BigDecimal("644.48")))
+            .build();
+    orderStream.add(OrderEvents.createOrderCreatedEvent(ID, created, 0));
+    for (int version = 1; version < streamLength; version++) {
+      OrderStatus status = version % 2 == 0 ? OrderStatus.SHIPPED : OrderStatus.PARTIALLY_SHIPPED;
+      orderStream.add(
+          OrderEvents.createOrderStatusUpdatedEvent(
+              ID, new OrderStatusUpdatedPayload(ID, status), version));
+    }
+  }
+
+  @Benchmark
+  public InventoryItem replayInventoryItem() {
+    InventoryItem item = new InventoryItem();
+    item.loadFromHistory(inventoryStream);
+    return item;
+  }
+
+  @Benchmark
+  public Order replayOrder() {
+    Order order = new Order();
+    order.loadFromHistory(orderStream);
+    return order;
+  }
+
+  private static Event<?> inventoryEvent(int version) {
+    if (version % 3 == 0) {
+      return InventoryEvents.createInventoryUpdatedEvent(
+          ID, new InventoryUpdatedPayload("product-1", 1_000_000), version);
+    }
+    if (version % 3 == 1) {
+      return InventoryEvents.createInventoryAllocatedEvent(
+          ID, new InventoryAllocatedPayload("product-1", "order-" + version, 2), version);
+    }
+    return InventoryEvents.createInventoryReturnedEvent(
+        ID, new InventoryReturnedPayload("product-1", "order-" + (version - 1), 2), version);
+  }
+}
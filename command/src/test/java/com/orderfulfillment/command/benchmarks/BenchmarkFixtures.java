@@ -0,0 +1,153 @@
+package com.orderfulfillment.command.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.orderfulfillment.command.api.dtos.OrderCreateDto;
+import com.orderfulfillment.command.api.dtos.OrderCreateDto.AddressDto;
+import com.orderfulfillment.command.api.dtos.OrderCreateDto.OrderItemDto;
+import com.orderfulfillment.command.domain.Address;
+import com.orderfulfillment.command.domain.InventoryItem;
+import com.orderfulfillment.command.domain.InventoryItemSnapshot;
+import com.orderfulfillment.command.domain.Money;
+import com.orderfulfillment.command.domain.OrderItem;
+import com.orderfulfillment.command.eventstore.AggregateLoader;
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.eventstore.SnapshotPolicy;
+import com.orderfulfillment.command.eventstore.impl.InMemorySnapshotStore;
+import com.orderfulfillment.command.outbox.OutboxRelay;
+import com.orderfulfillment.command.outbox.impl.InMemoryOutboxCheckpoint;
+import com.orderfulfillment.command.projections.InventoryAvailability;
+import com.orderfulfillment.command.repositories.impl.InventoryRepositoryImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+/** Builds the command-side components used by the benchmarks without a Spring context or broker. */
+final class BenchmarkFixtures {
+  static final MeterRegistry METER_REGISTRY = new SimpleMeterRegistry();
+
+  static {
+    // Command handlers log every command at INFO, which would dominate the measurements.
+    ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+  }
+
+  private BenchmarkFixtures() {}
+
+  /**
+   * Creates a Kafka template whose sends complete immediately without contacting a broker.
+   *
+   * @return the stubbed template
+   */
+  static KafkaTemplate<String, Object> stubKafkaTemplate() {
+    return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of())) {
+      @Override
+      public CompletableFuture<SendResult<String, Object>> send(
+          String topic, Integer partition, String key, Object data) {
+        return CompletableFuture.completedFuture(null);
+      }
+    };
+  }
+
+  /**
+   * Creates an inventory repository on top of an event store, with the default snapshot and cache
+   * settings.
+   *
+   * @param eventStore the event store holding the inventory streams
+   * @return the repository
+   */
+  static InventoryRepositoryImpl inventoryRepository(EventStore eventStore) {
+    AggregateLoader<InventoryItem, InventoryItemSnapshot> loader =
+        AggregateLoader.<InventoryItem, InventoryItemSnapshot>builder()
+            .aggregateType("InventoryItem")
+            .eventStore(eventStore)
+            .snapshotStore(new InMemorySnapshotStore())
+            .snapshotPolicy(new SnapshotPolicy(true, 100, Duration.ofMillis(10)))
+            .factory(InventoryItem::new)
+            .weigher(snapshot -> 1)
+            .cacheMaximumWeight(100_000)
+            .meterRegistry(METER_REGISTRY)
+            .build();
+    return new InventoryRepositoryImpl(
+        eventStore, outboxRelay(eventStore), loader, new InventoryAvailability());
+  }
+
+  /**
+   * Creates an outbox relay for an event store that is never started, so saves only append to the
+   * store as they do on the request path.
+   *
+   * @param eventStore the event store whose log the relay would publish
+   * @return the relay
+   */
+  static OutboxRelay outboxRelay(EventStore eventStore) {
+    return OutboxRelay.builder()
+        .eventStore(eventStore)
+        .checkpoints(shard -> new InMemoryOutboxCheckpoint())
+        .kafkaTemplate(stubKafkaTemplate())
+        .topic("inventory-events")
+        .batchSize(500)
+        .pollInterval(Duration.ofMillis(100))
+        .sendTimeout(Duration.ofSeconds(30))
+        .initialBackoff(Duration.ofMillis(100))
+        .maxBackoff(Duration.ofSeconds(10))
+        .meterRegistry(METER_REGISTRY)
+        .build();
+  }
+
+  /**
+   * Creates the address used by the sample orders.
+   *
+   * @return the address
+   */
+  static Address address() {
+    return Address.builder()
+        .street("Main Street 1")
+        .city("Amsterdam")
+        .state("Noord-Holland")
+        .zipcode("1011AB")
+        .country("NL")
+        .build();
+  }
+
+  /**
+   * Creates the items of a typical order with three lines.
+   *
+   * @return the order items
+   */
+  static List<OrderItem> orderItems() {
+    return List.of(
+        new OrderItem("product-1", 2, new Money(new BigDecimal("19.99"))),
+        new OrderItem("product-2", 1, new Money(new BigDecimal("4.50"))),
+        new OrderItem("product-3", 5, new Money(new BigDecimal("120.00"))));
+  }
+
+  /**
+   * Creates the request body of a typical order with three lines.
+   *
+   * @return the order DTO
+   */
+  static OrderCreateDto orderCreateDto() {
+    AddressDto address =
+        new AddressDto("Main Street 1", "Amsterdam", "Noord-Holland", "1011AB", "NL");
+    return new OrderCreateDto(
+        "customer-1",
+        List.of(
+            new OrderItemDto("product-1", 2, new BigDecimal("19.99")),
+            new OrderItemDto("product-2", 1, new BigDecimal("4.50")),
+            new OrderItemDto("product-3", 5, new BigDecimal("120.00"))),
+        address,
+        address,
+        new BigDecimal("644.48"),
+        LocalDateTime.of(2025, 1, 1, 12, 0),
+        null,
+        null);
+  }
+}
@@ -0,0 +1,94 @@
+package com.orderfulfillment.command.benchmarks;
+
+import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.UpdateInventoryCommand;
+import com.orderfulfillment.command.config.CommandRetryProperties;
+import com.orderfulfillment.command.dispatch.ConflictRetryPolicy;
+import com.orderfulfillment.command.eventstore.ShardRouter;
+import com.orderfulfillment.command.eventstore.impl.InMemoryEventStore;
+import com.orderfulfillment.command.exceptions.ConcurrencyException;
+import com.orderfulfillment.command.handlers.impl.InventoryCommandHandlerImpl;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of allocations against a single contended product when concurrency conflicts are
+ * retried by the client versus by the server.
+ *
+ * <p>Both variants call {@link InventoryCommandHandlerImpl} directly, without command lanes, so
+ * that concurrent allocations actually conflict, as they do across several service instances. In
+ * {@code clientRetry} a conflict costs a full round trip before the command is sent again, modelled
+ * as {@code roundTripMicros} of waiting; in {@code serverRetry} the {@link ConflictRetryPolicy}
+ * with its default settings re-runs the command in process.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ConflictRetryBenchmark {
+  private static final String PRODUCT_ID = "hot-product";
+
+  @Param({"1000", "5000"})
+  public long roundTripMicros;
+
+  private InventoryCommandHandlerImpl handler;
+  private ConflictRetryPolicy retryPolicy;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    handler =
+        new InventoryCommandHandlerImpl(
+            BenchmarkFixtures.inventoryRepository(new InMemoryEventStore()), new ShardRouter(1));
+    handler.handle(new UpdateInventoryCommand(PRODUCT_ID, Integer.MAX_VALUE));
+
+    CommandRetryProperties defaults = new CommandRetryProperties();
+    retryPolicy =
+        ConflictRetryPolicy.builder()
+            .aggregateType("InventoryItem")
+            .maxAttempts(Integer.MAX_VALUE)
+            .initialBackoff(defaults.getInitialBackoff())
+            .maxBackoff(defaults.getMaxBackoff())
+            .trackedAggregates(defaults.getTrackedAggregates())
+            .meterRegistry(BenchmarkFixtures.METER_REGISTRY)
+            .build();
+  }
+
+  @Benchmark
+  public void clientRetry() {
+    AllocateInventoryCommand command = allocation();
+    while (true) {
+      try {
+        handler.handle(command);
+        return;
+      } catch (ConcurrencyException e) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+      }
+    }
+  }
+
+  @Benchmark
+  public void serverRetry() {
+    AllocateInventoryCommand command = allocation();
+    retryPolicy.run(() -> handler.handle(command));
+  }
+
+  private static AllocateInventoryCommand allocation() {
+    return new AllocateInventoryCommand(PRODUCT_ID, "order", 1);
+  }
+}
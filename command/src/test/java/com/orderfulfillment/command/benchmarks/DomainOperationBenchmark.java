@@ -0,0 +1,60 @@
+package com.orderfulfillment.command.benchmarks;
+
+import com.orderfulfillment.command.domain.Address;
+import com.orderfulfillment.command.domain.InventoryItem;
+import com.orderfulfillment.command.domain.Money;
+import com.orderfulfillment.command.domain.Order;
+import com.orderfulfillment.command.domain.OrderItem;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the domain operations behind the two busiest commands: allocating inventory to an order
+ * and creating an order, including building their events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainOperationBenchmark {
+  private InventoryItem inventoryItem;
+  private List<OrderItem> items;
+  private Address address;
+  private Money totalCost;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    inventoryItem = InventoryItem.createNew("product-1", Integer.MAX_VALUE);
+    inventoryItem.markChangesAsCommitted();
+    items = BenchmarkFixtures.orderItems();
+    address = BenchmarkFixtures.address();
+    totalCost = new Money(new BigDecimal("644.48"));
+  }
+
+  /** Allocates one unit; the event is committed right away so the pending list does not grow. */
+  @Benchmark
+  public InventoryItem allocate() {
+    inventoryItem.allocate("order-1", 1);
+    inventoryItem.markChangesAsCommitted();
+    return inventoryItem;
+  }
+
+  @Benchmark
+  public Order createOrder() {
+    return Order.createNew(null, "customer-1", items, address, address, totalCost);
+  }
+}
@@ -0,0 +1,137 @@
+package com.orderfulfillment.command.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderfulfillment.command.bootstrap.EventMessageDecoder;
+import com.orderfulfillment.command.domain.Money;
+import com.orderfulfillment.command.domain.OrderStatus;
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.impl.InventoryEvents;
+import com.orderfulfillment.command.events.impl.OrderEvents;
+import com.orderfulfillment.command.events.payloads.InventoryAllocatedPayload;
+import com.orderfulfillment.command.events.payloads.OrderCreatedPayload;
+import com.orderfulfillment.command.eventstore.EventSerializer;
+import com.orderfulfillment.command.eventstore.impl.BinaryEventSerializer;
+import com.orderfulfillment.command.eventstore.impl.JavaEventSerializer;
+import com.orderfulfillment.command.outbox.EventFormat;
+import com.orderfulfillment.command.outbox.EventMessageSerializer;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * Cost and size of encoding and decoding one event on each path an event takes.
+ *
+ * <ul>
+ *   <li>{@code json} – the Kafka JSON path: {@link EventMessageSerializer} on a JSON topic and
+ *       {@link EventMessageDecoder}
+ *   <li>{@code binary} – the Kafka binary path: {@link EventMessageSerializer} on a binary topic
+ *       and {@link EventMessageDecoder}, the same bytes the event store writes with {@link
+ *       BinaryEventSerializer}
+ *   <li>{@code java} – the previous event store encoding, {@link JavaEventSerializer}
+ * </ul>
+ *
+ * <p>The size of the encoded event is reported as the {@code encodedBytes} secondary result of
+ * {@code encode}. JMH sums event counters over the measurement iterations, so the size of one event
+ * is that result divided by its sample count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCodecBenchmark {
+  private static final String TOPIC = "events";
+
+  @Param({"json", "binary", "java"})
+  public String codec;
+
+  @Param({"OrderCreated", "InventoryAllocated"})
+  public String eventType;
+
+  private Event<?> event;
+  private byte[] encoded;
+  private EventMessageSerializer kafkaSerializer;
+  private EventMessageDecoder kafkaDecoder;
+  private EventSerializer storeSerializer;
+
+  /** Size of the last encoded event in each iteration, reported next to the time per operation. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class EncodedSize {
+    public long encodedBytes;
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    event = "OrderCreated".equals(eventType) ? orderCreated() : inventoryAllocated();
+
+    JsonSerializer<Object> json = new JsonSerializer<>();
+    json.setAddTypeInfo(true);
+    kafkaSerializer =
+        new EventMessageSerializer(
+            json,
+            Map.of(TOPIC, "binary".equals(codec) ? EventFormat.BINARY : EventFormat.JSON),
+            EventFormat.JSON);
+    kafkaDecoder = new EventMessageDecoder(new ObjectMapper().findAndRegisterModules());
+    storeSerializer = new JavaEventSerializer();
+    encoded = encodeEvent();
+  }
+
+  @Benchmark
+  public byte[] encode(EncodedSize size) {
+    byte[] bytes = encodeEvent();
+    size.encodedBytes = bytes.length;
+    return bytes;
+  }
+
+  @Benchmark
+  public Event<?> decode() {
+    return "java".equals(codec)
+        ? storeSerializer.deserialize(encoded)
+        : kafkaDecoder.decode(encoded, event.getVersion());
+  }
+
+  private byte[] encodeEvent() {
+    return "java".equals(codec)
+        ? storeSerializer.serialize(event)
+        : kafkaSerializer.serialize(TOPIC, new RecordHeaders(), event);
+  }
+
+  private static Event<?> orderCreated() {
+    OrderCreatedPayload payload =
+        OrderCreatedPayload.builder()
+            .customerId(UUID.randomUUID().toString())
+            .quantity(8)
+            .items(BenchmarkFixtures.orderItems())
+            .status(OrderStatus.REGISTERED)
+            .shippingAddress(BenchmarkFixtures.address())
+            .billingAddress(BenchmarkFixtures.address())
+            .totalCost(new Money(new BigDecimal("644.48")))
+            .build();
+    return OrderEvents.createOrderCreatedEvent(UUID.randomUUID().toString(), payload, 0);
+  }
+
+  private static Event<?> inventoryAllocated() {
+    return InventoryEvents.createInventoryAllocatedEvent(
+        UUID.randomUUID().toString(),
+        new InventoryAllocatedPayload("product-1", UUID.randomUUID().toString(), 2),
+        7);
+  }
+}
@@ -0,0 +1,71 @@
+package com.orderfulfillment.command.benchmarks;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.impl.InventoryEvents;
+import com.orderfulfillment.command.events.payloads.InventoryAllocatedPayload;
+import com.orderfulfillment.command.outbox.EventFormat;
+import com.orderfulfillment.command.outbox.EventMessageSerializer;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * Cost of creating an event and of taking it to the wire, from the domain factory to the bytes the
+ * Kafka producer sends on a JSON topic.
+ *
+ * <p>Runs on four threads, because event IDs used to be drawn from a shared {@link
+ * java.security.SecureRandom}. Allocations per event are reported by the GC profiler:
+ *
+ * <pre>
+ * java -cp ... org.openjdk.jmh.Main EventEnvelope -prof gc
+ * </pre>
+ *
+ * and read from {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class EventEnvelopeBenchmark {
+  private static final String TOPIC = "events";
+
+  private final String inventoryId = UUID.randomUUID().toString();
+  private final InventoryAllocatedPayload payload =
+      new InventoryAllocatedPayload("product-1", UUID.randomUUID().toString(), 2);
+  private EventMessageSerializer kafkaSerializer;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    JsonSerializer<Object> json = new JsonSerializer<>();
+    json.setAddTypeInfo(true);
+    kafkaSerializer = new EventMessageSerializer(json, Map.of(), EventFormat.JSON);
+  }
+
+  @Benchmark
+  public Event<?> create() {
+    return InventoryEvents.createInventoryAllocatedEvent(inventoryId, payload, 7);
+  }
+
+  @Benchmark
+  public byte[] createAndEncodeJson() {
+    Event<?> event = InventoryEvents.createInventoryAllocatedEvent(inventoryId, payload, 7);
+    return kafkaSerializer.serialize(TOPIC, new RecordHeaders(), event);
+  }
+}
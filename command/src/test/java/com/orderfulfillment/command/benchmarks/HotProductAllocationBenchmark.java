@@ -0,0 +1,128 @@
+package com.orderfulfillment.command.benchmarks;
+
+import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.UpdateInventoryCommand;
+import com.orderfulfillment.command.config.CommandRetryProperties;
+import com.orderfulfillment.command.config.InventoryEscrowProperties;
+import com.orderfulfillment.command.dispatch.CommandLanes;
+import com.orderfulfillment.command.dispatch.CommandTimers;
+import com.orderfulfillment.command.dispatch.ConflictRetryPolicy;
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.eventstore.FsyncPolicy;
+import com.orderfulfillment.command.eventstore.ShardRouter;
+import com.orderfulfillment.command.eventstore.impl.BinaryEventSerializer;
+import com.orderfulfillment.command.eventstore.impl.InMemoryEventStore;
+import com.orderfulfillment.command.eventstore.impl.SegmentedFileEventStore;
+import com.orderfulfillment.command.handlers.impl.InventoryCommandHandlerImpl;
+import com.orderfulfillment.command.handlers.impl.InventoryEscrow;
+import com.orderfulfillment.command.handlers.impl.LaneDispatchingInventoryCommandHandler;
+import com.orderfulfillment.command.repositories.impl.InventoryRepositoryImpl;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of allocations from many threads against a single product, through the lane
+ * dispatching handler as in the service, with and without escrow.
+ *
+ * <p>In {@code lane} mode every allocation waits for its own load and save on the product's lane;
+ * in {@code escrow} mode allocations are admitted by {@link InventoryEscrow} and stored in batches.
+ * The {@code file} engine uses group commit at the service's default interval, so each save on the
+ * lane waits for a sync, while the {@code memory} engine shows the cost without storage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class HotProductAllocationBenchmark {
+  private static final String PRODUCT_ID = "hot-product";
+
+  @Param({"lane", "escrow"})
+  public String mode;
+
+  @Param({"memory", "file"})
+  public String engine;
+
+  private Path directory;
+  private EventStore eventStore;
+  private CommandLanes lanes;
+  private LaneDispatchingInventoryCommandHandler handler;
+
+  @Setup(Level.Iteration)
+  public void setUp() throws IOException {
+    if ("file".equals(engine)) {
+      directory = Files.createTempDirectory("hot-product-benchmark");
+      eventStore =
+          new SegmentedFileEventStore(
+              directory,
+              64 * 1024 * 1024,
+              FsyncPolicy.GROUP_COMMIT,
+              Duration.ofMillis(5),
+              new BinaryEventSerializer());
+    } else {
+      eventStore = new InMemoryEventStore();
+    }
+    InventoryRepositoryImpl repository = BenchmarkFixtures.inventoryRepository(eventStore);
+    lanes = new CommandLanes("inventory", 4, BenchmarkFixtures.METER_REGISTRY);
+
+    InventoryEscrowProperties escrowProperties = new InventoryEscrowProperties();
+    if ("escrow".equals(mode)) {
+      escrowProperties.setProductIds(Set.of(PRODUCT_ID));
+    }
+    CommandRetryProperties retryDefaults = new CommandRetryProperties();
+    handler =
+        new LaneDispatchingInventoryCommandHandler(
+            new InventoryCommandHandlerImpl(repository, new ShardRouter(1)),
+            lanes,
+            ConflictRetryPolicy.builder()
+                .aggregateType("InventoryItem")
+                .maxAttempts(retryDefaults.getMaxAttempts())
+                .initialBackoff(retryDefaults.getInitialBackoff())
+                .maxBackoff(retryDefaults.getMaxBackoff())
+                .trackedAggregates(retryDefaults.getTrackedAggregates())
+                .meterRegistry(BenchmarkFixtures.METER_REGISTRY)
+                .build(),
+            new CommandTimers("InventoryItem", BenchmarkFixtures.METER_REGISTRY),
+            new InventoryEscrow(
+                repository, lanes, escrowProperties, BenchmarkFixtures.METER_REGISTRY));
+    handler.handle(new UpdateInventoryCommand(PRODUCT_ID, Integer.MAX_VALUE));
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() throws IOException {
+    lanes.close();
+    eventStore.close();
+    if (directory != null) {
+      try (Stream<Path> files = Files.walk(directory)) {
+        files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+      }
+    }
+  }
+
+  @Benchmark
+  public void allocate() {
+    handler.handle(new AllocateInventoryCommand(PRODUCT_ID, "order", 1));
+  }
+}
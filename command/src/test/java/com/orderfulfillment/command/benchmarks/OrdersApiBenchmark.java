@@ -0,0 +1,65 @@
+package com.orderfulfillment.command.benchmarks;
+
+import com.orderfulfillment.command.api.OrdersApi;
+import com.orderfulfillment.command.api.dtos.OrderCreateDto;
+import com.orderfulfillment.command.api.dtos.ResponseDto;
+import com.orderfulfillment.command.commands.CancelOrderCommand;
+import com.orderfulfillment.command.commands.CreateOrderCommand;
+import com.orderfulfillment.command.commands.UpdateOrderStatusCommand;
+import com.orderfulfillment.command.handlers.OrderCommandHandler;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Cost of {@link OrdersApi#registerOrder} mapping an already deserialized and validated request
+ * body to a {@link CreateOrderCommand}, with a handler that only keeps the command.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrdersApiBenchmark {
+  private OrderCreateDto orderCreateDto;
+  private OrdersApi ordersApi;
+  private Object lastCommand;
+
+  @Setup
+  public void setUp() {
+    orderCreateDto = BenchmarkFixtures.orderCreateDto();
+    ordersApi =
+        new OrdersApi(
+            new OrderCommandHandler() {
+              @Override
+              public void handle(CreateOrderCommand command) {
+                lastCommand = command;
+              }
+
+              @Override
+              public void handle(UpdateOrderStatusCommand command) {
+                lastCommand = command;
+              }
+
+              @Override
+              public void handle(CancelOrderCommand command) {
+                lastCommand = command;
+              }
+            });
+  }
+
+  @Benchmark
+  public ResponseEntity<ResponseDto> registerOrder() {
+    return ordersApi.registerOrder(orderCreateDto);
+  }
+}
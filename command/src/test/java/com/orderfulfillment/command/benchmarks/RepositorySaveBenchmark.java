@@ -0,0 +1,89 @@
+package com.orderfulfillment.command.benchmarks;
+
+import com.orderfulfillment.command.domain.InventoryItem;
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.eventstore.FsyncPolicy;
+import com.orderfulfillment.command.eventstore.impl.BinaryEventSerializer;
+import com.orderfulfillment.command.eventstore.impl.InMemoryEventStore;
+import com.orderfulfillment.command.eventstore.impl.SegmentedFileEventStore;
+import com.orderfulfillment.command.repositories.impl.InventoryRepositoryImpl;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@code InventoryRepositoryImpl.save} for one allocation, with the outbox relay left
+ * stopped and its Kafka template stubbed, so only the request-path work is measured: the
+ * compare-and-append, the cache update and the relay signal.
+ *
+ * <p>The file engine runs without fsync so that the result shows the encoding and write cost rather
+ * than the storage device.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositorySaveBenchmark {
+  @Param({"memory", "file"})
+  public String engine;
+
+  private Path directory;
+  private EventStore eventStore;
+  private InventoryRepositoryImpl repository;
+  private InventoryItem inventoryItem;
+
+  @Setup(Level.Iteration)
+  public void setUp() throws IOException {
+    if ("file".equals(engine)) {
+      directory = Files.createTempDirectory("repository-save-benchmark");
+      eventStore =
+          new SegmentedFileEventStore(
+              directory,
+              64 * 1024 * 1024,
+              FsyncPolicy.NEVER,
+              Duration.ofMillis(5),
+              new BinaryEventSerializer());
+    } else {
+      eventStore = new InMemoryEventStore();
+    }
+    repository = BenchmarkFixtures.inventoryRepository(eventStore);
+    inventoryItem = InventoryItem.createNew("product-1", Integer.MAX_VALUE);
+    repository.save(inventoryItem);
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() throws IOException {
+    eventStore.close();
+    if (directory != null) {
+      try (Stream<Path> files = Files.walk(directory)) {
+        files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+      }
+    }
+  }
+
+  @Benchmark
+  public InventoryItem allocateAndSave() {
+    inventoryItem.allocate("order-1", 1);
+    repository.save(inventoryItem);
+    return inventoryItem;
+  }
+}
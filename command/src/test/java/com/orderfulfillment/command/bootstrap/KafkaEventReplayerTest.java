@@ -0,0 +1,260 @@
+package com.orderfulfillment.command.bootstrap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderfulfillment.command.bootstrap.KafkaEventReplayer.ReplayResult;
+import com.orderfulfillment.command.commands.CancelOrderCommand;
+import com.orderfulfillment.command.commands.CreateOrderCommand;
+import com.orderfulfillment.command.commands.UpdateInventoryCommand;
+import com.orderfulfillment.command.commands.UpdateOrderStatusCommand;
+import com.orderfulfillment.command.domain.Address;
+import com.orderfulfillment.command.domain.InventoryItem;
+import com.orderfulfillment.command.domain.InventoryItemSnapshot;
+import com.orderfulfillment.command.domain.Money;
+import com.orderfulfillment.command.domain.OrderItem;
+import com.orderfulfillment.command.domain.OrderStatus;
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.impl.InventoryEvents;
+import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
+import com.orderfulfillment.command.eventstore.AggregateLoader;
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.eventstore.SnapshotPolicy;
+import com.orderfulfillment.command.eventstore.impl.InMemoryEventStore;
+import com.orderfulfillment.command.eventstore.impl.InMemorySnapshotStore;
+import com.orderfulfillment.command.handlers.InventoryCommandHandler;
+import com.orderfulfillment.command.handlers.OrderCommandHandler;
+import com.orderfulfillment.command.outbox.EventFormat;
+import com.orderfulfillment.command.outbox.EventMessageSerializer;
+import com.orderfulfillment.command.outbox.OutboxRelay;
+import com.orderfulfillment.command.projections.InventoryAvailability;
+import com.orderfulfillment.command.projections.InventoryAvailability.Availability;
+import com.orderfulfillment.command.repositories.impl.InventoryRepositoryImpl;
+import com.orderfulfillment.command.utils.Constants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+@SpringBootTest(
+    properties = {
+      "event-store.engine=memory",
+      "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+    })
+@EmbeddedKafka(
+    partitions = 3,
+    topics = {
+      Constants.ORDER_EVENTS_TOPIC,
+      Constants.INVENTORY_EVENTS_TOPIC,
+      KafkaEventReplayerTest.VERSIONED_TOPIC,
+      KafkaEventReplayerTest.LEGACY_TOPIC
+    })
+class KafkaEventReplayerTest {
+  static final String VERSIONED_TOPIC = "versioned-inventory-events";
+  static final String LEGACY_TOPIC = "legacy-inventory-events";
+  private static final List<String> PRODUCTS = List.of("p-1", "p-2", "p-3", "p-4", "p-5");
+
+  @Autowired private OrderCommandHandler orderCommandHandler;
+  @Autowired private InventoryCommandHandler inventoryCommandHandler;
+  @Autowired private KafkaProperties kafkaProperties;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private KafkaTemplate<String, Object> kafkaTemplate;
+
+  @Autowired
+  @Qualifier("orderEventStore")
+  private EventStore orderEventStore;
+
+  @Autowired
+  @Qualifier("inventoryEventStore")
+  private EventStore inventoryEventStore;
+
+  @Autowired
+  @Qualifier("orderOutboxRelay")
+  private OutboxRelay orderOutboxRelay;
+
+  @Autowired
+  @Qualifier("inventoryOutboxRelay")
+  private OutboxRelay inventoryOutboxRelay;
+
+  @Test
+  void rebuildsEventStoresFromTopics() {
+    for (String product : PRODUCTS) {
+      inventoryCommandHandler.handle(new UpdateInventoryCommand(product, 100));
+    }
+    for (int i = 0; i < 10; i++) {
+      orderCommandHandler.handle(createOrder("customer-" + i, i));
+    }
+    List<String> orderIds = new ArrayList<>(orderEventStore.getAggregateIds());
+    orderCommandHandler.handle(new CancelOrderCommand(orderIds.get(0)));
+    orderCommandHandler.handle(new CancelOrderCommand(orderIds.get(1)));
+    orderCommandHandler.handle(new UpdateOrderStatusCommand(orderIds.get(2), OrderStatus.SHIPPED));
+    long publishedEvents = totalEvents(orderEventStore) + totalEvents(inventoryEventStore);
+    await()
+        .atMost(Duration.ofSeconds(30))
+        .until(() -> orderOutboxRelay.getLag() == 0 && inventoryOutboxRelay.getLag() == 0);
+
+    EventStore replayedOrders = new InMemoryEventStore();
+    EventStore replayedInventory = new InMemoryEventStore();
+    KafkaEventReplayer replayer =
+        new KafkaEventReplayer(
+            kafkaProperties.buildConsumerProperties(null),
+            Map.of(
+                Constants.ORDER_EVENTS_TOPIC,
+                replayedOrders,
+                Constants.INVENTORY_EVENTS_TOPIC,
+                replayedInventory),
+            new EventMessageDecoder(objectMapper),
+            Duration.ofMillis(200));
+
+    ReplayResult result = replayer.replay(Duration.ofSeconds(30));
+
+    assertThat(result.partitions()).isEqualTo(6);
+    assertThat(result.eventsRead()).isEqualTo(publishedEvents);
+    assertThat(result.eventsAppended()).isEqualTo(publishedEvents);
+    assertSameStreams(replayedOrders, orderEventStore);
+    assertSameStreams(replayedInventory, inventoryEventStore);
+
+    InventoryAvailability availability = new InventoryAvailability();
+    InventoryRepositoryImpl inventoryRepository =
+        new InventoryRepositoryImpl(
+            replayedInventory,
+            inventoryOutboxRelay,
+            inventoryLoader(replayedInventory),
+            availability);
+    for (String product : PRODUCTS) {
+      assertThat(inventoryRepository.existsByProductId(product)).isTrue();
+      assertThat(availability.get(product))
+          .isEqualTo(
+              new Availability(
+                  inventoryRepository.findByProductId(product).getAvailableQuantity(),
+                  inventoryRepository.findByProductId(product).getAllocatedQuantity()));
+    }
+
+    ReplayResult again = replayer.replay(Duration.ofSeconds(30));
+    assertThat(again.eventsRead()).isEqualTo(publishedEvents);
+    assertThat(again.eventsAppended()).isZero();
+    assertSameStreams(replayedOrders, orderEventStore);
+  }
+
+  @Test
+  void skipsEventsPublishedTwice() throws Exception {
+    List<Event<?>> events = new ArrayList<>();
+    for (int version = 0; version < 4; version++) {
+      events.add(
+          InventoryEvents.createInventoryUpdatedEvent(
+              "inventory-dup", new InventoryUpdatedPayload("p-dup", version), version));
+    }
+    // Events 1 and 2 published again, as the relay does after an unacknowledged batch, once with
+    // version headers and once as records published before the headers were introduced.
+    int[] published = {0, 1, 2, 1, 2, 3};
+    for (int version : published) {
+      kafkaTemplate.send(VERSIONED_TOPIC, "inventory-dup", events.get(version)).get();
+    }
+    EventMessageSerializer serializer =
+        new EventMessageSerializer(new JsonSerializer<>(), Map.of(), EventFormat.JSON);
+    try (KafkaProducer<String, byte[]> producer =
+        new KafkaProducer<>(
+            kafkaProperties.buildProducerProperties(null),
+            new StringSerializer(),
+            new ByteArraySerializer())) {
+      for (int version : published) {
+        byte[] value = serializer.serialize(LEGACY_TOPIC, events.get(version));
+        producer.send(new ProducerRecord<>(LEGACY_TOPIC, "inventory-dup", value)).get();
+      }
+    }
+
+    EventStore versioned = new InMemoryEventStore();
+    versioned.append("inventory-dup", 0, events.subList(0, 3));
+    EventStore legacy = new InMemoryEventStore();
+    KafkaEventReplayer replayer =
+        new KafkaEventReplayer(
+            kafkaProperties.buildConsumerProperties(null),
+            Map.of(VERSIONED_TOPIC, versioned, LEGACY_TOPIC, legacy),
+            new EventMessageDecoder(objectMapper),
+            Duration.ofMillis(200));
+
+    ReplayResult result = replayer.replay(Duration.ofSeconds(30));
+
+    assertThat(result.eventsRead()).isEqualTo(12);
+    assertThat(result.eventsAppended()).isEqualTo(5);
+    for (EventStore store : List.of(versioned, legacy)) {
+      assertThat(store.readStream("inventory-dup"))
+          .extracting(Event::getEventId, Event::getVersion)
+          .containsExactly(
+              events.stream()
+                  .map(event -> tuple(event.getEventId(), event.getVersion()))
+                  .toArray(Tuple[]::new));
+    }
+    assertThat(replayer.replay(Duration.ofSeconds(30)).eventsAppended()).isZero();
+  }
+
+  private static CreateOrderCommand createOrder(String customerId, int index) {
+    Address address =
+        Address.builder()
+            .street("1 Main St")
+            .city("Springfield")
+            .state("IL")
+            .zipcode("62701")
+            .country("US")
+            .build();
+    List<OrderItem> items =
+        List.of(
+            new OrderItem(
+                PRODUCTS.get(index % PRODUCTS.size()),
+                1 + index % 3,
+                new Money(new BigDecimal("9.99"))),
+            new OrderItem(
+                PRODUCTS.get((index + 1) % PRODUCTS.size()), 2, new Money(new BigDecimal("4.50"))));
+    return CreateOrderCommand.builder()
+        .customerId(customerId)
+        .items(items)
+        .shippingAddress(address)
+        .billingAddress(address)
+        .totalCost(new Money(new BigDecimal("42.00")))
+        .issuedAt(LocalDateTime.now())
+        .build();
+  }
+
+  private static void assertSameStreams(EventStore actual, EventStore expected) {
+    assertThat(actual.getAggregateIds()).isEqualTo(expected.getAggregateIds());
+    for (String aggregateId : expected.getAggregateIds()) {
+      assertThat(actual.readStream(aggregateId)).isEqualTo(expected.readStream(aggregateId));
+    }
+  }
+
+  private static long totalEvents(EventStore store) {
+    return store.getAggregateIds().stream().mapToLong(store::getVersion).sum();
+  }
+
+  private static AggregateLoader<InventoryItem, InventoryItemSnapshot> inventoryLoader(
+      EventStore eventStore) {
+    return AggregateLoader.<InventoryItem, InventoryItemSnapshot>builder()
+        .aggregateType("InventoryItem")
+        .eventStore(eventStore)
+        .snapshotStore(new InMemorySnapshotStore())
+        .snapshotPolicy(new SnapshotPolicy(false, 100, Duration.ofMillis(10)))
+        .factory(InventoryItem::new)
+        .weigher(snapshot -> 1)
+        .cacheMaximumWeight(0)
+        .meterRegistry(new SimpleMeterRegistry())
+        .build();
+  }
+}
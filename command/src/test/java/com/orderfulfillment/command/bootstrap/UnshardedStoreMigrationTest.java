@@ -0,0 +1,134 @@
+package com.orderfulfillment.command.bootstrap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.impl.InventoryEvents;
+import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
+import com.orderfulfillment.command.eventstore.EventLog;
+import com.orderfulfillment.command.eventstore.FsyncPolicy;
+import com.orderfulfillment.command.eventstore.ShardRouter;
+import com.orderfulfillment.command.eventstore.StoredEvent;
+import com.orderfulfillment.command.eventstore.impl.InMemoryEventStore;
+import com.orderfulfillment.command.eventstore.impl.JavaEventSerializer;
+import com.orderfulfillment.command.eventstore.impl.SegmentedFileEventStore;
+import com.orderfulfillment.command.eventstore.impl.ShardedEventStore;
+import com.orderfulfillment.command.outbox.impl.FileOutboxCheckpoint;
+import com.orderfulfillment.command.outbox.impl.InMemoryOutboxCheckpoint;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that an unsharded file event store is copied into the shards with outbox checkpoints that
+ * publish exactly what the unsharded outbox had not.
+ */
+class UnshardedStoreMigrationTest {
+  private static final int SEGMENT_SIZE = 1 << 20;
+  private static final int PUBLISHED = 25;
+
+  @TempDir Path directory;
+
+  private final ShardRouter router = new ShardRouter(3);
+  private final InMemoryOutboxCheckpoint[] checkpoints =
+      IntStream.range(0, 3)
+          .mapToObj(shard -> new InMemoryOutboxCheckpoint())
+          .toArray(InMemoryOutboxCheckpoint[]::new);
+
+  @Test
+  void copiesEventsIntoTheirShardsAndKeepsWhatWasPublished() throws Exception {
+    List<Event<?>> log = writeUnshardedStore();
+    ShardedEventStore target = new ShardedEventStore(router, shard -> new InMemoryEventStore());
+
+    assertThat(migration().migrate(target, shard -> checkpoints[shard])).isEqualTo(log.size());
+
+    for (Event<?> event : log) {
+      assertThat(target.readStream(event.getAggregateId()))
+          .containsExactlyElementsOf(
+              log.stream()
+                  .filter(other -> other.getAggregateId().equals(event.getAggregateId()))
+                  .toList());
+    }
+    List<String> unpublished = new ArrayList<>();
+    for (int shard = 0; shard < 3; shard++) {
+      EventLog shardLog = target.getShard(shard);
+      shardLog.readAll(checkpoints[shard].load(), log.size()).stream()
+          .map(stored -> stored.event().getEventId())
+          .forEach(unpublished::add);
+    }
+    assertThat(unpublished)
+        .containsExactlyInAnyOrderElementsOf(
+            log.subList(PUBLISHED, log.size()).stream().map(Event::getEventId).toList());
+    try (Stream<Path> listing = Files.list(directory)) {
+      assertThat(listing.map(path -> path.getFileName().toString()))
+          .containsExactly(UnshardedStoreMigration.MIGRATED_DIRECTORY);
+    }
+
+    assertThat(migration().migrate(target, shard -> checkpoints[shard])).isZero();
+    assertThat(target.getHeadPosition()).isEqualTo(log.size());
+  }
+
+  @Test
+  void resumesAnInterruptedCopy() {
+    List<Event<?>> log = writeUnshardedStore();
+    ShardedEventStore target = new ShardedEventStore(router, shard -> new InMemoryEventStore());
+    Event<?> first = log.get(0);
+    target.append(first.getAggregateId(), 0, List.of(first));
+
+    assertThat(migration().migrate(target, shard -> checkpoints[shard])).isEqualTo(log.size() - 1);
+    assertThat(target.getHeadPosition()).isEqualTo(log.size());
+  }
+
+  @Test
+  void refusesShardsHoldingOtherEvents() {
+    writeUnshardedStore();
+    ShardedEventStore target = new ShardedEventStore(router, shard -> new InMemoryEventStore());
+    target.append("inventory-other", 0, List.of(event("inventory-other", 0)));
+
+    assertThatThrownBy(() -> migration().migrate(target, shard -> checkpoints[shard]))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("both the unsharded and the sharded layout");
+    assertThat(target.getHeadPosition()).isEqualTo(1);
+  }
+
+  private UnshardedStoreMigration migration() {
+    return new UnshardedStoreMigration(directory, SEGMENT_SIZE, new JavaEventSerializer());
+  }
+
+  /** Writes three events for each of 20 aggregates, interleaved, as the unsharded store did. */
+  private List<Event<?>> writeUnshardedStore() {
+    List<Event<?>> log = new ArrayList<>();
+    try (SegmentedFileEventStore store =
+        new SegmentedFileEventStore(
+            directory,
+            SEGMENT_SIZE,
+            FsyncPolicy.ALWAYS,
+            Duration.ZERO,
+            new JavaEventSerializer())) {
+      for (int version = 0; version < 3; version++) {
+        for (int i = 0; i < 20; i++) {
+          Event<?> event = event("inventory-" + i, version);
+          store.append(event.getAggregateId(), version, List.of(event));
+          log.add(event);
+        }
+      }
+      assertThat(store.readAll(0, log.size()))
+          .extracting(StoredEvent::event)
+          .containsExactlyElementsOf(log);
+    }
+    new FileOutboxCheckpoint(directory.resolve("outbox.checkpoint")).save(PUBLISHED);
+    return log;
+  }
+
+  private static Event<?> event(String aggregateId, int version) {
+    return InventoryEvents.createInventoryUpdatedEvent(
+        aggregateId, new InventoryUpdatedPayload("product-" + aggregateId, version), version);
+  }
+}
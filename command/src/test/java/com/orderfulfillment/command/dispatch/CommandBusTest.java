@@ -0,0 +1,96 @@
+package com.orderfulfillment.command.dispatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.orderfulfillment.command.dispatch.CommandStatus.State;
+import com.orderfulfillment.command.exceptions.CommandBusFullException;
+import com.orderfulfillment.command.exceptions.domain.InsufficientInventoryException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+
+/** Tests that the command bus bounds outstanding commands and tracks their outcome. */
+class CommandBusTest {
+
+  @Test
+  void tracksCommandsUntilTheyComplete() {
+    CommandBus bus = bus(10, Duration.ofMinutes(1));
+    CompletableFuture<Void> stored = new CompletableFuture<>();
+    CompletableFuture<Void> rejected = new CompletableFuture<>();
+    CompletableFuture<Void> broken = new CompletableFuture<>();
+
+    CommandStatus first = bus.accept("order-1", () -> stored);
+    CommandStatus second = bus.accept("order-2", () -> rejected);
+    CommandStatus third = bus.accept("order-3", () -> broken);
+    assertThat(first.state()).isEqualTo(State.ACCEPTED);
+    assertThat(bus.status(first.commandId())).contains(first);
+    assertThat(bus.getOutstanding()).isEqualTo(3);
+
+    stored.complete(null);
+    rejected.completeExceptionally(
+        new CompletionException(new InsufficientInventoryException("product-1", 3, 1)));
+    broken.completeExceptionally(new IllegalStateException("disk on fire"));
+
+    assertThat(bus.status(first.commandId()).orElseThrow())
+        .satisfies(
+            status -> {
+              assertThat(status.state()).isEqualTo(State.SUCCEEDED);
+              assertThat(status.aggregateId()).isEqualTo("order-1");
+              assertThat(status.completedAt()).isNotNull();
+            });
+    assertThat(bus.status(second.commandId()).orElseThrow())
+        .satisfies(
+            status -> {
+              assertThat(status.state()).isEqualTo(State.FAILED);
+              assertThat(status.error()).isEqualTo("InsufficientInventoryException");
+              assertThat(status.message()).contains("product-1");
+            });
+    assertThat(bus.status(third.commandId()).orElseThrow().message())
+        .isEqualTo("An unexpected error occurred");
+    assertThat(bus.getOutstanding()).isZero();
+    assertThat(bus.status("unknown")).isEmpty();
+  }
+
+  @Test
+  void rejectsCommandsWhileFull() {
+    CommandBus bus = bus(2, Duration.ofMinutes(1));
+    CompletableFuture<Void> running = new CompletableFuture<>();
+    bus.accept("order-1", () -> running);
+    bus.accept(
+        "order-2",
+        () -> {
+          throw new IllegalArgumentException("rejected on submission");
+        });
+    bus.accept("order-3", () -> new CompletableFuture<>());
+
+    assertThatThrownBy(() -> bus.accept("order-4", CompletableFuture::new))
+        .isInstanceOf(CommandBusFullException.class);
+
+    running.complete(null);
+    assertThat(bus.accept("order-4", () -> CompletableFuture.completedFuture(null)).state())
+        .isEqualTo(State.ACCEPTED);
+  }
+
+  @Test
+  void evictsResultsAfterTheirTtl() throws InterruptedException {
+    CommandBus bus = bus(10, Duration.ofMillis(50));
+    CommandStatus status = bus.accept("order-1", () -> CompletableFuture.completedFuture(null));
+    assertThat(bus.status(status.commandId())).isPresent();
+
+    Thread.sleep(150);
+
+    assertThat(bus.status(status.commandId())).isEmpty();
+  }
+
+  private static CommandBus bus(int capacity, Duration resultTtl) {
+    return CommandBus.builder()
+        .capacity(capacity)
+        .resultTtl(resultTtl)
+        .maxTrackedResults(1_000)
+        .meterRegistry(new SimpleMeterRegistry())
+        .build();
+  }
+}
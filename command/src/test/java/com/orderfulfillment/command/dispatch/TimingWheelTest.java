@@ -0,0 +1,60 @@
+package com.orderfulfillment.command.dispatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orderfulfillment.command.dispatch.TimingWheel.Timeout;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** Tests that the timing wheel fires timeouts at their deadline across all of its levels. */
+class TimingWheelTest {
+  private static final long START = 1_000_000;
+
+  @Test
+  void firesEachTimeoutWithinOneTickAfterItsDeadline() {
+    TimingWheel<Long> wheel = new TimingWheel<>(10, 4, START);
+    Random random = new Random(42);
+    List<Long> deadlines = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      long deadline = START + random.nextInt(100_000);
+      deadlines.add(deadline);
+      wheel.schedule(deadline, deadline);
+    }
+
+    List<Long> fired = new ArrayList<>();
+    for (long now = START; now <= START + 100_010; now += 7) {
+      long current = now;
+      wheel.advance(
+          now,
+          deadline -> {
+            assertThat(current).isBetween(deadline, deadline + 10 + 7);
+            fired.add(deadline);
+          });
+    }
+
+    assertThat(fired).containsExactlyInAnyOrderElementsOf(deadlines);
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  void skipsCancelledTimeoutsAndFiresOverdueOnesRightAway() {
+    TimingWheel<String> wheel = new TimingWheel<>(100, 8, START);
+    Timeout<String> cancelled = wheel.schedule("cancelled", START + 50_000);
+    wheel.schedule("kept", START + 50_000);
+    wheel.schedule("overdue", START - 1);
+    cancelled.cancel();
+
+    List<String> fired = new ArrayList<>();
+    wheel.advance(START, fired::add);
+    assertThat(fired).containsExactly("overdue");
+
+    wheel.advance(START + 49_999, fired::add);
+    assertThat(fired).containsExactly("overdue");
+
+    wheel.advance(START + 50_000, fired::add);
+    assertThat(fired).containsExactly("overdue", "kept");
+    assertThat(wheel.size()).isZero();
+  }
+}
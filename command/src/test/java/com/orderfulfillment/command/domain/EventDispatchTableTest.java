@@ -0,0 +1,69 @@
+package com.orderfulfillment.command.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.EventType;
+import com.orderfulfillment.command.events.impl.BaseEvent;
+import com.orderfulfillment.command.events.impl.InventoryEvents;
+import com.orderfulfillment.command.events.payloads.InventoryAllocatedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
+import com.orderfulfillment.command.exceptions.EventHandlerNotFoundException;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Tests that aggregates apply events through the dispatch table of their class. */
+class EventDispatchTableTest {
+  @Test
+  void appliesEventsByTheirTypeName() {
+    InventoryItem item = new InventoryItem();
+    Event<?> updated =
+        new BaseEvent<>(
+            "event-1",
+            new String(EventType.INVENTORY_UPDATED.getTypeName().toCharArray()),
+            "inventory-1",
+            "InventoryAggregate",
+            LocalDateTime.now(),
+            0,
+            new InventoryUpdatedPayload("product-1", 10));
+
+    assertThat(updated.getType()).isSameAs(EventType.INVENTORY_UPDATED);
+    item.loadFromHistory(
+        List.of(
+            updated,
+            InventoryEvents.createInventoryAllocatedEvent(
+                "inventory-1", new InventoryAllocatedPayload("product-1", "order-1", 4), 1)));
+
+    assertThat(item.getAvailableQuantity()).isEqualTo(6);
+    assertThat(item.getAllocatedQuantity()).isEqualTo(4);
+    assertThat(item.getVersion()).isEqualTo(2);
+  }
+
+  @Test
+  void rejectsEventsOfOtherAggregatesAndUnknownTypes() {
+    Event<?> inventoryEvent =
+        InventoryEvents.createInventoryUpdatedEvent(
+            "inventory-1", new InventoryUpdatedPayload("product-1", 10), 0);
+    Event<?> unknown =
+        new BaseEvent<>(
+            "event-1", "OrderShipped", "order-1", "OrderAggregate", LocalDateTime.now(), 0, null);
+
+    assertThatThrownBy(() -> new Order().loadFromHistory(List.of(inventoryEvent)))
+        .isInstanceOf(EventHandlerNotFoundException.class)
+        .hasMessageContaining("InventoryUpdated");
+    assertThatThrownBy(() -> new Order().loadFromHistory(List.of(unknown)))
+        .isInstanceOf(EventHandlerNotFoundException.class)
+        .hasMessageContaining("OrderShipped");
+  }
+
+  @Test
+  void rejectsTwoHandlersForOneEventType() {
+    EventDispatchTable.Builder<Order> builder =
+        EventDispatchTable.<Order>builder().on(EventType.ORDER_CREATED, (order, event) -> {});
+
+    assertThatThrownBy(() -> builder.on(EventType.ORDER_CREATED, (order, event) -> {}))
+        .isInstanceOf(IllegalStateException.class);
+  }
+}
@@ -0,0 +1,46 @@
+package com.orderfulfillment.command.eventstore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orderfulfillment.command.domain.InventoryItem;
+import com.orderfulfillment.command.domain.InventoryItemSnapshot;
+import com.orderfulfillment.command.eventstore.impl.InMemoryEventStore;
+import com.orderfulfillment.command.eventstore.impl.InMemorySnapshotStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/** Tests how the aggregate loader combines snapshots with the event stream. */
+class AggregateLoaderTest {
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final EventStore eventStore = new InMemoryEventStore();
+  private final SnapshotStore snapshotStore = new InMemorySnapshotStore();
+  private final AggregateLoader<InventoryItem, InventoryItemSnapshot> loader =
+      AggregateLoader.<InventoryItem, InventoryItemSnapshot>builder()
+          .aggregateType("InventoryItem")
+          .eventStore(eventStore)
+          .snapshotStore(snapshotStore)
+          .snapshotPolicy(new SnapshotPolicy(true, 100, Duration.ofSeconds(1)))
+          .factory(InventoryItem::new)
+          .weigher(snapshot -> 1)
+          .cacheMaximumWeight(0)
+          .meterRegistry(meterRegistry)
+          .build();
+
+  @Test
+  void discardsSnapshotsAheadOfTheStream() {
+    InventoryItem item = InventoryItem.createNew("inventory-1", "product-1", 20);
+    snapshotStore.save(new Snapshot<>(item.getId(), 2, item.toSnapshot()));
+
+    assertThat(loader.load(item.getId())).isEmpty();
+
+    InventoryItem stored = InventoryItem.createNew("inventory-1", "product-1", 5);
+    eventStore.append(stored.getId(), 0, stored.getUncommittedChanges());
+
+    InventoryItem loaded = loader.load(stored.getId()).orElseThrow();
+    assertThat(loaded.getVersion()).isEqualTo(1);
+    assertThat(loaded.getAvailableQuantity()).isEqualTo(5);
+    assertThat(meterRegistry.get("aggregate.snapshot.discarded").counter().count()).isEqualTo(2);
+  }
+}
@@ -0,0 +1,200 @@
+package com.orderfulfillment.command.eventstore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orderfulfillment.command.config.EventStoreProperties.Engine;
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.impl.InventoryEvents;
+import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
+import com.orderfulfillment.command.eventstore.impl.BinaryEventSerializer;
+import com.orderfulfillment.command.eventstore.impl.InMemoryEventStore;
+import com.orderfulfillment.command.eventstore.impl.SegmentedFileEventStore;
+import com.orderfulfillment.command.exceptions.ConcurrencyException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Stress tests for the compare-and-append contract of {@link EventStore} under many concurrent
+ * writers and readers.
+ */
+class EventStoreConcurrencyTest {
+  private static final int THREADS = 32;
+
+  @TempDir Path directory;
+
+  private EventStore store;
+  private ExecutorService executor;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    if (store != null) {
+      store.close();
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(Engine.class)
+  void retryingWritersLoseNoUpdates(Engine engine) throws Exception {
+    store = open(engine);
+    int aggregates = 8;
+    int appendsPerThread = 250;
+    AtomicLong conflicts = new AtomicLong();
+
+    runConcurrently(
+        thread -> {
+          for (int i = 0; i < appendsPerThread; i++) {
+            String aggregateId = "inventory-" + ((thread + i) % aggregates);
+            while (true) {
+              long version = store.getVersion(aggregateId);
+              try {
+                store.append(aggregateId, version, List.of(event(aggregateId, version)));
+                break;
+              } catch (ConcurrencyException e) {
+                conflicts.incrementAndGet();
+              }
+            }
+          }
+          return null;
+        });
+
+    long total = 0;
+    for (int a = 0; a < aggregates; a++) {
+      String aggregateId = "inventory-" + a;
+      List<Event<?>> events = store.readStream(aggregateId);
+      assertThat(store.getVersion(aggregateId)).isEqualTo(events.size());
+      for (int v = 0; v < events.size(); v++) {
+        assertThat(events.get(v).getVersion()).isEqualTo(v);
+      }
+      total += events.size();
+    }
+    assertThat(total).isEqualTo((long) THREADS * appendsPerThread);
+    assertThat(conflicts.get()).isPositive();
+  }
+
+  @ParameterizedTest
+  @EnumSource(Engine.class)
+  void exactlyOneWriterWinsEachVersion(Engine engine) throws Exception {
+    store = open(engine);
+    int rounds = 100;
+    String aggregateId = "inventory-contended";
+    CyclicBarrier barrier = new CyclicBarrier(THREADS);
+    AtomicInteger[] winners = new AtomicInteger[rounds];
+    for (int r = 0; r < rounds; r++) {
+      winners[r] = new AtomicInteger();
+    }
+
+    runConcurrently(
+        thread -> {
+          for (int r = 0; r < rounds; r++) {
+            barrier.await(10, TimeUnit.SECONDS);
+            try {
+              store.append(aggregateId, r, List.of(event(aggregateId, r)));
+              winners[r].incrementAndGet();
+            } catch (ConcurrencyException e) {
+              assertThat(e.getExpectedVersion()).isEqualTo(r);
+            }
+            barrier.await(10, TimeUnit.SECONDS);
+          }
+          return null;
+        });
+
+    for (int r = 0; r < rounds; r++) {
+      assertThat(winners[r].get()).as("winners of version %d", r).isEqualTo(1);
+    }
+    assertThat(store.getVersion(aggregateId)).isEqualTo(rounds);
+  }
+
+  @ParameterizedTest
+  @EnumSource(Engine.class)
+  void readersNeverObservePartialBatches(Engine engine) throws Exception {
+    store = open(engine);
+    int batchSize = 5;
+    int batches = 400;
+    String aggregateId = "inventory-batched";
+    AtomicBoolean writing = new AtomicBoolean(true);
+
+    runConcurrently(
+        thread -> {
+          if (thread == 0) {
+            try {
+              for (int b = 0; b < batches; b++) {
+                long version = (long) b * batchSize;
+                List<Event<?>> batch = new ArrayList<>();
+                for (int i = 0; i < batchSize; i++) {
+                  batch.add(event(aggregateId, version + i));
+                }
+                store.append(aggregateId, version, batch);
+              }
+            } finally {
+              writing.set(false);
+            }
+            return null;
+          }
+
+          while (writing.get()) {
+            List<Event<?>> events = store.readStream(aggregateId);
+            assertThat(events.size() % batchSize).isZero();
+            for (int v = 0; v < events.size(); v++) {
+              assertThat(events.get(v).getVersion()).isEqualTo(v);
+            }
+          }
+          return null;
+        });
+
+    assertThat(store.getVersion(aggregateId)).isEqualTo((long) batches * batchSize);
+  }
+
+  private EventStore open(Engine engine) {
+    return switch (engine) {
+      case MEMORY -> new InMemoryEventStore();
+      case FILE ->
+          new SegmentedFileEventStore(
+              directory,
+              1024 * 1024,
+              FsyncPolicy.GROUP_COMMIT,
+              Duration.ofMillis(1),
+              new BinaryEventSerializer());
+    };
+  }
+
+  private void runConcurrently(ThreadTask task) throws Exception {
+    executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<Void>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      int thread = t;
+      futures.add(executor.submit((Callable<Void>) () -> task.run(thread)));
+    }
+    for (Future<Void> future : futures) {
+      future.get(2, TimeUnit.MINUTES);
+    }
+  }
+
+  private static Event<?> event(String aggregateId, long version) {
+    return InventoryEvents.createInventoryUpdatedEvent(
+        aggregateId, new InventoryUpdatedPayload("product", (int) version), version);
+  }
+
+  @FunctionalInterface
+  private interface ThreadTask {
+    Void run(int thread) throws Exception;
+  }
+}
@@ -0,0 +1,72 @@
+package com.orderfulfillment.command.eventstore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.impl.InventoryEvents;
+import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
+import com.orderfulfillment.command.eventstore.impl.BinaryEventSerializer;
+import com.orderfulfillment.command.eventstore.impl.SegmentedFileEventStore;
+import com.orderfulfillment.command.exceptions.ConcurrencyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests the meters of the file event store. */
+class EventStoreMetricsTest {
+  @TempDir Path directory;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private EventStore store;
+
+  @AfterEach
+  void tearDown() {
+    if (store != null) {
+      store.close();
+    }
+  }
+
+  @Test
+  void timesEachPhaseOfAnAppend() {
+    store =
+        new SegmentedFileEventStore(
+            directory,
+            1024 * 1024,
+            FsyncPolicy.GROUP_COMMIT,
+            Duration.ofMillis(1),
+            new BinaryEventSerializer(),
+            new EventStoreMetrics("inventory", meterRegistry));
+    EventStoreMetrics.bind("inventory", store, meterRegistry);
+
+    store.append("inventory-1", 0, List.of(event("inventory-1", 0), event("inventory-1", 1)));
+    store.append("inventory-2", 0, List.of(event("inventory-2", 0)));
+    assertThatThrownBy(() -> store.append("inventory-2", 0, List.of(event("inventory-2", 0))))
+        .isInstanceOf(ConcurrencyException.class);
+
+    assertThat(timerCount("event.store.append", null)).isEqualTo(2);
+    assertThat(timerCount("event.store.append.phase", "serialize")).isEqualTo(3);
+    assertThat(timerCount("event.store.append.phase", "version-check")).isEqualTo(3);
+    assertThat(timerCount("event.store.append.phase", "write")).isEqualTo(2);
+    assertThat(timerCount("event.store.append.phase", "sync")).isEqualTo(2);
+    assertThat(meterRegistry.get("event.store.event.size").summary().count()).isEqualTo(4);
+    assertThat(meterRegistry.get("event.store.event.size").summary().max()).isPositive();
+    assertThat(meterRegistry.get("event.store.aggregates").gauge().value()).isEqualTo(2);
+    assertThat(meterRegistry.get("event.store.events").gauge().value()).isEqualTo(3);
+  }
+
+  private long timerCount(String name, String phase) {
+    var search = meterRegistry.get(name).tag("store", "inventory");
+    return (phase == null ? search : search.tag("phase", phase)).timer().count();
+  }
+
+  private static Event<?> event(String aggregateId, long version) {
+    return InventoryEvents.createInventoryUpdatedEvent(
+        aggregateId, new InventoryUpdatedPayload("product", (int) version), version);
+  }
+}
@@ -0,0 +1,169 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.orderfulfillment.command.domain.Address;
+import com.orderfulfillment.command.domain.Money;
+import com.orderfulfillment.command.domain.OrderItem;
+import com.orderfulfillment.command.domain.OrderStatus;
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.impl.BaseEvent;
+import com.orderfulfillment.command.events.impl.InventoryEvents;
+import com.orderfulfillment.command.events.impl.OrderEvents;
+import com.orderfulfillment.command.events.payloads.InventoryAllocatedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderAllocatedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderCancelledPayload;
+import com.orderfulfillment.command.events.payloads.InventoryBackorderedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservationConfirmedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservationExpiredPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReservedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryReturnedPayload;
+import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
+import com.orderfulfillment.command.events.payloads.OrderCancelledPayload;
+import com.orderfulfillment.command.events.payloads.OrderCreatedPayload;
+import com.orderfulfillment.command.events.payloads.OrderStatusUpdatedPayload;
+import com.orderfulfillment.command.exceptions.EventSerializationException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class BinaryEventSerializerTest {
+  private final BinaryEventSerializer serializer =
+      new BinaryEventSerializer(new JavaEventSerializer());
+
+  @ParameterizedTest
+  @MethodSource("events")
+  void roundTripsEveryEventType(Event<?> event) {
+    byte[] data = serializer.serialize(event);
+
+    assertThat(BinaryEventSerializer.isBinary(data)).isTrue();
+    assertThat(serializer.deserialize(data)).isEqualTo(event);
+  }
+
+  @Test
+  void keepsIdentifiersThatAreNotCanonicalUuids() {
+    Event<?> event =
+        new BaseEvent<>(
+            "E3F1C7A2-0000-4000-8000-00000000000A",
+            "InventoryUpdated",
+            "product-é",
+            "SomeAggregate",
+            LocalDateTime.of(1969, 7, 20, 20, 17, 40, 123_456_789),
+            Long.MAX_VALUE,
+            new InventoryUpdatedPayload(null, Integer.MIN_VALUE));
+
+    assertThat(serializer.deserialize(serializer.serialize(event))).isEqualTo(event);
+  }
+
+  @Test
+  void readsEventsWrittenByTheFallbackSerializer() {
+    Event<?> event = inventoryUpdated();
+    byte[] legacy = new JavaEventSerializer().serialize(event);
+
+    assertThat(serializer.deserialize(legacy)).isEqualTo(event);
+    assertThatThrownBy(() -> new BinaryEventSerializer().deserialize(legacy))
+        .isInstanceOf(EventSerializationException.class);
+  }
+
+  @Test
+  void readsJavaSerializedEventsWithDateTimeTimestamps() throws Exception {
+    byte[] legacy;
+    try (var in = getClass().getResourceAsStream("/events/java-serialized-inventory-updated.bin")) {
+      legacy = in.readAllBytes();
+    }
+
+    Event<?> event = serializer.deserialize(legacy);
+
+    assertThat(event)
+        .isEqualTo(
+            new BaseEvent<>(
+                "0190c6b2-5f3a-7c41-9d2e-8a1b2c3d4e5f",
+                "InventoryUpdated",
+                "inventory-1",
+                "InventoryItem",
+                LocalDateTime.of(2024, 7, 1, 12, 30, 15, 123_456_000),
+                3,
+                new InventoryUpdatedPayload("product-1", 42)));
+    assertThat(serializer.deserialize(new JavaEventSerializer().serialize(event))).isEqualTo(event);
+  }
+
+  @Test
+  void rejectsUnknownEventTypesAndTruncatedData() {
+    Event<?> unknown =
+        new BaseEvent<>(
+            "id", "OrderShipped", "order", "OrderAggregate", LocalDateTime.now(), 0, null);
+    assertThatThrownBy(() -> serializer.serialize(unknown))
+        .isInstanceOf(EventSerializationException.class);
+
+    byte[] data = serializer.serialize(inventoryUpdated());
+    byte[] truncated = Arrays.copyOf(data, data.length - 1);
+    assertThatThrownBy(() -> serializer.deserialize(truncated))
+        .isInstanceOf(EventSerializationException.class);
+  }
+
+  static Stream<Event<?>> events() {
+    String orderId = UUID.randomUUID().toString();
+    Address address =
+        Address.builder()
+            .street("Main Street 1")
+            .city("Amsterdam")
+            .zipcode("1011AB")
+            .country("NL")
+            .build();
+    OrderCreatedPayload created =
+        OrderCreatedPayload.builder()
+            .customerId("customer-1")
+            .quantity(3)
+            .items(
+                List.of(
+                    new OrderItem("product-1", 2, new Money(new BigDecimal("4.50"))),
+                    new OrderItem(
+                        "product-2", 1, new Money(new BigDecimal("12345678901234567890.12")))))
+            .status(OrderStatus.REGISTERED)
+            .shippingAddress(address)
+            .totalCost(new Money(new BigDecimal("1E+3")))
+            .build();
+    return Stream.of(
+        OrderEvents.createOrderCreatedEvent(orderId, created, 0),
+        OrderEvents.createOrderStatusUpdatedEvent(
+            orderId, new OrderStatusUpdatedPayload(orderId, OrderStatus.PARTIALLY_DELIVERED), 1),
+        OrderEvents.createOrderCancelledEvent(orderId, new OrderCancelledPayload(orderId), 2),
+        inventoryUpdated(),
+        InventoryEvents.createInventoryAllocatedEvent(
+            "inventory-1", new InventoryAllocatedPayload("product-1", orderId, 5), 1),
+        InventoryEvents.createInventoryReturnedEvent(
+            "inventory-1", new InventoryReturnedPayload("product-1", orderId, 5), 2),
+        InventoryEvents.createInventoryReservedEvent(
+            "inventory-1",
+            new InventoryReservedPayload(
+                "product-1", "reservation-1", 3, Instant.parse("2026-01-02T03:04:05.123456789Z")),
+            3),
+        InventoryEvents.createInventoryReservationConfirmedEvent(
+            "inventory-1",
+            new InventoryReservationConfirmedPayload("product-1", "reservation-1", orderId, 3),
+            4),
+        InventoryEvents.createInventoryReservationExpiredEvent(
+            "inventory-1",
+            new InventoryReservationExpiredPayload("product-1", "reservation-2", 2),
+            5),
+        InventoryEvents.createInventoryBackorderedEvent(
+            "inventory-1", new InventoryBackorderedPayload("product-1", orderId, 7, -3), 6),
+        InventoryEvents.createInventoryBackorderAllocatedEvent(
+            "inventory-1", new InventoryBackorderAllocatedPayload("product-1", orderId, 7), 7),
+        InventoryEvents.createInventoryBackorderCancelledEvent(
+            "inventory-1", new InventoryBackorderCancelledPayload("product-1", orderId, 7), 8));
+  }
+
+  private static Event<?> inventoryUpdated() {
+    return InventoryEvents.createInventoryUpdatedEvent(
+        UUID.randomUUID().toString(), new InventoryUpdatedPayload("product-1", 100), 0);
+  }
+}
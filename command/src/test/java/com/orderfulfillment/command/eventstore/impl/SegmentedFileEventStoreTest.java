@@ -0,0 +1,93 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.impl.InventoryEvents;
+import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
+import com.orderfulfillment.command.eventstore.FsyncPolicy;
+import com.orderfulfillment.command.exceptions.EventStoreException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Tests the recovery of the file event store after a crash and its refusal of damaged segments. */
+class SegmentedFileEventStoreTest {
+  private static final int SEGMENT_SIZE = 64 * 1024;
+
+  @TempDir Path directory;
+
+  @Test
+  void discardsABatchCutOffByACrash() throws IOException {
+    try (SegmentedFileEventStore store = open()) {
+      store.append("inventory-1", 0, List.of(event("inventory-1", 0)));
+      store.append(
+          "inventory-2",
+          0,
+          List.of(event("inventory-2", 0), event("inventory-2", 1), event("inventory-2", 2)));
+    }
+    tearLastRecord(directory.resolve(String.format("%020d.log", 0)));
+
+    try (SegmentedFileEventStore store = open()) {
+      assertThat(store.getVersion("inventory-1")).isEqualTo(1);
+      assertThat(store.getVersion("inventory-2")).isZero();
+      assertThat(store.getHeadPosition()).isEqualTo(1);
+
+      store.append("inventory-2", 0, List.of(event("inventory-2", 0)));
+    }
+
+    try (SegmentedFileEventStore store = open()) {
+      assertThat(store.getVersion("inventory-2")).isEqualTo(1);
+      assertThat(store.readAll(0, 10)).hasSize(2);
+    }
+  }
+
+  @Test
+  void refusesToOpenWithADamagedEarlierSegment() throws IOException {
+    Path first = directory.resolve(String.format("%020d.log", 0));
+    try (SegmentedFileEventStore store = open()) {
+      for (int version = 0; !Files.exists(directory.resolve(String.format("%020d.log", 1))); ) {
+        store.append("inventory-1", version, List.of(event("inventory-1", version++)));
+      }
+    }
+    tearLastRecord(first);
+    byte[] damaged = Files.readAllBytes(first);
+
+    assertThatThrownBy(this::open)
+        .isInstanceOf(EventStoreException.class)
+        .hasMessageContaining("is damaged");
+    assertThat(Files.readAllBytes(first)).isEqualTo(damaged);
+  }
+
+  private SegmentedFileEventStore open() {
+    return new SegmentedFileEventStore(
+        directory, SEGMENT_SIZE, FsyncPolicy.ALWAYS, Duration.ZERO, new BinaryEventSerializer());
+  }
+
+  /** Flips the last written byte of a segment, as if the crash interrupted its last record. */
+  private static void tearLastRecord(Path segment) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      ByteBuffer content = ByteBuffer.allocate(SEGMENT_SIZE);
+      channel.read(content, 0);
+      int last = SEGMENT_SIZE - 1;
+      while (content.get(last) == 0) {
+        last--;
+      }
+      channel.write(ByteBuffer.wrap(new byte[] {(byte) ~content.get(last)}), last);
+    }
+  }
+
+  private static Event<?> event(String aggregateId, long version) {
+    return InventoryEvents.createInventoryUpdatedEvent(
+        aggregateId, new InventoryUpdatedPayload("product", (int) version), version);
+  }
+}
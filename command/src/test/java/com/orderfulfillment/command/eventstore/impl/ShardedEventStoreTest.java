@@ -0,0 +1,93 @@
+package com.orderfulfillment.command.eventstore.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.impl.InventoryEvents;
+import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
+import com.orderfulfillment.command.eventstore.EventLog;
+import com.orderfulfillment.command.eventstore.ShardRouter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import org.apache.kafka.clients.producer.internals.BuiltInPartitioner;
+import org.junit.jupiter.api.Test;
+
+/** Tests the routing of aggregates to the shards of a sharded event store. */
+class ShardedEventStoreTest {
+  private final ShardRouter router = new ShardRouter(4);
+  private final ShardedEventStore store =
+      new ShardedEventStore(router, shard -> new InMemoryEventStore());
+
+  @Test
+  void routesAggregatesToTheirKafkaPartition() {
+    for (int i = 0; i < 1_000; i++) {
+      String aggregateId = UUID.randomUUID().toString();
+      assertThat(router.shardOf(aggregateId))
+          .isEqualTo(
+              BuiltInPartitioner.partitionForKey(aggregateId.getBytes(StandardCharsets.UTF_8), 4));
+    }
+    assertThat(new ShardRouter(1).shardOf("product-1")).isZero();
+  }
+
+  @Test
+  void generatesIdsInTheShardOfAKey() {
+    for (String productId : List.of("product-1", "product-2", "product-3", "product-4")) {
+      assertThat(router.shardOf(router.newIdInShardOf(productId)))
+          .isEqualTo(router.shardOf(productId));
+    }
+  }
+
+  @Test
+  void keepsEachAggregateInItsShard() {
+    List<String> aggregateIds = List.of("inventory-1", "inventory-2", "inventory-3", "inventory-4");
+    for (String aggregateId : aggregateIds) {
+      store.append(aggregateId, 0, List.of(event(aggregateId, 0), event(aggregateId, 1)));
+    }
+
+    for (String aggregateId : aggregateIds) {
+      int shard = router.shardOf(aggregateId);
+      assertThat(store.getShard(shard).getVersion(aggregateId)).isEqualTo(2);
+      assertThat(store.getVersion(aggregateId)).isEqualTo(2);
+      assertThat(store.readStream(aggregateId, 1)).hasSize(1);
+      for (int other = 0; other < store.getShardCount(); other++) {
+        if (other != shard) {
+          assertThat(store.getShard(other).getAggregateIds()).doesNotContain(aggregateId);
+        }
+      }
+    }
+    assertThat(store.getAggregateIds()).containsExactlyInAnyOrderElementsOf(aggregateIds);
+    assertThat(store.getAggregateCount()).isEqualTo(4);
+    assertThat(store.getHeadPosition()).isEqualTo(8);
+    assertThat(ShardedEventStore.logsOf(store)).hasSize(4);
+  }
+
+  @Test
+  void isFollowedThroughTheLogOfEachShard() {
+    List<String> aggregateIds = List.of("inventory-1", "inventory-2", "inventory-3", "inventory-4");
+    for (String aggregateId : aggregateIds) {
+      store.append(aggregateId, 0, List.of(event(aggregateId, 0)));
+    }
+
+    assertThat(store).isNotInstanceOf(EventLog.class);
+    List<EventLog> logs = ShardedEventStore.logsOf(store);
+    assertThat(logs).hasSize(store.getShardCount());
+    for (int shard = 0; shard < logs.size(); shard++) {
+      int expectedShard = shard;
+      assertThat(logs.get(shard).readAll(0, 10))
+          .allSatisfy(
+              stored ->
+                  assertThat(router.shardOf(stored.event().getAggregateId()))
+                      .isEqualTo(expectedShard));
+    }
+    assertThat(logs.stream().mapToLong(log -> log.readAll(0, 10).size()).sum()).isEqualTo(4);
+
+    InMemoryEventStore single = new InMemoryEventStore();
+    assertThat(ShardedEventStore.logsOf(single)).containsExactly(single);
+  }
+
+  private static Event<?> event(String aggregateId, long version) {
+    return InventoryEvents.createInventoryUpdatedEvent(
+        aggregateId, new InventoryUpdatedPayload("product", (int) version), version);
+  }
+}
@@ -0,0 +1,78 @@
+package com.orderfulfillment.command.handlers.impl;
+
+import static com.orderfulfillment.command.handlers.impl.HandlerFixtures.line;
+import static com.orderfulfillment.command.handlers.impl.HandlerFixtures.order;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orderfulfillment.command.commands.CreateOrderBatchCommand;
+import com.orderfulfillment.command.commands.CreateOrderCommand;
+import com.orderfulfillment.command.exceptions.domain.InsufficientInventoryException;
+import com.orderfulfillment.command.exceptions.domain.ProductNotFoundException;
+import com.orderfulfillment.command.handlers.BatchItemResult;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests batch order creation against the handlers wired as in the service. */
+class BatchOrderCommandHandlerImplTest {
+  private final HandlerFixtures fixtures = new HandlerFixtures();
+
+  @AfterEach
+  void tearDown() {
+    fixtures.close();
+  }
+
+  @Test
+  void createsOrdersAndAppendsOncePerProduct() {
+    fixtures.stock("product-1", 1_000);
+    fixtures.stock("product-2", 1_000);
+    long inventoryEventsBefore = fixtures.inventoryStore.getHeadPosition();
+    int inventoryAppendsBefore = fixtures.inventoryAppends.get();
+
+    List<CreateOrderCommand> orders = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      orders.add(order(line("product-1", 1), line("product-2", 2)));
+    }
+    List<BatchItemResult> results =
+        fixtures.batchOrderHandler.handle(new CreateOrderBatchCommand(orders));
+
+    assertThat(results).hasSize(200).allMatch(BatchItemResult::isSuccess);
+    assertThat(results)
+        .extracting(BatchItemResult::id)
+        .doesNotContainNull()
+        .doesNotHaveDuplicates();
+    assertThat(fixtures.orderStore.getAggregateIds())
+        .containsExactlyInAnyOrderElementsOf(results.stream().map(BatchItemResult::id).toList());
+    assertThat(fixtures.available("product-1")).isEqualTo(800);
+    assertThat(fixtures.available("product-2")).isEqualTo(600);
+    assertThat(fixtures.inventoryAppends.get() - inventoryAppendsBefore).isEqualTo(2);
+    assertThat(fixtures.inventoryStore.getHeadPosition() - inventoryEventsBefore).isEqualTo(400);
+  }
+
+  @Test
+  void rejectsOrdersIndividuallyAndReleasesTheirOtherLines() {
+    fixtures.stock("product-1", 100);
+    fixtures.stock("product-2", 3);
+
+    List<BatchItemResult> results =
+        fixtures.batchOrderHandler.handle(
+            new CreateOrderBatchCommand(
+                List.of(
+                    order(line("product-1", 5), line("product-2", 2)),
+                    order(line("product-1", 7), line("product-2", 2)),
+                    order(line("product-1", 11), line("product-unknown", 1)),
+                    order(line("product-1", 13), line("product-2", 1)))));
+
+    assertThat(results)
+        .extracting(BatchItemResult::isSuccess)
+        .containsExactly(true, false, false, true);
+    assertThat(results.get(1).failure()).isInstanceOf(InsufficientInventoryException.class);
+    assertThat(results.get(2).failure()).isInstanceOf(ProductNotFoundException.class);
+    assertThat(fixtures.available("product-1")).isEqualTo(100 - 5 - 13);
+    assertThat(fixtures.allocated("product-1")).isEqualTo(5 + 13);
+    assertThat(fixtures.available("product-2")).isZero();
+    assertThat(fixtures.orderStore.getAggregateIds())
+        .containsExactlyInAnyOrder(results.get(0).id(), results.get(3).id());
+  }
+}
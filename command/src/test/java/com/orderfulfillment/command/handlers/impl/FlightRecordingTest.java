@@ -0,0 +1,79 @@
+package com.orderfulfillment.command.handlers.impl;
+
+import static com.orderfulfillment.command.handlers.impl.HandlerFixtures.line;
+import static com.orderfulfillment.command.handlers.impl.HandlerFixtures.order;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orderfulfillment.command.actuator.FlightRecordingEndpoint;
+import java.util.List;
+import java.util.Set;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+/** Tests that on-demand recordings capture the command service's flight recorder events. */
+class FlightRecordingTest {
+  private final HandlerFixtures fixtures = new HandlerFixtures(Set.of());
+  private final FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint();
+
+  @AfterEach
+  void tearDown() {
+    endpoint.close();
+    fixtures.close();
+  }
+
+  @Test
+  void recordsCommandsWithTheEventsTheySaved() throws Exception {
+    assertThat(endpoint.status().state()).isEqualTo("NONE");
+    assertThat(endpoint.start("default", 60).getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+    assertThat(endpoint.start(null, null).getStatus()).isEqualTo(409);
+
+    fixtures.stock("product-1", 10);
+    fixtures.orderHandler.handle(order(line("product-1", 3)));
+
+    WebEndpointResponse<Resource> response = endpoint.stop();
+    assertThat(endpoint.status().state()).isEqualTo("STOPPED");
+    List<RecordedEvent> events = RecordingFile.readAllEvents(response.getBody().getFile().toPath());
+
+    assertThat(named(events, "com.orderfulfillment.CommandExecution"))
+        .anySatisfy(
+            event -> {
+              assertThat(event.getString("command")).isEqualTo("ConfirmReservationCommand");
+              assertThat(event.getString("aggregateType")).isEqualTo("InventoryItem");
+              assertThat(event.getString("key")).isEqualTo("product-1");
+              assertThat(event.getInt("eventCount")).isEqualTo(1);
+              assertThat(event.getString("outcome")).isEqualTo("success");
+            });
+    assertThat(named(events, "com.orderfulfillment.RepositorySave"))
+        .anySatisfy(
+            event -> {
+              assertThat(event.getString("aggregateType")).isEqualTo("Order");
+              assertThat(event.getInt("eventCount")).isEqualTo(1);
+              assertThat(event.getString("outcome")).isEqualTo("success");
+            });
+    assertThat(named(events, "com.orderfulfillment.AggregateHydration"))
+        .anySatisfy(
+            event -> {
+              assertThat(event.getString("aggregateType")).isEqualTo("InventoryItem");
+              assertThat(event.getString("outcome")).isEqualTo("found");
+            });
+  }
+
+  @Test
+  void rejectsUnknownSettingsAndDurations() {
+    assertThat(endpoint.start("no-such-settings", null).getStatus())
+        .isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+    assertThat(endpoint.start("default", 0).getStatus())
+        .isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+    assertThat(endpoint.start("default", -1).getStatus())
+        .isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+    assertThat(endpoint.stop().getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+  }
+
+  private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+    return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+  }
+}
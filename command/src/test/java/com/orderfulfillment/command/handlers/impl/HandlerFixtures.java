@@ -0,0 +1,222 @@
+package com.orderfulfillment.command.handlers.impl;
+
+import com.orderfulfillment.command.commands.CreateOrderCommand;
+import com.orderfulfillment.command.commands.UpdateInventoryCommand;
+import com.orderfulfillment.command.config.InventoryEscrowProperties;
+import com.orderfulfillment.command.config.InventoryReservationProperties;
+import com.orderfulfillment.command.dispatch.CommandLanes;
+import com.orderfulfillment.command.dispatch.CommandTimers;
+import com.orderfulfillment.command.dispatch.ConflictRetryPolicy;
+import com.orderfulfillment.command.domain.Address;
+import com.orderfulfillment.command.domain.InventoryItem;
+import com.orderfulfillment.command.domain.InventoryItemSnapshot;
+import com.orderfulfillment.command.domain.Money;
+import com.orderfulfillment.command.domain.Order;
+import com.orderfulfillment.command.domain.OrderItem;
+import com.orderfulfillment.command.domain.OrderSnapshot;
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.eventstore.AggregateLoader;
+import com.orderfulfillment.command.eventstore.EventStore;
+import com.orderfulfillment.command.eventstore.ShardRouter;
+import com.orderfulfillment.command.eventstore.SnapshotPolicy;
+import com.orderfulfillment.command.eventstore.impl.InMemoryEventStore;
+import com.orderfulfillment.command.eventstore.impl.InMemorySnapshotStore;
+import com.orderfulfillment.command.outbox.OutboxRelay;
+import com.orderfulfillment.command.outbox.impl.InMemoryOutboxCheckpoint;
+import com.orderfulfillment.command.projections.InventoryAvailability;
+import com.orderfulfillment.command.repositories.impl.InventoryRepositoryImpl;
+import com.orderfulfillment.command.repositories.impl.OrderRepositoryImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * The order and inventory command handlers wired as in the service, with in-memory event stores,
+ * command lanes and no Kafka broker.
+ */
+final class HandlerFixtures implements AutoCloseable {
+  final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  final EventStore orderStore = new InMemoryEventStore();
+  final AtomicInteger inventoryAppends = new AtomicInteger();
+  final EventStore inventoryStore =
+      new InMemoryEventStore() {
+        @Override
+        public void append(String aggregateId, long expectedVersion, List<Event<?>> events) {
+          super.append(aggregateId, expectedVersion, events);
+          inventoryAppends.incrementAndGet();
+        }
+      };
+  final CommandLanes orderLanes = new CommandLanes("order", 4, meterRegistry);
+  final CommandLanes inventoryLanes = new CommandLanes("inventory", 4, meterRegistry);
+  final InventoryAvailability availability = new InventoryAvailability();
+  final InventoryRepositoryImpl inventoryRepository;
+  final InventoryEscrow escrow;
+  final OrderRepositoryImpl orderRepository;
+  final LaneDispatchingInventoryCommandHandler inventoryHandler;
+  final OrderCommandHandlerImpl orderHandler;
+  final LaneDispatchingOrderCommandHandler laneOrderHandler;
+  final BatchOrderCommandHandlerImpl batchOrderHandler;
+
+  HandlerFixtures() {
+    this(Set.of());
+  }
+
+  /**
+   * Wires the handlers with some products allocated from escrow.
+   *
+   * @param escrowedProductIds the products to allocate from escrow
+   */
+  HandlerFixtures(Set<String> escrowedProductIds) {
+    inventoryRepository =
+        new InventoryRepositoryImpl(
+            inventoryStore,
+            outboxRelay(inventoryStore),
+            AggregateLoader.<InventoryItem, InventoryItemSnapshot>builder()
+                .aggregateType("InventoryItem")
+                .eventStore(inventoryStore)
+                .snapshotStore(new InMemorySnapshotStore())
+                .snapshotPolicy(new SnapshotPolicy(false, 100, Duration.ofMillis(10)))
+                .factory(InventoryItem::new)
+                .weigher(snapshot -> 1)
+                .cacheMaximumWeight(1_000)
+                .meterRegistry(meterRegistry)
+                .build(),
+            availability);
+    orderRepository =
+        new OrderRepositoryImpl(
+            orderStore,
+            outboxRelay(orderStore),
+            AggregateLoader.<Order, OrderSnapshot>builder()
+                .aggregateType("Order")
+                .eventStore(orderStore)
+                .snapshotStore(new InMemorySnapshotStore())
+                .snapshotPolicy(new SnapshotPolicy(false, 100, Duration.ofMillis(10)))
+                .factory(Order::new)
+                .weigher(snapshot -> 1)
+                .cacheMaximumWeight(1_000)
+                .meterRegistry(meterRegistry)
+                .build());
+
+    InventoryEscrowProperties escrowProperties = new InventoryEscrowProperties();
+    escrowProperties.setProductIds(escrowedProductIds);
+    escrowProperties.setSlots(4);
+    escrow =
+        new InventoryEscrow(inventoryRepository, inventoryLanes, escrowProperties, meterRegistry);
+    inventoryHandler =
+        new LaneDispatchingInventoryCommandHandler(
+            new InventoryCommandHandlerImpl(inventoryRepository, new ShardRouter(1)),
+            inventoryLanes,
+            ConflictRetryPolicy.builder()
+                .aggregateType("InventoryItem")
+                .maxAttempts(5)
+                .initialBackoff(Duration.ofMillis(1))
+                .maxBackoff(Duration.ofMillis(10))
+                .trackedAggregates(100)
+                .meterRegistry(meterRegistry)
+                .build(),
+            new CommandTimers("InventoryItem", meterRegistry),
+            escrow);
+    orderHandler =
+        new OrderCommandHandlerImpl(
+            orderRepository, inventoryHandler, new InventoryReservationProperties());
+    laneOrderHandler =
+        new LaneDispatchingOrderCommandHandler(
+            orderHandler,
+            orderLanes,
+            ConflictRetryPolicy.builder()
+                .aggregateType("Order")
+                .maxAttempts(5)
+                .initialBackoff(Duration.ofMillis(1))
+                .maxBackoff(Duration.ofMillis(10))
+                .trackedAggregates(100)
+                .meterRegistry(meterRegistry)
+                .build(),
+            new CommandTimers("Order", meterRegistry));
+    batchOrderHandler =
+        new BatchOrderCommandHandlerImpl(orderRepository, inventoryHandler, orderLanes);
+  }
+
+  void stock(String productId, int quantity) {
+    inventoryHandler.handle(
+        UpdateInventoryCommand.builder().productId(productId).quantity(quantity).build());
+  }
+
+  int available(String productId) {
+    return inventoryRepository.findByProductId(productId).getAvailableQuantity();
+  }
+
+  int allocated(String productId) {
+    return inventoryRepository.findByProductId(productId).getAllocatedQuantity();
+  }
+
+  static OrderItem line(String productId, int quantity) {
+    return new OrderItem(productId, quantity, new Money(new BigDecimal("9.99")));
+  }
+
+  static CreateOrderCommand order(OrderItem... items) {
+    return order(false, 0, items);
+  }
+
+  /**
+   * Creates an order whose lines that lack stock are backordered.
+   *
+   * @param priority the priority of the backordered lines
+   * @param items the order lines
+   * @return the command
+   */
+  static CreateOrderCommand backorderableOrder(int priority, OrderItem... items) {
+    return order(true, priority, items);
+  }
+
+  private static CreateOrderCommand order(
+      boolean allowBackorder, int priority, OrderItem... items) {
+    Address address =
+        Address.builder()
+            .street("Main Street 1")
+            .city("Amsterdam")
+            .state("Noord-Holland")
+            .zipcode("1011AB")
+            .country("NL")
+            .build();
+    return CreateOrderCommand.builder()
+        .customerId("customer-1")
+        .items(List.of(items))
+        .shippingAddress(address)
+        .billingAddress(address)
+        .totalCost(new Money(new BigDecimal("99.90")))
+        .issuedAt(LocalDateTime.now())
+        .allowBackorder(allowBackorder)
+        .priority(priority)
+        .build();
+  }
+
+  @Override
+  public void close() {
+    orderLanes.close();
+    inventoryLanes.close();
+  }
+
+  /** Creates a relay that is never started, so saves only append to the store. */
+  private OutboxRelay outboxRelay(EventStore eventStore) {
+    return OutboxRelay.builder()
+        .eventStore(eventStore)
+        .checkpoints(shard -> new InMemoryOutboxCheckpoint())
+        .kafkaTemplate(new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of())))
+        .topic("events")
+        .batchSize(100)
+        .pollInterval(Duration.ofMillis(100))
+        .sendTimeout(Duration.ofSeconds(1))
+        .initialBackoff(Duration.ofMillis(100))
+        .maxBackoff(Duration.ofSeconds(1))
+        .meterRegistry(meterRegistry)
+        .build();
+  }
+}
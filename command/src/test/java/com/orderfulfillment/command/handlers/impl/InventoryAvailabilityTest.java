@@ -0,0 +1,88 @@
+package com.orderfulfillment.command.handlers.impl;
+
+import static com.orderfulfillment.command.handlers.impl.HandlerFixtures.line;
+import static com.orderfulfillment.command.handlers.impl.HandlerFixtures.order;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.ReturnInventoryCommand;
+import com.orderfulfillment.command.projections.InventoryAvailability.Availability;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests the availability projection against the handlers wired as in the service. */
+class InventoryAvailabilityTest {
+  private static final String HOT_PRODUCT = "hot-product";
+
+  private final HandlerFixtures fixtures = new HandlerFixtures(Set.of(HOT_PRODUCT));
+
+  @AfterEach
+  void tearDown() {
+    fixtures.close();
+  }
+
+  @Test
+  void readsEveryAcknowledgedWrite() {
+    assertThat(fixtures.availability.get("product-1")).isNull();
+
+    fixtures.stock("product-1", 10);
+    fixtures.stock(HOT_PRODUCT, 10);
+    assertThat(fixtures.availability.get("product-1")).isEqualTo(new Availability(10, 0));
+
+    fixtures.orderHandler.handle(order(line("product-1", 3), line(HOT_PRODUCT, 4)));
+    assertThat(fixtures.availability.get("product-1")).isEqualTo(new Availability(7, 3));
+    assertThat(fixtures.availability.get(HOT_PRODUCT)).isEqualTo(new Availability(6, 4));
+
+    fixtures.inventoryHandler.handle(
+        ReturnInventoryCommand.builder()
+            .productId(HOT_PRODUCT)
+            .orderId("order-1")
+            .quantity(1)
+            .build());
+    assertThat(fixtures.availability.get(HOT_PRODUCT)).isEqualTo(new Availability(7, 3));
+    assertThat(fixtures.availability.size()).isEqualTo(2);
+  }
+
+  @Test
+  void endsAtTheLastCommitUnderConcurrentWrites() throws Exception {
+    fixtures.stock("product-1", 1_000);
+    fixtures.stock(HOT_PRODUCT, 1_000);
+
+    Map<String, Integer> allocated = new HashMap<>();
+    ExecutorService callers = Executors.newFixedThreadPool(8);
+    try {
+      List<CompletableFuture<Void>> allocations = new ArrayList<>();
+      for (int i = 0; i < 400; i++) {
+        String productId = i % 2 == 0 ? "product-1" : HOT_PRODUCT;
+        AllocateInventoryCommand command =
+            AllocateInventoryCommand.builder()
+                .productId(productId)
+                .orderId("order-" + i)
+                .quantity(1 + i % 3)
+                .build();
+        allocated.merge(productId, command.quantity(), Integer::sum);
+        allocations.add(
+            CompletableFuture.runAsync(() -> fixtures.inventoryHandler.handle(command), callers));
+      }
+      CompletableFuture.allOf(allocations.toArray(CompletableFuture[]::new)).join();
+    } finally {
+      callers.shutdown();
+    }
+
+    for (String productId : List.of("product-1", HOT_PRODUCT)) {
+      assertThat(fixtures.availability.get(productId))
+          .isEqualTo(
+              new Availability(fixtures.available(productId), fixtures.allocated(productId)));
+      assertThat(fixtures.availability.get(productId).allocatedQuantity())
+          .isEqualTo(allocated.get(productId));
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package com.orderfulfillment.command.handlers.impl;
+
+import static com.orderfulfillment.command.handlers.impl.HandlerFixtures.backorderableOrder;
+import static com.orderfulfillment.command.handlers.impl.HandlerFixtures.line;
+import static com.orderfulfillment.command.handlers.impl.HandlerFixtures.order;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.CancelOrderCommand;
+import com.orderfulfillment.command.domain.InventoryBackorder;
+import com.orderfulfillment.command.domain.InventoryItem;
+import com.orderfulfillment.command.exceptions.domain.InsufficientInventoryException;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests backordered order lines against the handlers wired as in the service. */
+class InventoryBackorderTest {
+  private static final String HOT_PRODUCT = "hot-product";
+
+  private final HandlerFixtures fixtures = new HandlerFixtures(Set.of(HOT_PRODUCT));
+
+  @AfterEach
+  void tearDown() {
+    fixtures.close();
+  }
+
+  @Test
+  void allocatesBackordersByPriorityThenArrivalOnRestock() {
+    fixtures.stock("product-1", 1);
+    fixtures.orderHandler.handle(backorderableOrder(0, line("product-1", 3)));
+    fixtures.orderHandler.handle(backorderableOrder(5, line("product-1", 2)));
+    fixtures.orderHandler.handle(backorderableOrder(0, line("product-1", 4)));
+    assertThatThrownBy(() -> fixtures.orderHandler.handle(order(line("product-1", 2))))
+        .isInstanceOf(InsufficientInventoryException.class);
+
+    assertThat(fixtures.orderStore.getAggregateIds()).hasSize(3);
+    assertThat(backorders("product-1"))
+        .extracting(InventoryBackorder::quantity)
+        .containsExactly(2, 3, 4);
+
+    int appendsBefore = fixtures.inventoryAppends.get();
+    fixtures.stock("product-1", 4);
+    assertThat(fixtures.available("product-1")).isEqualTo(2);
+    assertThat(fixtures.allocated("product-1")).isEqualTo(2);
+    assertThat(backorders("product-1"))
+        .extracting(InventoryBackorder::quantity)
+        .containsExactly(3, 4);
+
+    fixtures.stock("product-1", 8);
+    assertThat(fixtures.available("product-1")).isEqualTo(1);
+    assertThat(fixtures.allocated("product-1")).isEqualTo(9);
+    assertThat(backorders("product-1")).isEmpty();
+    assertThat(fixtures.inventoryAppends.get() - appendsBefore).isEqualTo(2);
+  }
+
+  @Test
+  void cancellingABackorderedOrderWithdrawsItsLine() {
+    fixtures.stock("product-1", 0);
+    fixtures.stock("product-2", 10);
+    fixtures.orderHandler.handle(backorderableOrder(0, line("product-1", 3), line("product-2", 4)));
+    fixtures.orderHandler.handle(backorderableOrder(0, line("product-1", 2)));
+    fixtures.stock("product-1", 2);
+    assertThat(backorders("product-1")).hasSize(2);
+    assertThat(fixtures.available("product-2")).isEqualTo(6);
+
+    String orderId = backorders("product-1").get(0).orderId();
+    fixtures.orderHandler.handle(new CancelOrderCommand(orderId));
+
+    // The smaller line behind the withdrawn one fits the stock that was already there.
+    assertThat(backorders("product-1")).isEmpty();
+    assertThat(fixtures.available("product-1")).isZero();
+    assertThat(fixtures.allocated("product-1")).isEqualTo(2);
+    assertThat(fixtures.available("product-2")).isEqualTo(10);
+  }
+
+  @Test
+  void returnsOnlyTheAllocatedRestOfAPartlyBackorderedOrder() {
+    InventoryItem item = InventoryItem.createNew("product-1", 2);
+    item.allocate("order-1", 2);
+    item.backorder("order-1", 3, 0);
+
+    assertThatThrownBy(() -> item.returnInventory("order-1", 1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("3 units backordered");
+    assertThat(item.getBackorders()).hasSize(1);
+
+    item.returnInventory("order-1", 5);
+    assertThat(item.getBackorders()).isEmpty();
+    assertThat(item.getAvailableQuantity()).isEqualTo(2);
+    assertThat(item.getAllocatedQuantity()).isZero();
+  }
+
+  @Test
+  void escrowNeverAdmitsStockTakenByBackorders() {
+    fixtures.stock(HOT_PRODUCT, 5);
+    fixtures.inventoryHandler.handle(allocation("order-1", 5));
+    fixtures.orderHandler.handle(backorderableOrder(0, line(HOT_PRODUCT, 3)));
+
+    fixtures.stock(HOT_PRODUCT, 4);
+    assertThat(backorders(HOT_PRODUCT)).isEmpty();
+    fixtures.inventoryHandler.handle(allocation("order-2", 1));
+    assertThatThrownBy(() -> fixtures.inventoryHandler.handle(allocation("order-3", 1)))
+        .isInstanceOf(InsufficientInventoryException.class);
+
+    assertThat(fixtures.available(HOT_PRODUCT)).isZero();
+    assertThat(fixtures.allocated(HOT_PRODUCT)).isEqualTo(9);
+  }
+
+  @Test
+  void snapshotsKeepTheQueueOrder() {
+    InventoryItem item = InventoryItem.createNew("product-1", 0);
+    item.backorder("order-1", 2, 0);
+    item.backorder("order-2", 1, 3);
+    item.backorder("order-3", 1, 0);
+
+    InventoryItem restored = new InventoryItem();
+    restored.restoreFromSnapshot(item.toSnapshot());
+    restored.updateQuantity(3);
+
+    assertThat(restored.getBackorders())
+        .extracting(InventoryBackorder::orderId)
+        .containsExactly("order-3");
+    assertThat(restored.getAllocatedQuantity()).isEqualTo(3);
+    assertThat(restored.getAvailableQuantity()).isZero();
+  }
+
+  private List<InventoryBackorder> backorders(String productId) {
+    return List.copyOf(fixtures.inventoryRepository.findByProductId(productId).getBackorders());
+  }
+
+  private static AllocateInventoryCommand allocation(String orderId, int quantity) {
+    return AllocateInventoryCommand.builder()
+        .productId(HOT_PRODUCT)
+        .orderId(orderId)
+        .quantity(quantity)
+        .build();
+  }
+}
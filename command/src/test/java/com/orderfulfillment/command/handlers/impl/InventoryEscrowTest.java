@@ -0,0 +1,159 @@
+package com.orderfulfillment.command.handlers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.orderfulfillment.command.commands.AllocateInventoryCommand;
+import com.orderfulfillment.command.commands.ConfirmReservationCommand;
+import com.orderfulfillment.command.commands.ExpireReservationCommand;
+import com.orderfulfillment.command.commands.ReserveInventoryCommand;
+import com.orderfulfillment.command.commands.ReturnInventoryCommand;
+import com.orderfulfillment.command.exceptions.domain.InsufficientInventoryException;
+import com.orderfulfillment.command.exceptions.domain.ReservationNotFoundException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests escrow allocation of a contended product through the lane dispatching handler, and that a
+ * change rejected by the item does not hold up the others stored with it.
+ */
+class InventoryEscrowTest {
+  private static final String HOT_PRODUCT = "hot-product";
+
+  private final HandlerFixtures fixtures = new HandlerFixtures(Set.of(HOT_PRODUCT));
+
+  @AfterEach
+  void tearDown() {
+    fixtures.close();
+  }
+
+  @Test
+  void neverOversellsUnderConcurrentAllocations() throws Exception {
+    fixtures.stock(HOT_PRODUCT, 500);
+    int appendsBefore = fixtures.inventoryAppends.get();
+
+    AtomicInteger allocated = new AtomicInteger();
+    AtomicInteger rejected = new AtomicInteger();
+    ExecutorService callers = Executors.newFixedThreadPool(16);
+    try {
+      List<Future<?>> done = new ArrayList<>();
+      for (int caller = 0; caller < 16; caller++) {
+        int callerId = caller;
+        done.add(
+            callers.submit(
+                () -> {
+                  for (int i = 0; i < 50; i++) {
+                    try {
+                      fixtures.inventoryHandler.handle(
+                          allocation("order-" + callerId + "-" + i, 1));
+                      allocated.incrementAndGet();
+                    } catch (InsufficientInventoryException e) {
+                      rejected.incrementAndGet();
+                    }
+                  }
+                }));
+      }
+      for (Future<?> caller : done) {
+        caller.get();
+      }
+    } finally {
+      callers.shutdown();
+    }
+
+    assertThat(allocated.get()).isEqualTo(500);
+    assertThat(rejected.get()).isEqualTo(300);
+    assertThat(fixtures.available(HOT_PRODUCT)).isZero();
+    assertThat(fixtures.allocated(HOT_PRODUCT)).isEqualTo(500);
+    assertThat(fixtures.inventoryAppends.get() - appendsBefore).isLessThan(500);
+  }
+
+  @Test
+  void admitsReturnedAndRestockedQuantityOnceStored() {
+    fixtures.stock(HOT_PRODUCT, 10);
+    fixtures.inventoryHandler.handle(allocation("order-1", 10));
+    assertThatThrownBy(() -> fixtures.inventoryHandler.handle(allocation("order-2", 1)))
+        .isInstanceOf(InsufficientInventoryException.class);
+
+    fixtures.inventoryHandler.handle(
+        ReturnInventoryCommand.builder()
+            .productId(HOT_PRODUCT)
+            .orderId("order-1")
+            .quantity(4)
+            .build());
+    fixtures.inventoryHandler.handle(allocation("order-2", 4));
+
+    fixtures.stock(HOT_PRODUCT, 5);
+    fixtures.inventoryHandler.handle(allocation("order-3", 5));
+    assertThatThrownBy(() -> fixtures.inventoryHandler.handle(allocation("order-4", 1)))
+        .isInstanceOf(InsufficientInventoryException.class);
+
+    assertThat(fixtures.available(HOT_PRODUCT)).isZero();
+    assertThat(fixtures.allocated(HOT_PRODUCT)).isEqualTo(15);
+  }
+
+  @Test
+  void storesTheRestOfABatchWhenAChangeIsRejected() throws Exception {
+    fixtures.stock(HOT_PRODUCT, 10);
+    fixtures.inventoryHandler.handle(
+        ReserveInventoryCommand.builder()
+            .productId(HOT_PRODUCT)
+            .reservationId("reservation-1")
+            .quantity(3)
+            .expiresAt(Instant.now().minusSeconds(1))
+            .build());
+    fixtures.inventoryHandler.handle(
+        ExpireReservationCommand.builder()
+            .productId(HOT_PRODUCT)
+            .reservationId("reservation-1")
+            .now(Instant.now())
+            .build());
+
+    // Hold the product's lane so that both changes are stored by the same flush.
+    CountDownLatch laneBusy = new CountDownLatch(1);
+    fixtures.inventoryLanes.runAsync(HOT_PRODUCT, () -> awaitUninterruptibly(laneBusy));
+    CompletableFuture<Void> confirmed =
+        fixtures.escrow.confirm(
+            new ConfirmReservationCommand(HOT_PRODUCT, "reservation-1", "order-1"));
+    CompletableFuture<Void> allocated = fixtures.escrow.allocate(allocation("order-2", 4));
+    laneBusy.countDown();
+
+    assertThat(confirmed)
+        .failsWithin(Duration.ofSeconds(10))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(ReservationNotFoundException.class);
+    assertThat(allocated).succeedsWithin(Duration.ofSeconds(10));
+    assertThat(fixtures.available(HOT_PRODUCT)).isEqualTo(6);
+    assertThat(fixtures.allocated(HOT_PRODUCT)).isEqualTo(4);
+
+    fixtures.inventoryHandler.handle(allocation("order-3", 6));
+    assertThat(fixtures.available(HOT_PRODUCT)).isZero();
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static AllocateInventoryCommand allocation(String orderId, int quantity) {
+    return AllocateInventoryCommand.builder()
+        .productId(HOT_PRODUCT)
+        .orderId(orderId)
+        .quantity(quantity)
+        .build();
+  }
+}
@@ -0,0 +1,174 @@
+package com.orderfulfillment.command.handlers.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.orderfulfillment.command.commands.ConfirmReservationCommand;
+import com.orderfulfillment.command.commands.ReserveInventoryCommand;
+import com.orderfulfillment.command.domain.InventoryItem;
+import com.orderfulfillment.command.exceptions.domain.InsufficientInventoryException;
+import com.orderfulfillment.command.exceptions.domain.ReservationNotFoundException;
+import com.orderfulfillment.command.reservations.ReservationExpiryScheduler;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests reservations and their expiry against the handlers wired as in the service. */
+class InventoryReservationTest {
+  private static final String HOT_PRODUCT = "hot-product";
+
+  private final HandlerFixtures fixtures = new HandlerFixtures(Set.of(HOT_PRODUCT));
+  private ReservationExpiryScheduler scheduler;
+
+  @AfterEach
+  void tearDown() {
+    if (scheduler != null) {
+      scheduler.close();
+    }
+    fixtures.close();
+  }
+
+  @Test
+  void releasesExpiredReservationsAndKeepsConfirmedOnes() throws Exception {
+    fixtures.stock("product-1", 10);
+    fixtures.stock(HOT_PRODUCT, 10);
+    startScheduler();
+
+    Instant soon = Instant.now().plusMillis(200);
+    reserve("product-1", "expiring", 3, soon);
+    reserve("product-1", "confirmed", 2, soon);
+    reserve("product-1", "held", 1, Instant.now().plus(Duration.ofHours(1)));
+    reserve(HOT_PRODUCT, "hot-expiring", 6, soon);
+    fixtures.inventoryHandler.handle(
+        ConfirmReservationCommand.builder()
+            .productId("product-1")
+            .reservationId("confirmed")
+            .orderId("order-1")
+            .build());
+    assertThatThrownBy(() -> reserve(HOT_PRODUCT, "hot-rejected", 5, soon))
+        .isInstanceOf(InsufficientInventoryException.class);
+
+    awaitUntil(() -> fixtures.available("product-1") == 7 && fixtures.available(HOT_PRODUCT) == 10);
+
+    InventoryItem item = fixtures.inventoryRepository.findByProductId("product-1");
+    assertThat(item.getAllocatedQuantity()).isEqualTo(2);
+    assertThat(item.getReservedQuantity()).isEqualTo(1);
+    assertThat(item.getReservations())
+        .singleElement()
+        .satisfies(reservation -> assertThat(reservation.reservationId()).isEqualTo("held"));
+    assertThat(fixtures.inventoryRepository.findByProductId(HOT_PRODUCT).getReservations())
+        .isEmpty();
+    assertThat(scheduler.getPending()).isEqualTo(1);
+    assertThatThrownBy(
+            () ->
+                fixtures.inventoryHandler.handle(
+                    ConfirmReservationCommand.builder()
+                        .productId("product-1")
+                        .reservationId("expiring")
+                        .orderId("order-2")
+                        .build()))
+        .isInstanceOf(ReservationNotFoundException.class);
+  }
+
+  @Test
+  void rebuildsOutstandingReservationsFromTheEventStore() throws Exception {
+    fixtures.stock("product-1", 10);
+    reserve("product-1", "overdue", 4, Instant.now().minusSeconds(1));
+    reserve("product-1", "held", 3, Instant.now().plus(Duration.ofHours(1)));
+    assertThat(fixtures.available("product-1")).isEqualTo(3);
+
+    startScheduler();
+
+    awaitUntil(() -> fixtures.available("product-1") == 7);
+    assertThat(fixtures.inventoryRepository.findByProductId("product-1").getReservedQuantity())
+        .isEqualTo(3);
+    awaitUntil(() -> scheduler.getPending() == 1);
+  }
+
+  @Test
+  void keepsReservationsExpiringWithinTheMillisecondScheduled() throws Exception {
+    fixtures.stock("product-1", 10);
+    // A whole tick of the wheel, so that a deadline truncated to the millisecond would be due now.
+    long nowMillis = Instant.now().plus(Duration.ofHours(1)).toEpochMilli();
+    Instant now = Instant.ofEpochMilli(nowMillis - nowMillis % 10);
+    MutableClock clock = new MutableClock(now);
+    startScheduler(clock);
+
+    reserve("product-1", "sub-millisecond", 3, now.plusNanos(500_000));
+    awaitUntil(() -> scheduler.getPending() == 1);
+    Thread.sleep(50);
+    assertThat(scheduler.getPending()).isEqualTo(1);
+    assertThat(fixtures.available("product-1")).isEqualTo(7);
+
+    clock.instant = now.plusMillis(10);
+    awaitUntil(() -> fixtures.available("product-1") == 10);
+    awaitUntil(() -> scheduler.getPending() == 0);
+  }
+
+  private void startScheduler() {
+    startScheduler(null);
+  }
+
+  private void startScheduler(Clock clock) {
+    scheduler =
+        ReservationExpiryScheduler.builder()
+            .eventStore(fixtures.inventoryStore)
+            .clock(clock)
+            .inventoryCommandHandler(fixtures.inventoryHandler)
+            .tick(Duration.ofMillis(10))
+            .wheelSize(64)
+            .batchSize(100)
+            .retryDelay(Duration.ofMillis(50))
+            .meterRegistry(fixtures.meterRegistry)
+            .build();
+    scheduler.start();
+  }
+
+  private void reserve(String productId, String reservationId, int quantity, Instant expiresAt) {
+    fixtures.inventoryHandler.handle(
+        ReserveInventoryCommand.builder()
+            .productId(productId)
+            .reservationId(reservationId)
+            .quantity(quantity)
+            .expiresAt(expiresAt)
+            .build());
+  }
+
+  private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!condition.getAsBoolean()) {
+      assertThat(System.nanoTime()).as("condition met in time").isLessThan(deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  /** A clock that stays put until a test moves it. */
+  private static final class MutableClock extends Clock {
+    private volatile Instant instant;
+
+    MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
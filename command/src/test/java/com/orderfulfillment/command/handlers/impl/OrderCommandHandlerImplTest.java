@@ -0,0 +1,174 @@
+package com.orderfulfillment.command.handlers.impl;
+
+import static com.orderfulfillment.command.handlers.impl.HandlerFixtures.line;
+import static com.orderfulfillment.command.handlers.impl.HandlerFixtures.order;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.orderfulfillment.command.commands.CancelOrderCommand;
+import com.orderfulfillment.command.commands.CreateOrderCommand;
+import com.orderfulfillment.command.commands.ExpireReservationCommand;
+import com.orderfulfillment.command.commands.ReserveInventoryCommand;
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.EventType;
+import com.orderfulfillment.command.exceptions.domain.InsufficientInventoryException;
+import com.orderfulfillment.command.exceptions.domain.ProductNotFoundException;
+import com.orderfulfillment.command.handlers.impl.OrderCommandHandlerImpl.ReservedOrder;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that order creation allocates the inventory of all order lines or of none, with the order
+ * and inventory handlers dispatched through command lanes as in the service, that nothing is
+ * allocated before the order is stored, and that the asynchronous dispatch does not hold an order
+ * lane while the inventory lanes work.
+ */
+class OrderCommandHandlerImplTest {
+  private final HandlerFixtures fixtures = new HandlerFixtures();
+
+  @AfterEach
+  void tearDown() {
+    fixtures.close();
+  }
+
+  @Test
+  void allocatesEveryLine() {
+    fixtures.stock("product-1", 10);
+    fixtures.stock("product-2", 10);
+    fixtures.stock("product-3", 10);
+
+    fixtures.orderHandler.handle(
+        order(line("product-1", 2), line("product-2", 3), line("product-3", 10)));
+
+    assertThat(fixtures.available("product-1")).isEqualTo(8);
+    assertThat(fixtures.available("product-2")).isEqualTo(7);
+    assertThat(fixtures.available("product-3")).isZero();
+    assertThat(fixtures.orderStore.getAggregateIds()).hasSize(1);
+  }
+
+  @Test
+  void releasesAllLinesWhenOneIsShort() {
+    fixtures.stock("product-1", 10);
+    fixtures.stock("product-2", 1);
+    fixtures.stock("product-3", 10);
+
+    assertThatThrownBy(
+            () ->
+                fixtures.orderHandler.handle(
+                    order(line("product-1", 2), line("product-2", 3), line("product-3", 4))))
+        .isInstanceOf(InsufficientInventoryException.class);
+
+    assertThat(fixtures.available("product-1")).isEqualTo(10);
+    assertThat(fixtures.available("product-2")).isEqualTo(1);
+    assertThat(fixtures.available("product-3")).isEqualTo(10);
+    assertThat(fixtures.allocated("product-1")).isZero();
+    assertThat(fixtures.orderStore.getAggregateIds()).isEmpty();
+  }
+
+  @Test
+  void releasesAllLinesWhenProductIsUnknown() {
+    fixtures.stock("product-1", 10);
+
+    assertThatThrownBy(
+            () ->
+                fixtures.orderHandler.handle(
+                    order(line("product-1", 2), line("product-unknown", 1))))
+        .isInstanceOf(ProductNotFoundException.class);
+
+    assertThat(fixtures.available("product-1")).isEqualTo(10);
+    assertThat(fixtures.orderStore.getAggregateIds()).isEmpty();
+  }
+
+  @Test
+  void createsAndCancelsWithoutHoldingTheOrderLane() throws Exception {
+    fixtures.stock("product-1", 10);
+    fixtures.stock("product-2", 10);
+    CountDownLatch inventoryBusy = new CountDownLatch(1);
+    fixtures.inventoryLanes.runAsync("product-1", () -> awaitUninterruptibly(inventoryBusy));
+
+    CreateOrderCommand command = order(line("product-1", 2), line("product-2", 3));
+    CompletableFuture<Void> created = fixtures.laneOrderHandler.submit(command);
+
+    // The allocation of product-1 is queued behind the busy inventory lane, but the order lane of
+    // the customer is free in the meantime.
+    assertThat(fixtures.orderLanes.call(command.customerId(), () -> "free")).isEqualTo("free");
+    assertThat(created).isNotDone();
+    inventoryBusy.countDown();
+    created.get(10, SECONDS);
+    assertThat(fixtures.available("product-1")).isEqualTo(8);
+    assertThat(fixtures.available("product-2")).isEqualTo(7);
+    assertThat(fixtures.orderStore.getAggregateIds()).hasSize(1);
+
+    String orderId = fixtures.orderStore.getAggregateIds().iterator().next();
+    fixtures.laneOrderHandler.submit(new CancelOrderCommand(orderId)).get(10, SECONDS);
+    assertThat(fixtures.available("product-1")).isEqualTo(10);
+    assertThat(fixtures.available("product-2")).isEqualTo(10);
+  }
+
+  @Test
+  void releasesAllLinesWhenOneIsShortAsynchronously() {
+    fixtures.stock("product-1", 10);
+    fixtures.stock("product-2", 1);
+
+    assertThat(fixtures.laneOrderHandler.submit(order(line("product-1", 2), line("product-2", 3))))
+        .failsWithin(Duration.ofSeconds(10))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(InsufficientInventoryException.class);
+
+    assertThat(fixtures.available("product-1")).isEqualTo(10);
+    assertThat(fixtures.allocated("product-1")).isZero();
+    assertThat(fixtures.orderStore.getAggregateIds()).isEmpty();
+  }
+
+  @Test
+  void allocatesNothingForAnOrderThatFails() {
+    fixtures.stock("product-1", 10);
+    fixtures.stock("product-2", 1);
+
+    assertThatThrownBy(
+            () -> fixtures.orderHandler.handle(order(line("product-1", 2), line("product-2", 3))))
+        .isInstanceOf(InsufficientInventoryException.class);
+
+    assertThat(
+            fixtures.inventoryStore.getAggregateIds().stream()
+                .flatMap(id -> fixtures.inventoryStore.readStream(id).stream())
+                .map(Event::getType))
+        .containsOnly(
+            EventType.INVENTORY_UPDATED,
+            EventType.INVENTORY_RESERVED,
+            EventType.INVENTORY_RESERVATION_EXPIRED);
+    assertThat(fixtures.available("product-1")).isEqualTo(10);
+  }
+
+  @Test
+  void holdsOfAnOrderThatIsNeverStoredExpire() {
+    fixtures.stock("product-1", 10);
+
+    ReservedOrder reserved = fixtures.orderHandler.reserve(order(line("product-1", 4))).join();
+    assertThat(fixtures.available("product-1")).isEqualTo(6);
+
+    ReserveInventoryCommand hold = reserved.holds().get(0);
+    fixtures.inventoryHandler.handle(
+        ExpireReservationCommand.builder()
+            .productId(hold.productId())
+            .reservationId(hold.reservationId())
+            .now(hold.expiresAt())
+            .build());
+    assertThat(fixtures.available("product-1")).isEqualTo(10);
+    assertThat(fixtures.allocated("product-1")).isZero();
+    assertThat(fixtures.orderStore.getAggregateIds()).isEmpty();
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
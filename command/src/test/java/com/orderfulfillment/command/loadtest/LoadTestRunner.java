@@ -0,0 +1,314 @@
+package com.orderfulfillment.command.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderfulfillment.command.OrderCommandServiceApplication;
+import com.orderfulfillment.command.utils.Constants;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Open-loop HTTP load test of order creation, comparing blocking request handling on platform
+ * threads, asynchronous request handling with the {@code async-api} profile, and blocking request
+ * handling on virtual threads.
+ *
+ * <p>For each mode the service is started in process on a random port with the file event store and
+ * group commit, as in production, and without a reachable Kafka broker, which only delays the
+ * outbox relay. Inventory is seeded for {@value #PRODUCTS} products, then orders of two lines are
+ * sent at a fixed rate per step, stepping up through {@code loadtest.rates}. Latency is measured
+ * from the time each request was scheduled, so a saturated service cannot hide its queue. A rate is
+ * sustainable if no request failed, at least 95% of the target rate completed and the p99 latency
+ * stayed within {@code loadtest.p99-slo-ms}; the test moves on to the next mode at the first rate
+ * that is not.
+ *
+ * <p>Results are printed and written as JSON to {@code loadtest.result}. Run it with {@code mvn
+ * -Ploadtest -DskipTests verify}.
+ */
+public final class LoadTestRunner {
+  private static final int PRODUCTS = 200;
+  private static final int CUSTOMERS = 10_000;
+  private static final Duration WARMUP = Duration.ofSeconds(5);
+  private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+  private static final String ADDRESS =
+      """
+      {"street": "Main Street 1", "city": "Amsterdam", "state": "Noord-Holland",
+       "zipcode": "1011AB", "country": "NL"}""";
+
+  private final List<Integer> rates;
+  private final int lanes;
+  private final Duration stepDuration;
+  private final long p99SloNanos;
+  private final ExecutorService clientExecutor = Executors.newFixedThreadPool(8);
+  private final HttpClient client =
+      HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .executor(clientExecutor)
+          .connectTimeout(Duration.ofSeconds(5))
+          .build();
+
+  private LoadTestRunner(List<Integer> rates, int lanes, Duration stepDuration, Duration p99Slo) {
+    this.rates = rates;
+    this.lanes = lanes;
+    this.stepDuration = stepDuration;
+    this.p99SloNanos = p99Slo.toNanos();
+  }
+
+  public static void main(String[] args) throws Exception {
+    // Devtools is on the test classpath and would restart the service in another class loader.
+    System.setProperty("spring.devtools.restart.enabled", "false");
+    LoadTestRunner runner =
+        new LoadTestRunner(
+            Arrays.stream(System.getProperty("loadtest.rates", "250,500,1000,2000,4000").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .toList(),
+            Integer.getInteger("loadtest.lanes", 0),
+            Duration.ofSeconds(Long.getLong("loadtest.step-seconds", 10)),
+            Duration.ofMillis(Long.getLong("loadtest.p99-slo-ms", 200)));
+
+    List<ModeResult> results = new ArrayList<>();
+    results.add(runner.run(Mode.PLATFORM));
+    results.add(runner.run(Mode.ASYNC));
+    results.add(runner.run(Mode.VIRTUAL));
+    runner.clientExecutor.shutdownNow();
+
+    System.out.println();
+    System.out.printf("%-10s %16s %12s%n", "mode", "max req/s", "p99 ms");
+    for (ModeResult result : results) {
+      StepResult best = result.maxSustainable();
+      System.out.printf(
+          "%-10s %16s %12s%n",
+          result.mode(),
+          best == null ? "-" : String.valueOf(best.targetRate()),
+          best == null ? "-" : format(best.p99Millis()));
+    }
+
+    Path output = Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+    Files.createDirectories(output.toAbsolutePath().getParent());
+    new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output.toFile(), results);
+    System.out.println("Load test result is saved to " + output.toAbsolutePath());
+  }
+
+  private ModeResult run(Mode mode) throws Exception {
+    Path directory = Files.createTempDirectory("loadtest-event-store");
+    List<StepResult> steps = new ArrayList<>();
+    try (ConfigurableApplicationContext context = start(directory, mode, lanes)) {
+      URI base =
+          URI.create(
+              "http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+      seedInventory(base);
+
+      System.out.printf("%n%s: warming up%n", mode.label);
+      runStep(base, rates.get(0), WARMUP);
+
+      for (int rate : rates) {
+        StepResult step = runStep(base, rate, stepDuration);
+        steps.add(step);
+        System.out.printf(
+            Locale.ROOT,
+            "%s: target %d req/s, achieved %.0f req/s, p50 %s ms, p99 %s ms, errors %d%s%n",
+            mode.label,
+            rate,
+            step.achievedRate(),
+            format(step.p50Millis()),
+            format(step.p99Millis()),
+            step.errors(),
+            step.sustainable() ? "" : " - not sustainable");
+        if (!step.sustainable()) {
+          break;
+        }
+      }
+    } finally {
+      FileSystemUtils.deleteRecursively(directory);
+    }
+
+    StepResult best = null;
+    for (StepResult step : steps) {
+      if (step.sustainable()) {
+        best = step;
+      }
+    }
+    return new ModeResult(mode.label, best, steps);
+  }
+
+  private static ConfigurableApplicationContext start(Path directory, Mode mode, int lanes) {
+    List<String> args = new ArrayList<>();
+    if (mode == Mode.ASYNC) {
+      args.add("--spring.profiles.active=" + Constants.ASYNC_API_PROFILE);
+    }
+    if (lanes > 0) {
+      args.add("--command-lanes.order-count=" + lanes);
+      args.add("--command-lanes.inventory-count=" + lanes);
+    }
+    // Passed as command line arguments so that they take precedence over application.yaml.
+    args.addAll(
+        List.of(
+            "--server.port=0",
+            "--spring.threads.virtual.enabled=" + (mode == Mode.VIRTUAL),
+            "--event-store.engine=file",
+            "--event-store.directory=" + directory,
+            "--bootstrap-replay.enabled=false",
+            "--spring.kafka.bootstrap-servers=localhost:1",
+            "--spring.kafka.admin.auto-create=false",
+            "--spring.kafka.producer.properties[max.block.ms]=100",
+            "--logging.level.root=WARN",
+            "--logging.level.com.orderfulfillment.command.outbox=OFF",
+            "--logging.level.org.apache.kafka=OFF",
+            "--logging.level.org.springframework.kafka=OFF"));
+    return new SpringApplicationBuilder(OrderCommandServiceApplication.class)
+        .run(args.toArray(String[]::new));
+  }
+
+  private void seedInventory(URI base) throws IOException, InterruptedException {
+    for (int i = 0; i < PRODUCTS; i++) {
+      HttpRequest request =
+          HttpRequest.newBuilder(base.resolve("/api/v1/inventory/product-" + i))
+              .header("Content-Type", "application/json")
+              .PUT(HttpRequest.BodyPublishers.ofString("{\"quantity\": 1000000000}"))
+              .build();
+      HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+      if (response.statusCode() != 200) {
+        throw new IllegalStateException("Seeding inventory failed with " + response.statusCode());
+      }
+    }
+  }
+
+  private StepResult runStep(URI base, int rate, Duration duration) throws InterruptedException {
+    int requests = (int) (rate * duration.toSeconds());
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+    long[] latencies = new long[requests];
+    AtomicInteger completed = new AtomicInteger();
+    AtomicInteger errors = new AtomicInteger();
+    AtomicLong lastCompletion = new AtomicLong();
+    List<CompletableFuture<?>> inFlight = new ArrayList<>(requests);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < requests; i++) {
+      long scheduled = start + i * intervalNanos;
+      long delay = scheduled - System.nanoTime();
+      if (delay > 0) {
+        LockSupport.parkNanos(delay);
+      }
+      int index = i;
+      inFlight.add(
+          client
+              .sendAsync(orderRequest(base), HttpResponse.BodyHandlers.discarding())
+              .whenComplete(
+                  (response, failure) -> {
+                    long now = System.nanoTime();
+                    latencies[index] = now - scheduled;
+                    lastCompletion.accumulateAndGet(now, Math::max);
+                    if (failure != null || response.statusCode() != 200) {
+                      errors.incrementAndGet();
+                    }
+                    completed.incrementAndGet();
+                  }));
+    }
+
+    try {
+      CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+          .get(DRAIN_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+    } catch (Exception e) {
+      // Requests still outstanding after the drain timeout are counted as errors below.
+    }
+
+    int done = completed.get();
+    long[] measured = Arrays.copyOf(latencies, requests);
+    Arrays.sort(measured, 0, requests);
+    double elapsedSeconds = Math.max(1, lastCompletion.get() - start) / 1e9;
+    int failed = errors.get() + (requests - done);
+    double achieved = (done - errors.get()) / elapsedSeconds;
+    long p99 = done < requests ? Long.MAX_VALUE : percentile(measured, 0.99);
+    return new StepResult(
+        rate,
+        achieved,
+        percentile(measured, 0.50) / 1e6,
+        p99 / 1e6,
+        failed,
+        failed == 0 && achieved >= rate * 0.95 && p99 <= p99SloNanos);
+  }
+
+  private static HttpRequest orderRequest(URI base) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    String body =
+        """
+        {"customerId": "customer-%d",
+         "items": [
+           {"productId": "product-%d", "quantity": 1, "price": 19.99},
+           {"productId": "product-%d", "quantity": 2, "price": 4.50}],
+         "shippingAddress": %s,
+         "billingAddress": %s,
+         "totalCost": 28.99,
+         "issuedAt": "2025-01-01T12:00:00"}
+        """
+            .formatted(
+                random.nextInt(CUSTOMERS),
+                random.nextInt(PRODUCTS),
+                random.nextInt(PRODUCTS),
+                ADDRESS,
+                ADDRESS);
+    return HttpRequest.newBuilder(base.resolve("/api/v1/orders"))
+        .header("Content-Type", "application/json")
+        .timeout(DRAIN_TIMEOUT)
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+
+  private static long percentile(long[] sorted, double quantile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+  }
+
+  private static String format(double millis) {
+    return Double.isInfinite(millis) || millis > 1e12
+        ? "timeout"
+        : String.format(Locale.ROOT, "%.1f", millis);
+  }
+
+  /** How the service handles requests. */
+  private enum Mode {
+    PLATFORM("platform"),
+    ASYNC("async"),
+    VIRTUAL("virtual");
+
+    private final String label;
+
+    Mode(String label) {
+      this.label = label;
+    }
+  }
+
+  /** Outcome of one rate step. */
+  record StepResult(
+      int targetRate,
+      double achievedRate,
+      double p50Millis,
+      double p99Millis,
+      int errors,
+      boolean sustainable) {}
+
+  /** Outcome of all steps run in one mode. */
+  record ModeResult(String mode, StepResult maxSustainable, List<StepResult> steps) {}
+}
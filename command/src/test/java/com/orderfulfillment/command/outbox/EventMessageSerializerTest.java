@@ -0,0 +1,107 @@
+package com.orderfulfillment.command.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orderfulfillment.command.domain.EventMessage;
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.impl.BaseEvent;
+import com.orderfulfillment.command.events.impl.EventIds;
+import com.orderfulfillment.command.events.impl.EventTimestamps;
+import com.orderfulfillment.command.events.impl.InventoryEvents;
+import com.orderfulfillment.command.events.payloads.InventoryAllocatedPayload;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/** Tests the JSON envelope of events published on JSON topics. */
+class EventMessageSerializerTest {
+  private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+  private final EventMessageSerializer serializer =
+      new EventMessageSerializer(jsonSerializer, Map.of(), EventFormat.JSON);
+
+  @Test
+  void writesTheSameMessageAsTheJsonSerializer() {
+    Event<?> event =
+        new BaseEvent<>(
+            UUID.randomUUID().toString(),
+            "InventoryAllocated",
+            "inventory-1",
+            null,
+            LocalDateTime.of(2024, 7, 1, 12, 30, 15, 123_000_000),
+            4,
+            new InventoryAllocatedPayload("product-1", "order-1", 2));
+    EventMessage message =
+        new EventMessage(
+            event.getEventId(),
+            event.getEventType(),
+            event.getAggregateId(),
+            event.getAggregateType(),
+            event.getTimestamp().toString(),
+            event.getPayload());
+    RecordHeaders expectedHeaders = new RecordHeaders();
+    RecordHeaders headers = new RecordHeaders();
+
+    byte[] expected = jsonSerializer.serialize("events", expectedHeaders, message);
+    byte[] actual = serializer.serialize("events", headers, event);
+
+    assertThat(new String(actual, StandardCharsets.UTF_8))
+        .isEqualTo(new String(expected, StandardCharsets.UTF_8));
+    assertThat(headers.lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME).value())
+        .isEqualTo(EventMessage.class.getName().getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void formatsTimestampsThatParseBackWithSeconds() {
+    char[] buffer = new char[EventTimestamps.MAX_LENGTH];
+    List<LocalDateTime> fixed =
+        List.of(
+            LocalDateTime.of(1970, 1, 1, 0, 0),
+            LocalDateTime.of(2024, 2, 29, 23, 59),
+            LocalDateTime.of(2000, 3, 1, 0, 0, 0, 1_000),
+            LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_999),
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59, 100_000_000));
+    for (LocalDateTime dateTime : fixed) {
+      assertFormats(EventTimestamps.of(dateTime), buffer);
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < 10_000; i++) {
+      assertFormats(random.nextLong(-10_000_000_000_000_000L, 9_000_000_000_000_000_000L), buffer);
+      assertFormats(random.nextLong(0, 5_000_000_000_000L) * 1_000_000L, buffer);
+    }
+  }
+
+  @Test
+  void generatesTimeOrderedVersion7Ids() {
+    long millis = System.currentTimeMillis();
+    UUID earlier = UUID.fromString(EventIds.next(millis));
+    UUID later = UUID.fromString(EventIds.next(millis + 1));
+
+    assertThat(earlier.version()).isEqualTo(7);
+    assertThat(earlier.variant()).isEqualTo(2);
+    assertThat(earlier.getMostSignificantBits() >>> 16).isEqualTo(millis);
+    assertThat(
+            Long.compareUnsigned(earlier.getMostSignificantBits(), later.getMostSignificantBits()))
+        .isNegative();
+    assertThat(EventIds.next(millis)).isNotEqualTo(EventIds.next(millis));
+
+    Event<?> event =
+        InventoryEvents.createInventoryAllocatedEvent(
+            "inventory-1", new InventoryAllocatedPayload("product-1", "order-1", 2), 0);
+    assertThat(UUID.fromString(event.getEventId()).getMostSignificantBits() >>> 16)
+        .isEqualTo(event.getTimestampNanos() / 1_000_000L);
+  }
+
+  private static void assertFormats(long epochNanos, char[] buffer) {
+    String text = new String(buffer, 0, EventTimestamps.format(epochNanos, buffer));
+    assertThat(text)
+        .matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d{3}|\\.\\d{6}|\\.\\d{9})?");
+    assertThat(LocalDateTime.parse(text)).isEqualTo(EventTimestamps.toDateTime(epochNanos));
+  }
+}
@@ -0,0 +1,81 @@
+package com.orderfulfillment.command.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.orderfulfillment.command.events.Event;
+import com.orderfulfillment.command.events.impl.InventoryEvents;
+import com.orderfulfillment.command.events.payloads.InventoryUpdatedPayload;
+import com.orderfulfillment.command.eventstore.ShardRouter;
+import com.orderfulfillment.command.eventstore.impl.InMemoryEventStore;
+import com.orderfulfillment.command.eventstore.impl.ShardedEventStore;
+import com.orderfulfillment.command.outbox.impl.InMemoryOutboxCheckpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+/** Tests that the outbox publishes each shard of the event store to its own partition. */
+class OutboxRelayTest {
+  private final ShardRouter router = new ShardRouter(3);
+  private final ShardedEventStore store =
+      new ShardedEventStore(router, shard -> new InMemoryEventStore());
+  private final Queue<Sent> sent = new ConcurrentLinkedQueue<>();
+  private final OutboxRelay relay =
+      OutboxRelay.builder()
+          .eventStore(store)
+          .checkpoints(shard -> new InMemoryOutboxCheckpoint())
+          .kafkaTemplate(
+              new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of())) {
+                @Override
+                public CompletableFuture<SendResult<String, Object>> send(
+                    String topic, Integer partition, String key, Object data) {
+                  sent.add(new Sent(partition, key));
+                  return CompletableFuture.completedFuture(null);
+                }
+              })
+          .topic("inventory-events")
+          .batchSize(10)
+          .pollInterval(Duration.ofMillis(10))
+          .sendTimeout(Duration.ofSeconds(1))
+          .initialBackoff(Duration.ofMillis(10))
+          .maxBackoff(Duration.ofMillis(100))
+          .meterRegistry(new SimpleMeterRegistry())
+          .build();
+
+  private record Sent(Integer partition, String key) {}
+
+  @AfterEach
+  void tearDown() {
+    relay.close();
+  }
+
+  @Test
+  void publishesEachShardToItsPartition() {
+    relay.start();
+    for (int i = 0; i < 30; i++) {
+      String aggregateId = "inventory-" + i;
+      store.append(aggregateId, 0, List.of(event(aggregateId, 0), event(aggregateId, 1)));
+      relay.signal(aggregateId);
+    }
+
+    await().atMost(Duration.ofSeconds(10)).until(() -> relay.getLag() == 0);
+    assertThat(sent).hasSize(60);
+    assertThat(sent).allMatch(record -> record.partition() == router.shardOf(record.key()));
+    assertThat(sent).extracting(Sent::partition).containsOnly(0, 1, 2).contains(0, 1, 2);
+    assertThat(relay.getAcknowledgedPosition()).isEqualTo(60);
+  }
+
+  private static Event<?> event(String aggregateId, long version) {
+    return InventoryEvents.createInventoryUpdatedEvent(
+        aggregateId, new InventoryUpdatedPayload("product", (int) version), version);
+  }
+}
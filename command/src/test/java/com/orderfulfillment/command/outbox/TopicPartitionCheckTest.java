@@ -0,0 +1,71 @@
+package com.orderfulfillment.command.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+/**
+ * Tests that existing event topics must have one partition per shard and are never given more by
+ * the {@link KafkaAdmin}, while missing topics are still created.
+ */
+@EmbeddedKafka(
+    partitions = 2,
+    topics = {"two-partition-events", "existing-events"})
+class TopicPartitionCheckTest {
+
+  @Test
+  void rejectsTopicsWithAnotherPartitionCount(EmbeddedKafkaBroker broker) {
+    KafkaAdmin kafkaAdmin = kafkaAdmin(broker);
+    TopicPartitionCheck check =
+        new TopicPartitionCheck(kafkaAdmin, List.of(topic("two-partition-events", 3)));
+
+    assertThatThrownBy(check::verify)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("two-partition-events has 2 partitions")
+        .hasMessageContaining("3 shards");
+    assertThat(kafkaAdmin.describeTopics("two-partition-events").get("two-partition-events"))
+        .satisfies(description -> assertThat(description.partitions()).hasSize(2));
+  }
+
+  @Test
+  void createsMissingTopicsButLeavesExistingOnes(EmbeddedKafkaBroker broker) {
+    KafkaAdmin kafkaAdmin = kafkaAdmin(broker);
+    new TopicPartitionCheck(
+            kafkaAdmin, List.of(topic("existing-events", 2), topic("new-events", 3)))
+        .verify();
+
+    // The existing topic is withheld even when it is declared with more partitions later on.
+    try (GenericApplicationContext context = new GenericApplicationContext()) {
+      context.registerBean("existing", NewTopic.class, () -> topic("existing-events", 3));
+      context.registerBean("new", NewTopic.class, () -> topic("new-events", 3));
+      context.refresh();
+      kafkaAdmin.setApplicationContext(context);
+      kafkaAdmin.initialize();
+    }
+
+    assertThat(kafkaAdmin.describeTopics("existing-events", "new-events"))
+        .hasEntrySatisfying(
+            "existing-events", description -> assertThat(description.partitions()).hasSize(2))
+        .hasEntrySatisfying(
+            "new-events", description -> assertThat(description.partitions()).hasSize(3));
+  }
+
+  private static KafkaAdmin kafkaAdmin(EmbeddedKafkaBroker broker) {
+    return new KafkaAdmin(
+        Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()));
+  }
+
+  private static NewTopic topic(String name, int partitions) {
+    return TopicBuilder.name(name).partitions(partitions).replicas(1).build();
+  }
+}
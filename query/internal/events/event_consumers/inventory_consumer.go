@@ -13,9 +13,15 @@ import (
 
 // Constants for inventory event types
 const (
-	InventoryUpdatedEvent   = "InventoryUpdated"
-	InventoryAllocatedEvent = "InventoryAllocated"
-	InventoryReturnedEvent  = "InventoryReturned"
+	InventoryUpdatedEvent              = "InventoryUpdated"
+	InventoryAllocatedEvent            = "InventoryAllocated"
+	InventoryReturnedEvent             = "InventoryReturned"
+	InventoryReservedEvent             = "InventoryReserved"
+	InventoryReservationConfirmedEvent = "InventoryReservationConfirmed"
+	InventoryReservationExpiredEvent   = "InventoryReservationExpired"
+	InventoryBackorderedEvent          = "InventoryBackordered"
+	InventoryBackorderAllocatedEvent   = "InventoryBackorderAllocated"
+	InventoryBackorderCancelledEvent   = "InventoryBackorderCancelled"
 )
 
 // InventoryConsumer handles consuming inventory events from Kafka
@@ -100,6 +106,84 @@ func processInventoryMessage(ctx context.Context, message *sarama.ConsumerMessag
 
 		return handler.HandleInventoryReturned(ctx, event)
 
+	case InventoryReservedEvent:
+		var payload events.InventoryReservedPayload
+		if err := json.Unmarshal(eventMessage.Payload, &payload); err != nil {
+			return err
+		}
+
+		event := &events.InventoryReservedEvent{
+			BaseEvent: eventMessage,
+			Payload:   payload,
+		}
+
+		return handler.HandleInventoryReserved(ctx, event)
+
+	case InventoryReservationConfirmedEvent:
+		var payload events.InventoryReservationConfirmedPayload
+		if err := json.Unmarshal(eventMessage.Payload, &payload); err != nil {
+			return err
+		}
+
+		event := &events.InventoryReservationConfirmedEvent{
+			BaseEvent: eventMessage,
+			Payload:   payload,
+		}
+
+		return handler.HandleInventoryReservationConfirmed(ctx, event)
+
+	case InventoryReservationExpiredEvent:
+		var payload events.InventoryReservationExpiredPayload
+		if err := json.Unmarshal(eventMessage.Payload, &payload); err != nil {
+			return err
+		}
+
+		event := &events.InventoryReservationExpiredEvent{
+			BaseEvent: eventMessage,
+			Payload:   payload,
+		}
+
+		return handler.HandleInventoryReservationExpired(ctx, event)
+
+	case InventoryBackorderedEvent:
+		var payload events.InventoryBackorderedPayload
+		if err := json.Unmarshal(eventMessage.Payload, &payload); err != nil {
+			return err
+		}
+
+		event := &events.InventoryBackorderedEvent{
+			BaseEvent: eventMessage,
+			Payload:   payload,
+		}
+
+		return handler.HandleInventoryBackordered(ctx, event)
+
+	case InventoryBackorderAllocatedEvent:
+		var payload events.InventoryBackorderAllocatedPayload
+		if err := json.Unmarshal(eventMessage.Payload, &payload); err != nil {
+			return err
+		}
+
+		event := &events.InventoryBackorderAllocatedEvent{
+			BaseEvent: eventMessage,
+			Payload:   payload,
+		}
+
+		return handler.HandleInventoryBackorderAllocated(ctx, event)
+
+	case InventoryBackorderCancelledEvent:
+		var payload events.InventoryBackorderCancelledPayload
+		if err := json.Unmarshal(eventMessage.Payload, &payload); err != nil {
+			return err
+		}
+
+		event := &events.InventoryBackorderCancelledEvent{
+			BaseEvent: eventMessage,
+			Payload:   payload,
+		}
+
+		return handler.HandleInventoryBackorderCancelled(ctx, event)
+
 	default:
 		return errors.New("unknown inventory event type: " + eventMessage.EventType)
 	}
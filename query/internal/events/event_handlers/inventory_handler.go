@@ -92,3 +92,83 @@ func (handler *InventoryEventHandler) HandleInventoryReturned(ctx context.Contex
 
 	return handler.inventoryRepo.UpsertByProductId(ctx, inventoryItem)
 }
+
+// HandleInventoryReserved processes an inventory reservation event by decreasing the available
+// quantity of the product by the reserved amount. If the available quantity reaches zero, the
+// inventory item's status is updated to "Out of Stock".
+func (handler *InventoryEventHandler) HandleInventoryReserved(ctx context.Context, event *events.InventoryReservedEvent) error {
+	inventoryItem, err := handler.inventoryRepo.FindByProductId(ctx, event.Payload.ProductID)
+	if err != nil {
+		return err
+	}
+
+	inventoryItem.AvailableQuantity -= event.Payload.Quantity
+
+	if inventoryItem.AvailableQuantity == 0 {
+		inventoryItem.Status = domain.InventoryStatusOutOfStock
+	}
+
+	return handler.inventoryRepo.UpsertByProductId(ctx, inventoryItem)
+}
+
+// HandleInventoryReservationConfirmed processes a reservation confirmation event by adding the
+// reserved quantity to the allocated quantity. The available quantity was already reduced when
+// the inventory was reserved.
+func (handler *InventoryEventHandler) HandleInventoryReservationConfirmed(ctx context.Context, event *events.InventoryReservationConfirmedEvent) error {
+	inventoryItem, err := handler.inventoryRepo.FindByProductId(ctx, event.Payload.ProductID)
+	if err != nil {
+		return err
+	}
+
+	inventoryItem.AllocatedQuantity += event.Payload.Quantity
+
+	return handler.inventoryRepo.UpsertByProductId(ctx, inventoryItem)
+}
+
+// HandleInventoryReservationExpired processes a reservation expiry event by returning the
+// reserved quantity to the available quantity.
+func (handler *InventoryEventHandler) HandleInventoryReservationExpired(ctx context.Context, event *events.InventoryReservationExpiredEvent) error {
+	inventoryItem, err := handler.inventoryRepo.FindByProductId(ctx, event.Payload.ProductID)
+	if err != nil {
+		return err
+	}
+
+	inventoryItem.AvailableQuantity += event.Payload.Quantity
+
+	if inventoryItem.Status == domain.InventoryStatusOutOfStock && inventoryItem.AvailableQuantity > 0 {
+		inventoryItem.Status = domain.InventoryStatusAvailable
+	}
+
+	return handler.inventoryRepo.UpsertByProductId(ctx, inventoryItem)
+}
+
+// HandleInventoryBackordered processes a backorder event. A backordered line takes nothing from
+// the available quantity until stock arrives for it, so the inventory item is left unchanged.
+func (handler *InventoryEventHandler) HandleInventoryBackordered(ctx context.Context, event *events.InventoryBackorderedEvent) error {
+	return nil
+}
+
+// HandleInventoryBackorderAllocated processes a filled backorder by moving its quantity from the
+// available to the allocated quantity, like an allocation. If the available quantity reaches zero,
+// the inventory item's status is updated to "Out of Stock".
+func (handler *InventoryEventHandler) HandleInventoryBackorderAllocated(ctx context.Context, event *events.InventoryBackorderAllocatedEvent) error {
+	inventoryItem, err := handler.inventoryRepo.FindByProductId(ctx, event.Payload.ProductID)
+	if err != nil {
+		return err
+	}
+
+	inventoryItem.AvailableQuantity -= event.Payload.Quantity
+	inventoryItem.AllocatedQuantity += event.Payload.Quantity
+
+	if inventoryItem.AvailableQuantity == 0 {
+		inventoryItem.Status = domain.InventoryStatusOutOfStock
+	}
+
+	return handler.inventoryRepo.UpsertByProductId(ctx, inventoryItem)
+}
+
+// HandleInventoryBackorderCancelled processes a withdrawn backorder. The line never held any
+// inventory, so the inventory item is left unchanged.
+func (handler *InventoryEventHandler) HandleInventoryBackorderCancelled(ctx context.Context, event *events.InventoryBackorderCancelledEvent) error {
+	return nil
+}
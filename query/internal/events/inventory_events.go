@@ -40,3 +40,90 @@ type InventoryReturnedEvent struct {
 	BaseEvent
 	Payload InventoryReturnedPayload
 }
+
+// InventoryReservedPayload represents the payload when inventory is reserved for a limited time
+type InventoryReservedPayload struct {
+	ProductID     string     `json:"productId"`
+	ReservationID string     `json:"reservationId"`
+	Quantity      int        `json:"quantity"`
+	ExpiresAt     CustomTime `json:"expiresAt"`
+}
+
+// InventoryReservedEvent represents an event indicating that inventory has been reserved.
+// It extends the BaseEvent and contains payload with information about the reservation.
+type InventoryReservedEvent struct {
+	BaseEvent
+	Payload InventoryReservedPayload
+}
+
+// InventoryReservationConfirmedPayload represents the payload when a reservation is allocated to an order
+type InventoryReservationConfirmedPayload struct {
+	ProductID     string `json:"productId"`
+	ReservationID string `json:"reservationId"`
+	OrderID       string `json:"orderId"`
+	Quantity      int    `json:"quantity"`
+}
+
+// InventoryReservationConfirmedEvent represents an event indicating that a reservation has been confirmed.
+// It extends the BaseEvent and contains payload with information about the confirmed reservation.
+type InventoryReservationConfirmedEvent struct {
+	BaseEvent
+	Payload InventoryReservationConfirmedPayload
+}
+
+// InventoryReservationExpiredPayload represents the payload when a reservation is released after its deadline
+type InventoryReservationExpiredPayload struct {
+	ProductID     string `json:"productId"`
+	ReservationID string `json:"reservationId"`
+	Quantity      int    `json:"quantity"`
+}
+
+// InventoryReservationExpiredEvent represents an event indicating that a reservation has expired.
+// It extends the BaseEvent and contains payload with information about the released reservation.
+type InventoryReservationExpiredEvent struct {
+	BaseEvent
+	Payload InventoryReservationExpiredPayload
+}
+
+// InventoryBackorderedPayload represents the payload when an order line is queued until stock arrives
+type InventoryBackorderedPayload struct {
+	ProductID string `json:"productId"`
+	OrderID   string `json:"orderId"`
+	Quantity  int    `json:"quantity"`
+	Priority  int    `json:"priority"`
+}
+
+// InventoryBackorderedEvent represents an event indicating that an order line has been backordered.
+// It extends the BaseEvent and contains payload with information about the backorder.
+type InventoryBackorderedEvent struct {
+	BaseEvent
+	Payload InventoryBackorderedPayload
+}
+
+// InventoryBackorderAllocatedPayload represents the payload when arriving stock is allocated to a backorder
+type InventoryBackorderAllocatedPayload struct {
+	ProductID string `json:"productId"`
+	OrderID   string `json:"orderId"`
+	Quantity  int    `json:"quantity"`
+}
+
+// InventoryBackorderAllocatedEvent represents an event indicating that a backorder has been filled.
+// It extends the BaseEvent and contains payload with information about the filled backorder.
+type InventoryBackorderAllocatedEvent struct {
+	BaseEvent
+	Payload InventoryBackorderAllocatedPayload
+}
+
+// InventoryBackorderCancelledPayload represents the payload when a backorder is withdrawn
+type InventoryBackorderCancelledPayload struct {
+	ProductID string `json:"productId"`
+	OrderID   string `json:"orderId"`
+	Quantity  int    `json:"quantity"`
+}
+
+// InventoryBackorderCancelledEvent represents an event indicating that a backorder has been cancelled.
+// It extends the BaseEvent and contains payload with information about the cancelled backorder.
+type InventoryBackorderCancelledEvent struct {
+	BaseEvent
+	Payload InventoryBackorderCancelledPayload
+}
@@ -0,0 +1,45 @@
+#!/usr/bin/env python3
+"""Compares two JMH JSON result files, e.g. a baseline and the current run.
+
+Usage: compare-benchmarks.py BASELINE.json CURRENT.json
+
+Prints every benchmark present in both files with its parameters, both scores
+and the relative change. Changes smaller than the combined error are marked
+with '~' because they are within the noise of the runs.
+"""
+import json
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for result in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted(result.get("params", {}).items()))
+            metric = result["primaryMetric"]
+            results[(result["benchmark"], params)] = metric
+        return results
+
+
+def main():
+    if len(sys.argv) != 3:
+        sys.exit(__doc__)
+    baseline, current = load(sys.argv[1]), load(sys.argv[2])
+    print(f"{'benchmark':60} {'params':40} {'baseline':>12} {'current':>12} {'change':>9}  unit")
+    for key in sorted(baseline.keys() & current.keys()):
+        before, after = baseline[key], current[key]
+        change = (after["score"] - before["score"]) / before["score"] * 100 if before["score"] else 0
+        noise = abs(after["score"] - before["score"]) <= (before.get("scoreError") or 0) + (
+            after.get("scoreError") or 0
+        )
+        name = key[0].rsplit(".", 2)[-2] + "." + key[0].rsplit(".", 1)[-1]
+        print(
+            f"{name:60} {key[1]:40} {before['score']:12.1f} {after['score']:12.1f} "
+            f"{change:+8.1f}%{'~' if noise else ' '} {after['scoreUnit']}"
+        )
+    for key in sorted(baseline.keys() ^ current.keys()):
+        print(f"only in {'baseline' if key in baseline else 'current'}: {key[0]} {key[1]}")
+
+
+if __name__ == "__main__":
+    main()